@@ -0,0 +1,87 @@
+package at.aau.se2.cluedo.config;
+
+import at.aau.se2.cluedo.dto.binary.BinaryCodecs;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.util.MimeType;
+
+/**
+ * Converts the messages that have a binary codec. Sent messages stay JSON, unless the binary
+ * format was asked for by content-type, and carry their binary encoding along while a session
+ * receives the binary format, see {@link WireFormat}. Messages from clients are decoded from the
+ * binary format when their content-type says so. Everything else is left to the next converter.
+ */
+public class BinaryMessageConverter implements MessageConverter {
+
+    private final BinaryCodecs codecs;
+    private final WireFormat wireFormat;
+    private final MessageConverter json;
+
+    /**
+     * @param codecs
+     * @param wireFormat sessions that receive the binary format
+     * @param json converter of the default format
+     */
+    public BinaryMessageConverter(BinaryCodecs codecs, WireFormat wireFormat, MessageConverter json) {
+        this.codecs = codecs;
+        this.wireFormat = wireFormat;
+        this.json = json;
+    }
+
+    @Override
+    public Object fromMessage(Message<?> message, Class<?> targetClass) {
+        if (!WireFormat.isBinary(contentTypeOf(message.getHeaders())) || !codecs.supports(targetClass)
+                || !(message.getPayload() instanceof byte[] payload)) {
+            return null;
+        }
+        try {
+            return codecs.decode(payload, targetClass);
+        } catch (IllegalArgumentException e) {
+            throw new MessageConversionException(message, "Invalid binary " + targetClass.getSimpleName() + ": "
+                    + e.getMessage());
+        }
+    }
+
+    @Override
+    public Message<?> toMessage(Object payload, MessageHeaders headers) {
+        if (!codecs.supports(payload.getClass())) {
+            return null;
+        }
+        if (WireFormat.isBinary(contentTypeOf(headers))) {
+            return withHeaders(codecs.encode(payload), headers, null);
+        }
+        Message<?> message = json.toMessage(payload, headers);
+        if (message == null || !wireFormat.hasBinarySessions()) {
+            return message;
+        }
+        return withHeaders(message.getPayload(), message.getHeaders(), codecs.encode(payload));
+    }
+
+    private static Message<?> withHeaders(Object payload, MessageHeaders headers, byte[] binary) {
+        MessageHeaderAccessor accessor = headers == null ? new MessageHeaderAccessor()
+                : MessageHeaderAccessor.getAccessor(headers, MessageHeaderAccessor.class);
+        if (accessor != null && accessor.isMutable()) {
+            if (binary != null) {
+                accessor.setHeader(WireFormat.BINARY_PAYLOAD_HEADER, binary);
+            }
+            return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+        }
+        MessageBuilder<?> builder = MessageBuilder.withPayload(payload).copyHeaders(headers);
+        if (binary != null) {
+            builder.setHeader(WireFormat.BINARY_PAYLOAD_HEADER, binary);
+        }
+        return builder.build();
+    }
+
+    private static MimeType contentTypeOf(MessageHeaders headers) {
+        Object contentType = headers == null ? null : headers.get(MessageHeaders.CONTENT_TYPE);
+        if (contentType instanceof MimeType mimeType) {
+            return mimeType;
+        }
+        return contentType instanceof String value ? MimeType.valueOf(value) : null;
+    }
+}
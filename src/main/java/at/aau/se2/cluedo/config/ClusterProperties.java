@@ -0,0 +1,67 @@
+package at.aau.se2.cluedo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Nodes sharing the lobbies, set with {@code cluedo.cluster.*}:
+ * <pre>
+ * cluedo.cluster.enabled=true
+ * cluedo.cluster.node-id=a
+ * cluedo.cluster.secret=change-me
+ * cluedo.cluster.nodes[0].id=a
+ * cluedo.cluster.nodes[0].url=ws://localhost:8321/ws
+ * cluedo.cluster.nodes[1].id=b
+ * cluedo.cluster.nodes[1].url=ws://localhost:8322/ws
+ * </pre>
+ * Every node is configured with the same list, its own entry included.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "cluedo.cluster")
+public class ClusterProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Id of this node in {@link #nodes}.
+     */
+    private String nodeId = "local";
+
+    /**
+     * Points per node on the hash ring, more points spread the lobbies more evenly.
+     */
+    private int virtualNodes = 128;
+
+    /**
+     * Shared by the nodes, a connection only counts as a node when it presents it. Required
+     * with {@link #enabled}, a node doesn't start without it.
+     */
+    private String secret = "";
+
+    /**
+     * Milliseconds to wait for the connection to another node.
+     */
+    private long connectTimeoutMs = 5000;
+
+    private List<Node> nodes = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Node {
+        private String id;
+        private String url;
+
+        public Node() {
+        }
+
+        public Node(String id, String url) {
+            this.id = id;
+            this.url = url;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package at.aau.se2.cluedo.config;
+
+import at.aau.se2.cluedo.services.LobbyDispatcher;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merges the broadcasts of a lobby into one frame on {@link #TOPIC}{@code <lobbyId>}. Registered on
+ * the brokerChannel with {@code cluedo.messaging.batching.enabled}, so it sees {@code @SendTo} replies
+ * and the sends of controllers and services alike.
+ * <p>
+ * A broadcast to {@code /topic/<name>/<lobbyId>} sent while the lobby's mailbox applies a command
+ * is held back instead of reaching the broker. After the command, or with a window after
+ * {@code window-ms}, the held broadcasts go out as
+ * <pre>
+ * {"lobbyId":"...","events":[{"destination":"/topic/currentTurn/...","payload":{...}}, ...]}
+ * </pre>
+ * in the order they were sent. Batches are flushed on the lobby's mailbox, so they keep the order
+ * of its commands. Per-player topics, broadcasts of other lobbies and broadcasts sent from outside
+ * the mailbox go to the broker as before. Batch frames are JSON only, clients on the binary
+ * format get them as JSON too.
+ */
+public class LobbyEventBatcher implements ExecutorChannelInterceptor, AutoCloseable {
+
+    public static final String TOPIC = "/topic/lobbyEvents/";
+    // marks the broadcasts that are held back, the broker handlers skip them
+    static final String HELD_HEADER = "cluedoBatched";
+
+    private static final String TOPIC_PREFIX = "/topic/";
+    private static final byte[] EVENTS = "\",\"events\":[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] DESTINATION = "{\"destination\":\"".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] PAYLOAD = "\",\"payload\":".getBytes(StandardCharsets.UTF_8);
+
+    // broadcasts held back for a lobby, only touched on the lobby's mailbox
+    private static final class Batch {
+        private final MessageChannel channel;
+        private final List<Message<?>> messages = new ArrayList<>();
+
+        private Batch(MessageChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    private final LobbyDispatcher lobbyDispatcher;
+    private final long windowMs;
+    private final int maxEvents;
+    private final Map<String, Batch> batches = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flushScheduler;
+    private final Counter frames;
+    private final Counter merged;
+
+    public LobbyEventBatcher(LobbyDispatcher lobbyDispatcher, MessagingProperties.Batching batching,
+                             MeterRegistry meterRegistry) {
+        this.lobbyDispatcher = lobbyDispatcher;
+        this.windowMs = batching.getWindowMs();
+        this.maxEvents = Math.max(1, batching.getMaxEvents());
+        this.flushScheduler = windowMs > 0 ? Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "lobby-event-batcher");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+        this.frames = Counter.builder("cluedo.events.batches")
+                .description("Batch frames sent to the lobby event topics")
+                .register(meterRegistry);
+        this.merged = Counter.builder("cluedo.events.batched")
+                .description("Broadcasts merged into batch frames")
+                .register(meterRegistry);
+
+        // the bean exists either way, only an enabled batcher flushes after every command
+        if (batching.isEnabled() && windowMs <= 0) {
+            lobbyDispatcher.addCommandListener(this::flush);
+        }
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String lobbyId = lobbyDispatcher.getCurrentLobby();
+        if (lobbyId == null || !isBatched(message, lobbyId)) {
+            return message;
+        }
+
+        Batch batch = batches.get(lobbyId);
+        if (batch == null) {
+            batch = new Batch(channel);
+            batches.put(lobbyId, batch);
+            if (flushScheduler != null) {
+                flushScheduler.schedule(() -> lobbyDispatcher.executeQuietly(lobbyId, () -> flush(lobbyId)),
+                        windowMs, TimeUnit.MILLISECONDS);
+            }
+        }
+        batch.messages.add(message);
+        if (batch.messages.size() >= maxEvents) {
+            flush(lobbyId);
+        }
+        // dropping it here would fail the send, it is skipped before the handlers instead
+        return MessageBuilder.fromMessage(message).setHeader(HELD_HEADER, Boolean.TRUE).build();
+    }
+
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        return message.getHeaders().containsKey(HELD_HEADER) ? null : message;
+    }
+
+    // a JSON or text broadcast to /topic/<name>/<lobbyId> of the lobby being dispatched
+    private static boolean isBatched(Message<?> message, String lobbyId) {
+        if (!(message.getPayload() instanceof byte[])
+                || SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+            return false;
+        }
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (destination == null || !destination.startsWith(TOPIC_PREFIX) || destination.startsWith(TOPIC)) {
+            return false;
+        }
+        int nameEnd = destination.indexOf('/', TOPIC_PREFIX.length());
+        if (nameEnd < 0 || !destination.endsWith(lobbyId) || destination.length() - lobbyId.length() != nameEnd + 1) {
+            return false;
+        }
+        MimeType contentType = (MimeType) message.getHeaders().get(MessageHeaders.CONTENT_TYPE);
+        return contentType == null || isJson(contentType) || "text".equals(contentType.getType());
+    }
+
+    private static boolean isJson(MimeType contentType) {
+        return MimeTypeUtils.APPLICATION_JSON.equalsTypeAndSubtype(contentType)
+                || contentType.getSubtype().endsWith("+json");
+    }
+
+    /**
+     * Send what is held back for a lobby as one frame, on the lobby's mailbox
+     * @param lobbyId
+     */
+    void flush(String lobbyId) {
+        Batch batch = batches.remove(lobbyId);
+        if (batch == null || batch.messages.isEmpty()) {
+            return;
+        }
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(TOPIC + lobbyId);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        batch.channel.send(MessageBuilder.createMessage(encode(lobbyId, batch.messages), accessor.getMessageHeaders()));
+        frames.increment();
+        merged.increment(batch.messages.size());
+    }
+
+    static byte[] encode(String lobbyId, List<Message<?>> messages) {
+        JsonStringEncoder encoder = JsonStringEncoder.getInstance();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        out.writeBytes("{\"lobbyId\":\"".getBytes(StandardCharsets.UTF_8));
+        out.writeBytes(encoder.quoteAsUTF8(lobbyId));
+        out.writeBytes(EVENTS);
+        for (int i = 0; i < messages.size(); i++) {
+            Message<?> message = messages.get(i);
+            if (i > 0) {
+                out.write(',');
+            }
+            out.writeBytes(DESTINATION);
+            out.writeBytes(encoder.quoteAsUTF8(SimpMessageHeaderAccessor.getDestination(message.getHeaders())));
+            out.writeBytes(PAYLOAD);
+
+            byte[] payload = (byte[]) message.getPayload();
+            MimeType contentType = (MimeType) message.getHeaders().get(MessageHeaders.CONTENT_TYPE);
+            if (payload.length > 0 && contentType != null && isJson(contentType)) {
+                out.writeBytes(payload);
+            } else {
+                // text payloads become JSON strings
+                out.write('"');
+                out.writeBytes(encoder.quoteAsUTF8(new String(payload, StandardCharsets.UTF_8)));
+                out.write('"');
+            }
+            out.write('}');
+        }
+        out.writeBytes("]}".getBytes(StandardCharsets.UTF_8));
+        return out.toByteArray();
+    }
+
+    public int getPendingLobbyCount() {
+        return batches.size();
+    }
+
+    @Override
+    public void close() {
+        if (flushScheduler != null) {
+            flushScheduler.shutdownNow();
+        }
+    }
+}
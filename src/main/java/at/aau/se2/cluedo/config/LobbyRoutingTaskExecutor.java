@@ -0,0 +1,106 @@
+package at.aau.se2.cluedo.config;
+
+import at.aau.se2.cluedo.services.LobbyDispatcher;
+import at.aau.se2.cluedo.services.LobbyRegistry;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Executor of the clientInboundChannel. Application messages addressed to an existing lobby
+ * ({@code /app/<action>/<lobbyId>/...} with one of the {@link #LOBBY_ACTIONS}) are handed to that
+ * lobby's mailbox so they are handled one after another; everything else runs on the regular
+ * inbound thread pool, so made-up ids never get a mailbox. A handoff brings a lobby that doesn't
+ * exist here yet, it gets a mailbox only if it comes from the session of another node.
+ */
+public class LobbyRoutingTaskExecutor extends ThreadPoolTaskExecutor {
+
+    private static final String APP_PREFIX = "/app/";
+
+    // actions whose second segment is a lobby id, e.g. not /app/queryLobbies/{clientId}
+    static final Set<String> LOBBY_ACTIONS = Set.of(
+            "joinLobby", "leaveLobby", "canStartGame", "skipTurn", "checkPlayerTurn",
+            "startGame", "initializeTurns", "getTurnState",
+            "rollDice", "performMovement", "reachableTargets", "moveTo", "completeMovement",
+            "getGameBoardGrid", "getGameData", "displayGameBoard", "getGameBoard",
+            "makeSuggestion", "processSuggestion", "makeAccusation");
+    // taken over from another node, the lobby doesn't exist here yet
+    private static final String HANDOFF_ACTION = "handoff";
+
+    private final transient LobbyDispatcher lobbyDispatcher;
+    private final transient LobbyRegistry lobbyRegistry;
+    private final transient Predicate<String> linkSessions;
+
+    /**
+     * An executor without other nodes, handoffs run on the thread pool
+     */
+    public LobbyRoutingTaskExecutor(LobbyDispatcher lobbyDispatcher, LobbyRegistry lobbyRegistry) {
+        this(lobbyDispatcher, lobbyRegistry, sessionId -> false);
+    }
+
+    /**
+     * @param lobbyDispatcher
+     * @param lobbyRegistry
+     * @param linkSessions true for the session ids of connections of other nodes
+     */
+    public LobbyRoutingTaskExecutor(LobbyDispatcher lobbyDispatcher, LobbyRegistry lobbyRegistry,
+                                    Predicate<String> linkSessions) {
+        this.lobbyDispatcher = lobbyDispatcher;
+        this.lobbyRegistry = lobbyRegistry;
+        this.linkSessions = linkSessions;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        String lobbyId = task instanceof MessageHandlingRunnable runnable ? mailboxOf(runnable.getMessage()) : null;
+        if (lobbyId != null) {
+            lobbyDispatcher.execute(lobbyId, task);
+        } else {
+            super.execute(task);
+        }
+    }
+
+    // the lobby whose mailbox handles the message, null for the thread pool
+    private String mailboxOf(Message<?> message) {
+        String action = actionOf(SimpMessageHeaderAccessor.getDestination(message.getHeaders()));
+        String lobbyId = lobbyIdOf(message);
+        if (action == null || lobbyId == null) {
+            return null;
+        }
+        if (action.equals(HANDOFF_ACTION)) {
+            return linkSessions.test(SimpMessageHeaderAccessor.getSessionId(message.getHeaders())) ? lobbyId : null;
+        }
+        return LOBBY_ACTIONS.contains(action) && lobbyRegistry.hasLobby(lobbyId) ? lobbyId : null;
+    }
+
+    private static String actionOf(String destination) {
+        if (destination == null || !destination.startsWith(APP_PREFIX)) {
+            return null;
+        }
+        int actionEnd = destination.indexOf('/', APP_PREFIX.length());
+        return actionEnd < 0 ? null : destination.substring(APP_PREFIX.length(), actionEnd);
+    }
+
+    /**
+     * @param message
+     * @return the second segment of {@code /app/<action>/<id>/...}, a lobby id or another id
+     * used in destinations; null if there is none
+     */
+    public static String lobbyIdOf(Message<?> message) {
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (destination == null || !destination.startsWith(APP_PREFIX)) {
+            return null;
+        }
+
+        int actionEnd = destination.indexOf('/', APP_PREFIX.length());
+        if (actionEnd < 0 || actionEnd == destination.length() - 1) {
+            return null;
+        }
+        int lobbyEnd = destination.indexOf('/', actionEnd + 1);
+        return lobbyEnd < 0 ? destination.substring(actionEnd + 1) : destination.substring(actionEnd + 1, lobbyEnd);
+    }
+}
@@ -0,0 +1,196 @@
+package at.aau.se2.cluedo.config;
+
+import at.aau.se2.cluedo.services.events.LobbyEventLog;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Thread pools of the STOMP channels, set with {@code cluedo.messaging.*}:
+ * <pre>
+ * cluedo.messaging.virtual-threads=true
+ * cluedo.messaging.inbound.core-pool-size=16
+ * cluedo.messaging.outbound.queue-capacity=10000
+ * cluedo.messaging.broker.core-pool-size=4
+ * cluedo.messaging.relay.enabled=true
+ * cluedo.messaging.relay.host=broker.example.org
+ * cluedo.messaging.session-queue.max-bytes=524288
+ * cluedo.messaging.binary-format=false
+ * cluedo.messaging.batching.enabled=true
+ * cluedo.messaging.resume.capacity=256
+ * </pre>
+ * The broker channel sends on the publishing thread unless it gets a pool of its own, which
+ * keeps the broadcasts of a lobby in the order its mailbox published them.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "cluedo.messaging")
+public class MessagingProperties {
+
+    /**
+     * Run the channel executors and the lobby workers on virtual threads (Java 21 and newer).
+     */
+    private boolean virtualThreads = false;
+
+    /**
+     * Offer the binary format to clients that accept it, see {@link WireFormat}.
+     */
+    private boolean binaryFormat = true;
+
+    private Pool inbound = new Pool(Runtime.getRuntime().availableProcessors() * 2);
+
+    private Pool outbound = new Pool(Runtime.getRuntime().availableProcessors() * 2);
+
+    private Pool broker = new Pool(0);
+
+    private Relay relay = new Relay();
+
+    private SessionQueue sessionQueue = new SessionQueue();
+
+    private Batching batching = new Batching();
+
+    private Resume resume = new Resume();
+
+    @Getter
+    @Setter
+    public static class Pool {
+        private int corePoolSize;
+        private int maxPoolSize = Integer.MAX_VALUE;
+        private int queueCapacity = Integer.MAX_VALUE;
+        private int keepAliveSeconds = 60;
+
+        public Pool() {
+        }
+
+        Pool(int corePoolSize) {
+            this.corePoolSize = corePoolSize;
+        }
+
+        /**
+         * Configure an executor with this pool. With a virtual thread factory every task gets a new
+         * or idle thread and only maxPoolSize limits how many run at once.
+         * @param executor
+         * @param namePrefix
+         * @param virtualThreadFactory null for platform threads
+         * @return the executor
+         */
+        <T extends ThreadPoolTaskExecutor> T applyTo(T executor, String namePrefix, ThreadFactory virtualThreadFactory) {
+            executor.setThreadNamePrefix(namePrefix);
+            executor.setMaxPoolSize(maxPoolSize);
+            executor.setKeepAliveSeconds(keepAliveSeconds);
+            if (virtualThreadFactory != null) {
+                executor.setThreadFactory(virtualThreadFactory);
+                executor.setCorePoolSize(0);
+                executor.setQueueCapacity(0);
+            } else {
+                executor.setCorePoolSize(corePoolSize);
+                executor.setQueueCapacity(queueCapacity);
+            }
+            return executor;
+        }
+    }
+
+    /**
+     * External STOMP broker that takes over the subscriptions and the fan-out of /topic from the
+     * in-memory simple broker.
+     */
+    @Getter
+    @Setter
+    public static class Relay {
+        private boolean enabled = false;
+        private String host = "localhost";
+        private int port = 61613;
+        private String clientLogin = "guest";
+        private String clientPasscode = "guest";
+        private String systemLogin = "guest";
+        private String systemPasscode = "guest";
+        private String virtualHost;
+        private long systemHeartbeatSendIntervalMs = 10000;
+        private long systemHeartbeatReceiveIntervalMs = 10000;
+
+        void applyTo(StompBrokerRelayRegistration registration) {
+            registration.setRelayHost(host)
+                    .setRelayPort(port)
+                    .setClientLogin(clientLogin)
+                    .setClientPasscode(clientPasscode)
+                    .setSystemLogin(systemLogin)
+                    .setSystemPasscode(systemPasscode)
+                    .setSystemHeartbeatSendInterval(systemHeartbeatSendIntervalMs)
+                    .setSystemHeartbeatReceiveInterval(systemHeartbeatReceiveIntervalMs);
+            if (virtualHost != null) {
+                registration.setVirtualHost(virtualHost);
+            }
+        }
+    }
+
+    /**
+     * What is sent to a client waits in a queue of its session. Queued messages to a coalesced
+     * destination are replaced by newer ones to the same destination.
+     */
+    @Getter
+    @Setter
+    public static class SessionQueue {
+
+        public enum Overflow {
+            /**
+             * Close the session, the client reconnects and fetches the state again
+             */
+            CLOSE,
+            /**
+             * Drop the oldest queued messages until the queue fits again
+             */
+            DROP_OLDEST
+        }
+
+        private boolean enabled = true;
+        private int maxMessages = 500;
+        private long maxBytes = 1024 * 1024;
+        private Overflow overflow = Overflow.CLOSE;
+        /**
+         * Destination prefixes whose messages are full snapshots, only the newest queued one is sent.
+         */
+        private List<String> coalesce = new ArrayList<>(List.of("/topic/gameData/", "/topic/currentTurn/",
+                "/topic/performMovement/"));
+    }
+
+    /**
+     * The broadcasts a lobby command sends are merged into one frame, see {@link LobbyEventBatcher}.
+     */
+    @Getter
+    @Setter
+    public static class Batching {
+        private boolean enabled = false;
+        /**
+         * Collect the broadcasts of a lobby for this long instead of per command, 0 for per command.
+         */
+        private long windowMs = 0;
+        /**
+         * Send a batch early once it holds this many broadcasts.
+         */
+        private int maxEvents = 100;
+    }
+
+    /**
+     * Every lobby keeps its last broadcasts, so a client can resume after it lost its connection,
+     * see {@link ResumeInterceptor}.
+     */
+    @Getter
+    @Setter
+    public static class Resume {
+        private boolean enabled = true;
+        /**
+         * Broadcasts kept per lobby.
+         */
+        private int capacity = LobbyEventLog.DEFAULT_CAPACITY;
+        /**
+         * Payload bytes kept per lobby, the oldest broadcasts are dropped first.
+         */
+        private long maxBytes = LobbyEventLog.DEFAULT_MAX_BYTES;
+    }
+}
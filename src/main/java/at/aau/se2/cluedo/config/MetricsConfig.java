@@ -0,0 +1,58 @@
+package at.aau.se2.cluedo.config;
+
+import at.aau.se2.cluedo.services.GameService;
+import at.aau.se2.cluedo.services.LobbyDispatcher;
+import at.aau.se2.cluedo.services.LobbyRegistry;
+import at.aau.se2.cluedo.services.TurnService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Gauges for the server state and the lobby workers. Channel traffic is measured by
+ * {@link StompMetricsInterceptor}, the channel executors are bound by Spring Boot as
+ * {@code executor.*} metrics. Everything is exposed on /actuator/prometheus.
+ */
+@Configuration
+public class MetricsConfig {
+
+    // destinations come from clients, unknown ones must not create meters without bound
+    private static final int MAX_DESTINATIONS = 100;
+
+    @Bean
+    public MeterFilter stompDestinationLimit() {
+        return MeterFilter.maximumAllowableTags("cluedo.stomp", "destination", MAX_DESTINATIONS, MeterFilter.deny());
+    }
+
+    @Bean
+    public MeterBinder gameStateMetrics(LobbyRegistry lobbyRegistry, GameService gameService, TurnService turnService) {
+        return registry -> {
+            Gauge.builder("cluedo.lobbies", lobbyRegistry, LobbyRegistry::getLobbyCount)
+                    .description("Open lobbies")
+                    .register(registry);
+            Gauge.builder("cluedo.games.active", gameService, GameService::getActiveGameCount)
+                    .description("Games started and not removed yet")
+                    .register(registry);
+            Gauge.builder("cluedo.suggestions.pending", turnService, TurnService::getPendingSuggestionCount)
+                    .description("Players the server waits on for a suggestion response")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder lobbyDispatcherMetrics(LobbyDispatcher lobbyDispatcher) {
+        return registry -> {
+            Gauge.builder("cluedo.dispatcher.mailboxes", lobbyDispatcher, LobbyDispatcher::getMailboxCount)
+                    .description("Lobbies with a mailbox")
+                    .register(registry);
+            Gauge.builder("cluedo.dispatcher.queued", lobbyDispatcher, LobbyDispatcher::getQueuedCommandCount)
+                    .description("Commands waiting in lobby mailboxes")
+                    .register(registry);
+            new ExecutorServiceMetrics(lobbyDispatcher.getWorkers(), "lobbyWorkers", Tags.empty()).bindTo(registry);
+        };
+    }
+}
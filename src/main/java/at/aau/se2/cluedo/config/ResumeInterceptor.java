@@ -0,0 +1,194 @@
+package at.aau.se2.cluedo.config;
+
+import at.aau.se2.cluedo.dto.GameDataResponse;
+import at.aau.se2.cluedo.dto.ResumeSnapshot;
+import at.aau.se2.cluedo.services.LobbyDispatcher;
+import at.aau.se2.cluedo.services.cluster.ShardRouter;
+import at.aau.se2.cluedo.services.events.LobbyEventLog;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Lets a client pick up where it lost its connection. On the brokerChannel every broadcast to
+ * {@code /topic/<name>/<lobbyId>...} is kept in the {@link LobbyEventLog} and gets the lobby's next
+ * number in its {@value #SEQ_HEADER} header.
+ * <p>
+ * On the clientInboundChannel, a SUBSCRIBE with a {@value #RESUME_HEADER} header of the last number
+ * the client got is answered with what it missed on that destination, marked with
+ * {@value #REPLAY_HEADER}. If the log dropped some of it already, the subscription gets one
+ * {@link ResumeSnapshot} marked with {@value #SNAPSHOT_HEADER} instead. Both are sent on the
+ * lobby's mailbox after the broker took the subscription, so nothing falls between them and the
+ * live broadcasts. A broadcast sent while the client subscribes may come twice, clients skip
+ * numbers they already have.
+ * <p>
+ * Numbers are kept per node. Broadcasts a node republishes from another node's link only carry
+ * destination, content type and payload, and the node only receives them while its own clients
+ * subscribe, so they are not numbered: resume covers the lobbies of the node the client is
+ * connected to. A resume on another node finds no log and gets a snapshot.
+ */
+public class ResumeInterceptor implements ExecutorChannelInterceptor {
+    private static final Logger logger = LoggerFactory.getLogger(ResumeInterceptor.class);
+
+    public static final String SEQ_HEADER = "seq";
+    public static final String RESUME_HEADER = "resume-from";
+    public static final String REPLAY_HEADER = "replay";
+    public static final String SNAPSHOT_HEADER = "snapshot";
+
+    private static final String TOPIC_PREFIX = "/topic/";
+
+    private final LobbyEventLog eventLog;
+    private final LobbyDispatcher lobbyDispatcher;
+    private final Function<String, GameDataResponse> snapshots;
+    private final ObjectMapper objectMapper;
+    private final Supplier<MessageChannel> clientOutboundChannel;
+    private final Counter replayed;
+    private final Counter snapshotsSent;
+
+    /**
+     * @param eventLog
+     * @param lobbyDispatcher
+     * @param snapshots game data of a lobby, null if it has no game
+     * @param objectMapper
+     * @param clientOutboundChannel looked up on first use, it is created after the interceptors
+     * @param meterRegistry
+     */
+    public ResumeInterceptor(LobbyEventLog eventLog, LobbyDispatcher lobbyDispatcher,
+                             Function<String, GameDataResponse> snapshots, ObjectMapper objectMapper,
+                             Supplier<MessageChannel> clientOutboundChannel, MeterRegistry meterRegistry) {
+        this.eventLog = eventLog;
+        this.lobbyDispatcher = lobbyDispatcher;
+        this.snapshots = snapshots;
+        this.objectMapper = objectMapper;
+        this.clientOutboundChannel = clientOutboundChannel;
+        this.replayed = Counter.builder("cluedo.resume.replayed")
+                .description("Broadcasts sent again to resuming clients")
+                .register(meterRegistry);
+        this.snapshotsSent = Counter.builder("cluedo.resume.snapshots")
+                .description("Snapshots sent to resuming clients that missed too much")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE
+                || !(message.getPayload() instanceof byte[])
+                || message.getHeaders().containsKey(LobbyEventBatcher.HELD_HEADER)) {
+            return message;
+        }
+        String lobbyId = lobbyIdOf(SimpMessageHeaderAccessor.getDestination(message.getHeaders()));
+        // numbered already when sent through the channel again; another node's broadcasts are not
+        // numbered here, this node only gets them while its clients subscribe
+        if (lobbyId == null || SimpMessageHeaderAccessor.getFirstNativeHeader(SEQ_HEADER, message.getHeaders()) != null
+                || SimpMessageHeaderAccessor.getFirstNativeHeader(ShardRouter.ORIGIN_HEADER, message.getHeaders()) != null) {
+            return message;
+        }
+
+        long seq = eventLog.append(lobbyId, message);
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        accessor.setNativeHeader(SEQ_HEADER, Long.toString(seq));
+        return MessageBuilder.createMessage(message.getPayload(), accessor.getMessageHeaders());
+    }
+
+    // the id after the topic name, null for destinations without one
+    static String lobbyIdOf(String destination) {
+        if (destination == null || !destination.startsWith(TOPIC_PREFIX)) {
+            return null;
+        }
+        int nameEnd = destination.indexOf('/', TOPIC_PREFIX.length());
+        if (nameEnd < 0 || nameEnd == destination.length() - 1) {
+            return null;
+        }
+        int idEnd = destination.indexOf('/', nameEnd + 1);
+        return idEnd < 0 ? destination.substring(nameEnd + 1) : destination.substring(nameEnd + 1, idEnd);
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        // once the broker has the subscription
+        if (ex != null || !(handler instanceof AbstractBrokerMessageHandler)
+                || SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.SUBSCRIBE) {
+            return;
+        }
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+        String resumeFrom = accessor.getFirstNativeHeader(RESUME_HEADER);
+        String lobbyId = lobbyIdOf(accessor.getDestination());
+        if (resumeFrom == null || lobbyId == null) {
+            return;
+        }
+
+        long seq;
+        try {
+            seq = Long.parseLong(resumeFrom.trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Ignoring invalid {} header {} of session {}", RESUME_HEADER, resumeFrom, accessor.getSessionId());
+            return;
+        }
+        String destination = accessor.getDestination();
+        String sessionId = accessor.getSessionId();
+        String subscriptionId = accessor.getSubscriptionId();
+        // a lobby without broadcasts has nothing to order against, e.g. an unknown id gets no mailbox
+        if (eventLog.getLastSeq(lobbyId) == 0) {
+            resume(lobbyId, destination, sessionId, subscriptionId, seq);
+            return;
+        }
+        lobbyDispatcher.executeQuietly(lobbyId, () -> resume(lobbyId, destination, sessionId, subscriptionId, seq));
+    }
+
+    // on the lobby's mailbox, no command of the lobby broadcasts meanwhile
+    private void resume(String lobbyId, String destination, String sessionId, String subscriptionId, long seq) {
+        LobbyEventLog.Replay replay = eventLog.since(lobbyId, seq, destination);
+        if (!replay.complete()) {
+            sendSnapshot(lobbyId, destination, sessionId, subscriptionId, replay.lastSeq());
+            return;
+        }
+
+        for (LobbyEventLog.Entry entry : replay.entries()) {
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(entry.message());
+            accessor.setSessionId(sessionId);
+            accessor.setSubscriptionId(subscriptionId);
+            accessor.setNativeHeader(SEQ_HEADER, Long.toString(entry.seq()));
+            accessor.setNativeHeader(REPLAY_HEADER, "true");
+            clientOutboundChannel.get().send(MessageBuilder.createMessage(entry.message().getPayload(),
+                    accessor.getMessageHeaders()));
+        }
+        replayed.increment(replay.entries().size());
+        logger.debug("Replayed {} broadcasts of {} after {} to session {}", replay.entries().size(), destination, seq, sessionId);
+    }
+
+    private void sendSnapshot(String lobbyId, String destination, String sessionId, String subscriptionId, long lastSeq) {
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(new ResumeSnapshot(lobbyId, lastSeq, snapshots.apply(lobbyId)));
+        } catch (JsonProcessingException e) {
+            logger.error("Failed to write the resume snapshot of lobby {}", lobbyId, e);
+            return;
+        }
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setNativeHeader(SEQ_HEADER, Long.toString(lastSeq));
+        accessor.setNativeHeader(SNAPSHOT_HEADER, "true");
+        clientOutboundChannel.get().send(MessageBuilder.createMessage(payload, accessor.getMessageHeaders()));
+        snapshotsSent.increment();
+    }
+}
@@ -0,0 +1,271 @@
+package at.aau.se2.cluedo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Outbound queue of one WebSocket session. Sending only queues the frame; a drain task on the
+ * executor writes the queue to the client one frame at a time, so a slow client holds up its own
+ * queue only. A queued frame to a coalesced destination is dropped when a newer frame for the same
+ * destination and subscription is queued, the newer one goes to the end of the queue. When the
+ * queue exceeds its bounds the {@link MessagingProperties.SessionQueue.Overflow} policy applies.
+ */
+public class SessionOutboundQueue extends WebSocketSessionDecorator {
+    private static final Logger logger = LoggerFactory.getLogger(SessionOutboundQueue.class);
+
+    private static final String MESSAGE_FRAME = "MESSAGE\n";
+    private static final String DESTINATION_HEADER = "\ndestination:";
+    private static final String SUBSCRIPTION_HEADER = "\nsubscription:";
+
+    private static final class Pending {
+        final String key;
+        final int size;
+        WebSocketMessage<?> message;
+
+        Pending(String key, WebSocketMessage<?> message) {
+            this.key = key;
+            this.size = message.getPayloadLength();
+            this.message = message;
+        }
+    }
+
+    private final Executor executor;
+    private final SessionOutboundQueues queues;
+    private final int maxMessages;
+    private final long maxBytes;
+    private final MessagingProperties.SessionQueue.Overflow overflow;
+    private final List<String> coalesce;
+
+    // guarded by this, superseded entries stay in the deque without their message
+    private final Deque<Pending> queue = new ArrayDeque<>();
+    private final Map<String, Pending> latest = new HashMap<>();
+    private int messages;
+    private long bytes;
+    private boolean draining;
+    // a close requested while frames were still queued, e.g. after an ERROR frame
+    private CloseStatus closeAfterDrain;
+    private volatile boolean closing;
+
+    SessionOutboundQueue(WebSocketSession delegate, Executor executor, SessionOutboundQueues queues,
+                         MessagingProperties.SessionQueue properties) {
+        super(delegate);
+        this.executor = executor;
+        this.queues = queues;
+        this.maxMessages = properties.getMaxMessages();
+        this.maxBytes = properties.getMaxBytes();
+        this.overflow = properties.getOverflow();
+        this.coalesce = List.copyOf(properties.getCoalesce());
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        if (closing) {
+            return;
+        }
+        Pending pending = new Pending(coalesceKey(message), message);
+        boolean close = false;
+        boolean drain = false;
+        synchronized (this) {
+            Pending previous = pending.key == null ? null : latest.put(pending.key, pending);
+            if (previous != null && previous.message != null) {
+                remove(previous);
+                queues.coalesced();
+            }
+            queue.addLast(pending);
+            messages++;
+            bytes += pending.size;
+
+            if (messages > maxMessages || bytes > maxBytes) {
+                if (overflow == MessagingProperties.SessionQueue.Overflow.CLOSE) {
+                    close = true;
+                } else {
+                    dropOldest();
+                }
+            }
+            if (!close && !draining) {
+                draining = true;
+                drain = true;
+            }
+        }
+
+        if (close) {
+            overflowed();
+        } else if (drain) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void dropOldest() {
+        // the newest frame stays even if it alone is over the bounds
+        while ((messages > maxMessages || bytes > maxBytes) && messages > 1) {
+            Pending oldest = queue.pollFirst();
+            if (oldest.message != null) {
+                remove(oldest);
+                latest.remove(oldest.key, oldest);
+                queues.dropped();
+            }
+        }
+    }
+
+    private void remove(Pending pending) {
+        pending.message = null;
+        messages--;
+        bytes -= pending.size;
+    }
+
+    private void overflowed() {
+        closing = true;
+        synchronized (this) {
+            logger.warn("Closing session {}, {} messages with {} bytes are waiting", getId(), messages, bytes);
+            clear();
+        }
+        queues.closed();
+        try {
+            getDelegate().close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException e) {
+            logger.debug("Closing session {} failed: {}", getId(), e.getMessage());
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            WebSocketMessage<?> message;
+            synchronized (this) {
+                Pending next = queue.pollFirst();
+                while (next != null && next.message == null) {
+                    next = queue.pollFirst();
+                }
+                if (next == null || closing) {
+                    draining = false;
+                    break;
+                }
+                message = next.message;
+                remove(next);
+                latest.remove(next.key, next);
+            }
+            try {
+                getDelegate().sendMessage(message);
+            } catch (IOException | RuntimeException e) {
+                logger.debug("Sending to session {} failed: {}", getId(), e.getMessage());
+                discard();
+                synchronized (this) {
+                    draining = false;
+                }
+                return;
+            }
+        }
+        closeIfRequested();
+    }
+
+    private void closeIfRequested() {
+        CloseStatus status;
+        synchronized (this) {
+            status = closeAfterDrain;
+            closeAfterDrain = null;
+        }
+        if (status != null) {
+            try {
+                getDelegate().close(status);
+            } catch (IOException e) {
+                logger.debug("Closing session {} failed: {}", getId(), e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        close(CloseStatus.NORMAL);
+    }
+
+    @Override
+    public void close(CloseStatus status) throws IOException {
+        synchronized (this) {
+            if (draining && !closing) {
+                closeAfterDrain = status;
+                return;
+            }
+        }
+        super.close(status);
+    }
+
+    private void clear() {
+        queue.clear();
+        latest.clear();
+        messages = 0;
+        bytes = 0;
+    }
+
+    /**
+     * Stop sending, called when the session is closed
+     */
+    void discard() {
+        closing = true;
+        synchronized (this) {
+            clear();
+        }
+    }
+
+    public synchronized int getQueuedMessages() {
+        return messages;
+    }
+
+    public synchronized long getQueuedBytes() {
+        return bytes;
+    }
+
+    // destination and subscription of a MESSAGE frame to a coalesced destination, else null
+    private String coalesceKey(WebSocketMessage<?> message) {
+        String frame = coalesce.isEmpty() ? null : headersOf(message);
+        if (frame == null || !frame.startsWith(MESSAGE_FRAME)) {
+            return null;
+        }
+        int headersEnd = frame.indexOf("\n\n");
+        String destination = header(frame, DESTINATION_HEADER, headersEnd);
+        if (destination == null || coalesce.stream().noneMatch(destination::startsWith)) {
+            return null;
+        }
+        return destination + '\n' + header(frame, SUBSCRIPTION_HEADER, headersEnd);
+    }
+
+    // the frame as text, binary frames only up to the end of their headers
+    private static String headersOf(WebSocketMessage<?> message) {
+        if (message instanceof TextMessage text) {
+            return text.getPayload();
+        }
+        if (message instanceof BinaryMessage binary) {
+            ByteBuffer payload = binary.getPayload();
+            int end = payload.position();
+            while (end + 1 < payload.limit() && !(payload.get(end) == '\n' && payload.get(end + 1) == '\n')) {
+                end++;
+            }
+            return StandardCharsets.UTF_8.decode(payload.duplicate().limit(end)).toString();
+        }
+        return null;
+    }
+
+    private static String header(String frame, String name, int headersEnd) {
+        int start = frame.indexOf(name);
+        if (start < 0 || (headersEnd >= 0 && start > headersEnd)) {
+            return null;
+        }
+        start += name.length();
+        int end = frame.indexOf('\n', start);
+        return frame.substring(start, end < 0 ? frame.length() : end);
+    }
+}
@@ -0,0 +1,119 @@
+package at.aau.se2.cluedo.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Gives every WebSocket session a {@link SessionOutboundQueue} and reports the backlog of all of
+ * them:
+ * <ul>
+ *     <li>{@code cluedo.session.queue.messages} and {@code .bytes}: waiting in all sessions</li>
+ *     <li>{@code cluedo.session.queue.max.bytes}: waiting in the session furthest behind</li>
+ *     <li>{@code cluedo.session.queue.coalesced}: frames replaced by a newer one</li>
+ *     <li>{@code cluedo.session.queue.overflow}: overflows by action, close or drop</li>
+ * </ul>
+ */
+public class SessionOutboundQueues implements WebSocketHandlerDecoratorFactory, DisposableBean {
+
+    private final MessagingProperties.SessionQueue properties;
+    private final ThreadPoolTaskExecutor executor;
+    private final Map<String, SessionOutboundQueue> sessions = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+    private final Counter closed;
+    private final Counter dropped;
+
+    public SessionOutboundQueues(MessagingProperties.SessionQueue properties, ThreadPoolTaskExecutor executor,
+                                 MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.executor = executor;
+        this.coalesced = Counter.builder("cluedo.session.queue.coalesced")
+                .description("Queued frames replaced by a newer frame to the same destination")
+                .register(meterRegistry);
+        this.closed = overflows(meterRegistry, "close");
+        this.dropped = overflows(meterRegistry, "drop");
+        Gauge.builder("cluedo.session.queue.messages", this, SessionOutboundQueues::getQueuedMessages)
+                .description("Frames waiting to be sent to clients")
+                .register(meterRegistry);
+        Gauge.builder("cluedo.session.queue.bytes", this, SessionOutboundQueues::getQueuedBytes)
+                .description("Bytes waiting to be sent to clients")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("cluedo.session.queue.max.bytes", this, SessionOutboundQueues::getMaxQueuedBytes)
+                .description("Bytes waiting in the session furthest behind")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    private static Counter overflows(MeterRegistry meterRegistry, String action) {
+        return Counter.builder("cluedo.session.queue.overflow")
+                .description("Session queues that went over their bounds")
+                .tag("action", action)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                SessionOutboundQueue queue = new SessionOutboundQueue(session, executor, SessionOutboundQueues.this,
+                        properties);
+                sessions.put(session.getId(), queue);
+                super.afterConnectionEstablished(queue);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                SessionOutboundQueue queue = sessions.remove(session.getId());
+                if (queue != null) {
+                    queue.discard();
+                }
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    void coalesced() {
+        coalesced.increment();
+    }
+
+    void closed() {
+        closed.increment();
+    }
+
+    void dropped() {
+        dropped.increment();
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    public long getQueuedMessages() {
+        return sessions.values().stream().mapToLong(SessionOutboundQueue::getQueuedMessages).sum();
+    }
+
+    public long getQueuedBytes() {
+        return sessions.values().stream().mapToLong(SessionOutboundQueue::getQueuedBytes).sum();
+    }
+
+    public long getMaxQueuedBytes() {
+        return sessions.values().stream().mapToLong(SessionOutboundQueue::getQueuedBytes).max().orElse(0);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
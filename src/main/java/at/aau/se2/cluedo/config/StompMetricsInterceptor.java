@@ -0,0 +1,106 @@
+package at.aau.se2.cluedo.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.handler.invocation.AbstractMethodMessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+
+/**
+ * Counts the messages of one channel and times how long they take to handle, tagged by the
+ * destination without ids ({@code /app/rollDice/<lobbyId>} becomes {@code /app/rollDice}).
+ * On the clientInboundChannel only the {@code @MessageMapping} handler is timed, the broker
+ * and user destination handlers ignore application messages anyway.
+ * <ul>
+ *     <li>{@code cluedo.stomp.messages}: messages sent to the channel</li>
+ *     <li>{@code cluedo.stomp.handle}: time spent handling them, with outcome success or error</li>
+ *     <li>{@code cluedo.stomp.payload}: payload size in bytes</li>
+ * </ul>
+ */
+public class StompMetricsInterceptor implements ExecutorChannelInterceptor {
+
+    public static final String INBOUND = "inbound";
+    public static final String OUTBOUND = "outbound";
+    public static final String BROKER = "broker";
+
+    private static final String NO_DESTINATION = "none";
+
+    private final MeterRegistry registry;
+    private final String channel;
+    // start of the handler running on this thread, one interceptor per channel so nested sends don't mix
+    private final ThreadLocal<Timer.Sample> handling = new ThreadLocal<>();
+
+    public StompMetricsInterceptor(MeterRegistry registry, String channel) {
+        this.registry = registry;
+        this.channel = channel;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel messageChannel) {
+        String destination = destinationTag(message);
+        Counter.builder("cluedo.stomp.messages")
+                .tag("channel", channel)
+                .tag("destination", destination)
+                .register(registry)
+                .increment();
+        if (message.getPayload() instanceof byte[] payload && payload.length > 0) {
+            DistributionSummary.builder("cluedo.stomp.payload")
+                    .baseUnit("bytes")
+                    .tag("channel", channel)
+                    .tag("destination", destination)
+                    .register(registry)
+                    .record(payload.length);
+        }
+        return message;
+    }
+
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel messageChannel, MessageHandler handler) {
+        if (isTimed(handler)) {
+            handling.set(Timer.start(registry));
+        }
+        return message;
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel messageChannel, MessageHandler handler, Exception ex) {
+        Timer.Sample sample = handling.get();
+        if (sample == null || !isTimed(handler)) {
+            return;
+        }
+        handling.remove();
+        sample.stop(Timer.builder("cluedo.stomp.handle")
+                .tag("channel", channel)
+                .tag("destination", destinationTag(message))
+                .tag("outcome", ex == null ? "success" : "error")
+                .register(registry));
+    }
+
+    private boolean isTimed(MessageHandler handler) {
+        return !INBOUND.equals(channel) || handler instanceof AbstractMethodMessageHandler;
+    }
+
+    /**
+     * Keep the first two segments of the destination so lobby and player ids don't end up in tags
+     * @param message
+     * @return e.g. /app/rollDice or /topic/gameDelta, none for messages without destination
+     */
+    static String destinationTag(Message<?> message) {
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (destination == null || destination.isEmpty()) {
+            return NO_DESTINATION;
+        }
+
+        int first = destination.indexOf('/', 1);
+        if (first < 0) {
+            return destination;
+        }
+        int second = destination.indexOf('/', first + 1);
+        return second < 0 ? destination : destination.substring(0, second);
+    }
+}
@@ -0,0 +1,32 @@
+package at.aau.se2.cluedo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Virtual thread factories for the message executors. The server is built for Java 17, on older
+ * runtimes than 21 the executors keep their platform threads.
+ */
+public final class VirtualThreads {
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreads.class);
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @param namePrefix prefix of the thread names
+     * @return factory for named virtual threads, null if the runtime has no virtual threads
+     */
+    public static ThreadFactory factory(String namePrefix) {
+        try {
+            return new VirtualThreadTaskExecutor(namePrefix).getVirtualThreadFactory();
+        } catch (UnsupportedOperationException e) {
+            logger.warn("Virtual threads need Java 21, {} runs on platform threads (Java {})",
+                    namePrefix, Runtime.version().feature());
+            return null;
+        }
+    }
+}
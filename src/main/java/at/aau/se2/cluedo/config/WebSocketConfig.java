@@ -1,22 +1,169 @@
 package at.aau.se2.cluedo.config;
 
-
+import at.aau.se2.cluedo.dto.binary.BinaryCodecs;
+import at.aau.se2.cluedo.services.GameService;
+import at.aau.se2.cluedo.services.LobbyDispatcher;
+import at.aau.se2.cluedo.services.LobbyRegistry;
+import at.aau.se2.cluedo.services.cluster.ShardRouter;
+import at.aau.se2.cluedo.services.cluster.ShardRoutingInterceptor;
+import at.aau.se2.cluedo.services.events.LobbyEventLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+import java.util.List;
 
 @Configuration
 @EnableWebSocketMessageBroker
+@EnableConfigurationProperties({MessagingProperties.class, ClusterProperties.class})
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    @Autowired
+    private LobbyDispatcher lobbyDispatcher;
+
+    @Autowired
+    private LobbyRegistry lobbyRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MessagingProperties messagingProperties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // both depend on the messaging configuration, looked up when first used
+    @Autowired
+    private ObjectProvider<GameService> gameService;
+
+    @Autowired
+    @Qualifier("clientOutboundChannel")
+    private ObjectProvider<MessageChannel> clientOutboundChannel;
+
+    // only there with cluedo.cluster.enabled
+    @Autowired
+    private ObjectProvider<ShardRouter> shardRouter;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        // Broadcasting messages to subscribers
-        config.enableSimpleBroker("/topic");
+        // Broadcasting messages to subscribers, in memory or through an external broker
+        if (messagingProperties.getRelay().isEnabled()) {
+            messagingProperties.getRelay().applyTo(config.enableStompBrokerRelay("/topic"));
+        } else {
+            config.enableSimpleBroker("/topic");
+        }
         // Messages getting sent to the app
         config.setApplicationDestinationPrefixes("/app");
+        ChannelRegistration brokerChannel = config.configureBrokerChannel();
+        if (messagingProperties.getBatching().isEnabled()) {
+            // held back broadcasts skip the handlers, those of other interceptors too
+            brokerChannel.interceptors(lobbyEventBatcher());
+        }
+        // after the batcher, so batches are numbered and not what they hold
+        if (messagingProperties.getResume().isEnabled()) {
+            brokerChannel.interceptors(resumeInterceptor());
+        }
+        brokerChannel.interceptors(new StompMetricsInterceptor(meterRegistry, StompMetricsInterceptor.BROKER));
+        if (messagingProperties.getBroker().getCorePoolSize() > 0) {
+            brokerChannel.taskExecutor(executor(messagingProperties.getBroker(), new ThreadPoolTaskExecutor(), "brokerChannel-"));
+        }
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // Messages for a lobby are applied in order on that lobby's mailbox
+        ShardRouter router = shardRouter.getIfAvailable();
+        LobbyRoutingTaskExecutor routing = router == null ? new LobbyRoutingTaskExecutor(lobbyDispatcher, lobbyRegistry)
+                : new LobbyRoutingTaskExecutor(lobbyDispatcher, lobbyRegistry, router::isLinkSession);
+        registration.taskExecutor(executor(messagingProperties.getInbound(), routing, "clientInboundChannel-"));
+        registration.interceptors(new StompMetricsInterceptor(meterRegistry, StompMetricsInterceptor.INBOUND));
+        // Messages for lobbies of other nodes are forwarded before they reach a handler
+        if (router != null) {
+            registration.interceptors(new ShardRoutingInterceptor(router));
+        }
+        if (messagingProperties.isBinaryFormat()) {
+            registration.interceptors(wireFormat());
+        }
+        // Subscriptions may ask for the broadcasts they missed
+        if (messagingProperties.getResume().isEnabled()) {
+            registration.interceptors(resumeInterceptor());
+        }
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(executor(messagingProperties.getOutbound(), new ThreadPoolTaskExecutor(), "clientOutboundChannel-"));
+        registration.interceptors(new StompMetricsInterceptor(meterRegistry, StompMetricsInterceptor.OUTBOUND));
+        if (messagingProperties.isBinaryFormat()) {
+            registration.interceptors(wireFormat());
+        }
+    }
+
+    @Override
+    public boolean configureMessageConverters(List<MessageConverter> messageConverters) {
+        // Messages with a binary codec, JSON unless a client asks for binary
+        if (messagingProperties.isBinaryFormat()) {
+            messageConverters.add(0, new BinaryMessageConverter(BinaryCodecs.standard(), wireFormat(),
+                    new MappingJackson2MessageConverter(objectMapper)));
+        }
+        return true;
+    }
+
+    @Bean
+    public LobbyEventBatcher lobbyEventBatcher() {
+        return new LobbyEventBatcher(lobbyDispatcher, messagingProperties.getBatching(), meterRegistry);
+    }
+
+    @Bean
+    public LobbyEventLog lobbyEventLog() {
+        return new LobbyEventLog(messagingProperties.getResume().getCapacity(), messagingProperties.getResume().getMaxBytes());
+    }
+
+    @Bean
+    public ResumeInterceptor resumeInterceptor() {
+        return new ResumeInterceptor(lobbyEventLog(), lobbyDispatcher, lobbyId -> gameService.getObject().getGameData(lobbyId),
+                objectMapper, clientOutboundChannel::getObject, meterRegistry);
+    }
+
+    @Bean
+    public WireFormat wireFormat() {
+        return new WireFormat();
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // Each client gets its own queue, a slow one falls behind alone
+        if (messagingProperties.getSessionQueue().isEnabled()) {
+            registration.addDecoratorFactory(sessionOutboundQueues());
+        }
+    }
+
+    @Bean
+    public SessionOutboundQueues sessionOutboundQueues() {
+        ThreadPoolTaskExecutor executor = executor(messagingProperties.getOutbound(), new ThreadPoolTaskExecutor(), "sessionSend-");
+        executor.initialize();
+        return new SessionOutboundQueues(messagingProperties.getSessionQueue(), executor, meterRegistry);
+    }
+
+    private <T extends ThreadPoolTaskExecutor> T executor(MessagingProperties.Pool pool, T executor, String namePrefix) {
+        return pool.applyTo(executor, namePrefix,
+                messagingProperties.isVirtualThreads() ? VirtualThreads.factory(namePrefix) : null);
     }
 
     @Override
@@ -0,0 +1,101 @@
+package at.aau.se2.cluedo.config;
+
+import at.aau.se2.cluedo.dto.binary.BinaryCodecs;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Negotiates the format of the messages a session receives. JSON is the default, a client that
+ * lists {@link #BINARY} in the {@value #ACCEPT_HEADER} header of its CONNECT frame gets the
+ * messages with a {@link BinaryCodecs} codec in the binary format. Such messages are encoded once
+ * per broadcast, when it is converted, and only while a binary session is connected; the encoding
+ * travels to the outbound channel in the {@value #BINARY_PAYLOAD_HEADER} header, which is not
+ * written to the wire. Everything else, and broadcasts through a broker relay, stays JSON; the
+ * content-type of a frame tells which format it is in.
+ */
+public class WireFormat implements ChannelInterceptor {
+
+    public static final MimeType BINARY = new MimeType(MimeTypeUtils.APPLICATION_OCTET_STREAM, Map.of("format", "cluedo"));
+    public static final String ACCEPT_HEADER = "accept";
+    static final String BINARY_PAYLOAD_HEADER = "cluedoBinaryPayload";
+
+    private final Set<String> binarySessions = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param contentType
+     * @return true for the binary format, plain application/octet-stream is not
+     */
+    public static boolean isBinary(MimeType contentType) {
+        return contentType != null && BINARY.equalsTypeAndSubtype(contentType)
+                && BINARY.getParameter("format").equals(contentType.getParameter("format"));
+    }
+
+    static boolean accepts(String accept) {
+        if (accept == null) {
+            return false;
+        }
+        for (String type : accept.split(",")) {
+            try {
+                if (isBinary(MimeTypeUtils.parseMimeType(type.trim()))) {
+                    return true;
+                }
+            } catch (IllegalArgumentException e) {
+                // not a mime type, the client gets JSON
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true while at least one session receives the binary format
+     */
+    public boolean hasBinarySessions() {
+        return !binarySessions.isEmpty();
+    }
+
+    public boolean isBinarySession(String sessionId) {
+        return sessionId != null && binarySessions.contains(sessionId);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (type == SimpMessageType.CONNECT) {
+            StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+            if (sessionId != null && accessor != null && accepts(accessor.getFirstNativeHeader(ACCEPT_HEADER))) {
+                binarySessions.add(sessionId);
+            }
+        } else if (type == SimpMessageType.DISCONNECT) {
+            if (sessionId != null) {
+                binarySessions.remove(sessionId);
+            }
+        } else if (type == SimpMessageType.MESSAGE) {
+            return toSessionFormat(message, sessionId);
+        }
+        return message;
+    }
+
+    private Message<?> toSessionFormat(Message<?> message, String sessionId) {
+        Object binary = message.getHeaders().get(BINARY_PAYLOAD_HEADER);
+        if (!(binary instanceof byte[] payload) || !isBinarySession(sessionId)) {
+            return message;
+        }
+        MessageHeaderAccessor accessor = MessageHeaderAccessor.getMutableAccessor(message);
+        accessor.setContentType(BINARY);
+        accessor.removeHeader(BINARY_PAYLOAD_HEADER);
+        return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+    }
+}
@@ -3,13 +3,16 @@ package at.aau.se2.cluedo.controllers;
 import at.aau.se2.cluedo.dto.CheatingReport;
 import at.aau.se2.cluedo.models.gamemanager.GameManager;
 import at.aau.se2.cluedo.services.GameService;
+import at.aau.se2.cluedo.services.LobbyDispatcher;
 import at.aau.se2.cluedo.models.gameobjects.Player;
+import at.aau.se2.cluedo.services.events.GameEvent;
+import at.aau.se2.cluedo.services.events.GameEventPublisher;
+import at.aau.se2.cluedo.services.journal.GameJournal;
+import at.aau.se2.cluedo.services.journal.JournalEntry;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
 
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
 
 @Controller
@@ -18,11 +21,16 @@ public class CheatingController {
     private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(CheatingController.class);
 
     private final GameService gameService;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final GameEventPublisher eventPublisher;
+    private final LobbyDispatcher lobbyDispatcher;
+    private final GameJournal gameJournal;
 
-    public CheatingController(GameService gameService, SimpMessagingTemplate messagingTemplate) {
+    public CheatingController(GameService gameService, GameEventPublisher eventPublisher, LobbyDispatcher lobbyDispatcher,
+                              GameJournal gameJournal) {
         this.gameService = gameService;
-        this.messagingTemplate = messagingTemplate;
+        this.eventPublisher = eventPublisher;
+        this.lobbyDispatcher = lobbyDispatcher;
+        this.gameJournal = gameJournal;
     }
 
     @MessageMapping("/cheating")
@@ -36,6 +44,16 @@ public class CheatingController {
             return;
         }
 
+        // made-up lobby ids must not get a mailbox
+        if (gameService.getGame(report.getLobbyId()) == null) {
+            logger.warn("Ignoring cheating report for lobby {} without a game", report.getLobbyId());
+            return;
+        }
+        // the lobby id is part of the payload, so the report is not routed to the lobby's mailbox automatically
+        lobbyDispatcher.execute(report.getLobbyId(), () -> applyCheatingReport(report));
+    }
+
+    private void applyCheatingReport(CheatingReport report) {
         GameManager game = gameService.getGame(report.getLobbyId());
         if (game == null) return;
         Set<String> alreadyAccused = game.getCheatingReports()
@@ -52,21 +70,12 @@ public class CheatingController {
         if (!game.inRoom(accuser)) {
             game.resetPlayer(accuser);
             accuser.setCanReport(false);
-            messagingTemplate.convertAndSend(
-                    "/topic/playerReset/" + report.getLobbyId(),
-                    Map.of("player", accuser.getName(), "x", accuser.getX(), "y", accuser.getY())
-            );
+            publishReset(report.getLobbyId(), accuser);
             game.getCheatingReports().computeIfAbsent(report.getAccuser(), k -> new HashSet<>()).add(report.getSuspect());
-            messagingTemplate.convertAndSend(
-                    "/topic/cheating/" + report.getLobbyId(),
-                    Map.of(
-                            "type", "CHEATING_REPORT",
-                            "suspect", suspect.getName(),
-                            "accuser", accuser.getName(),
-                            "valid", false,
-                            "reason", "NOT_IN_ROOM"
-                    )
-            );
+            gameJournal.append(report.getLobbyId(),
+                    new JournalEntry.CheatingReported(accuser.getName(), suspect.getName(), accuser.getName(), true));
+            eventPublisher.publish(report.getLobbyId(), new GameEvent.CheatingReported(suspect.getName(),
+                    accuser.getName(), false, GameEvent.CheatingReported.Reason.NOT_IN_ROOM));
             return;
         }
 
@@ -76,21 +85,12 @@ public class CheatingController {
         if (accuserRoom == null || suspectRoom == null || !accuserRoom.equals(suspectRoom)) {
             game.resetPlayer(accuser);
             accuser.setCanReport(false);
-            messagingTemplate.convertAndSend(
-                    "/topic/playerReset/" + report.getLobbyId(),
-                    Map.of("player", accuser.getName(), "x", accuser.getX(), "y", accuser.getY())
-            );
+            publishReset(report.getLobbyId(), accuser);
             game.getCheatingReports().computeIfAbsent(report.getAccuser(), k -> new HashSet<>()).add(report.getSuspect());
-            messagingTemplate.convertAndSend(
-                    "/topic/cheating/" + report.getLobbyId(),
-                    Map.of(
-                            "type", "CHEATING_REPORT",
-                            "suspect", suspect.getName(),
-                            "accuser", accuser.getName(),
-                            "valid", false,
-                            "reason", "NOT_IN_SAME_ROOM"
-                    )
-            );
+            gameJournal.append(report.getLobbyId(),
+                    new JournalEntry.CheatingReported(accuser.getName(), suspect.getName(), accuser.getName(), true));
+            eventPublisher.publish(report.getLobbyId(), new GameEvent.CheatingReported(suspect.getName(),
+                    accuser.getName(), false, GameEvent.CheatingReported.Reason.NOT_IN_SAME_ROOM));
             return;
         }
 
@@ -100,30 +100,22 @@ public class CheatingController {
 
         if (isCheating) {
             game.resetPlayer(suspect);
-            messagingTemplate.convertAndSend(
-                    "/topic/playerReset/" + report.getLobbyId(),
-                    Map.of("player", suspect.getName(), "x", suspect.getX(), "y", suspect.getY())
-            );
+            publishReset(report.getLobbyId(), suspect);
         } else {
             game.resetPlayer(accuser);
             accuser.setCanReport(false);
-            messagingTemplate.convertAndSend(
-                    "/topic/playerReset/" + report.getLobbyId(),
-                    Map.of("player", accuser.getName(), "x", accuser.getX(), "y", accuser.getY())
-            );
+            publishReset(report.getLobbyId(), accuser);
         }
         game.getCheatingReports().computeIfAbsent(report.getAccuser(), k -> new HashSet<>()).add(report.getSuspect());
-        messagingTemplate.convertAndSend(
-                "/topic/cheating/" + report.getLobbyId(),
-                Map.of(
-                        "type", "CHEATING_REPORT",
-                        "suspect", suspect.getName(),
-                        "accuser", accuser.getName(),
-                        "valid", isCheating,
-                        "reason", "SUCCESS"
-                )
-        );
+        gameJournal.append(report.getLobbyId(), new JournalEntry.CheatingReported(accuser.getName(), suspect.getName(),
+                isCheating ? suspect.getName() : accuser.getName(), !isCheating));
+        eventPublisher.publish(report.getLobbyId(), new GameEvent.CheatingReported(suspect.getName(),
+                accuser.getName(), isCheating, GameEvent.CheatingReported.Reason.SUCCESS));
     }
+
+    private void publishReset(String lobbyId, Player player) {
+        eventPublisher.publish(lobbyId, new GameEvent.PlayerReset(player.getName(), player.getX(), player.getY()));
     }
+}
 
 
@@ -0,0 +1,36 @@
+package at.aau.se2.cluedo.controllers;
+
+import at.aau.se2.cluedo.services.cluster.LobbyHandoff;
+import at.aau.se2.cluedo.services.cluster.LobbyHandoffService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Controller;
+
+/**
+ * Lobbies handed over by other nodes, only nodes may send here
+ */
+@Controller
+@ConditionalOnProperty(name = "cluedo.cluster.enabled", havingValue = "true")
+public class ClusterController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterController.class);
+    private final LobbyHandoffService lobbyHandoffService;
+
+    public ClusterController(LobbyHandoffService lobbyHandoffService) {
+        this.lobbyHandoffService = lobbyHandoffService;
+    }
+
+    @MessageMapping("/handoff/{lobbyId}")
+    public void receiveHandoff(@DestinationVariable String lobbyId, LobbyHandoff handoff,
+                               SimpMessageHeaderAccessor headerAccessor) {
+        if (handoff == null || !lobbyId.equals(handoff.lobbyId())) {
+            logger.warn("Ignoring handoff for lobby {} that carries another lobby", lobbyId);
+            return;
+        }
+        lobbyHandoffService.receive(handoff, headerAccessor.getSessionId());
+    }
+}
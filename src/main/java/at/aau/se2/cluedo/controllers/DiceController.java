@@ -3,41 +3,43 @@ package at.aau.se2.cluedo.controllers;
 import at.aau.se2.cluedo.dto.DiceResult;
 import at.aau.se2.cluedo.dto.TurnActionRequest;
 import at.aau.se2.cluedo.dto.TurnStateResponse;
+import at.aau.se2.cluedo.models.GameRandom;
 import at.aau.se2.cluedo.models.gamemanager.GameManager;
 import at.aau.se2.cluedo.models.gameobjects.Player;
 import at.aau.se2.cluedo.services.GameService;
+import at.aau.se2.cluedo.services.RandomService;
 import at.aau.se2.cluedo.services.TurnService;
 import at.aau.se2.cluedo.services.TurnService.TurnState;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
 
-import java.util.concurrent.ThreadLocalRandom;
-
 @Controller
 public class DiceController {
 
     private static final Logger logger = LoggerFactory.getLogger(DiceController.class);
     private final SimpMessagingTemplate messagingTemplate;
+    private final TurnService turnService;
+    private final GameService gameService;
+    private final RandomService randomService;
 
-    @Autowired
-    private TurnService turnService;
-
-    @Autowired
-    private GameService gameService;
-
-    public DiceController(SimpMessagingTemplate messagingTemplate) {
+    public DiceController(SimpMessagingTemplate messagingTemplate, TurnService turnService, GameService gameService,
+                          RandomService randomService) {
         this.messagingTemplate = messagingTemplate;
+        this.turnService = turnService;
+        this.gameService = gameService;
+        this.randomService = randomService;
     }
 
     @MessageMapping("/rollDice")
     public void rollDice() {
-        int diceOneValue = ThreadLocalRandom.current().nextInt(1, 7);
-        int diceTwoValue = ThreadLocalRandom.current().nextInt(1, 7);
+        // not part of a game, a fresh stream per roll
+        GameRandom random = randomService.newGameRandom();
+        int diceOneValue = random.rollDie();
+        int diceTwoValue = random.rollDie();
 
         DiceResult result = new DiceResult(diceOneValue, diceTwoValue);
         messagingTemplate.convertAndSend("/topic/diceResult", result);
@@ -56,9 +58,11 @@ public class DiceController {
                 return createErrorResponse(lobbyId, "Invalid turn state for dice roll");
             }
 
-            // generate dice value if not provided
+            GameManager game = gameService.getGame(lobbyId);
+
+            // generate dice value if not provided, from the game's own random source
             int diceValue = request.getDiceValue() > 0 ? request.getDiceValue() :
-                    ThreadLocalRandom.current().nextInt(1, 7) + ThreadLocalRandom.current().nextInt(1, 7);
+                    game.rollDice() + game.rollDice();
 
             boolean success = turnService.processDiceRoll(lobbyId, request.getPlayerName(), diceValue);
 
@@ -66,7 +70,6 @@ public class DiceController {
                 return createErrorResponse(lobbyId, "Invalid dice roll attempt");
             }
 
-            GameManager game = gameService.getGame(lobbyId);
             Player currentPlayer = game.getCurrentPlayer();
 
             return new TurnStateResponse(
@@ -1,8 +1,11 @@
 package at.aau.se2.cluedo.controllers;
 
 import at.aau.se2.cluedo.dto.GameDataResponse;
+import at.aau.se2.cluedo.dto.GameDeltaResponse;
 import at.aau.se2.cluedo.dto.IsWallRequest;
+import at.aau.se2.cluedo.dto.MoveToRequest;
 import at.aau.se2.cluedo.dto.PerformMoveRequest;
+import at.aau.se2.cluedo.dto.ReachableTargetsResponse;
 import at.aau.se2.cluedo.dto.StartGameRequest;
 import at.aau.se2.cluedo.dto.TurnActionRequest;
 import at.aau.se2.cluedo.dto.TurnStateResponse;
@@ -18,6 +21,7 @@ import at.aau.se2.cluedo.services.TurnService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.SendTo;
@@ -42,6 +46,10 @@ public class GameBoardController {
     @Autowired
     private TurnService turnService;
 
+    // sends the whole game data after every move again, for clients that don't apply deltas yet
+    @Value("${cluedo.movement.full-state-broadcast:false}")
+    private boolean fullStateBroadcast;
+
     public GameBoardController(SimpMessagingTemplate messagingTemplate) {
         this.messagingTemplate = messagingTemplate;
     }
@@ -52,18 +60,57 @@ public class GameBoardController {
         messagingTemplate.convertAndSend("/topic/players",players);
     }
     @MessageMapping("/performMovement/{lobbyId}")
-    @SendTo("/topic/performMovement/{lobbyId}")
-    public GameDataResponse performMovement( @DestinationVariable String lobbyId, PerformMoveRequest request){
-        gameService.performMovement(request.getPlayer(),request.getMoves(),lobbyId);
-        System.out.printf("Hovin %d %d",gameService.getGame(lobbyId).getPlayer(request.getPlayer().getName()).getX(),gameService.getGame(lobbyId).getPlayer(request.getPlayer().getName()).getY());
-
-        //System.out.printf("moves %s",request.getMoves().get(0));
-        // 2. **PROBLEM**: Falsches DTO und Verkettung
-        StartGameRequest response = new StartGameRequest(); // WARNUNG: Semantisch falsches DTO
-        response.setPlayer(gameService.getGame(lobbyId).getPlayer(request.getPlayer().getName()));
-        return gameData(lobbyId,response); // Ruft gameData auf, das seinerseits mit @SendTo annotiert ist
+    public void performMovement(@DestinationVariable String lobbyId, PerformMoveRequest request) {
+        GameManager game = gameService.getGame(lobbyId);
+        if (game == null) {
+            logger.warn("No game in lobby {}", lobbyId);
+            return;
+        }
+        Player player = game.getPlayer(request.getPlayer().getName());
+        int x = player == null ? -1 : player.getX();
+        int y = player == null ? -1 : player.getY();
+
+        gameService.performMovement(request.getPlayer(), request.getMoves(), lobbyId);
+
+        if (player == null || (player.getX() == x && player.getY() == y)) {
+            logger.warn("Rejected movement of {} in lobby {}", request.getPlayer().getName(), lobbyId);
+            return;
+        }
+        publishMovement(lobbyId, game, player);
+    }
+
+    /**
+     * Sends the new position of the player as a delta, and the whole game data to clients that
+     * still listen on /topic/performMovement while the full-state broadcast is enabled. Only
+     * called after the player moved, a rejected move changes no version.
+     */
+    private void publishMovement(String lobbyId, GameManager game, Player player) {
+        messagingTemplate.convertAndSend("/topic/gameDelta/" + lobbyId, new GameDeltaResponse(lobbyId,
+                game.nextStateVersion(), player.getName(), player.getX(), player.getY(), game.getCurrentPlayer().getName()));
+        if (fullStateBroadcast) {
+            messagingTemplate.convertAndSend("/topic/performMovement/" + lobbyId, gameData(lobbyId, new StartGameRequest()));
+        }
     }
 
+    @MessageMapping("/reachableTargets/{lobbyId}")
+    @SendTo("/topic/reachableTargets/{lobbyId}")
+    public ReachableTargetsResponse reachableTargets(@DestinationVariable String lobbyId, TurnActionRequest request) {
+        GameManager game = gameService.getGame(lobbyId);
+        int diceValue = game == null ? 0 : game.getDiceRollS();
+        return new ReachableTargetsResponse(lobbyId, request.getPlayerName(), diceValue,
+                gameService.getReachableTargets(lobbyId, request.getPlayerName()));
+    }
+
+    @MessageMapping("/moveTo/{lobbyId}")
+    public void moveTo(@DestinationVariable String lobbyId, MoveToRequest request) {
+        if (!gameService.moveTo(lobbyId, request.getPlayerName(), request.getX(), request.getY())) {
+            logger.warn("Rejected move of {} to {} {} in lobby {}", request.getPlayerName(), request.getX(), request.getY(), lobbyId);
+            return;
+        }
+        // a successful move has a game with the player in it
+        GameManager game = gameService.getGame(lobbyId);
+        publishMovement(lobbyId, game, game.getPlayer(request.getPlayerName()));
+    }
 
     @MessageMapping("/completeMovement/{lobbyId}")
     @SendTo("/topic/movementCompleted/{lobbyId}")
@@ -125,7 +172,8 @@ public class GameBoardController {
             lobbyService.getLobby(lobbyId).setPlayers(gamePlayers);
 
 
-            return new GameDataResponse(lobbyId, gamePlayers,gameManager.getPlayers().get(gameManager.getCurrentPlayerIndex()));
+            return new GameDataResponse(lobbyId, gamePlayers, gameManager.getPlayers().get(gameManager.getCurrentPlayerIndex()),
+                    gameManager.getStateVersion());
         } catch (Exception e) {
             throw new IllegalStateException("Failed to get game Data: " + e.getMessage());
         }
@@ -6,9 +6,10 @@ import at.aau.se2.cluedo.models.gameobjects.Player;
 import at.aau.se2.cluedo.services.GameService;
 import at.aau.se2.cluedo.services.LobbyService;
 import at.aau.se2.cluedo.services.TurnService;
+import at.aau.se2.cluedo.services.journal.GameJournal;
+import at.aau.se2.cluedo.services.journal.JournalEntry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.SendTo;
@@ -23,14 +24,18 @@ public class GameplayController {
 
     private static final Logger logger = LoggerFactory.getLogger(GameplayController.class);
 
-    @Autowired
-    private LobbyService lobbyService;
-
-    @Autowired
-    private GameService gameService;
-
-    @Autowired
-    private TurnService turnService;
+    private final LobbyService lobbyService;
+    private final GameService gameService;
+    private final TurnService turnService;
+    private final GameJournal gameJournal;
+
+    public GameplayController(LobbyService lobbyService, GameService gameService, TurnService turnService,
+                              GameJournal gameJournal) {
+        this.lobbyService = lobbyService;
+        this.gameService = gameService;
+        this.turnService = turnService;
+        this.gameJournal = gameJournal;
+    }
 
 
 
@@ -76,8 +81,13 @@ public class GameplayController {
 
             logger.info("Suggestion finished Controller");
 
-            Player player = gameService.getGame(lobbyId).getPlayer(request.getPlayerName());
-            gameService.getGame(lobbyId).recordSuggestion(player, request.getSuspect(), request.getRoom(), request.getWeapon());
+            // rejected suggestions don't count for cheating detection and aren't replayed
+            if (successfullSuggestion) {
+                Player player = gameService.getGame(lobbyId).getPlayer(request.getPlayerName());
+                gameService.getGame(lobbyId).recordSuggestion(player, request.getSuspect(), request.getRoom(), request.getWeapon());
+                gameJournal.append(lobbyId, new JournalEntry.Suggested(player.getName(), request.getSuspect(),
+                        request.getRoom(), request.getWeapon()));
+            }
 
             return Map.of(
                     "success", successfullSuggestion,
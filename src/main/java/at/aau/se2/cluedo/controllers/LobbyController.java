@@ -5,6 +5,8 @@ import at.aau.se2.cluedo.models.gamemanager.GameManager;
 import at.aau.se2.cluedo.models.gameobjects.Player;
 import at.aau.se2.cluedo.models.lobby.Lobby;
 import at.aau.se2.cluedo.services.GameService;
+import at.aau.se2.cluedo.services.LobbyDirectory;
+import at.aau.se2.cluedo.services.LobbyDispatcher;
 import at.aau.se2.cluedo.services.LobbyService;
 import at.aau.se2.cluedo.services.TurnService;
 
@@ -50,6 +52,12 @@ public class LobbyController {
     @Autowired
     private TurnService turnService;
 
+    @Autowired
+    private LobbyDispatcher lobbyDispatcher;
+
+    @Autowired
+    private LobbyDirectory lobbyDirectory;
+
     @MessageMapping("/createLobby")
     @SendTo("/topic/lobbyCreated")
     public String createLobby(CreateLobbyRequest request) {
@@ -105,6 +113,19 @@ public class LobbyController {
         return ActiveLobbiesResponse.fromLobbies(activeLobbies);
     }
 
+    /**
+     * A page of the lobby list, sent only to the asking client. Changes after the page arrive on
+     * {@link LobbyDirectory#DELTA_TOPIC}.
+     * @param clientId id chosen by the client for its replies
+     * @param request filters, page size and the cursor of the previous page
+     * @return the page
+     */
+    @MessageMapping("/queryLobbies/{clientId}")
+    @SendTo("/topic/lobbyPage/{clientId}")
+    public LobbyPageResponse queryLobbies(@DestinationVariable String clientId, LobbyQueryRequest request) {
+        return lobbyDirectory.query(request == null ? new LobbyQueryRequest() : request);
+    }
+
     @MessageMapping("/canStartGame/{lobbyId}")
     @SendTo("/topic/canStartGame/{lobbyId}")
     public CanStartGameResponse canStartGame(@DestinationVariable String lobbyId) {
@@ -115,7 +136,13 @@ public class LobbyController {
 
     @MessageMapping("/accusation")
     public void accusation(AccusationRequest request) {
-        gameService.processAccusation(request);
+        // made-up lobby ids must not get a mailbox
+        if (request == null || gameService.getGame(request.getLobbyId()) == null) {
+            logger.warn("Ignoring accusation without a game: {}", request);
+            return;
+        }
+        // queued on the lobby's mailbox, the inbound thread doesn't wait for it
+        lobbyDispatcher.execute(request.getLobbyId(), () -> gameService.processAccusation(request));
     }
 
     @MessageMapping("/skipTurn/{lobbyId}")
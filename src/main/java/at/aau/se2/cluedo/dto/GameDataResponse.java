@@ -14,4 +14,10 @@ public class GameDataResponse {
     private String lobbyId;
     private List<Player> players;
     private Player playingPlayer;
+    // version of the last GameDeltaResponse included in this snapshot
+    private long version;
+
+    public GameDataResponse(String lobbyId, List<Player> players, Player playingPlayer) {
+        this(lobbyId, players, playingPlayer, 0);
+    }
 }
@@ -0,0 +1,21 @@
+package at.aau.se2.cluedo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A single change of the game state. Versions of a game increase by one per delta, a client that
+ * misses one requests a full {@link GameDataResponse} over /app/getGameData/{lobbyId}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GameDeltaResponse {
+    private String lobbyId;
+    private long version;
+    private String playerName;
+    private int x;
+    private int y;
+    private String playingPlayer;
+}
@@ -0,0 +1,17 @@
+package at.aau.se2.cluedo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LobbyDirectoryDelta {
+    private long version;
+    // UPDATED or REMOVED
+    private String type;
+    private String lobbyId;
+    // null if the lobby was removed
+    private LobbySummary lobby;
+}
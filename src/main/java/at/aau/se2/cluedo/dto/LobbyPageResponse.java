@@ -0,0 +1,18 @@
+package at.aau.se2.cluedo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LobbyPageResponse {
+    private List<LobbySummary> lobbies;
+    // null on the last page
+    private String nextCursor;
+    // directory version the page was read at, deltas with a higher version come after it
+    private long version;
+}
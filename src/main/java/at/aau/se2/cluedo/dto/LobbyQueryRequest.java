@@ -0,0 +1,18 @@
+package at.aau.se2.cluedo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LobbyQueryRequest {
+    private int minFreeSeats;
+    // 0 for no upper limit
+    private int maxFreeSeats;
+    private boolean joinableOnly;
+    // nextCursor of the previous page, null for the first page
+    private String cursor;
+    private int limit;
+}
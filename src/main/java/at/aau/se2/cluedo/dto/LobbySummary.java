@@ -0,0 +1,21 @@
+package at.aau.se2.cluedo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LobbySummary {
+    private String id;
+    private String hostName;
+    private int playerCount;
+    private int freeSeats;
+    // OPEN or IN_GAME
+    private String state;
+
+    public boolean isJoinable() {
+        return "OPEN".equals(state) && freeSeats > 0;
+    }
+}
@@ -0,0 +1,16 @@
+package at.aau.se2.cluedo.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MoveToRequest {
+    @NotNull(message = "Player name cannot be null")
+    private String playerName;
+    private int x;
+    private int y;
+}
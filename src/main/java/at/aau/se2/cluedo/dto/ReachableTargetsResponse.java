@@ -0,0 +1,18 @@
+package at.aau.se2.cluedo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReachableTargetsResponse {
+    private String lobbyId;
+    private String playerName;
+    private int diceValue;
+    // reachable cells as [x, y]
+    private List<int[]> targets;
+}
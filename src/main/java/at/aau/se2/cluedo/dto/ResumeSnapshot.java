@@ -0,0 +1,20 @@
+package at.aau.se2.cluedo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Sent instead of the missed broadcasts when a client resumes after too long. The client goes on
+ * from {@code seq} with the game as it is now.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumeSnapshot {
+    private String lobbyId;
+    // number of the lobby's last broadcast included in the snapshot
+    private long seq;
+    // null if the lobby has no game
+    private GameDataResponse game;
+}
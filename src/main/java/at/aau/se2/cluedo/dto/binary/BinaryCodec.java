@@ -0,0 +1,14 @@
+package at.aau.se2.cluedo.dto.binary;
+
+/**
+ * Encoding of one message type in the binary format, the fields in a fixed order
+ * @param <T> the message type
+ */
+public interface BinaryCodec<T> {
+
+    Class<T> type();
+
+    void write(T value, WireWriter out);
+
+    T read(WireReader in);
+}
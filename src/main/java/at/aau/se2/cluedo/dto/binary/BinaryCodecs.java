@@ -0,0 +1,109 @@
+package at.aau.se2.cluedo.dto.binary;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The message types of the binary format. A message is a one byte tag, the position of its codec
+ * in the list + 1, followed by the fields written by the codec. Tags are part of the format: new
+ * codecs go to the end of the list.
+ */
+public final class BinaryCodecs {
+
+    private static final BinaryCodecs STANDARD = new BinaryCodecs(List.of(
+            new TurnStateCodec(),
+            new GameDataCodec(),
+            new GameDeltaCodec(),
+            new DiceResultCodec(),
+            new LobbyCodec(),
+            new TurnActionCodec(),
+            new TurnEventCodecs.DiceRolled(),
+            new TurnEventCodecs.CurrentTurn(),
+            new TurnEventCodecs.TurnStateChanged()));
+
+    private final List<BinaryCodec<?>> codecs;
+    private final Map<Class<?>, Integer> tags = new HashMap<>();
+
+    public BinaryCodecs(List<BinaryCodec<?>> codecs) {
+        if (codecs.size() > 255) {
+            throw new IllegalArgumentException("At most 255 codecs");
+        }
+        this.codecs = List.copyOf(codecs);
+        for (int i = 0; i < codecs.size(); i++) {
+            tags.put(codecs.get(i).type(), i + 1);
+        }
+    }
+
+    /**
+     * @return the codecs of the game's messages
+     */
+    public static BinaryCodecs standard() {
+        return STANDARD;
+    }
+
+    public boolean supports(Class<?> type) {
+        return tags.containsKey(type);
+    }
+
+    /**
+     * @param value
+     * @return the tagged message
+     * @throws IllegalArgumentException if there is no codec for the value's type
+     */
+    @SuppressWarnings("unchecked")
+    public byte[] encode(Object value) {
+        Integer tag = tags.get(value.getClass());
+        if (tag == null) {
+            throw new IllegalArgumentException("No binary codec for " + value.getClass().getName());
+        }
+        WireWriter out = new WireWriter();
+        out.writeByte(tag);
+        ((BinaryCodec<Object>) codecs.get(tag - 1)).write(value, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * @param message
+     * @return the message, its type given by its tag
+     * @throws IllegalArgumentException if the message is malformed
+     */
+    public Object decode(byte[] message) {
+        WireReader in = new WireReader(message);
+        int tag = in.readByte();
+        return read(codecOf(tag), tag, in);
+    }
+
+    /**
+     * @param message
+     * @param type expected type
+     * @return the message
+     * @throws IllegalArgumentException if the message is malformed or of another type
+     */
+    public <T> T decode(byte[] message, Class<T> type) {
+        WireReader in = new WireReader(message);
+        int tag = in.readByte();
+        BinaryCodec<?> codec = codecOf(tag);
+        // checked before decoding, a message of another type is not read at all
+        if (!type.isAssignableFrom(codec.type())) {
+            throw new IllegalArgumentException("Expected " + type.getSimpleName() + " but got "
+                    + codec.type().getSimpleName());
+        }
+        return type.cast(read(codec, tag, in));
+    }
+
+    private BinaryCodec<?> codecOf(int tag) {
+        if (tag == 0 || tag > codecs.size()) {
+            throw new IllegalArgumentException("Unknown message tag " + tag);
+        }
+        return codecs.get(tag - 1);
+    }
+
+    private static Object read(BinaryCodec<?> codec, int tag, WireReader in) {
+        Object value = codec.read(in);
+        if (in.hasRemaining()) {
+            throw new IllegalArgumentException("Trailing bytes after message tag " + tag);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,21 @@
+package at.aau.se2.cluedo.dto.binary;
+
+import at.aau.se2.cluedo.dto.DiceResult;
+
+final class DiceResultCodec implements BinaryCodec<DiceResult> {
+
+    @Override
+    public Class<DiceResult> type() {
+        return DiceResult.class;
+    }
+
+    @Override
+    public void write(DiceResult value, WireWriter out) {
+        out.writeSignedVarInt(value.getDiceOne()).writeSignedVarInt(value.getDiceTwo());
+    }
+
+    @Override
+    public DiceResult read(WireReader in) {
+        return new DiceResult(in.readSignedVarInt(), in.readSignedVarInt());
+    }
+}
@@ -0,0 +1,29 @@
+package at.aau.se2.cluedo.dto.binary;
+
+import at.aau.se2.cluedo.dto.GameDataResponse;
+import at.aau.se2.cluedo.models.gameobjects.Player;
+
+import java.util.List;
+
+final class GameDataCodec implements BinaryCodec<GameDataResponse> {
+
+    @Override
+    public Class<GameDataResponse> type() {
+        return GameDataResponse.class;
+    }
+
+    @Override
+    public void write(GameDataResponse value, WireWriter out) {
+        out.writeString(value.getLobbyId()).writeVarLong(value.getVersion());
+        PlayerCodec.writeList(value.getPlayers(), out);
+        PlayerCodec.writeReference(value.getPlayingPlayer(), value.getPlayers(), out);
+    }
+
+    @Override
+    public GameDataResponse read(WireReader in) {
+        String lobbyId = in.readString();
+        long version = in.readVarLong();
+        List<Player> players = PlayerCodec.readList(in);
+        return new GameDataResponse(lobbyId, players, PlayerCodec.readReference(players, in), version);
+    }
+}
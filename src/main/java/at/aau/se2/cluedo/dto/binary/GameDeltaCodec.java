@@ -0,0 +1,27 @@
+package at.aau.se2.cluedo.dto.binary;
+
+import at.aau.se2.cluedo.dto.GameDeltaResponse;
+
+final class GameDeltaCodec implements BinaryCodec<GameDeltaResponse> {
+
+    @Override
+    public Class<GameDeltaResponse> type() {
+        return GameDeltaResponse.class;
+    }
+
+    @Override
+    public void write(GameDeltaResponse value, WireWriter out) {
+        out.writeString(value.getLobbyId())
+                .writeVarLong(value.getVersion())
+                .writeString(value.getPlayerName())
+                .writeSignedVarInt(value.getX())
+                .writeSignedVarInt(value.getY())
+                .writeString(value.getPlayingPlayer());
+    }
+
+    @Override
+    public GameDeltaResponse read(WireReader in) {
+        return new GameDeltaResponse(in.readString(), in.readVarLong(), in.readString(), in.readSignedVarInt(),
+                in.readSignedVarInt(), in.readString());
+    }
+}
@@ -0,0 +1,28 @@
+package at.aau.se2.cluedo.dto.binary;
+
+import at.aau.se2.cluedo.dto.LobbyResponse;
+import at.aau.se2.cluedo.models.gameobjects.Player;
+
+import java.util.List;
+
+final class LobbyCodec implements BinaryCodec<LobbyResponse> {
+
+    @Override
+    public Class<LobbyResponse> type() {
+        return LobbyResponse.class;
+    }
+
+    @Override
+    public void write(LobbyResponse value, WireWriter out) {
+        out.writeString(value.getId());
+        PlayerCodec.writeList(value.getPlayers(), out);
+        PlayerCodec.writeReference(value.getHost(), value.getPlayers(), out);
+    }
+
+    @Override
+    public LobbyResponse read(WireReader in) {
+        String id = in.readString();
+        List<Player> players = PlayerCodec.readList(in);
+        return new LobbyResponse(id, PlayerCodec.readReference(players, in), players);
+    }
+}
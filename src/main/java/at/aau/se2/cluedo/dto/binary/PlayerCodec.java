@@ -0,0 +1,162 @@
+package at.aau.se2.cluedo.dto.binary;
+
+import at.aau.se2.cluedo.models.cards.BasicCard;
+import at.aau.se2.cluedo.models.cards.CardCatalog;
+import at.aau.se2.cluedo.models.cards.CardType;
+import at.aau.se2.cluedo.models.gameobjects.Player;
+import at.aau.se2.cluedo.models.gameobjects.PlayerColor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Players inside other messages. Catalog cards are written as their id, the flags share a byte.
+ */
+final class PlayerCodec {
+    private static final PlayerColor[] COLORS = PlayerColor.values();
+    private static final CardType[] CARD_TYPES = CardType.values();
+
+    private static final int ACTIVE = 1;
+    private static final int HAS_WON = 1 << 1;
+    private static final int CURRENT_PLAYER = 1 << 2;
+    private static final int CAN_REPORT = 1 << 3;
+    private static final int HAS_SUGGESTED = 1 << 4;
+
+    // reference to a player of the list written before
+    static final int NO_PLAYER = 0;
+    static final int INLINE_PLAYER = 1;
+
+    private PlayerCodec() {
+    }
+
+    static void write(Player player, WireWriter out) {
+        out.writeString(player.getName())
+                .writeString(player.getCharacter())
+                .writeUuid(player.getPlayerID())
+                .writeEnum(player.getColor())
+                .writeSignedVarInt(player.getStartX())
+                .writeSignedVarInt(player.getStartY())
+                .writeSignedVarInt(player.getX())
+                .writeSignedVarInt(player.getY());
+
+        List<BasicCard> cards = player.getCards();
+        out.writeVarInt(cards.size());
+        for (BasicCard card : cards) {
+            // 0 for cards outside of the catalog, written in full
+            out.writeByte(card.getId() + 1);
+            if (card.getId() == BasicCard.NO_ID) {
+                out.writeString(card.getCardName()).writeUuid(card.getCardID()).writeEnum(card.getType());
+            }
+        }
+
+        int flags = (player.isActive() ? ACTIVE : 0)
+                | (player.hasWon() ? HAS_WON : 0)
+                | (player.isCurrentPlayer() ? CURRENT_PLAYER : 0)
+                | (player.isCanReport() ? CAN_REPORT : 0)
+                | (player.isHasSuggestedInCurrentRoom() ? HAS_SUGGESTED : 0);
+        out.writeByte(flags)
+                .writeString(player.getCurrentRoom())
+                .writeVarInt(player.getSuggestionsInCurrentRoom())
+                .writeString(player.getLastRoomName());
+    }
+
+    static Player read(WireReader in) {
+        String name = in.readString();
+        String character = in.readString();
+        UUID playerID = in.readUuid();
+        PlayerColor color = in.readEnum(COLORS);
+        int startX = in.readSignedVarInt();
+        int startY = in.readSignedVarInt();
+        Player player = new Player(name, character, startX, startY, color, playerID);
+        player.move(in.readSignedVarInt(), in.readSignedVarInt());
+
+        int cards = in.readVarInt();
+        for (int i = 0; i < cards; i++) {
+            int id = in.readByte() - 1;
+            player.addCard(id == BasicCard.NO_ID ? new BasicCard(in.readString(), in.readUuid(), in.readEnum(CARD_TYPES))
+                    : CardCatalog.get(id));
+        }
+
+        int flags = in.readByte();
+        player.setActive((flags & ACTIVE) != 0);
+        player.setHasWon((flags & HAS_WON) != 0);
+        player.setCurrentPlayer((flags & CURRENT_PLAYER) != 0);
+        player.setCanReport((flags & CAN_REPORT) != 0);
+        player.setHasSuggestedInCurrentRoom((flags & HAS_SUGGESTED) != 0);
+        player.setCurrentRoom(in.readString());
+        player.setSuggestionsInCurrentRoom(in.readVarInt());
+        player.setLastRoomName(in.readString());
+        return player;
+    }
+
+    static void writeList(List<Player> players, WireWriter out) {
+        if (players == null) {
+            out.writeVarInt(0);
+            return;
+        }
+        out.writeVarInt(players.size() + 1);
+        for (Player player : players) {
+            write(player, out);
+        }
+    }
+
+    static List<Player> readList(WireReader in) {
+        int size = in.readVarInt() - 1;
+        if (size < 0) {
+            return null;
+        }
+        // every player takes more than a byte, a forged size must not decide the allocation
+        if (size > in.remaining()) {
+            throw new IllegalArgumentException("List of " + size + " players in " + in.remaining() + " bytes");
+        }
+        List<Player> players = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            players.add(read(in));
+        }
+        return players;
+    }
+
+    /**
+     * A player that usually is one of the list written before, e.g. the host of a lobby, written
+     * as its position in the list
+     */
+    static void writeReference(Player player, List<Player> players, WireWriter out) {
+        if (player == null) {
+            out.writeVarInt(NO_PLAYER);
+            return;
+        }
+        int index = players == null ? -1 : indexOf(player, players);
+        if (index < 0) {
+            out.writeVarInt(INLINE_PLAYER);
+            write(player, out);
+        } else {
+            out.writeVarInt(INLINE_PLAYER + 1 + index);
+        }
+    }
+
+    private static int indexOf(Player player, List<Player> players) {
+        // the same instance only, a copy may differ in its state
+        for (int i = 0; i < players.size(); i++) {
+            if (players.get(i) == player) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static Player readReference(List<Player> players, WireReader in) {
+        int reference = in.readVarInt();
+        if (reference == NO_PLAYER) {
+            return null;
+        }
+        if (reference == INLINE_PLAYER) {
+            return read(in);
+        }
+        int index = reference - INLINE_PLAYER - 1;
+        if (players == null || index >= players.size()) {
+            throw new IllegalArgumentException("Unknown player " + index);
+        }
+        return players.get(index);
+    }
+}
@@ -0,0 +1,27 @@
+package at.aau.se2.cluedo.dto.binary;
+
+import at.aau.se2.cluedo.dto.TurnActionRequest;
+
+final class TurnActionCodec implements BinaryCodec<TurnActionRequest> {
+
+    @Override
+    public Class<TurnActionRequest> type() {
+        return TurnActionRequest.class;
+    }
+
+    @Override
+    public void write(TurnActionRequest value, WireWriter out) {
+        out.writeString(value.getPlayerName())
+                .writeString(value.getActionType())
+                .writeSignedVarInt(value.getDiceValue())
+                .writeString(value.getSuspect())
+                .writeString(value.getWeapon())
+                .writeString(value.getRoom());
+    }
+
+    @Override
+    public TurnActionRequest read(WireReader in) {
+        return new TurnActionRequest(in.readString(), in.readString(), in.readSignedVarInt(), in.readString(),
+                in.readString(), in.readString());
+    }
+}
@@ -0,0 +1,65 @@
+package at.aau.se2.cluedo.dto.binary;
+
+import at.aau.se2.cluedo.services.TurnService.TurnState;
+import at.aau.se2.cluedo.services.events.GameEvent;
+
+/**
+ * The game events of every turn
+ */
+final class TurnEventCodecs {
+    private static final TurnState[] STATES = TurnState.values();
+
+    private TurnEventCodecs() {
+    }
+
+    static final class DiceRolled implements BinaryCodec<GameEvent.DiceRolled> {
+        @Override
+        public Class<GameEvent.DiceRolled> type() {
+            return GameEvent.DiceRolled.class;
+        }
+
+        @Override
+        public void write(GameEvent.DiceRolled value, WireWriter out) {
+            out.writeString(value.player()).writeSignedVarInt(value.diceValue()).writeEnum(value.turnState());
+        }
+
+        @Override
+        public GameEvent.DiceRolled read(WireReader in) {
+            return new GameEvent.DiceRolled(in.readString(), in.readSignedVarInt(), in.readEnum(STATES));
+        }
+    }
+
+    static final class CurrentTurn implements BinaryCodec<GameEvent.CurrentTurn> {
+        @Override
+        public Class<GameEvent.CurrentTurn> type() {
+            return GameEvent.CurrentTurn.class;
+        }
+
+        @Override
+        public void write(GameEvent.CurrentTurn value, WireWriter out) {
+            out.writeString(value.currentPlayer()).writeEnum(value.turnState()).writeSignedVarInt(value.playerIndex());
+        }
+
+        @Override
+        public GameEvent.CurrentTurn read(WireReader in) {
+            return new GameEvent.CurrentTurn(in.readString(), in.readEnum(STATES), in.readSignedVarInt());
+        }
+    }
+
+    static final class TurnStateChanged implements BinaryCodec<GameEvent.TurnStateChanged> {
+        @Override
+        public Class<GameEvent.TurnStateChanged> type() {
+            return GameEvent.TurnStateChanged.class;
+        }
+
+        @Override
+        public void write(GameEvent.TurnStateChanged value, WireWriter out) {
+            out.writeEnum(value.turnState()).writeString(value.currentPlayer());
+        }
+
+        @Override
+        public GameEvent.TurnStateChanged read(WireReader in) {
+            return new GameEvent.TurnStateChanged(in.readEnum(STATES), in.readString());
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package at.aau.se2.cluedo.dto.binary;
+
+import at.aau.se2.cluedo.dto.TurnStateResponse;
+import at.aau.se2.cluedo.services.TurnService.TurnState;
+
+final class TurnStateCodec implements BinaryCodec<TurnStateResponse> {
+    private static final TurnState[] STATES = TurnState.values();
+
+    private static final int CAN_SUGGEST = 1;
+    private static final int CAN_ACCUSE = 1 << 1;
+
+    @Override
+    public Class<TurnStateResponse> type() {
+        return TurnStateResponse.class;
+    }
+
+    @Override
+    public void write(TurnStateResponse value, WireWriter out) {
+        out.writeString(value.getLobbyId())
+                .writeString(value.getCurrentPlayerName())
+                .writeSignedVarInt(value.getCurrentPlayerIndex())
+                .writeEnum(value.getTurnState())
+                .writeByte((value.isCanMakeSuggestion() ? CAN_SUGGEST : 0) | (value.isCanMakeAccusation() ? CAN_ACCUSE : 0))
+                .writeSignedVarInt(value.getDiceValue())
+                .writeString(value.getMessage());
+    }
+
+    @Override
+    public TurnStateResponse read(WireReader in) {
+        TurnStateResponse value = new TurnStateResponse();
+        value.setLobbyId(in.readString());
+        value.setCurrentPlayerName(in.readString());
+        value.setCurrentPlayerIndex(in.readSignedVarInt());
+        value.setTurnState(in.readEnum(STATES));
+        int flags = in.readByte();
+        value.setCanMakeSuggestion((flags & CAN_SUGGEST) != 0);
+        value.setCanMakeAccusation((flags & CAN_ACCUSE) != 0);
+        value.setDiceValue(in.readSignedVarInt());
+        value.setMessage(in.readString());
+        return value;
+    }
+}
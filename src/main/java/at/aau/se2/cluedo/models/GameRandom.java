@@ -0,0 +1,112 @@
+package at.aau.se2.cluedo.models;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Random source of one game. Every draw of the game (dealing, dice, teleports) comes from here, so
+ * a game can be played again from its seed. Not thread safe, a game is only used on its lobby's
+ * mailbox.
+ */
+public final class GameRandom {
+    private final long seed;
+    private final SplittableRandom random;
+    // number of 64 bit values drawn so far, the position in the stream of the seed
+    private long draws;
+
+    public GameRandom(long seed) {
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * @return a game random with a seed nobody asked for
+     */
+    public static GameRandom unseeded() {
+        return new GameRandom(new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Continue a stream where it left off
+     * @param seed
+     * @param draws values already drawn from the stream
+     * @return the game random
+     */
+    public static GameRandom restore(long seed, long draws) {
+        GameRandom restored = new GameRandom(seed);
+        restored.skipTo(draws);
+        return restored;
+    }
+
+    /**
+     * Move forward in the stream, e.g. over the draws of a replayed command
+     * @param draws values that should have been drawn afterwards
+     */
+    public void skipTo(long draws) {
+        while (this.draws < draws) {
+            nextLong();
+        }
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getDraws() {
+        return draws;
+    }
+
+    public long nextLong() {
+        draws++;
+        return random.nextLong();
+    }
+
+    /**
+     * @param bound
+     * @return a uniform value in [0, bound)
+     */
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+        // 63 bit values, retried in the rare case they fall into the incomplete last bucket
+        long bits;
+        long value;
+        do {
+            bits = nextLong() >>> 1;
+            value = bits % bound;
+        } while (bits - value + (bound - 1) < 0);
+        return (int) value;
+    }
+
+    /**
+     * @param origin
+     * @param bound
+     * @return a uniform value in [origin, bound)
+     */
+    public int nextInt(int origin, int bound) {
+        return origin + nextInt(bound - origin);
+    }
+
+    public int rollDie() {
+        return nextInt(1, 7);
+    }
+
+    /**
+     * Fisher-Yates shuffle in place
+     * @param list
+     */
+    public void shuffle(List<?> list) {
+        for (int i = list.size() - 1; i > 0; i--) {
+            Collections.swap(list, i, nextInt(i + 1));
+        }
+    }
+
+    /**
+     * @return an independent game random seeded from this one
+     */
+    public GameRandom split() {
+        return new GameRandom(nextLong());
+    }
+}
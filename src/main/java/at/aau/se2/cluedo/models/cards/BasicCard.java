@@ -10,17 +10,32 @@ import java.util.UUID;
 @Getter
 public class BasicCard{
 
+    public static final int NO_ID = -1;
+
     //Variables
     private final String cardName;
     private final UUID cardID;
     private final CardType type;
+    // position in the CardCatalog, NO_ID for cards outside of it
+    private final int id;
 
     public BasicCard(String cardName, UUID cardID, CardType type) {
+        this(cardName, cardID, type, NO_ID);
+    }
+
+    BasicCard(String cardName, UUID cardID, CardType type, int id) {
         this.cardName = cardName;
         this.cardID = cardID;
         this.type = type;
+        this.id = id;
     }
 
+    /**
+     * @return the bit of this card in a card mask, 0 for cards outside of the catalog
+     */
+    public int getMask() {
+        return id == NO_ID ? 0 : 1 << id;
+    }
 
     public boolean cardEquals(BasicCard card){
         if(card == null){
@@ -30,40 +45,15 @@ public class BasicCard{
     }
 
     public static List<BasicCard> getRooms(){
-        List<BasicCard> rooms = new ArrayList<>();
-        rooms.add(new BasicCard("Kitchen", UUID.randomUUID(), CardType.ROOM));
-        rooms.add(new BasicCard("Wintergarden", UUID.randomUUID(), CardType.ROOM));
-        rooms.add(new BasicCard("Music room", UUID.randomUUID(), CardType.ROOM));
-        rooms.add(new BasicCard("Billard room", UUID.randomUUID(), CardType.ROOM));
-        rooms.add(new BasicCard("Dining room", UUID.randomUUID(), CardType.ROOM));
-        rooms.add(new BasicCard("Hall", UUID.randomUUID(), CardType.ROOM));
-        rooms.add(new BasicCard("Library", UUID.randomUUID(), CardType.ROOM));
-        rooms.add(new BasicCard("Salon", UUID.randomUUID(), CardType.ROOM));
-        rooms.add(new BasicCard("Office", UUID.randomUUID(), CardType.ROOM));
-        return rooms;
+        return new ArrayList<>(CardCatalog.rooms());
     }
 
     public static List<BasicCard> getWeapons(){
-        List<BasicCard> weapons = new ArrayList<>();
-        weapons.add(new BasicCard("Wrench", UUID.randomUUID(), CardType.WEAPON));
-        weapons.add(new BasicCard("Rope", UUID.randomUUID(), CardType.WEAPON));
-        weapons.add(new BasicCard("Pipe", UUID.randomUUID(), CardType.WEAPON));
-        weapons.add(new BasicCard("Pistol", UUID.randomUUID(), CardType.WEAPON));
-        weapons.add(new BasicCard("Dagger", UUID.randomUUID(), CardType.WEAPON));
-        weapons.add(new BasicCard("Candlestick", UUID.randomUUID(), CardType.WEAPON));
-        return weapons;
+        return new ArrayList<>(CardCatalog.weapons());
     }
 
     public static List<BasicCard> getCharacters(){
-        List<BasicCard> chracters = new ArrayList<>();
-        chracters.add(new BasicCard("Miss Scarlet", UUID.randomUUID(), CardType.CHARACTER));
-        chracters.add(new BasicCard("Colonel Mustard", UUID.randomUUID(), CardType.CHARACTER));
-        chracters.add(new BasicCard("Mrs. White", UUID.randomUUID(), CardType.CHARACTER));
-        chracters.add(new BasicCard("Mr. Green", UUID.randomUUID(), CardType.CHARACTER));
-        chracters.add(new BasicCard("Mrs. Peacock", UUID.randomUUID(), CardType.CHARACTER));
-        chracters.add(new BasicCard("Professor Plum", UUID.randomUUID(), CardType.CHARACTER));
-        return chracters;
+        return new ArrayList<>(CardCatalog.characters());
     }
 
 }
-
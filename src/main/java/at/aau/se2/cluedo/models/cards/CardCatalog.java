@@ -0,0 +1,99 @@
+package at.aau.se2.cluedo.models.cards;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The 21 cards of the game as shared constants. Every card has a stable id (0-20) so a set of
+ * cards, e.g. a player's hand, fits into the bits of an int.
+ */
+public final class CardCatalog {
+    public static final int CARD_COUNT = 21;
+    public static final int ALL_CARDS_MASK = (1 << CARD_COUNT) - 1;
+
+    private static final String[] ROOMS = {
+            "Kitchen", "Wintergarden", "Music room", "Billard room", "Dining room",
+            "Hall", "Library", "Salon", "Office"
+    };
+    private static final String[] WEAPONS = {
+            "Wrench", "Rope", "Pipe", "Pistol", "Dagger", "Candlestick"
+    };
+    private static final String[] CHARACTERS = {
+            "Miss Scarlet", "Colonel Mustard", "Mrs. White", "Mr. Green", "Mrs. Peacock", "Professor Plum"
+    };
+
+    private static final BasicCard[] CARDS = new BasicCard[CARD_COUNT];
+    private static final Map<String, BasicCard> CARDS_BY_NAME = new HashMap<>();
+    private static final List<BasicCard> ROOM_CARDS = define(ROOMS, CardType.ROOM, 0);
+    private static final List<BasicCard> WEAPON_CARDS = define(WEAPONS, CardType.WEAPON, ROOMS.length);
+    private static final List<BasicCard> CHARACTER_CARDS = define(CHARACTERS, CardType.CHARACTER, ROOMS.length + WEAPONS.length);
+
+    private CardCatalog() {
+    }
+
+    private static List<BasicCard> define(String[] names, CardType type, int firstId) {
+        List<BasicCard> cards = new ArrayList<>(names.length);
+        for (int i = 0; i < names.length; i++) {
+            int id = firstId + i;
+            // stable ids instead of random UUIDs, so creating a game needs no SecureRandom
+            BasicCard card = new BasicCard(names[i], new UUID(0L, id + 1L), type, id);
+            CARDS[id] = card;
+            CARDS_BY_NAME.put(card.getCardName(), card);
+            cards.add(card);
+        }
+        return Collections.unmodifiableList(cards);
+    }
+
+    /**
+     * @param id
+     * @return the card with the id
+     * @throws IllegalArgumentException if there is no card with the id
+     */
+    public static BasicCard get(int id) {
+        if (id < 0 || id >= CARD_COUNT) {
+            throw new IllegalArgumentException("Unknown card id " + id);
+        }
+        return CARDS[id];
+    }
+
+    /**
+     * @param name
+     * @return the card with the name or null if there is none
+     */
+    public static BasicCard byName(String name) {
+        return name == null ? null : CARDS_BY_NAME.get(name);
+    }
+
+    /**
+     * @param name
+     * @return the bit of the card with the name, 0 if there is none
+     */
+    public static int maskOf(String name) {
+        BasicCard card = byName(name);
+        return card == null ? 0 : card.getMask();
+    }
+
+    /**
+     * @param mask
+     * @return the card with the lowest id in the mask, null for an empty mask
+     */
+    public static BasicCard first(int mask) {
+        return mask == 0 ? null : CARDS[Integer.numberOfTrailingZeros(mask)];
+    }
+
+    public static List<BasicCard> rooms() {
+        return ROOM_CARDS;
+    }
+
+    public static List<BasicCard> weapons() {
+        return WEAPON_CARDS;
+    }
+
+    public static List<BasicCard> characters() {
+        return CHARACTER_CARDS;
+    }
+}
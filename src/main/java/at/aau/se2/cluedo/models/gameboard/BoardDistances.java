@@ -0,0 +1,164 @@
+package at.aau.se2.cluedo.models.gameboard;
+
+import java.util.Arrays;
+
+/**
+ * Shortest path lengths on the empty board, built once from the step lists of the
+ * {@link BoardTopology}. Holds an all-pairs cell-to-cell table and a cell-to-room table with the
+ * first step of a shortest path into every room, all as flat arrays with O(1) lookups.
+ * Other players are not taken into account, use {@link Reachability} for an actual move.
+ */
+public final class BoardDistances {
+    public static final int UNREACHABLE = -1;
+
+    private static final int CELLS = BoardTopology.WIDTH * BoardTopology.HEIGHT;
+    private static final byte NO_DISTANCE = (byte) 0xFF;
+    private static final short NO_STEP = -1;
+
+    private final BoardTopology topology;
+    private final int roomCount;
+    // [from * CELLS + to], unsigned, 0xFF when unreachable
+    private final byte[] cellDistances;
+    // [cell * roomCount + room]
+    private final byte[] roomDistances;
+    private final short[] nextSteps;
+
+    private BoardDistances(BoardTopology topology) {
+        this.topology = topology;
+        this.roomCount = topology.getRoomCount();
+        this.cellDistances = new byte[CELLS * CELLS];
+        this.roomDistances = new byte[CELLS * roomCount];
+        this.nextSteps = new short[CELLS * roomCount];
+        buildCellDistances();
+        buildRoomDistances();
+    }
+
+    public static BoardDistances getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Builds new tables, {@link #getInstance()} should be used for lookups.
+     * @param topology
+     * @return distance tables of the topology
+     */
+    public static BoardDistances build(BoardTopology topology) {
+        return new BoardDistances(topology);
+    }
+
+    private void buildCellDistances() {
+        Arrays.fill(cellDistances, NO_DISTANCE);
+        int[] queue = new int[CELLS];
+        for (int from = 0; from < CELLS; from++) {
+            if (!topology.isAccessible(from)) continue;
+
+            int offset = from * CELLS;
+            cellDistances[offset + from] = 0;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = from;
+            while (head < tail) {
+                int cell = queue[head++];
+                int next = (cellDistances[offset + cell] & 0xFF) + 1;
+                for (int step = topology.getStepsStart(cell); step < topology.getStepsEnd(cell); step++) {
+                    int landing = topology.getStepLanding(step);
+                    if (cellDistances[offset + landing] == NO_DISTANCE) {
+                        cellDistances[offset + landing] = (byte) next;
+                        queue[tail++] = landing;
+                    }
+                }
+            }
+        }
+    }
+
+    private void buildRoomDistances() {
+        Arrays.fill(roomDistances, NO_DISTANCE);
+        Arrays.fill(nextSteps, NO_STEP);
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (!topology.isAccessible(cell)) continue;
+
+            for (int room = 0; room < roomCount; room++) {
+                roomDistances[cell * roomCount + room] = (byte) closestRoomCell(cell, room);
+            }
+        }
+
+        // the first step of a shortest path leads to a cell one step closer to the room
+        for (int cell = 0; cell < CELLS; cell++) {
+            for (int room = 0; room < roomCount; room++) {
+                int distance = distanceToRoom(cell, room);
+                if (distance <= 0) continue;
+
+                for (int step = topology.getStepsStart(cell); step < topology.getStepsEnd(cell); step++) {
+                    if (distanceToRoom(topology.getStepLanding(step), room) == distance - 1) {
+                        nextSteps[cell * roomCount + room] = (short) step;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private int closestRoomCell(int cell, int room) {
+        int best = NO_DISTANCE & 0xFF;
+        for (int n = 0; n < topology.getRoomCellCount(room); n++) {
+            int distance = cellDistances[cell * CELLS + topology.getRoomCell(room, n)] & 0xFF;
+            best = Math.min(best, distance);
+        }
+        return best;
+    }
+
+    private static int decode(byte distance) {
+        return distance == NO_DISTANCE ? UNREACHABLE : distance & 0xFF;
+    }
+
+    /**
+     * @param from cell index
+     * @param to cell index
+     * @return fewest steps from one cell to the other or {@link #UNREACHABLE}
+     */
+    public int distance(int from, int to) {
+        return decode(cellDistances[from * CELLS + to]);
+    }
+
+    /**
+     * @param cell cell index
+     * @param roomId
+     * @return fewest steps until the player stands inside the room, 0 if already inside
+     */
+    public int distanceToRoom(int cell, int roomId) {
+        return decode(roomDistances[cell * roomCount + roomId]);
+    }
+
+    /**
+     * @param cell cell index
+     * @param roomId
+     * @return the cell a player lands on after the first step of a shortest path into the room,
+     * {@link BoardTopology#NO_CELL} if already inside or the room can't be reached
+     */
+    public int nextStepToward(int cell, int roomId) {
+        int step = nextSteps[cell * roomCount + roomId];
+        return step == NO_STEP ? BoardTopology.NO_CELL : topology.getStepLanding(step);
+    }
+
+    /**
+     * @param cell cell index
+     * @param roomId
+     * @return W/A/S/D move of the first step into the room or null
+     */
+    public String nextMoveToward(int cell, int roomId) {
+        int step = nextSteps[cell * roomCount + roomId];
+        return step == NO_STEP ? null : BoardTopology.getDirection(topology.getStepDirection(step));
+    }
+
+    /**
+     * @return bytes held by the distance tables
+     */
+    public long getFootprintBytes() {
+        return (long) cellDistances.length + roomDistances.length + 2L * nextSteps.length;
+    }
+
+    // built on first use
+    private static final class Holder {
+        private static final BoardDistances INSTANCE = new BoardDistances(BoardTopology.getInstance());
+    }
+}
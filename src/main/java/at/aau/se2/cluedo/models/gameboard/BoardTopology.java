@@ -0,0 +1,451 @@
+package at.aau.se2.cluedo.models.gameboard;
+
+import java.util.Arrays;
+
+/**
+ * The static layout of the Cluedo board: cell types, room membership, secret passages and the
+ * cells a player can be placed on in every room. The layout never changes, so it is computed once
+ * and shared by all games; per-game state (room occupancy, player positions) lives in
+ * {@link GameBoard} and {@link at.aau.se2.cluedo.models.gameobjects.Player}.
+ *
+ * Cells are addressed by index ({@code y * WIDTH + x}), rooms by their position in the room
+ * definitions. Each cell is packed into one byte: the low three bits hold the {@link CellType}
+ * ordinal, the bits above it the room id + 1 (0 for cells outside of rooms).
+ */
+public final class BoardTopology {
+    public static final int WIDTH = 25;
+    public static final int HEIGHT = 25;
+    public static final int NO_ROOM = -1;
+    public static final int NO_CELL = -1;
+
+    public static final int HALLWAY = CellType.HALLWAY.ordinal();
+    public static final int ROOM = CellType.ROOM.ordinal();
+    public static final int WALL = CellType.WALL.ordinal();
+    public static final int SECRET_PASSAGE = CellType.SECRET_PASSAGE.ordinal();
+    public static final int DOOR = CellType.DOOR.ordinal();
+
+    private static final CellType[] CELL_TYPES = CellType.values();
+    private static final int TYPE_MASK = 0b111;
+    private static final int ROOM_SHIFT = 3;
+
+    private static final String[] ROOM_NAMES = {
+            "Kitchen", "Ballroom", "Conservatory", "Dining Room", "Billiard Room",
+            "Library", "Lounge", "Hall", "Study"
+    };
+    // Bounds of the rooms above: [x, y, width, height]
+    private static final int[][] ROOM_BOUNDS = {
+            {0, 1, 6, 6},
+            {8, 1, 8, 7},
+            {18, 1, 6, 5},
+            {0, 9, 8, 7},
+            {18, 8, 7, 5},
+            {17, 14, 8, 5},
+            {0, 19, 7, 6},
+            {9, 18, 6, 7},
+            {17, 21, 8, 4},
+    };
+    private static final int[][] DOOR_POSITIONS = {
+            {4, 6}, {8, 5}, {9, 7}, {14, 7}, {15, 5}, {18, 5},
+            {7, 12}, {6, 15}, {18, 9}, {23, 12}, {21, 14},
+            {17, 16}, {5, 19}, {11, 18}, {12, 18}, {14, 20},
+            {17, 21}, {6, 24}
+    };
+    private static final int[][] HALLWAY_POSITIONS = {
+            {9, 1}, {8, 1}, {14, 1}, {15, 1},
+            {6, 9}, {7, 9}, {17, 14}, {17, 18},
+            {7, 24}, {0, 17}, {9, 0}, {14, 0},
+            {24, 6}, {24, 19}
+    };
+    // Secret passages as [Room1, Room2]
+    private static final String[][] SECRET_PASSAGES = {
+            {"Kitchen", "Study"},
+            {"Lounge", "Conservatory"}
+    };
+    private static final int[][] SECRET_PASSAGE_POSITIONS = {
+            {5, 1},     // Kitchen
+            {23, 5},    // Conservatory
+            {4, 24},    // for Test cases
+            {24, 21}    // Study
+    };
+    private static final int[][] DIRECTIONS = {{0, 1}, {0, -1}, {1, 0}, {-1, 0}};
+    private static final String[] MOVES = {"S", "W", "D", "A"};
+
+    // declared after the tables it is built from
+    private static final BoardTopology INSTANCE = new BoardTopology();
+
+    private final byte[] cells = new byte[WIDTH * HEIGHT];
+    private final int[] secretPassageTargets = new int[ROOM_NAMES.length];
+    private final int[] passageExits = new int[ROOM_NAMES.length];
+    private final int[][] roomCells = new int[ROOM_NAMES.length][];
+    // single steps as adjacency lists: the steps of cell i are stepOffsets[i] until stepOffsets[i + 1]
+    private final int[] stepOffsets = new int[WIDTH * HEIGHT + 1];
+    private int[] stepTargets;
+    private int[] stepLandings;
+    private byte[] stepDirections;
+    // the same steps by [cell * 4 + direction], NO_CELL where the step isn't allowed
+    private final int[] moveTargets = new int[WIDTH * HEIGHT * 4];
+    private final int[] moveLandings = new int[WIDTH * HEIGHT * 4];
+
+    private BoardTopology() {
+        Arrays.fill(cells, (byte) HALLWAY);
+        initializeWalls();
+        initializeRooms();
+        initializeSecretPassages();
+        initializeRoomCells();
+        initializeSteps();
+    }
+
+    public static BoardTopology getInstance() {
+        return INSTANCE;
+    }
+
+    private void initializeWalls() {
+        for (int x = 0; x < WIDTH; x++) {
+            setType(x, 0, CellType.WALL);
+            setType(x, HEIGHT - 1, CellType.WALL);
+        }
+        for (int y = 0; y < HEIGHT; y++) {
+            setType(0, y, CellType.WALL);
+            setType(WIDTH - 1, y, CellType.WALL);
+        }
+
+        // central block
+        for (int x = WIDTH / 2 - 2; x <= WIDTH / 2 + 2; x++) {
+            for (int y = HEIGHT / 2 - 2; y <= HEIGHT / 2 + 2 + 2; y++) {
+                setType(x, y, CellType.WALL);
+            }
+        }
+    }
+
+    private void initializeRooms() {
+        for (int roomId = 0; roomId < ROOM_NAMES.length; roomId++) {
+            int[] bounds = ROOM_BOUNDS[roomId];
+            for (int x = bounds[0]; x < bounds[0] + bounds[2]; x++) {
+                for (int y = bounds[1]; y < bounds[1] + bounds[3]; y++) {
+                    if (contains(x, y)) {
+                        setType(x, y, CellType.ROOM);
+                        setRoom(x, y, roomId);
+                    }
+                }
+            }
+        }
+        for (int[] pos : DOOR_POSITIONS) {
+            setType(pos[0], pos[1], CellType.DOOR);
+        }
+        for (int[] pos : HALLWAY_POSITIONS) {
+            setType(pos[0], pos[1], CellType.HALLWAY);
+        }
+    }
+
+    private void initializeSecretPassages() {
+        Arrays.fill(secretPassageTargets, NO_ROOM);
+        for (String[] passage : SECRET_PASSAGES) {
+            int first = getRoomId(passage[0]);
+            int second = getRoomId(passage[1]);
+            secretPassageTargets[first] = second;
+            secretPassageTargets[second] = first;
+        }
+        for (int[] pos : SECRET_PASSAGE_POSITIONS) {
+            setType(pos[0], pos[1], CellType.SECRET_PASSAGE);
+        }
+
+        // the exit of a room's passage is the first accessible neighbour of its first passage cell
+        Arrays.fill(passageExits, NO_CELL);
+        for (int x = 0; x < WIDTH; x++) {
+            for (int y = 0; y < HEIGHT; y++) {
+                int roomId = getRoomId(x, y);
+                if (roomId != NO_ROOM && passageExits[roomId] == NO_CELL
+                        && getCellType(x, y) == CellType.SECRET_PASSAGE) {
+                    passageExits[roomId] = findAccessibleNeighbor(x, y);
+                }
+            }
+        }
+    }
+
+    private void initializeRoomCells() {
+        int[] counts = new int[ROOM_NAMES.length];
+        for (int i = 0; i < cells.length; i++) {
+            if (getType(i) == ROOM && getRoomId(i) != NO_ROOM) {
+                counts[getRoomId(i)]++;
+            }
+        }
+        for (int roomId = 0; roomId < ROOM_NAMES.length; roomId++) {
+            roomCells[roomId] = new int[counts[roomId]];
+            counts[roomId] = 0;
+        }
+        for (int i = 0; i < cells.length; i++) {
+            int roomId = getRoomId(i);
+            if (getType(i) == ROOM && roomId != NO_ROOM) {
+                roomCells[roomId][counts[roomId]++] = i;
+            }
+        }
+    }
+
+    private void initializeSteps() {
+        int[] targets = new int[cells.length * DIRECTIONS.length];
+        int[] landings = new int[targets.length];
+        byte[] directions = new byte[targets.length];
+        int count = 0;
+        Arrays.fill(moveTargets, NO_CELL);
+        Arrays.fill(moveLandings, NO_CELL);
+        for (int from = 0; from < cells.length; from++) {
+            stepOffsets[from] = count;
+            for (int direction = 0; direction < DIRECTIONS.length; direction++) {
+                int x = x(from) + DIRECTIONS[direction][0];
+                int y = y(from) + DIRECTIONS[direction][1];
+                if (!contains(x, y) || !isStepValid(from, index(x, y))) continue;
+
+                int to = index(x, y);
+                int landing = landingOf(from, to);
+                moveTargets[from * DIRECTIONS.length + direction] = to;
+                moveLandings[from * DIRECTIONS.length + direction] = landing;
+                if (landing != from) {
+                    targets[count] = to;
+                    landings[count] = landing;
+                    directions[count] = (byte) direction;
+                    count++;
+                }
+            }
+        }
+        stepOffsets[cells.length] = count;
+        stepTargets = Arrays.copyOf(targets, count);
+        stepLandings = Arrays.copyOf(landings, count);
+        stepDirections = Arrays.copyOf(directions, count);
+    }
+
+    // where a player ends up after stepping from one cell onto a neighbouring one
+    private int landingOf(int from, int to) {
+        if (getType(to) == DOOR) {
+            return getDoorExit(from, to);
+        }
+        if (getType(to) == SECRET_PASSAGE && getRoomId(to) != NO_ROOM) {
+            int target = getSecretPassageTarget(getRoomId(to));
+            if (target != NO_ROOM && getPassageExit(target) != NO_CELL) {
+                return getPassageExit(target);
+            }
+        }
+        return to;
+    }
+
+    private int findAccessibleNeighbor(int x, int y) {
+        for (int[] d : DIRECTIONS) {
+            int nx = x + d[0];
+            int ny = y + d[1];
+            if (contains(nx, ny) && isAccessible(index(nx, ny))) {
+                return index(nx, ny);
+            }
+        }
+        return NO_CELL;
+    }
+
+    private void setType(int x, int y, CellType type) {
+        int i = index(x, y);
+        cells[i] = (byte) ((cells[i] & ~TYPE_MASK) | type.ordinal());
+    }
+
+    private void setRoom(int x, int y, int roomId) {
+        int i = index(x, y);
+        cells[i] = (byte) ((cells[i] & TYPE_MASK) | ((roomId + 1) << ROOM_SHIFT));
+    }
+
+    public boolean contains(int x, int y) {
+        return x >= 0 && x < WIDTH && y >= 0 && y < HEIGHT;
+    }
+
+    public int index(int x, int y) {
+        return y * WIDTH + x;
+    }
+
+    public int x(int index) {
+        return index % WIDTH;
+    }
+
+    public int y(int index) {
+        return index / WIDTH;
+    }
+
+    public CellType getCellType(int x, int y) {
+        return getCellType(index(x, y));
+    }
+
+    public CellType getCellType(int index) {
+        return CELL_TYPES[getType(index)];
+    }
+
+    /**
+     * @param index
+     * @return the cell type ordinal, to be compared against {@link #HALLWAY}, {@link #ROOM}, ...
+     */
+    public int getType(int index) {
+        return cells[index] & TYPE_MASK;
+    }
+
+    public boolean isAccessible(int index) {
+        return getType(index) != WALL;
+    }
+
+    /**
+     * Checks a single step between two cells, ignoring other players.
+     * @param from
+     * @param to
+     * @return true if a player may step from one cell onto the other
+     */
+    public boolean isStepValid(int from, int to) {
+        int toType = getType(to);
+        if (toType == WALL) return false;
+
+        int fromType = getType(from);
+        return fromType == toType ||
+                fromType == DOOR ||
+                toType == DOOR ||
+                fromType == SECRET_PASSAGE ||
+                toType == SECRET_PASSAGE;
+    }
+
+    /**
+     * A player stepping onto a door is put on the first neighbouring cell of another type than
+     * the one they came from.
+     * @param from cell the player comes from or {@link #NO_CELL}
+     * @param door
+     * @return the cell the player is put on
+     */
+    public int getDoorExit(int from, int door) {
+        int fromType = from == NO_CELL ? -1 : getType(from);
+        for (int[] dir : DIRECTIONS) {
+            int x = x(door) + dir[0];
+            int y = y(door) + dir[1];
+            if (contains(x, y)) {
+                int neighborType = getType(index(x, y));
+                if (neighborType != DOOR && fromType != neighborType) {
+                    return index(x, y);
+                }
+            }
+        }
+        return from == NO_CELL ? door : from;
+    }
+
+    public int getStepsStart(int cell) {
+        return stepOffsets[cell];
+    }
+
+    public int getStepsEnd(int cell) {
+        return stepOffsets[cell + 1];
+    }
+
+    /**
+     * @param step
+     * @return the cell the step moves onto
+     */
+    public int getStepTarget(int step) {
+        return stepTargets[step];
+    }
+
+    /**
+     * @param step
+     * @return the cell the player ends up on after the step (behind a door, at a passage exit)
+     */
+    public int getStepLanding(int step) {
+        return stepLandings[step];
+    }
+
+    /**
+     * @param step
+     * @return index into {@link #getDirection(int)}
+     */
+    public int getStepDirection(int step) {
+        return stepDirections[step];
+    }
+
+    /**
+     * @param cell
+     * @param direction
+     * @return the cell a step in the direction moves onto or {@link #NO_CELL} if the step isn't allowed
+     */
+    public int getMoveTarget(int cell, int direction) {
+        return moveTargets[cell * DIRECTIONS.length + direction];
+    }
+
+    /**
+     * @param cell
+     * @param direction
+     * @return the cell the player ends up on after a step in the direction or {@link #NO_CELL}
+     */
+    public int getMoveLanding(int cell, int direction) {
+        return moveLandings[cell * DIRECTIONS.length + direction];
+    }
+
+    /**
+     * @param move
+     * @return the step direction of a W/A/S/D move (any case), -1 for anything else
+     */
+    public static int getDirection(String move) {
+        for (int direction = 0; direction < MOVES.length; direction++) {
+            if (MOVES[direction].equalsIgnoreCase(move)) {
+                return direction;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param direction
+     * @return the W/A/S/D move of a step direction
+     */
+    public static String getDirection(int direction) {
+        return MOVES[direction];
+    }
+
+    public int getRoomId(int x, int y) {
+        return getRoomId(index(x, y));
+    }
+
+    public int getRoomId(int index) {
+        return ((cells[index] & 0xFF) >> ROOM_SHIFT) - 1;
+    }
+
+    public int getRoomId(String name) {
+        for (int roomId = 0; roomId < ROOM_NAMES.length; roomId++) {
+            if (ROOM_NAMES[roomId].equals(name)) {
+                return roomId;
+            }
+        }
+        return NO_ROOM;
+    }
+
+    public int getRoomCount() {
+        return ROOM_NAMES.length;
+    }
+
+    public String getRoomName(int roomId) {
+        return ROOM_NAMES[roomId];
+    }
+
+    /**
+     * @param roomId
+     * @return the room at the other end of the room's secret passage or {@link #NO_ROOM}
+     */
+    public int getSecretPassageTarget(int roomId) {
+        return secretPassageTargets[roomId];
+    }
+
+    /**
+     * @param roomId
+     * @return the cell a player arrives on when taking a secret passage into the room or {@link #NO_CELL}
+     */
+    public int getPassageExit(int roomId) {
+        return passageExits[roomId];
+    }
+
+    public int getRoomCellCount(int roomId) {
+        return roomCells[roomId].length;
+    }
+
+    /**
+     * @param roomId
+     * @param n
+     * @return index of the n-th plain room cell of the room, in row order
+     */
+    public int getRoomCell(int roomId, int n) {
+        return roomCells[roomId][n];
+    }
+}
@@ -1,11 +1,11 @@
 package at.aau.se2.cluedo.models.gameboard;
 
+import at.aau.se2.cluedo.models.GameRandom;
 import at.aau.se2.cluedo.models.gameobjects.Player;
 import lombok.Getter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,270 +21,194 @@ public class GameBoard {
     public static final String BLUE = "\u001B[44m";
     public static final String PURPLE = "\u001B[45m";
     public static final String RESET = "\u001B[0m";
-    public static final int WIDTH = 25;
-    public static final int HEIGHT = 25;
-    @Getter
-    private final GameBoardCell[][] grid;
+    public static final int WIDTH = BoardTopology.WIDTH;
+    public static final int HEIGHT = BoardTopology.HEIGHT;
+
+    private final BoardTopology topology;
+    // per-game state: the rooms hold the occupancy, indexed like the topology's rooms
+    private final Room[] roomsById;
     @Getter
     private final Map<String, Room> rooms;
     public final Map<Room, Room> secretPassages;
+    // cell objects are only materialized when the whole grid is requested
+    private GameBoardCell[][] grid;
+    // the game's random source, picks the cell of teleports
+    private final GameRandom random;
 
     public GameBoard() {
-        this.grid = new GameBoardCell[WIDTH][HEIGHT];
-        this.rooms = new HashMap<>();
-        this.secretPassages = new HashMap<>();
-        initializeGameBoard();
-        createRooms();
-        initializeSecretPassages();
+        this(GameRandom.unseeded());
     }
 
-
-    private void initializeGameBoard() {
-        // 1. Initialize everything as hallways
-        for (int x = 0; x < WIDTH; x++) {
-            for (int y = 0; y < HEIGHT; y++) {
-                grid[x][y] = new GameBoardCell(x, y, CellType.HALLWAY);
-            }
-        }
-
-        // 2. Set outer border as walls
-        for (int x = 0; x < WIDTH; x++) {
-            grid[x][0].setCellType(CellType.WALL);
-            grid[x][HEIGHT - 1].setCellType(CellType.WALL);
-        }
-        for (int y = 0; y < HEIGHT; y++) {
-            grid[0][y].setCellType(CellType.WALL);
-            grid[WIDTH - 1][y].setCellType(CellType.WALL);
+    public GameBoard(GameRandom random) {
+        this.random = random;
+        this.topology = BoardTopology.getInstance();
+        this.roomsById = new Room[topology.getRoomCount()];
+        this.rooms = new HashMap<>();
+        this.secretPassages = new HashMap<>();
+        for (int roomId = 0; roomId < roomsById.length; roomId++) {
+            Room room = new Room(topology.getRoomName(roomId));
+            roomsById[roomId] = room;
+            rooms.put(room.getName(), room);
         }
-
-        // 3. Set central block as walls (5x5 in center)
-        for (int x = WIDTH / 2 - 2; x <= WIDTH / 2 + 2; x++) {
-            for (int y = HEIGHT / 2 - 2; y <= HEIGHT / 2 + 2 + 2; y++) {
-                grid[x][y].setCellType(CellType.WALL);
+        for (int roomId = 0; roomId < roomsById.length; roomId++) {
+            int target = topology.getSecretPassageTarget(roomId);
+            if (target != BoardTopology.NO_ROOM) {
+                secretPassages.put(roomsById[roomId], roomsById[target]);
             }
         }
     }
 
-    private void createRooms() {
-        defineRooms();
-        defineDoors();
-        defineHallways();
-    }
-
-    private void defineRooms() {
-        // Definition of all 9 rooms: [Name, x, y, width, height]
-        String[][] roomDefinitions = {
-                {"Kitchen", "0", "1", "6", "6"},
-                {"Ballroom", "8", "1", "8", "7"},
-                {"Conservatory", "18", "1", "6", "5"},
-                {"Dining Room", "0", "9", "8", "7"},
-                {"Billiard Room", "18", "8", "7", "5"},
-                {"Library", "17", "14", "8", "5"},
-                {"Lounge", "0", "19", "7", "6"},
-                {"Hall", "9", "18", "6", "7"},
-                {"Study", "17", "21", "8", "4"},
-        };
-
-        for (String[] def : roomDefinitions) {
-            createRoom(def[0],
-                    Integer.parseInt(def[1]),
-                    Integer.parseInt(def[2]),
-                    Integer.parseInt(def[3]),
-                    Integer.parseInt(def[4]));
+    /**
+     * Returns the board as cell objects, building them on first use.
+     * @return grid indexed by [x][y]
+     */
+    public GameBoardCell[][] getGrid() {
+        if (grid == null) {
+            GameBoardCell[][] cells = new GameBoardCell[WIDTH][HEIGHT];
+            for (int x = 0; x < WIDTH; x++) {
+                for (int y = 0; y < HEIGHT; y++) {
+                    cells[x][y] = createCell(x, y);
+                }
+            }
+            grid = cells;
         }
+        return grid;
     }
 
-    private void defineDoors() {
-        int[][] doorPositions = {
-                {4, 6}, {8, 5}, {9, 7}, {14, 7}, {15, 5}, {18, 5},
-                {7, 12}, {6, 15}, {18, 9}, {23, 12}, {21, 14},
-                {17, 16}, {5, 19}, {11, 18}, {12, 18}, {14, 20},
-                {17, 21}, {6, 24}
-        };
-
-        for (int[] pos : doorPositions) {
-            setDoor(pos[0], pos[1]);
+    /**
+     * Returns the cell at the given position. Unless the grid has been materialized this is a
+     * fresh view of the shared topology, so changes to it are not reflected on the board.
+     * @param x
+     * @param y
+     * @return the cell or null if the position is off the board
+     */
+    public GameBoardCell getCell(int x, int y) {
+        if (!topology.contains(x, y)) {
+            return null;
         }
+        return grid != null ? grid[x][y] : createCell(x, y);
     }
 
-    private void defineHallways() {
-        int[][] hallwayPositions = {
-                {9, 1}, {8, 1}, {14, 1}, {15, 1},
-                {6, 9}, {7, 9}, {17, 14}, {17, 18},
-                {7, 24}, {0, 17}, {9, 0}, {14, 0},
-                {24, 6}, {24, 19}
-        };
-
-        for (int[] pos : hallwayPositions) {
-            setHallway(pos[0], pos[1]);
-        }
+    private GameBoardCell createCell(int x, int y) {
+        GameBoardCell cell = new GameBoardCell(x, y, topology.getCellType(x, y));
+        cell.setRoom(getRoomAt(x, y));
+        return cell;
     }
 
-
-    private void createRoom(String name, int startX, int startY, int width, int height) {
-        Room room = new Room(name);
-        rooms.put(name, room);
-
-        for (int x = startX; x < startX + width; x++) {
-            for (int y = startY; y < startY + height; y++) {
-                if (x < WIDTH && y < HEIGHT) {
-                    grid[x][y].setCellType(CellType.ROOM);
-                    grid[x][y].setRoom(room);
-                }
-            }
-        }
+    public CellType getCellType(int x, int y) {
+        return topology.contains(x, y) ? topology.getCellType(x, y) : null;
     }
 
-    private void setDoor(int x, int y) {
-        grid[x][y].setCellType(CellType.DOOR);
+    /**
+     * @param x
+     * @param y
+     * @return the room the position belongs to or null
+     */
+    public Room getRoomAt(int x, int y) {
+        return topology.contains(x, y) ? roomOf(topology.index(x, y)) : null;
     }
 
-    private void setHallway(int x, int y) {
-        grid[x][y].setCellType(CellType.HALLWAY);
+    private Room roomOf(int index) {
+        int roomId = topology.getRoomId(index);
+        return roomId == BoardTopology.NO_ROOM ? null : roomsById[roomId];
     }
 
-    private void initializeSecretPassages() {
-        // Secret passages as array with [Room1, Room2]
-        String[][] secretPassageDefinitions = {
-                {"Kitchen", "Study"},
-                {"Lounge", "Conservatory"}
-        };
-
-        for (String[] passage : secretPassageDefinitions) {
-            secretPassages.put(rooms.get(passage[0]), rooms.get(passage[1]));
-            secretPassages.put(rooms.get(passage[1]), rooms.get(passage[0]));
-        }
-
-        // Mark secret passage cells
-        grid[5][1].setCellType(CellType.SECRET_PASSAGE);    // Kitchen
-        grid[23][5].setCellType(CellType.SECRET_PASSAGE);   // Conservatory
-        //grid[0][19].setCellType(CellType.SECRET_PASSAGE);   // Lounge
-
-        grid[4][24].setCellType(CellType.SECRET_PASSAGE);   // for Test cases
-        grid[24][21].setCellType(CellType.SECRET_PASSAGE);   // Study
-    }
-
-    public GameBoardCell getCell(int x, int y) {
-        if (x >= 0 && x < WIDTH && y >= 0 && y < HEIGHT) {
-            return grid[x][y];
+    private int roomIdOf(Room room) {
+        for (int roomId = 0; roomId < roomsById.length; roomId++) {
+            if (roomsById[roomId] == room) {
+                return roomId;
+            }
         }
-        return null;
+        return BoardTopology.NO_ROOM;
     }
 
-
     public boolean movePlayer(Player player, int newX, int newY, boolean teleport) {
-        GameBoardCell target = getCell(newX, newY);
-        GameBoardCell current = getCell(player.getX(), player.getY());
+        if (!topology.contains(newX, newY)) return false;
+        int target = topology.index(newX, newY);
+        int current = topology.contains(player.getX(), player.getY())
+                ? topology.index(player.getX(), player.getY())
+                : BoardTopology.NO_CELL;
 
         if (!isMoveValid(current, target, teleport)) return false;
 
-        if (target.getCellType() == CellType.DOOR) {
-            int[] corrected = adjustPositionForDoor(current, target);
-            newX = corrected[0];
-            newY = corrected[1];
+        int destination = target;
+        if (topology.getType(target) == BoardTopology.DOOR) {
+            destination = topology.getDoorExit(current, target);
         }
 
-        player.move(newX, newY);
+        player.move(topology.x(destination), topology.y(destination));
         updateRoomPresence(current, target, player);
 
-        if (target.getCellType() == CellType.SECRET_PASSAGE) {
+        if (topology.getType(target) == BoardTopology.SECRET_PASSAGE) {
             return useSecretPassage(player);
         }
 
         return true;
     }
 
-    private boolean isMoveValid(GameBoardCell from, GameBoardCell to, boolean teleport) {
-        return to != null && to.isAccessible() && (
-                teleport ||
-                from.getCellType() == to.getCellType() ||
-                from.getCellType() == CellType.DOOR ||
-                to.getCellType() == CellType.DOOR ||
-                from.getCellType() == CellType.SECRET_PASSAGE ||
-                to.getCellType() == CellType.SECRET_PASSAGE
-        );
+    /**
+     * Puts a player on a cell that was validated before, e.g. by the {@link PathValidator}, and
+     * updates the room occupancy.
+     * @param player
+     * @param from cell index the player leaves
+     * @param to cell index the player ends up on
+     */
+    public void placePlayer(Player player, int from, int to) {
+        player.move(topology.x(to), topology.y(to));
+        if (topology.getType(from) == BoardTopology.ROOM) roomOf(from).playerLeavesRoom(player);
+        if (topology.getType(to) == BoardTopology.ROOM) roomOf(to).playerEntersRoom(player);
+    }
+
+    private boolean isMoveValid(int from, int to, boolean teleport) {
+        if (teleport) return topology.isAccessible(to);
+        return from != BoardTopology.NO_CELL && topology.isStepValid(from, to);
     }
 
     public int[] adjustPositionForDoor(GameBoardCell from, GameBoardCell door) {
-        int[][] directions = {{0,1}, {0,-1}, {1,0}, {-1,0}};
-        for (int[] dir : directions) {
-            GameBoardCell neighbor = getCell(door.getX() + dir[0], door.getY() + dir[1]);
-            if (neighbor != null && neighbor.getCellType() != CellType.DOOR &&
-                    from.getCellType() != neighbor.getCellType()) {
-                return new int[]{door.getX() + dir[0], door.getY() + dir[1]};
-            }
-        }
-        return new int[]{from.getX(), from.getY()};
+        int corrected = topology.getDoorExit(topology.index(from.getX(), from.getY()), topology.index(door.getX(), door.getY()));
+        return new int[]{topology.x(corrected), topology.y(corrected)};
     }
 
     public void updateRoomPresence(GameBoardCell from, GameBoardCell to, Player player) {
-        if (from.getCellType() == CellType.ROOM) from.getRoom().playerLeavesRoom(player);
-        if (to.getCellType() == CellType.ROOM) to.getRoom().playerEntersRoom(player);
+        updateRoomPresence(topology.index(from.getX(), from.getY()), topology.index(to.getX(), to.getY()), player);
+    }
+
+    private void updateRoomPresence(int from, int to, Player player) {
+        if (from != BoardTopology.NO_CELL && topology.getType(from) == BoardTopology.ROOM) roomOf(from).playerLeavesRoom(player);
+        if (topology.getType(to) == BoardTopology.ROOM) roomOf(to).playerEntersRoom(player);
     }
 
     public boolean useSecretPassage(Player player) {
-        GameBoardCell current = getCell(player.getX(), player.getY());
-        if (current.getCellType() != CellType.SECRET_PASSAGE || current.getRoom() == null) return false;
+        if (!topology.contains(player.getX(), player.getY())) return false;
+        int current = topology.index(player.getX(), player.getY());
+        int roomId = topology.getRoomId(current);
+        if (topology.getType(current) != BoardTopology.SECRET_PASSAGE || roomId == BoardTopology.NO_ROOM) return false;
 
-        Room target = secretPassages.get(current.getRoom());
-        if (target == null) return false;
+        int target = topology.getSecretPassageTarget(roomId);
+        if (target == BoardTopology.NO_ROOM) return false;
 
-        GameBoardCell targetCell = findPassageExitInRoom(target);
-        if (targetCell != null) {
-            player.move(targetCell.getX(), targetCell.getY());
+        int exit = topology.getPassageExit(target);
+        if (exit != BoardTopology.NO_CELL) {
+            player.move(topology.x(exit), topology.y(exit));
             return true;
         }
         return false;
     }
 
     public GameBoardCell findPassageExitInRoom(Room room) {
-        for (int x = 0; x < WIDTH; x++) {
-            for (int y = 0; y < HEIGHT; y++) {
-                GameBoardCell cell = grid[x][y];
-                if (isSecretPassageInRoom(cell, room)) {
-                    GameBoardCell exit = findAccessibleNeighbor(x, y);
-                    if (exit != null) {
-                        return exit;
-                    }
-                }
-            }
-        }
-        return null;
-    }
+        int roomId = roomIdOf(room);
+        if (roomId == BoardTopology.NO_ROOM) return null;
 
-    private boolean isSecretPassageInRoom(GameBoardCell cell, Room room) {
-        return cell.getRoom() == room && cell.getCellType() == CellType.SECRET_PASSAGE;
+        int exit = topology.getPassageExit(roomId);
+        return exit == BoardTopology.NO_CELL ? null : getCell(topology.x(exit), topology.y(exit));
     }
 
-    private GameBoardCell findAccessibleNeighbor(int x, int y) {
-        int[][] directions = {{0, 1}, {0, -1}, {1, 0}, {-1, 0}};
-        for (int[] d : directions) {
-            GameBoardCell neighbor = getCell(x + d[0], y + d[1]);
-            if (neighbor != null && neighbor.isAccessible()) {
-                return neighbor;
-            }
-        }
-        return null;
-    }
     public void teleportPlayerToRoom(Player player, Room room){
-        List<GameBoardCell> roomCells = new ArrayList<>();
-        for (int y = 0; y < HEIGHT; y++) {
-            for (int x = 0; x < WIDTH; x++) {
-                GameBoardCell cell = grid[x][y];
-                if(cell.getRoom() == room && cell.getCellType() == CellType.ROOM){
-                    roomCells.add(cell);
-                }
-            }
-        }
+        int roomId = roomIdOf(room);
+        if (roomId == BoardTopology.NO_ROOM || topology.getRoomCellCount(roomId) == 0) return;
 
-        String time = String.valueOf(System.currentTimeMillis());
-        int lastDigitsCount = 7;
-        try {
-            GameBoardCell targetCell = roomCells.get(Integer.parseInt(time.substring(time.length()-lastDigitsCount)) % roomCells.size());
-            movePlayer(player, targetCell.getX(),targetCell.getY(),true);
-        } catch (Exception e) {
-            teleportPlayerToRoom(player,room);
-        }
+        int targetCell = topology.getRoomCell(roomId, random.nextInt(topology.getRoomCellCount(roomId)));
+        movePlayer(player, topology.x(targetCell), topology.y(targetCell), true);
     }
 
     public void displayGameBoard(List<Player> players) {
@@ -302,8 +226,7 @@ public class GameBoard {
 
             for (int x = 0; x < WIDTH; x++) {
 
-                GameBoardCell cell = grid[x][y];
-                char symbol = getSymbol(cell);
+                char symbol = getSymbol(x, y);
                 String color = getColor(players, x, y);
 
                 logger.debug("{}{}" + RESET + " ", color, symbol);
@@ -311,11 +234,11 @@ public class GameBoard {
         }
     }
 
-    private char getSymbol(GameBoardCell cell) {
+    private char getSymbol(int x, int y) {
         char retChar;
-        switch (cell.getCellType()) {
+        switch (topology.getCellType(x, y)) {
             case HALLWAY -> retChar = '.';
-            case ROOM -> retChar = cell.getRoom().getName().charAt(0);
+            case ROOM -> retChar = topology.getRoomName(topology.getRoomId(x, y)).charAt(0);
             case WALL -> retChar = '|';
             case SECRET_PASSAGE -> retChar = 'G';
             case DOOR -> retChar = 'D';
@@ -0,0 +1,40 @@
+package at.aau.se2.cluedo.models.gameboard;
+
+/**
+ * Outcome of a move sequence checked by the {@link PathValidator}.
+ *
+ * @param x      column the player ends up on
+ * @param y      row the player ends up on
+ * @param steps  number of moves that were applied
+ * @param reason why the validation stopped
+ */
+public record PathResult(int x, int y, int steps, Reason reason) {
+
+    public enum Reason {
+        // all moves applied
+        COMPLETED,
+        // stopped by an explicit "X" move, the moves before it are applied
+        STOPPED,
+        EMPTY,
+        TOO_MANY_STEPS,
+        INVALID_MOVE,
+        BLOCKED_BY_BOARD,
+        BLOCKED_BY_PLAYER,
+        // the player doesn't stand on the board, nothing is applied
+        OFF_BOARD
+    }
+
+    /**
+     * @param result packed result of {@link PathValidator#validate}
+     * @return the unpacked result
+     */
+    public static PathResult of(long result) {
+        BoardTopology topology = BoardTopology.getInstance();
+        int cell = PathValidator.finalCell(result);
+        return new PathResult(topology.x(cell), topology.y(cell), PathValidator.steps(result), PathValidator.reason(result));
+    }
+
+    public boolean isCompleted() {
+        return reason == Reason.COMPLETED;
+    }
+}
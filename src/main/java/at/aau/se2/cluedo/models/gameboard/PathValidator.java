@@ -0,0 +1,127 @@
+package at.aau.se2.cluedo.models.gameboard;
+
+import at.aau.se2.cluedo.models.gameboard.PathResult.Reason;
+
+import java.util.List;
+
+/**
+ * Validates a whole move sequence in one pass without allocating. Moves are encoded as one byte
+ * per step (the step directions of the {@link BoardTopology}, {@link #STOP} or {@link #INVALID}),
+ * other players as an occupancy bitmap with one bit per cell. The result is packed into a long:
+ * the cell the player ends up on, the number of applied steps and the {@link Reason} the
+ * validation stopped; {@link PathResult#of(long)} unpacks it.
+ */
+public final class PathValidator {
+    public static final byte SOUTH = 0;
+    public static final byte NORTH = 1;
+    public static final byte EAST = 2;
+    public static final byte WEST = 3;
+    public static final byte STOP = 4;
+    public static final byte INVALID = 5;
+
+    private static final int CELLS = BoardTopology.WIDTH * BoardTopology.HEIGHT;
+    private static final Reason[] REASONS = Reason.values();
+    private static final int STEPS_SHIFT = 16;
+    private static final int REASON_SHIFT = 32;
+    private static final long FIELD_MASK = 0xFFFF;
+
+    private PathValidator() {
+    }
+
+    /**
+     * @param start cell the player stands on
+     * @param moves encoded moves
+     * @param length number of moves to read from the array
+     * @param maxSteps most moves allowed (the dice roll)
+     * @param occupied occupancy bitmap of the other players, see {@link #newOccupancy()}
+     * @return packed result
+     */
+    public static long validate(int start, byte[] moves, int length, int maxSteps, long[] occupied) {
+        if (length == 0) return pack(start, 0, Reason.EMPTY);
+        if (length > maxSteps) return pack(start, 0, Reason.TOO_MANY_STEPS);
+
+        BoardTopology topology = BoardTopology.getInstance();
+        int cell = start;
+        for (int i = 0; i < length; i++) {
+            byte move = moves[i];
+            if (move == STOP) return pack(cell, i, Reason.STOPPED);
+            if (move < SOUTH || move > WEST) return pack(cell, i, Reason.INVALID_MOVE);
+
+            int target = topology.getMoveTarget(cell, move);
+            if (target == BoardTopology.NO_CELL) return pack(cell, i, Reason.BLOCKED_BY_BOARD);
+            int landing = topology.getMoveLanding(cell, move);
+            if (isBlocked(occupied, target, landing)) return pack(cell, i, Reason.BLOCKED_BY_PLAYER);
+
+            cell = landing;
+        }
+        return pack(cell, length, Reason.COMPLETED);
+    }
+
+    /**
+     * Collision rule of every move, also used by {@link Reachability}: a step is blocked if another
+     * player stands on the cell it moves onto or on the cell it lands on behind a door or passage.
+     * @param occupied occupancy bitmap of the other players
+     * @param target cell the step moves onto
+     * @param landing cell the player ends up on
+     * @return true if the step is blocked
+     */
+    public static boolean isBlocked(long[] occupied, int target, int landing) {
+        return isOccupied(occupied, target) || isOccupied(occupied, landing);
+    }
+
+    /**
+     * @param cell cell the player stays on, meaningless for {@link Reason#OFF_BOARD}
+     * @param reason why nothing was applied
+     * @return packed result of a sequence rejected before its first move
+     */
+    public static long rejected(int cell, Reason reason) {
+        return pack(cell, 0, reason);
+    }
+
+    /**
+     * Encodes W/A/S/D/X moves into a buffer
+     * @param moves
+     * @param buffer must hold at least {@code moves.size()} bytes
+     * @return number of encoded moves
+     */
+    public static int encode(List<String> moves, byte[] buffer) {
+        for (int i = 0; i < moves.size(); i++) {
+            buffer[i] = encode(moves.get(i));
+        }
+        return moves.size();
+    }
+
+    public static byte encode(String move) {
+        if ("X".equalsIgnoreCase(move)) return STOP;
+        int direction = BoardTopology.getDirection(move);
+        return direction < 0 ? INVALID : (byte) direction;
+    }
+
+    private static long pack(int cell, int steps, Reason reason) {
+        return cell | ((long) steps << STEPS_SHIFT) | ((long) reason.ordinal() << REASON_SHIFT);
+    }
+
+    public static int finalCell(long result) {
+        return (int) (result & FIELD_MASK);
+    }
+
+    public static int steps(long result) {
+        return (int) ((result >>> STEPS_SHIFT) & FIELD_MASK);
+    }
+
+    public static Reason reason(long result) {
+        return REASONS[(int) ((result >>> REASON_SHIFT) & FIELD_MASK)];
+    }
+
+    public static long[] newOccupancy() {
+        return new long[(CELLS + 63) / 64];
+    }
+
+    public static void occupy(long[] occupied, int cell) {
+        occupied[cell >>> 6] |= 1L << cell;
+    }
+
+    public static boolean isOccupied(long[] occupied, int cell) {
+        return (occupied[cell >>> 6] & (1L << cell)) != 0;
+    }
+}
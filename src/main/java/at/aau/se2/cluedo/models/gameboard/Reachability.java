@@ -0,0 +1,125 @@
+package at.aau.se2.cluedo.models.gameboard;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * All cells a player can reach from a start cell within a number of steps. Computed by a
+ * breadth-first search over the precomputed step lists of the {@link BoardTopology}, so doors,
+ * secret passages, walls and other players behave exactly like moves checked by the
+ * {@link PathValidator}.
+ */
+public final class Reachability {
+    private static final byte UNREACHED = -1;
+
+    private final BoardTopology topology;
+    private final int start;
+    private final int maxSteps;
+    private final byte[] distances;
+    // the step each cell was first reached by and the cell it was taken from
+    private final int[] parentSteps;
+    private final int[] parentCells;
+
+    private Reachability(BoardTopology topology, int start, int maxSteps) {
+        this.topology = topology;
+        this.start = start;
+        this.maxSteps = Math.min(maxSteps, Byte.MAX_VALUE);
+        this.distances = new byte[BoardTopology.WIDTH * BoardTopology.HEIGHT];
+        this.parentSteps = new int[distances.length];
+        this.parentCells = new int[distances.length];
+    }
+
+    /**
+     * @param start cell index the player stands on
+     * @param maxSteps number of steps the player may take at most
+     * @param occupied occupancy bitmap of the other players, see {@link PathValidator#newOccupancy()}
+     * @return the reachable cells
+     */
+    public static Reachability compute(int start, int maxSteps, long[] occupied) {
+        Reachability reachability = new Reachability(BoardTopology.getInstance(), start, maxSteps);
+        reachability.search(occupied);
+        return reachability;
+    }
+
+    /**
+     * @return a reachability without reachable cells, e.g. for a player that is not on the board
+     */
+    public static Reachability none() {
+        Reachability reachability = new Reachability(BoardTopology.getInstance(), -1, 0);
+        Arrays.fill(reachability.distances, UNREACHED);
+        return reachability;
+    }
+
+    private void search(long[] occupied) {
+        Arrays.fill(distances, UNREACHED);
+        distances[start] = 0;
+
+        int[] queue = new int[distances.length];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        while (head < tail) {
+            int cell = queue[head++];
+            if (distances[cell] >= maxSteps) continue;
+
+            for (int step = topology.getStepsStart(cell); step < topology.getStepsEnd(cell); step++) {
+                int landing = topology.getStepLanding(step);
+                if (distances[landing] != UNREACHED
+                        || PathValidator.isBlocked(occupied, topology.getStepTarget(step), landing)) continue;
+
+                distances[landing] = (byte) (distances[cell] + 1);
+                parentSteps[landing] = step;
+                parentCells[landing] = cell;
+                queue[tail++] = landing;
+            }
+        }
+    }
+
+    public boolean isReachable(int cell) {
+        return cell != start && distances[cell] > 0;
+    }
+
+    /**
+     * @param cell
+     * @return the fewest steps needed to reach the cell, -1 if it can't be reached
+     */
+    public int getDistance(int cell) {
+        return distances[cell];
+    }
+
+    /**
+     * @return indices of all reachable cells, in row order
+     */
+    public int[] getTargets() {
+        int count = 0;
+        for (int cell = 0; cell < distances.length; cell++) {
+            if (isReachable(cell)) count++;
+        }
+        int[] targets = new int[count];
+        int n = 0;
+        for (int cell = 0; cell < distances.length; cell++) {
+            if (isReachable(cell)) targets[n++] = cell;
+        }
+        return targets;
+    }
+
+    /**
+     * @param cell a reachable cell
+     * @return W/A/S/D moves of a shortest path to the cell, empty if it can't be reached
+     */
+    public List<String> getPathTo(int cell) {
+        if (!isReachable(cell)) {
+            return Collections.emptyList();
+        }
+
+        String[] moves = new String[distances[cell]];
+        int current = cell;
+        for (int i = moves.length - 1; i >= 0; i--) {
+            moves[i] = BoardTopology.getDirection(topology.getStepDirection(parentSteps[current]));
+            current = parentCells[current];
+        }
+        return new ArrayList<>(Arrays.asList(moves));
+    }
+}
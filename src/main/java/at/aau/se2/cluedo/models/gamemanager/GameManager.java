@@ -1,13 +1,19 @@
 package at.aau.se2.cluedo.models.gamemanager;
 
-import at.aau.se2.cluedo.models.Random;
+import at.aau.se2.cluedo.models.GameRandom;
 import at.aau.se2.cluedo.models.cards.BasicCard;
+import at.aau.se2.cluedo.models.cards.CardCatalog;
+import at.aau.se2.cluedo.models.gameboard.BoardTopology;
 import at.aau.se2.cluedo.models.gameboard.CellType;
 import at.aau.se2.cluedo.models.gameboard.GameBoard;
-import at.aau.se2.cluedo.models.gameboard.GameBoardCell;
+import at.aau.se2.cluedo.models.gameboard.PathResult;
+import at.aau.se2.cluedo.models.gameboard.PathValidator;
+import at.aau.se2.cluedo.models.gameboard.Reachability;
+import at.aau.se2.cluedo.models.gameboard.Room;
 import at.aau.se2.cluedo.models.gameobjects.Player;
 import at.aau.se2.cluedo.models.gameobjects.PlayerColor;
 import at.aau.se2.cluedo.models.gameobjects.SecretFile;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import org.slf4j.Logger;
@@ -23,16 +29,36 @@ public class GameManager {
 
     private final String lobbyId;
     private final GameBoard gameBoard;
+    // every random draw of the game, the seed reproduces the deal
+    private final GameRandom random;
     private final List<Player> players;
+    // lookups over players, the list is fixed once the game is created
+    @Getter(AccessLevel.NONE)
+    private final Map<String, Integer> playerIndexByName = new HashMap<>();
+    @Getter(AccessLevel.NONE)
+    private final Map<UUID, Player> playersById = new HashMap<>();
     private List<BasicCard> cards;
+    // catalog cards of the card list as bits
+    @Setter(AccessLevel.NONE)
+    private int cardsMask;
     private SecretFile secretFile;
     private Player winner;
     private GameState state;
     private int currentPlayerIndex;
     private int diceRollS;
+    // version of the last state delta sent to the clients
+    @Setter(AccessLevel.NONE)
+    private long stateVersion;
     @Getter
     private final Map<String, Set<String>> cheatingReports = new HashMap<>();
     private final Map<String, SuggestionRecord> lastSuggestions = new HashMap<>();
+    // scratch space for movement validation, reused because movement is the most frequent command
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final long[] occupancy = PathValidator.newOccupancy();
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private byte[] moveBuffer = new byte[12];
 
 
     public record SuggestionRecord(String suspect, String room, String weapon) {
@@ -52,35 +78,86 @@ public class GameManager {
     }
 
 
-    private GameManager(String lobbyId, List<Player> inputPlayers, boolean fromLobby) {
+    private GameManager(String lobbyId, List<Player> inputPlayers, boolean fromLobby, GameRandom random) {
+        this(lobbyId, fromLobby ? mapLobbyPlayers(inputPlayers) : inputPlayers, null, random);
+
+        initializeGame();
+        if (!this.players.isEmpty()) {
+            this.players.get(0).setCurrentPlayer(true);
+        }
+    }
+
+    // the players as they are, nothing dealt yet
+    private GameManager(String lobbyId, List<Player> players, SecretFile secretFile, GameRandom random) {
         this.lobbyId = lobbyId;
-        this.gameBoard = new GameBoard();
-        this.players = fromLobby ? mapLobbyPlayers(inputPlayers) : inputPlayers;
+        this.random = random;
+        this.gameBoard = new GameBoard(random);
+        this.players = players;
         this.cards = new ArrayList<>();
-        this.secretFile = null;
+        this.secretFile = secretFile;
         this.winner = null;
         this.state = GameState.NOT_INITIALIZED;
         this.currentPlayerIndex = 0;
-
-        initializeGame();
-        if (!this.players.isEmpty()) {
-            this.players.get(0).setCurrentPlayer(true);
+        for (int i = 0; i < players.size(); i++) {
+            Player player = players.get(i);
+            playerIndexByName.putIfAbsent(player.getName(), i);
+            if (player.getPlayerID() != null) {
+                playersById.putIfAbsent(player.getPlayerID(), player);
+            }
         }
     }
 
     public GameManager(int count) {
-        this("LEGACY", GameManager.initializeDefaultPlayers().subList(0, count), false);
+        this("LEGACY", GameManager.initializeDefaultPlayers().subList(0, count), false, GameRandom.unseeded());
     }
 
     public GameManager(List<Player> lobbyPlayers) {
-        this("LEGACY", lobbyPlayers, true);
+        this("LEGACY", lobbyPlayers, true, GameRandom.unseeded());
     }
 
     public GameManager(String lobbyId, List<Player> lobbyPlayers) {
-        this(lobbyId, lobbyPlayers, true);
+        this(lobbyId, lobbyPlayers, true, GameRandom.unseeded());
+    }
+
+    /**
+     * @param lobbyId
+     * @param lobbyPlayers
+     * @param random source of the deal and of all later draws, the same seed deals the same cards
+     */
+    public GameManager(String lobbyId, List<Player> lobbyPlayers, GameRandom random) {
+        this(lobbyId, lobbyPlayers, true, random);
     }
 
-    private List<Player> mapLobbyPlayers(List<Player> lobbyPlayers) {
+    /**
+     * Rebuilds a game that was dealt before, e.g. from a snapshot. The players come with their
+     * hands, positions and flags; the cards of the game are the cards in their hands.
+     *
+     * @param lobbyId
+     * @param players    players in turn order
+     * @param secretFile solution of the game
+     * @param stateVersion version of the last delta sent to the clients
+     * @param random random source, positioned after the draws the game already made
+     * @return the game, the remaining state is set by the caller
+     */
+    public static GameManager restore(String lobbyId, List<Player> players, SecretFile secretFile, long stateVersion,
+                                      GameRandom random) {
+        GameManager game = new GameManager(lobbyId, players, secretFile, random);
+        game.stateVersion = stateVersion;
+        game.state = GameState.INITIALIZED;
+
+        List<BasicCard> dealt = new ArrayList<>();
+        for (Player player : players) {
+            dealt.addAll(player.getCards());
+            Room room = game.gameBoard.getRoomAt(player.getX(), player.getY());
+            if (room != null) {
+                room.playerEntersRoom(player);
+            }
+        }
+        game.setCards(dealt);
+        return game;
+    }
+
+    private static List<Player> mapLobbyPlayers(List<Player> lobbyPlayers) {
         List<Player> defaultPlayers = initializeDefaultPlayers();
         List<Player> updatedPlayers = new ArrayList<>();
         for (Player player : lobbyPlayers) {
@@ -95,23 +172,28 @@ public class GameManager {
     }
 
     public Player getPlayer(String username) {
-        for (Player p : players) {
-            if (p.getName().equals(username)) {
-                return p;
-            }
-        }
-        return null;
+        Integer index = playerIndexByName.get(username);
+        return index == null ? null : players.get(index);
+    }
+
+    /**
+     * @param playerId
+     * @return the player with the id or null if not in the game
+     */
+    public Player getPlayer(UUID playerId) {
+        return playersById.get(playerId);
     }
 
 
     private static List<Player> initializeDefaultPlayers() {
+        // fixed ids, no need to draw random UUIDs for placeholder players
         return Arrays.asList(
-                new Player("Miss Scarlet", "Scarlet", 7, 24, PlayerColor.RED),
-                new Player("Colonel Mustard", "Mustard", 0, 17, PlayerColor.YELLOW),
-                new Player("Mrs. White", "White", 9, 0, PlayerColor.WHITE),
-                new Player("Mr. Green", "Green", 14, 0, PlayerColor.GREEN),
-                new Player("Mrs. Peacock", "Peacock", 24, 6, PlayerColor.BLUE),
-                new Player("Professor Plum", "Plum", 24, 19, PlayerColor.PURPLE)
+                new Player("Miss Scarlet", "Scarlet", 7, 24, PlayerColor.RED, new UUID(0L, 1L)),
+                new Player("Colonel Mustard", "Mustard", 0, 17, PlayerColor.YELLOW, new UUID(0L, 2L)),
+                new Player("Mrs. White", "White", 9, 0, PlayerColor.WHITE, new UUID(0L, 3L)),
+                new Player("Mr. Green", "Green", 14, 0, PlayerColor.GREEN, new UUID(0L, 4L)),
+                new Player("Mrs. Peacock", "Peacock", 24, 6, PlayerColor.BLUE, new UUID(0L, 5L)),
+                new Player("Professor Plum", "Plum", 24, 19, PlayerColor.PURPLE, new UUID(0L, 6L))
         );
     }
 
@@ -128,18 +210,21 @@ public class GameManager {
         List<BasicCard> weapons = BasicCard.getWeapons();
         List<BasicCard> characters = BasicCard.getCharacters();
 
-        Collections.shuffle(rooms);
-        Collections.shuffle(characters);
-        Collections.shuffle(weapons);
+        random.shuffle(rooms);
+        random.shuffle(characters);
+        random.shuffle(weapons);
 
         secretFile = new SecretFile(rooms.remove(0), weapons.remove(0), characters.remove(0));
         cards.addAll(rooms);
         cards.addAll(weapons);
         cards.addAll(characters);
+        for (BasicCard card : cards) {
+            cardsMask |= card.getMask();
+        }
     }
 
     private void distributeCards() {
-        Collections.shuffle(cards);
+        random.shuffle(cards);
         int playerIndex = 0;
         for (BasicCard card : cards) {
             players.get(playerIndex).addCard(card);
@@ -148,65 +233,115 @@ public class GameManager {
     }
 
     public int rollDice() {
-        return Random.rand(6, 1);
+        return random.rollDie();
+    }
+
+    /**
+     * @return position of the game in its random stream
+     */
+    public long getRandomDraws() {
+        return random.getDraws();
     }
 
     /**
-     * Recursive function to perform movement on the gameboard.
+     * Performs a sequence of W/A/S/D moves on the gameboard. Moves are applied up to the first one
+     * that is not allowed; "X" ends the movement early.
      *
      * @param player   current player who is moving
      * @param movement List of moves the player takes
-     * @return recursive call
+     * @return number of moves applied
      */
     public int performMovement(Player player, List<String> movement) {
+        int length = movement.size();
+        if (length <= diceRollS) {
+            if (moveBuffer.length < length) {
+                moveBuffer = new byte[length];
+            }
+            PathValidator.encode(movement, moveBuffer);
+        }
+        return PathValidator.steps(performMovement(player, moveBuffer, length));
+    }
 
-        // Prevent cheating by limiting moves to dice roll and check if there are no more moves
-        if (movement.isEmpty() || movement.size() > diceRollS) {
-            return 0;
+    /**
+     * Performs a sequence of encoded moves, see {@link PathValidator}.
+     *
+     * @param player current player who is moving
+     * @param moves  encoded moves
+     * @param length number of moves
+     * @return packed {@link PathValidator} result, {@link PathResult.Reason#OFF_BOARD} if the player isn't on the board
+     */
+    public long performMovement(Player player, byte[] moves, int length) {
+        BoardTopology topology = BoardTopology.getInstance();
+        if (!topology.contains(player.getX(), player.getY())) {
+            logger.info("Invalid move - {} is not on the board!", player.getName());
+            return PathValidator.rejected(0, PathResult.Reason.OFF_BOARD);
         }
 
-        String currentMove = movement.get(0);
+        occupyOthers(player);
+        int start = topology.index(player.getX(), player.getY());
+        long result = PathValidator.validate(start, moves, length, diceRollS, occupancy);
+        int end = PathValidator.finalCell(result);
+        if (end != start) {
+            gameBoard.placePlayer(player, start, end);
+        }
 
-        // Handle exit command
-        if (currentMove.equalsIgnoreCase("X")) {
-            return 0;
+        PathResult.Reason reason = PathValidator.reason(result);
+        if (reason != PathResult.Reason.COMPLETED && reason != PathResult.Reason.STOPPED) {
+            logger.info("Invalid move of {} after {} steps: {}", player.getName(), PathValidator.steps(result), reason);
         }
+        return result;
+    }
 
-        String move = movement.get(0);
-        if (move.equalsIgnoreCase("X")) return 0;
-
-        int newX = player.getX();
-        int newY = player.getY();
-
-        // Calculate new position based on input
-        switch (currentMove.toUpperCase()) {
-            case "W" -> newY--;
-            case "S" -> newY++;
-            case "A" -> newX--;
-            case "D" -> newX++;
-            default -> {
-                logger.info("Invalid input!");
-                return 0;
-            }
+    /**
+     * All cells the player can reach with the current dice roll, taking walls, doors, secret
+     * passages and the positions of the other players into account.
+     *
+     * @param player player who is moving
+     * @return reachable cells, none if the player is not on the board
+     */
+    public Reachability getReachableCells(Player player) {
+        BoardTopology topology = BoardTopology.getInstance();
+        if (!topology.contains(player.getX(), player.getY())) {
+            return Reachability.none();
         }
+        occupyOthers(player);
+        return Reachability.compute(topology.index(player.getX(), player.getY()), diceRollS, occupancy);
+    }
 
-        // Check for collision with other players
+    // the cells of all other players on the board, into the reused occupancy bitmap
+    private void occupyOthers(Player player) {
+        BoardTopology topology = BoardTopology.getInstance();
+        Arrays.fill(occupancy, 0);
         for (Player p : players) {
-            if (p != player && p.getX() == newX && p.getY() == newY) {
-                logger.info("Invalid move - position occupied!");
-                return 0;
+            if (p != player && topology.contains(p.getX(), p.getY())) {
+                PathValidator.occupy(occupancy, topology.index(p.getX(), p.getY()));
             }
         }
+    }
 
-        // Attempt to move the player
-        if (gameBoard.movePlayer(player, newX, newY, false)) {
-            // Move successful, process remaining movements
-            return performMovement(player, movement.subList(1, movement.size()));
-        } else {
-            // Move failed (likely out of bounds or invalid position)
-            logger.info("Invalid move - cannot move to that position!");
-            return 0;
+    /**
+     * Moves the player to a destination in one go, along a shortest path found by {@link #getReachableCells(Player)}.
+     *
+     * @param player player who is moving
+     * @param x      destination
+     * @param y      destination
+     * @return true if the destination was reachable and the player moved there
+     */
+    public boolean moveTo(Player player, int x, int y) {
+        BoardTopology topology = BoardTopology.getInstance();
+        if (!topology.contains(x, y) || !topology.contains(player.getX(), player.getY())) {
+            return false;
         }
+
+        int target = topology.index(x, y);
+        Reachability reachability = getReachableCells(player);
+        if (!reachability.isReachable(target)) {
+            logger.info("Invalid move - {} can't reach {} {}", player.getName(), x, y);
+            return false;
+        }
+
+        performMovement(player, reachability.getPathTo(target));
+        return player.getX() == x && player.getY() == y;
     }
 
     /**
@@ -218,17 +353,15 @@ public class GameManager {
      */
     public boolean makeSuggestion(Player player, String suspect, String weapon) {
 
-        BasicCard room = getCardByName(gameBoard.getCell(player.getX(), player.getY()).getRoom().getName());
-        BasicCard suspectCard = getCardByName(suspect);
-        BasicCard weaponCard = getCardByName(weapon);
+        Room currentRoom = gameBoard.getRoomAt(player.getX(), player.getY());
+        int suggestion = maskOf(currentRoom == null ? null : currentRoom.getName()) | maskOf(suspect) | maskOf(weapon);
 
         for (Player p : players) {
             if (p != player) {
-                for (BasicCard card : p.getCards()) {
-                    if (card.cardEquals(suspectCard) || card.cardEquals(weaponCard) || card.cardEquals(room)) {
-                        logger.info("{} shows you: {}", p.getName(), card);
-                        return true;
-                    }
+                int shown = p.getCardMask() & suggestion;
+                if (shown != 0) {
+                    logger.info("{} shows you: {}", p.getName(), CardCatalog.first(shown));
+                    return true;
                 }
             }
         }
@@ -237,6 +370,11 @@ public class GameManager {
         return false;
     }
 
+    // bit of a card that is in the game's card list, 0 otherwise
+    private int maskOf(String cardName) {
+        return CardCatalog.maskOf(cardName) & cardsMask;
+    }
+
     /**
      * returns a BasicCard object based on the corresponding card name if its in the current card list of the game. Otherwise null.
      *
@@ -244,14 +382,26 @@ public class GameManager {
      * @return
      */
     public BasicCard getCardByName(String cardName) {
-        for (BasicCard card : cards) {
-            if (card.getCardName().equals(cardName)) {
-                return card;
+        BasicCard card = CardCatalog.byName(cardName);
+        if (card != null && (cardsMask & card.getMask()) != 0) {
+            return card;
+        }
+        for (BasicCard c : cards) {
+            if (c.getId() == BasicCard.NO_ID && c.getCardName().equals(cardName)) {
+                return c;
             }
         }
         return null;
     }
 
+    public void setCards(List<BasicCard> cards) {
+        this.cards = cards;
+        this.cardsMask = 0;
+        for (BasicCard card : cards) {
+            cardsMask |= card.getMask();
+        }
+    }
+
     /**
      * Accusation to solve the SecretFile. If correct player wins the game, otherwise he gets eliminated
      *
@@ -289,13 +439,12 @@ public class GameManager {
      * @return
      */
     public boolean inRoom(Player player) {
-        GameBoardCell cell = gameBoard.getCell(player.getX(), player.getY());
-        return cell != null && cell.getCellType() == CellType.ROOM;
+        return gameBoard.getCellType(player.getX(), player.getY()) == CellType.ROOM;
     }
 
     public String getCurrentRoom(Player player) {
-        GameBoardCell cell = gameBoard.getCell(player.getX(), player.getY());
-        return (cell != null && cell.getRoom() != null) ? cell.getRoom().getName() : null;
+        Room room = gameBoard.getRoomAt(player.getX(), player.getY());
+        return room != null ? room.getName() : null;
     }
 
     public Player getCurrentPlayer() {
@@ -373,16 +522,19 @@ public class GameManager {
         return !current.equals(room);
     }
 
+    /**
+     * Called once for every state delta sent to the clients.
+     * @return the version of the new delta
+     */
+    public long nextStateVersion() {
+        return ++stateVersion;
+    }
+
     public Player getNextPlayer(String currentPlayerName) {
-        int index = -1;
-        for (int i = 0; i < players.size(); i++) {
-            if (players.get(i).getName().equals(currentPlayerName)) {
-                index = i;
-                break;
-            }
-        }
+        Integer current = playerIndexByName.get(currentPlayerName);
+        if (current == null) return null;
 
-        if (index == -1) return null;
+        int index = current;
 
         int nextIndex = (index + 1) % players.size();
 
@@ -1,6 +1,8 @@
 package at.aau.se2.cluedo.models.gameobjects;
 
 import at.aau.se2.cluedo.models.cards.BasicCard;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -14,6 +16,9 @@ public class Player{
     private final String name;
     private final String character;
     private final List<BasicCard> cards;
+    // the catalog cards of the hand as bits, see CardCatalog
+    @Setter(AccessLevel.NONE)
+    private int cardMask;
     private int x;
     private int y;
     private final int startX;
@@ -38,9 +43,15 @@ public class Player{
     private PlayerColor color;
 
 
+    // the constructor clients' JSON is bound to, the remaining fields are set afterwards
+    @JsonCreator
     public Player(String name, String character, int startX, int startY, PlayerColor color) {
+        this(name, character, startX, startY, color, UUID.randomUUID());
+    }
+
+    public Player(String name, String character, int startX, int startY, PlayerColor color, UUID playerID) {
         this.name = name;
-        this.playerID = UUID.randomUUID();
+        this.playerID = playerID;
         this.character = character;
         this.startX = startX;
         this.startY = startY;
@@ -57,9 +68,13 @@ public class Player{
 
     public void addCard(BasicCard card) {
         cards.add(card);
+        cardMask |= card.getMask();
     }
 
     public boolean hasCard(BasicCard card) {
+        if ((cardMask & card.getMask()) != 0) {
+            return true;
+        }
         return cards.contains(card);
     }
 
@@ -2,14 +2,21 @@ package at.aau.se2.cluedo.models.lobby;
 
 import at.aau.se2.cluedo.models.gamemanager.GameManager;
 import at.aau.se2.cluedo.models.gameobjects.Player;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 
 @Data
@@ -19,7 +26,18 @@ public class Lobby {
 
     private String id;
     private UUID hostId;
-    private List<Player> players = new ArrayList<>();
+    private List<Player> players = new CopyOnWriteArrayList<>();
+    // indexes over players, kept in sync by addPlayer, removePlayer and setPlayers
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final Map<UUID, Player> playersById = new ConcurrentHashMap<>();
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final Map<String, Player> playersByName = new ConcurrentHashMap<>();
     private GameManager gameManager;
     private String winnerUsername;
 
@@ -27,6 +45,7 @@ public class Lobby {
         this.id = id;
         this.hostId = host.getPlayerID();
         this.players.add(host);
+        index(host);
         logger.info("Created lobby: {} with host: {}", id, host.getName());
     }
 
@@ -34,8 +53,9 @@ public class Lobby {
         return id;
     }
     public boolean addPlayer(Player player) {
-        if (players.stream().noneMatch(p -> p.getPlayerID().equals(player.getPlayerID()))) {
+        if (!hasPlayer(player)) {
             players.add(player);
+            index(player);
             logger.info("Player: {} joined lobby {}", player.getName(), id);
             return true;
         } else {
@@ -45,8 +65,10 @@ public class Lobby {
     }
 
     public boolean removePlayer(Player player) {
-        boolean removed = players.removeIf(p -> p.getPlayerID().equals(player.getPlayerID()));
-        if (removed) {
+        Player removed = player.getPlayerID() == null ? null : playersById.remove(player.getPlayerID());
+        if (removed != null) {
+            players.remove(removed);
+            playersByName.remove(removed.getName(), removed);
             logger.info("Player: {} left lobby {}", player.getName(), id);
             return true;
         } else {
@@ -56,23 +78,39 @@ public class Lobby {
     }
 
     public boolean hasPlayer(Player player) {
-        return players.stream().anyMatch(p -> p.getPlayerID().equals(player.getPlayerID()));
+        return player.getPlayerID() != null && playersById.containsKey(player.getPlayerID());
     }
 
-    public Player getPlayer(String username){
-        for (Player p: players) {
-            if(p.getName() == username){
-                return p;
-            }
+    public Player getPlayer(String username) {
+        return username == null ? null : playersByName.get(username);
+    }
+
+    /**
+     * @param playerId
+     * @return the player with the id or null if not in the lobby
+     */
+    public Player getPlayer(UUID playerId) {
+        return playerId == null ? null : playersById.get(playerId);
+    }
+
+    public void setPlayers(List<Player> players) {
+        this.players = new CopyOnWriteArrayList<>(players);
+        playersById.clear();
+        playersByName.clear();
+        for (Player player : this.players) {
+            index(player);
         }
-        return null;
+    }
+
+    private void index(Player player) {
+        if (player.getPlayerID() != null) {
+            playersById.put(player.getPlayerID(), player);
+        }
+        playersByName.put(player.getName(), player);
     }
 
     public Player getHost() {
-        return players.stream()
-                .filter(p -> p.getPlayerID().equals(hostId))
-                .findFirst()
-                .orElse(null);
+        return getPlayer(hostId);
     }
 
     public List<String> getParticipantNames() {
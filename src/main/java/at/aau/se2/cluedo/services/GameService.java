@@ -1,19 +1,27 @@
 package at.aau.se2.cluedo.services;
 
 import at.aau.se2.cluedo.dto.AccusationRequest;
+import at.aau.se2.cluedo.dto.GameDataResponse;
 import at.aau.se2.cluedo.dto.SuggestionRequest;
+import at.aau.se2.cluedo.models.gameboard.BoardTopology;
 import at.aau.se2.cluedo.models.gamemanager.GameManager;
 import at.aau.se2.cluedo.models.gameobjects.Player;
 import at.aau.se2.cluedo.models.gameobjects.SecretFile;
 import at.aau.se2.cluedo.models.lobby.Lobby;
+import at.aau.se2.cluedo.services.TurnService.TurnState;
+import at.aau.se2.cluedo.services.journal.GameJournal;
+import at.aau.se2.cluedo.services.journal.JournalEntry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class GameService {
@@ -22,11 +30,29 @@ public class GameService {
     private static final int MAX_PLAYERS = 6;
 
     private final LobbyService lobbyService;
-    protected final Map<String, GameManager> activeGames = new HashMap<>();
+    protected final Map<String, GameManager> activeGames = new ConcurrentHashMap<>();
+
+    private final GameJournal gameJournal;
+    private final RandomService randomService;
+    // turn states are kept by the TurnService, which depends on this service
+    private final ObjectProvider<TurnService> turnService;
+
+    /**
+     * A game service without journal and turn states, with a random master seed. Its moveTo is
+     * always refused.
+     * @param lobbyService
+     */
+    public GameService(LobbyService lobbyService) {
+        this(lobbyService, new GameJournal(), new RandomService(), null);
+    }
 
     @Autowired
-    public GameService(LobbyService lobbyService) {
+    public GameService(LobbyService lobbyService, GameJournal gameJournal, RandomService randomService,
+                       ObjectProvider<TurnService> turnService) {
         this.lobbyService = lobbyService;
+        this.gameJournal = gameJournal;
+        this.randomService = randomService;
+        this.turnService = turnService;
     }
 
     public GameManager startGameFromLobby(String lobbyId) {
@@ -49,16 +75,63 @@ public class GameService {
             players = players.subList(0, MAX_PLAYERS);
         }
 
-        GameManager gameManager = new GameManager(lobbyId, players);
+        GameManager gameManager = new GameManager(lobbyId, players, randomService.newGameRandom());
 
         activeGames.put(lobbyId, gameManager);
+        lobbyService.markInGame(lobby);
+        gameJournal.open(gameManager, TurnState.WAITING_FOR_START);
 
-        logger.info("Started new game from lobby {} with {} players", lobbyId, players.size());
+        logger.info("Started new game from lobby {} with {} players and seed {}", lobbyId, players.size(),
+                gameManager.getRandom().getSeed());
         return gameManager;
     }
 
+    /**
+     * Register a game recovered from the journal
+     * @param game
+     */
+    public void restoreGame(GameManager game) {
+        activeGames.put(game.getLobbyId(), game);
+    }
+
+    /**
+     * @param lobbyId
+     * @return the removed game, null if there was none
+     */
+    public GameManager removeGame(String lobbyId) {
+        return activeGames.remove(lobbyId);
+    }
+
+    public List<String> getActiveGameIds() {
+        return List.copyOf(activeGames.keySet());
+    }
+
     public GameManager getGame(String lobbyId) {
-        return activeGames.get(lobbyId);
+        return lobbyId == null ? null : activeGames.get(lobbyId);
+    }
+
+    /**
+     * @param lobbyId
+     * @param playerId
+     * @return the game's player with the id, null if the game or player doesn't exist
+     */
+    public Player getPlayer(String lobbyId, UUID playerId) {
+        GameManager game = getGame(lobbyId);
+        return game == null ? null : game.getPlayer(playerId);
+    }
+
+    /**
+     * @param lobbyId
+     * @return the players and whose turn it is, null if the game doesn't exist
+     */
+    public GameDataResponse getGameData(String lobbyId) {
+        GameManager game = getGame(lobbyId);
+        return game == null ? null
+                : new GameDataResponse(lobbyId, game.getPlayers(), game.getCurrentPlayer(), game.getStateVersion());
+    }
+
+    public int getActiveGameCount() {
+        return activeGames.size();
     }
 
     public boolean canStartGame(String lobbyId) {
@@ -67,16 +140,20 @@ public class GameService {
     }
 
     public void processAccusation(AccusationRequest request) {
-        GameManager game = activeGames.get(request.getLobbyId());
+        GameManager game = getGame(request.getLobbyId());
         if (game == null) {
             logger.warn("No active game found for lobby ID: {}", request.getLobbyId());
             return;
         }
 
-        Player player = game.getPlayerList().stream()
-                .filter(p -> p.getName().equalsIgnoreCase(request.getUsername()))
-                .findFirst()
-                .orElse(null);
+        Player player = game.getPlayer(request.getUsername());
+        if (player == null) {
+            // names typed by the client may differ in case
+            player = game.getPlayerList().stream()
+                    .filter(p -> p.getName().equalsIgnoreCase(request.getUsername()))
+                    .findFirst()
+                    .orElse(null);
+        }
 
         if (player == null) {
             logger.warn("Player {} not found in game.", request.getUsername());
@@ -94,21 +171,94 @@ public class GameService {
                 solution.room().getCardName().equalsIgnoreCase(request.getRoom()) &&
                 solution.weapon().getCardName().equalsIgnoreCase(request.getWeapon());
 
+        gameJournal.append(game.getLobbyId(), new JournalEntry.Accused(player.getName(), isCorrect));
         if (isCorrect) {
             player.setHasWon(true);
             logger.info("Player {} made a correct accusation and won!", player.getName());
         } else {
             player.setActive(false);
             game.nextTurn();
+            gameJournal.append(game.getLobbyId(), new JournalEntry.TurnChanged(game.getCurrentPlayerIndex()));
             logger.info("Player {} guessed wrong and has been eliminated.", player.getName());
         }
     }
     public void performMovement(Player player, List<String> movement, String lobbId) {
         if(!movement.isEmpty()) {
-            getGame(lobbId).performMovement(player, movement);
+            GameManager game = getGame(lobbId);
+            // move the game's own instance, the request only carries a copy of the player
+            Player gamePlayer = player.getPlayerID() == null ? null : game.getPlayer(player.getPlayerID());
+            if (gamePlayer == null) {
+                gamePlayer = game.getPlayer(player.getName());
+            }
+            if (gamePlayer == null) {
+                logger.warn("Rejected movement of {}, not a player of game {}", player.getName(), lobbId);
+                return;
+            }
+            game.performMovement(gamePlayer, movement);
             movement.clear();
+            gameJournal.append(lobbId, new JournalEntry.Moved(gamePlayer.getName(), gamePlayer.getX(), gamePlayer.getY()));
+        }
+    }
+    /**
+     * Cells the player can move to with the current dice roll
+     * @param lobbyId
+     * @param playerName
+     * @return reachable cells as [x, y] pairs, empty if the game or player doesn't exist
+     */
+    public List<int[]> getReachableTargets(String lobbyId, String playerName) {
+        GameManager game = getGame(lobbyId);
+        Player player = game == null ? null : game.getPlayer(playerName);
+        if (player == null) {
+            logger.warn("No player {} in game {}", playerName, lobbyId);
+            return List.of();
         }
+
+        BoardTopology topology = BoardTopology.getInstance();
+        int[] targets = game.getReachableCells(player).getTargets();
+        List<int[]> positions = new ArrayList<>(targets.length);
+        for (int target : targets) {
+            positions.add(new int[]{topology.x(target), topology.y(target)});
+        }
+        return positions;
     }
+
+    /**
+     * Move the current player straight to a destination. Only allowed once per dice roll, while
+     * the turn is in {@link TurnState#PLAYERS_TURN_MOVE}.
+     * @param lobbyId
+     * @param playerName
+     * @param x
+     * @param y
+     * @return true if it was the player's move and the destination was reachable
+     */
+    public boolean moveTo(String lobbyId, String playerName, int x, int y) {
+        GameManager game = getGame(lobbyId);
+        Player player = game == null ? null : game.getPlayer(playerName);
+        if (player == null) {
+            logger.warn("No player {} in game {}", playerName, lobbyId);
+            return false;
+        }
+        if (!playerName.equals(game.getCurrentPlayer().getName())) {
+            logger.warn("Not the turn of {} in game {}", playerName, lobbyId);
+            return false;
+        }
+        TurnService turns = turnService == null ? null : turnService.getIfAvailable();
+        TurnState turnState = turns == null ? null : turns.getTurnState(lobbyId);
+        if (turnState != TurnState.PLAYERS_TURN_MOVE) {
+            logger.warn("Invalid turn state for moving in game {}: {}", lobbyId, turnState);
+            return false;
+        }
+        if (!game.moveTo(player, x, y)) {
+            return false;
+        }
+        gameJournal.append(lobbyId, new JournalEntry.Moved(playerName, player.getX(), player.getY()));
+
+        // the roll is used up, a recovered game must not move again either
+        game.setDiceRollS(0);
+        gameJournal.append(lobbyId, new JournalEntry.DiceRolled(playerName, 0, game.getRandomDraws()));
+        return true;
+    }
+
     public String makeAccusation(Player player, SecretFile accusation,String lobbyId) {
 
         getGame(lobbyId).makeAccusation(player,accusation);
@@ -127,7 +277,7 @@ public class GameService {
     }
 
     public void processSuggestion(SuggestionRequest request) {
-        GameManager game = activeGames.get(request.getLobbyId());
+        GameManager game = getGame(request.getLobbyId());
         if (game == null) {
             logger.warn("No active game found for lobby ID: {}", request.getLobbyId());
             return;
@@ -0,0 +1,203 @@
+package at.aau.se2.cluedo.services;
+
+import at.aau.se2.cluedo.dto.LobbyDirectoryDelta;
+import at.aau.se2.cluedo.dto.LobbyPageResponse;
+import at.aau.se2.cluedo.dto.LobbyQueryRequest;
+import at.aau.se2.cluedo.dto.LobbySummary;
+import at.aau.se2.cluedo.models.gameobjects.Player;
+import at.aau.se2.cluedo.models.lobby.Lobby;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Index of the lobbies for the lobby list, kept up to date as lobbies change instead of being
+ * rebuilt per request. Lobbies are bucketed by state and free seats and ordered by creation, so a
+ * page of e.g. joinable lobbies with one or two free seats only touches the matching buckets.
+ * Every change is published as a {@link LobbyDirectoryDelta} to {@link #DELTA_TOPIC}, in the order
+ * of their versions.
+ */
+@Service
+public class LobbyDirectory {
+    private static final Logger logger = LoggerFactory.getLogger(LobbyDirectory.class);
+
+    public static final String DELTA_TOPIC = "/topic/lobbyDirectory";
+    public static final int MAX_SEATS = 6;
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    public enum LobbyState {
+        OPEN,
+        IN_GAME
+    }
+
+    // a lobby's place in the directory, replaced on every change
+    private record Listing(long order, LobbyState state, LobbySummary summary) {
+        int bucket() {
+            return bucketOf(state, summary.getFreeSeats());
+        }
+    }
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final Map<String, Listing> listings = new ConcurrentHashMap<>();
+    // summaries by creation order, one map per state and number of free seats
+    private final List<ConcurrentNavigableMap<Long, LobbySummary>> buckets = new ArrayList<>();
+    private final AtomicLong nextOrder = new AtomicLong();
+    private final AtomicLong version = new AtomicLong();
+    // changes take their version and are published under this lock, so deltas go out in order
+    private final Object publishLock = new Object();
+
+    /**
+     * A directory without change notifications
+     */
+    public LobbyDirectory() {
+        this(null);
+    }
+
+    @Autowired
+    public LobbyDirectory(SimpMessagingTemplate messagingTemplate) {
+        this.messagingTemplate = messagingTemplate;
+        for (int i = 0; i < LobbyState.values().length * (MAX_SEATS + 1); i++) {
+            buckets.add(new ConcurrentSkipListMap<>());
+        }
+    }
+
+    private static int bucketOf(LobbyState state, int freeSeats) {
+        return state.ordinal() * (MAX_SEATS + 1) + freeSeats;
+    }
+
+    /**
+     * Add a lobby or update its players, keeping its state
+     * @param lobby
+     */
+    public void update(Lobby lobby) {
+        Listing listing = listings.get(lobby.getId());
+        update(lobby, listing == null ? LobbyState.OPEN : listing.state());
+    }
+
+    /**
+     * Add a lobby or update its players and state
+     * @param lobby
+     * @param state
+     */
+    public void update(Lobby lobby, LobbyState state) {
+        Player host = lobby.getHost();
+        int playerCount = lobby.getPlayers().size();
+        LobbySummary summary = new LobbySummary(lobby.getId(), host == null ? null : host.getName(), playerCount,
+                Math.max(0, MAX_SEATS - playerCount), state.name());
+
+        synchronized (publishLock) {
+            long[] changed = new long[1];
+            listings.compute(lobby.getId(), (id, previous) -> {
+                if (previous != null && previous.state() == state && previous.summary().equals(summary)) {
+                    return previous;
+                }
+                Listing next = new Listing(previous == null ? nextOrder.incrementAndGet() : previous.order(), state, summary);
+                if (previous != null) {
+                    buckets.get(previous.bucket()).remove(previous.order());
+                }
+                buckets.get(next.bucket()).put(next.order(), summary);
+                changed[0] = version.incrementAndGet();
+                return next;
+            });
+
+            if (changed[0] != 0) {
+                publish(new LobbyDirectoryDelta(changed[0], "UPDATED", lobby.getId(), summary));
+            }
+        }
+    }
+
+    /**
+     * @param lobbyId
+     */
+    public void remove(String lobbyId) {
+        synchronized (publishLock) {
+            long[] changed = new long[1];
+            listings.computeIfPresent(lobbyId, (id, previous) -> {
+                buckets.get(previous.bucket()).remove(previous.order());
+                changed[0] = version.incrementAndGet();
+                return null;
+            });
+
+            if (changed[0] != 0) {
+                publish(new LobbyDirectoryDelta(changed[0], "REMOVED", lobbyId, null));
+            }
+        }
+    }
+
+    public int size() {
+        return listings.size();
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * A page of the lobbies matching the query, oldest first
+     * @param query free seat range, whether only joinable lobbies are wanted, page size and cursor
+     * @return the page and the cursor of the next one
+     */
+    public LobbyPageResponse query(LobbyQueryRequest query) {
+        long readVersion = version.get();
+        int limit = query.getLimit() <= 0 ? DEFAULT_PAGE_SIZE : Math.min(query.getLimit(), MAX_PAGE_SIZE);
+        int minSeats = Math.max(query.isJoinableOnly() ? 1 : 0, query.getMinFreeSeats());
+        int maxSeats = query.getMaxFreeSeats() <= 0 ? MAX_SEATS : Math.min(query.getMaxFreeSeats(), MAX_SEATS);
+        long after = parseCursor(query.getCursor());
+
+        // the first limit + 1 of every matching bucket contain the first limit + 1 overall
+        List<Map.Entry<Long, LobbySummary>> candidates = new ArrayList<>();
+        for (LobbyState state : LobbyState.values()) {
+            if (query.isJoinableOnly() && state != LobbyState.OPEN) {
+                continue;
+            }
+            for (int seats = minSeats; seats <= maxSeats; seats++) {
+                int taken = 0;
+                for (Map.Entry<Long, LobbySummary> entry : buckets.get(bucketOf(state, seats)).tailMap(after, false).entrySet()) {
+                    if (taken == limit + 1) {
+                        break;
+                    }
+                    candidates.add(entry);
+                    taken++;
+                }
+            }
+        }
+        candidates.sort(Map.Entry.comparingByKey(Comparator.naturalOrder()));
+
+        List<LobbySummary> page = new ArrayList<>(Math.min(limit, candidates.size()));
+        for (int i = 0; i < candidates.size() && i < limit; i++) {
+            page.add(candidates.get(i).getValue());
+        }
+        String nextCursor = candidates.size() > limit ? String.valueOf(candidates.get(limit - 1).getKey()) : null;
+        return new LobbyPageResponse(page, nextCursor, readVersion);
+    }
+
+    private static long parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            logger.warn("Ignoring invalid lobby cursor {}", cursor);
+            return 0;
+        }
+    }
+
+    private void publish(LobbyDirectoryDelta delta) {
+        if (messagingTemplate != null) {
+            messagingTemplate.convertAndSend(DELTA_TOPIC, delta);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package at.aau.se2.cluedo.services;
+
+import at.aau.se2.cluedo.config.VirtualThreads;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Owns one {@link LobbyMailbox} per lobby. Every command that mutates a lobby or its game is
+ * applied through the lobby's mailbox, which makes it the single writer of that lobby's state.
+ * Commands are queued and mailboxes retired under the map's lock of the lobby, so a command
+ * never lands in a mailbox that was removed; a removed mailbox drops what is still queued in it.
+ */
+@Service
+public class LobbyDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(LobbyDispatcher.class);
+    // last activity of lobbies that had no commands yet
+    public static final long NO_ACTIVITY = Long.MIN_VALUE;
+
+    private final Map<String, LobbyMailbox> mailboxes = new ConcurrentHashMap<>();
+    private final ThreadLocal<String> currentLobby = new ThreadLocal<>();
+    private final List<Consumer<String>> commandListeners = new CopyOnWriteArrayList<>();
+    private final ExecutorService workers;
+
+    public LobbyDispatcher() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public LobbyDispatcher(int workerThreads) {
+        this(workerThreads, false);
+    }
+
+    /**
+     * @param workerThreads size of the worker pool shared by all mailboxes, 0 for one per CPU
+     * @param virtualThreads run every mailbox drain on its own virtual thread instead, ignores
+     *                       workerThreads. Falls back to the pool before Java 21
+     */
+    @Autowired
+    public LobbyDispatcher(@Value("${cluedo.dispatcher.worker-threads:0}") int workerThreads,
+                           @Value("${cluedo.messaging.virtual-threads:false}") boolean virtualThreads) {
+        ThreadFactory virtualFactory = virtualThreads ? VirtualThreads.factory("lobby-worker-") : null;
+        if (virtualFactory != null) {
+            // a mailbox drains on one thread at a time, so lobbies keep their order on any number of threads
+            this.workers = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+                    new SynchronousQueue<>(), virtualFactory);
+            return;
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerThreads > 0 ? workerThreads : Runtime.getRuntime().availableProcessors(), r -> {
+            Thread thread = new Thread(r, "lobby-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queue a command for a lobby and return immediately
+     * @param lobbyId
+     * @param command
+     */
+    public void execute(String lobbyId, Runnable command) {
+        mailboxes.compute(lobbyId, (id, mailbox) -> {
+            LobbyMailbox target = mailbox != null ? mailbox : newMailbox(id);
+            target.execute(command);
+            return target;
+        });
+    }
+
+    /**
+     * Queue housekeeping for a lobby, it does not count as activity of the lobby
+     * @param lobbyId
+     * @param command
+     */
+    public void executeQuietly(String lobbyId, Runnable command) {
+        mailboxes.compute(lobbyId, (id, mailbox) -> {
+            LobbyMailbox target = mailbox != null ? mailbox : newMailbox(id);
+            target.executeQuietly(command);
+            return target;
+        });
+    }
+
+    /**
+     * @param lobbyId
+     * @return System.nanoTime() of the lobby's last command, {@link #NO_ACTIVITY} if there was none
+     */
+    public long getLastActivity(String lobbyId) {
+        LobbyMailbox mailbox = mailboxes.get(lobbyId);
+        return mailbox == null ? NO_ACTIVITY : mailbox.getLastActivity();
+    }
+
+    /**
+     * Run a command on the lobby's mailbox and wait for its result. Runs inline when the caller
+     * already is the lobby's mailbox thread or when there is no lobby to order on.
+     * @param lobbyId
+     * @param command
+     * @return result of the command
+     * @throws IllegalStateException if the mailbox was removed before the command ran
+     */
+    public <T> T call(String lobbyId, Supplier<T> command) {
+        if (lobbyId == null || isDispatching(lobbyId)) {
+            return command.get();
+        }
+
+        // a removed mailbox cancels the task instead of running it
+        FutureTask<T> result = new FutureTask<>(command::get);
+        execute(lobbyId, result);
+
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (CancellationException e) {
+            throw new IllegalStateException("Mailbox of lobby " + lobbyId + " was removed before the command ran", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for lobby " + lobbyId, e);
+        }
+    }
+
+    public void run(String lobbyId, Runnable command) {
+        call(lobbyId, () -> {
+            command.run();
+            return null;
+        });
+    }
+
+    /**
+     * Check if the current thread is applying a command of the given lobby
+     * @param lobbyId
+     * @return true if called from the lobby's mailbox
+     */
+    public boolean isDispatching(String lobbyId) {
+        return lobbyId != null && lobbyId.equals(currentLobby.get());
+    }
+
+    /**
+     * @return the lobby whose command the current thread is applying, null if none
+     */
+    public String getCurrentLobby() {
+        return currentLobby.get();
+    }
+
+    /**
+     * Call a listener after every command, on the mailbox thread and with the command's lobby,
+     * e.g. to send what the command left behind
+     * @param listener
+     */
+    public void addCommandListener(Consumer<String> listener) {
+        commandListeners.add(listener);
+    }
+
+    private void commandFinished(String lobbyId) {
+        for (Consumer<String> listener : commandListeners) {
+            try {
+                listener.accept(lobbyId);
+            } catch (RuntimeException e) {
+                logger.error("Command listener failed for lobby {}", lobbyId, e);
+            }
+        }
+    }
+
+    /**
+     * Retire the lobby's mailbox. Commands still queued in it are dropped, even when called from
+     * one of its own commands; later commands get a new mailbox.
+     * @param lobbyId
+     */
+    public void removeMailbox(String lobbyId) {
+        mailboxes.computeIfPresent(lobbyId, (id, mailbox) -> {
+            mailbox.close();
+            logger.debug("Removed mailbox of lobby {}", lobbyId);
+            return null;
+        });
+    }
+
+    /**
+     * Remove a mailbox that has nothing queued and no commands since the given time
+     * @param lobbyId
+     * @param idleSince System.nanoTime() the last command must be older than
+     * @return true if removed
+     */
+    public boolean removeIdleMailbox(String lobbyId, long idleSince) {
+        boolean[] removed = new boolean[1];
+        mailboxes.computeIfPresent(lobbyId, (id, mailbox) -> {
+            long lastActivity = mailbox.getLastActivity();
+            if (mailbox.getQueueSize() > 0 || (lastActivity != NO_ACTIVITY && lastActivity - idleSince > 0)) {
+                return mailbox;
+            }
+            mailbox.close();
+            removed[0] = true;
+            return null;
+        });
+        return removed[0];
+    }
+
+    public List<String> getMailboxIds() {
+        return List.copyOf(mailboxes.keySet());
+    }
+
+    public int getMailboxCount() {
+        return mailboxes.size();
+    }
+
+    public int getQueuedCommandCount() {
+        return mailboxes.values().stream().mapToInt(LobbyMailbox::getQueueSize).sum();
+    }
+
+    /**
+     * Worker pool shared by all mailboxes, exposed for monitoring
+     * @return the workers
+     */
+    public ExecutorService getWorkers() {
+        return workers;
+    }
+
+    private LobbyMailbox newMailbox(String lobbyId) {
+        return new LobbyMailbox(lobbyId, workers, currentLobby, this::commandFinished);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+}
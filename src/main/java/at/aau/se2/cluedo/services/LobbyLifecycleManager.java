@@ -0,0 +1,238 @@
+package at.aau.se2.cluedo.services;
+
+import at.aau.se2.cluedo.models.gamemanager.GameManager;
+import at.aau.se2.cluedo.models.gameobjects.Player;
+import at.aau.se2.cluedo.models.lobby.Lobby;
+import at.aau.se2.cluedo.services.events.LobbyEventLog;
+import at.aau.se2.cluedo.services.journal.GameJournal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Removes what nobody plays anymore: lobbies that never started a game and saw no command for
+ * {@code cluedo.lifecycle.lobby-idle-ttl-ms}, and finished games after
+ * {@code cluedo.lifecycle.finished-grace-ms}. Finished games are kept as a short summary.
+ * The sweep only looks at the lobbies; each eviction runs on the lobby's mailbox like any other
+ * command, so no lobby waits for the sweep.
+ */
+@Service
+public class LobbyLifecycleManager {
+    private static final Logger logger = LoggerFactory.getLogger(LobbyLifecycleManager.class);
+
+    static final String IDLE_LOBBY = "idle_lobby";
+    static final String FINISHED_GAME = "finished_game";
+    static final String IDLE_MAILBOX = "idle_mailbox";
+
+    /**
+     * What is left of a finished game
+     * @param lobbyId
+     * @param winner name of the winner, null if nobody won
+     * @param players names in turn order
+     * @param archivedAt
+     */
+    public record ArchivedGame(String lobbyId, String winner, List<String> players, Instant archivedAt) {
+    }
+
+    private final LobbyService lobbyService;
+    private final GameService gameService;
+    private final TurnService turnService;
+    private final LobbyDispatcher lobbyDispatcher;
+    private final GameJournal gameJournal;
+    private final LobbyEventLog eventLog;
+    private final long lobbyIdleTtlNanos;
+    private final long finishedGraceNanos;
+    private final int archiveSize;
+
+    // System.nanoTime() when a lobby was first seen by a sweep, for lobbies without commands
+    private final Map<String, Long> firstSeen = new ConcurrentHashMap<>();
+    // System.nanoTime() when a sweep first saw the lobby's game finished
+    private final Map<String, Long> finishedSince = new ConcurrentHashMap<>();
+    private final Deque<ArchivedGame> archive = new ArrayDeque<>();
+
+    private final Counter idleLobbies;
+    private final Counter finishedGames;
+    private final Counter idleMailboxes;
+    private final Timer sweeps;
+    private final AtomicLong heapAfterSweep = new AtomicLong();
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    public LobbyLifecycleManager(LobbyService lobbyService, GameService gameService, TurnService turnService,
+                                 LobbyDispatcher lobbyDispatcher, GameJournal gameJournal, LobbyEventLog eventLog,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${cluedo.lifecycle.lobby-idle-ttl-ms:1800000}") long lobbyIdleTtlMs,
+                                 @Value("${cluedo.lifecycle.finished-grace-ms:300000}") long finishedGraceMs,
+                                 @Value("${cluedo.lifecycle.archive-size:100}") int archiveSize) {
+        this.lobbyService = lobbyService;
+        this.gameService = gameService;
+        this.turnService = turnService;
+        this.lobbyDispatcher = lobbyDispatcher;
+        this.gameJournal = gameJournal;
+        this.eventLog = eventLog;
+        this.lobbyIdleTtlNanos = TimeUnit.MILLISECONDS.toNanos(lobbyIdleTtlMs);
+        this.finishedGraceNanos = TimeUnit.MILLISECONDS.toNanos(finishedGraceMs);
+        this.archiveSize = archiveSize;
+
+        this.idleLobbies = evictions(meterRegistry, IDLE_LOBBY);
+        this.finishedGames = evictions(meterRegistry, FINISHED_GAME);
+        this.idleMailboxes = evictions(meterRegistry, IDLE_MAILBOX);
+        this.sweeps = Timer.builder("cluedo.lifecycle.sweep")
+                .description("Time to find the lobbies to evict")
+                .register(meterRegistry);
+        Gauge.builder("cluedo.lifecycle.heap.used", heapAfterSweep, AtomicLong::get)
+                .description("Heap in use after the last sweep")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("cluedo.lifecycle.archived", this, LobbyLifecycleManager::getArchivedGameCount)
+                .description("Summaries of finished games kept")
+                .register(meterRegistry);
+    }
+
+    private static Counter evictions(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("cluedo.lifecycle.evicted")
+                .description("Lobbies, games and mailboxes removed by the lifecycle sweep")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Find idle lobbies and finished games and queue their eviction on their mailboxes
+     */
+    @Scheduled(fixedDelayString = "${cluedo.lifecycle.sweep-interval-ms:60000}",
+            initialDelayString = "${cluedo.lifecycle.sweep-interval-ms:60000}")
+    public void sweep() {
+        sweeps.record(this::findEvictions);
+        heapAfterSweep.set(memory.getHeapMemoryUsage().getUsed());
+    }
+
+    private void findEvictions() {
+        long now = System.nanoTime();
+        Set<String> known = new HashSet<>();
+
+        for (Lobby lobby : lobbyService.getAllActiveLobbies()) {
+            String lobbyId = lobby.getId();
+            known.add(lobbyId);
+            firstSeen.putIfAbsent(lobbyId, now);
+            GameManager game = gameService.getGame(lobbyId);
+            if (game == null && isIdle(lobbyId, now)) {
+                lobbyDispatcher.executeQuietly(lobbyId, () -> evictIdleLobby(lobbyId));
+            } else if (game != null) {
+                checkFinished(lobbyId, game, now);
+            }
+        }
+        // games whose lobby is gone already
+        for (String lobbyId : gameService.getActiveGameIds()) {
+            if (known.add(lobbyId)) {
+                checkFinished(lobbyId, gameService.getGame(lobbyId), now);
+            }
+        }
+
+        firstSeen.keySet().retainAll(known);
+        finishedSince.keySet().retainAll(known);
+
+        // mailboxes of ids that are no lobby, e.g. reply ids of lobby queries
+        for (String id : lobbyDispatcher.getMailboxIds()) {
+            if (!known.contains(id) && lobbyDispatcher.removeIdleMailbox(id, now - lobbyIdleTtlNanos)) {
+                idleMailboxes.increment();
+            }
+        }
+        // logs of topics with ids that are no lobby
+        for (String id : eventLog.getLobbyIds()) {
+            if (!known.contains(id)) {
+                eventLog.removeIdle(id, now - lobbyIdleTtlNanos);
+            }
+        }
+    }
+
+    private boolean isIdle(String lobbyId, long now) {
+        long lastActivity = lobbyDispatcher.getLastActivity(lobbyId);
+        long since = lastActivity == LobbyDispatcher.NO_ACTIVITY ? firstSeen.getOrDefault(lobbyId, now) : lastActivity;
+        return now - since >= lobbyIdleTtlNanos;
+    }
+
+    private void checkFinished(String lobbyId, GameManager game, long now) {
+        if (game == null || !isFinished(lobbyId, game)) {
+            return;
+        }
+        long since = finishedSince.computeIfAbsent(lobbyId, id -> now);
+        if (now - since >= finishedGraceNanos) {
+            lobbyDispatcher.executeQuietly(lobbyId, () -> evictFinishedGame(lobbyId));
+        }
+    }
+
+    private boolean isFinished(String lobbyId, GameManager game) {
+        return turnService.getTurnState(lobbyId) == TurnService.TurnState.PLAYER_HAS_WON || game.checkGameEnd();
+    }
+
+    // on the lobby's mailbox, checks again in case a command came in after the sweep
+    private void evictIdleLobby(String lobbyId) {
+        if (gameService.getGame(lobbyId) != null || lobbyService.getLobby(lobbyId) == null
+                || !isIdle(lobbyId, System.nanoTime())) {
+            return;
+        }
+        remove(lobbyId);
+        idleLobbies.increment();
+        logger.info("Evicted idle lobby {}", lobbyId);
+    }
+
+    private void evictFinishedGame(String lobbyId) {
+        GameManager game = gameService.getGame(lobbyId);
+        if (game == null || !isFinished(lobbyId, game)) {
+            return;
+        }
+        archive(new ArchivedGame(lobbyId, game.getWinner() == null ? null : game.getWinner().getName(),
+                game.getPlayers().stream().map(Player::getName).toList(), Instant.now()));
+        remove(lobbyId);
+        finishedGames.increment();
+        logger.info("Archived finished game {}", lobbyId);
+    }
+
+    private void remove(String lobbyId) {
+        lobbyService.removeLobby(lobbyId);
+        gameService.removeGame(lobbyId);
+        turnService.removeLobby(lobbyId);
+        gameJournal.end(lobbyId);
+        eventLog.remove(lobbyId);
+        firstSeen.remove(lobbyId);
+        finishedSince.remove(lobbyId);
+        // last, commands queued behind this one are dropped and later ones get a new mailbox
+        lobbyDispatcher.removeMailbox(lobbyId);
+    }
+
+    private synchronized void archive(ArchivedGame game) {
+        archive.addFirst(game);
+        while (archive.size() > archiveSize) {
+            archive.removeLast();
+        }
+    }
+
+    /**
+     * @return summaries of the last finished games, newest first
+     */
+    public synchronized List<ArchivedGame> getArchivedGames() {
+        return List.copyOf(archive);
+    }
+
+    public synchronized int getArchivedGameCount() {
+        return archive.size();
+    }
+}
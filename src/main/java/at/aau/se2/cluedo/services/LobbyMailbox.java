@@ -0,0 +1,119 @@
+package at.aau.se2.cluedo.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Serial executor for the commands of one lobby. Tasks are run one after another in submission
+ * order on a shared worker pool, so at most one thread touches the lobby's game state at a time
+ * while other lobbies keep running in parallel. A closed mailbox drops the tasks it still holds
+ * instead of running them.
+ */
+public class LobbyMailbox {
+    private static final Logger logger = LoggerFactory.getLogger(LobbyMailbox.class);
+    // tasks run per drain before the mailbox yields its worker to other lobbies
+    private static final int BATCH_SIZE = 64;
+
+    private final String lobbyId;
+    private final Executor workers;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    private final ThreadLocal<String> currentLobby;
+    // called with the lobby id after each task
+    private final Consumer<String> afterTask;
+    // System.nanoTime() of the last queued command
+    private volatile long lastActivity = LobbyDispatcher.NO_ACTIVITY;
+    private volatile boolean closed;
+
+    LobbyMailbox(String lobbyId, Executor workers, ThreadLocal<String> currentLobby, Consumer<String> afterTask) {
+        this.lobbyId = lobbyId;
+        this.workers = workers;
+        this.currentLobby = currentLobby;
+        this.afterTask = afterTask;
+    }
+
+    public void execute(Runnable task) {
+        lastActivity = System.nanoTime();
+        executeQuietly(task);
+    }
+
+    /**
+     * Queue a task that is not lobby activity, e.g. housekeeping
+     * @param task
+     */
+    public void executeQuietly(Runnable task) {
+        tasks.add(task);
+        schedule();
+    }
+
+    public int getQueueSize() {
+        return tasks.size();
+    }
+
+    public long getLastActivity() {
+        return lastActivity;
+    }
+
+    /**
+     * Stop running tasks, the ones still queued are dropped. Called by the {@link LobbyDispatcher}
+     * when it removes the mailbox, no task is queued here afterwards.
+     */
+    void close() {
+        closed = true;
+        schedule();
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    private void schedule() {
+        if (!tasks.isEmpty() && scheduled.compareAndSet(false, true)) {
+            workers.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        currentLobby.set(lobbyId);
+        try {
+            Runnable task;
+            int processed = 0;
+            while (processed < BATCH_SIZE && (task = tasks.poll()) != null) {
+                if (closed) {
+                    drop(task);
+                } else {
+                    runSafely(task);
+                }
+                processed++;
+            }
+        } finally {
+            currentLobby.remove();
+            scheduled.set(false);
+            schedule();
+        }
+    }
+
+    private void drop(Runnable task) {
+        logger.debug("Dropped a command queued for removed lobby {}", lobbyId);
+        // a caller waiting for the result gets a CancellationException
+        if (task instanceof Future<?> future) {
+            future.cancel(false);
+        }
+    }
+
+    private void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            logger.error("Command for lobby {} failed", lobbyId, e);
+        }
+        afterTask.accept(lobbyId);
+    }
+}
@@ -0,0 +1,15 @@
+package at.aau.se2.cluedo.services;
+
+/**
+ * Which node of a cluster a lobby lives on. Without a cluster every lobby is local.
+ */
+public interface LobbyOwnership {
+
+    LobbyOwnership LOCAL = lobbyId -> true;
+
+    /**
+     * @param lobbyId
+     * @return true if this node owns the lobby
+     */
+    boolean isLocal(String lobbyId);
+}
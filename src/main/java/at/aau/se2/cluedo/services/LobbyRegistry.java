@@ -4,26 +4,70 @@ import at.aau.se2.cluedo.models.gameobjects.Player;
 import at.aau.se2.cluedo.models.lobby.Lobby;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 @Service
 public class LobbyRegistry {
     private static final Logger logger = LoggerFactory.getLogger(LobbyRegistry.class);
+    // ids tried before giving up on finding one this node owns
+    private static final int MAX_ID_ATTEMPTS = 1000;
 
-    private final Map<String, Lobby> lobbies = new HashMap<>();
+    private final Map<String, Lobby> lobbies = new ConcurrentHashMap<>();
+    private final LobbyOwnership lobbyOwnership;
 
+    /**
+     * A registry owning every lobby id, as outside of a cluster
+     */
+    public LobbyRegistry() {
+        this.lobbyOwnership = LobbyOwnership.LOCAL;
+    }
+
+    /**
+     * @param lobbyOwnership decides which lobby ids this node may hand out, all of them without a cluster
+     */
+    @Autowired
+    public LobbyRegistry(ObjectProvider<LobbyOwnership> lobbyOwnership) {
+        this.lobbyOwnership = lobbyOwnership.getIfAvailable(() -> LobbyOwnership.LOCAL);
+    }
 
     public Lobby createLobby(Player host) {
-        String lobbyId = UUID.randomUUID().toString();
+        String lobbyId = newLobbyId();
         Lobby lobby = new Lobby(lobbyId, host);
         lobbies.put(lobbyId, lobby);
         return lobby;
     }
 
 
+    // in a cluster the id decides the node, so only ids this node owns are handed out
+    private String newLobbyId() {
+        for (int attempt = 0; attempt < MAX_ID_ATTEMPTS; attempt++) {
+            String lobbyId = UUID.randomUUID().toString();
+            if (lobbyOwnership.isLocal(lobbyId)) {
+                return lobbyId;
+            }
+        }
+        logger.warn("Found no lobby id owned by this node, creating the lobby anyway");
+        return UUID.randomUUID().toString();
+    }
+
+
+    /**
+     * Register a lobby that already has an id, used for games recovered from the journal
+     * and lobbies handed over by another node
+     * @param lobby
+     * @return false if a lobby with the id exists already, it is kept
+     */
+    public boolean restoreLobby(Lobby lobby) {
+        return lobbies.putIfAbsent(lobby.getId(), lobby) == null;
+    }
+
+
     public Lobby getLobby(String lobbyId) {
         Lobby lobby = lobbies.get(lobbyId);
         if (lobby == null) {
@@ -34,6 +78,15 @@ public class LobbyRegistry {
     }
 
 
+    /**
+     * @param lobbyId
+     * @return true if the lobby exists, without logging a missing one
+     */
+    public boolean hasLobby(String lobbyId) {
+        return lobbies.containsKey(lobbyId);
+    }
+
+
     public boolean removeLobby(String lobbyId) {
         Lobby removed = lobbies.remove(lobbyId);
         if (removed != null) {
@@ -44,6 +97,10 @@ public class LobbyRegistry {
         return false;
     }
 
+    public int getLobbyCount() {
+        return lobbies.size();
+    }
+
     public List<Lobby> getAllLobbies() {
         logger.debug("Retrieving all lobbies. Count: {}", lobbies.size());
         return new ArrayList<>(lobbies.values());
@@ -2,6 +2,7 @@ package at.aau.se2.cluedo.services;
 
 import at.aau.se2.cluedo.models.gameobjects.Player;
 import at.aau.se2.cluedo.models.lobby.Lobby;
+import at.aau.se2.cluedo.services.LobbyDirectory.LobbyState;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -11,25 +12,51 @@ import java.util.List;
 public class LobbyService {
 
     private final LobbyRegistry lobbyRegistry;
+    private final LobbyDirectory lobbyDirectory;
 
-    @Autowired
+    /**
+     * A lobby service whose directory sends no change notifications
+     * @param lobbyRegistry
+     */
     public LobbyService(LobbyRegistry lobbyRegistry) {
+        this(lobbyRegistry, new LobbyDirectory());
+    }
+
+    @Autowired
+    public LobbyService(LobbyRegistry lobbyRegistry, LobbyDirectory lobbyDirectory) {
         this.lobbyRegistry = lobbyRegistry;
+        this.lobbyDirectory = lobbyDirectory;
     }
 
     public String createLobby(Player host) {
         Lobby lobby = lobbyRegistry.createLobby(host);
+        lobbyDirectory.update(lobby, LobbyState.OPEN);
         return lobby.getId();
     }
 
     public void joinLobby(String lobbyId, Player player) {
         Lobby lobby = lobbyRegistry.getLobby(lobbyId);
         lobby.addPlayer(player);
+        lobbyDirectory.update(lobby);
     }
 
     public void leaveLobby(String lobbyId, Player player) {
         Lobby lobby = lobbyRegistry.getLobby(lobbyId);
         lobby.removePlayer(player);
+        lobbyDirectory.update(lobby);
+    }
+
+    /**
+     * List the lobby as playing, it can't be joined anymore
+     * @param lobby
+     */
+    public void markInGame(Lobby lobby) {
+        lobbyDirectory.update(lobby, LobbyState.IN_GAME);
+    }
+
+    public boolean removeLobby(String lobbyId) {
+        lobbyDirectory.remove(lobbyId);
+        return lobbyRegistry.removeLobby(lobbyId);
     }
 
     public Lobby getLobby(String lobbyId) {
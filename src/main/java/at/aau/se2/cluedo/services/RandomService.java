@@ -0,0 +1,43 @@
+package at.aau.se2.cluedo.services;
+
+import at.aau.se2.cluedo.models.GameRandom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.SplittableRandom;
+
+/**
+ * Hands out the seeds of new games. The seeds are drawn from one master seed, so a fixed
+ * {@code cluedo.random.seed} makes the games of a run reproducible. Games draw from their own
+ * {@link GameRandom} afterwards and never come back here.
+ */
+@Service
+public class RandomService {
+    private static final Logger logger = LoggerFactory.getLogger(RandomService.class);
+
+    private final SplittableRandom seeds;
+
+    public RandomService() {
+        this(new SplittableRandom().nextLong());
+    }
+
+    /**
+     * @param seed master seed, a random one if not configured
+     */
+    @Autowired
+    public RandomService(@Value("${cluedo.random.seed:#{null}}") Long seed) {
+        long masterSeed = seed != null ? seed : new SplittableRandom().nextLong();
+        this.seeds = new SplittableRandom(masterSeed);
+        logger.info("Game seeds are drawn from master seed {}", masterSeed);
+    }
+
+    /**
+     * @return the random source of a new game
+     */
+    public synchronized GameRandom newGameRandom() {
+        return new GameRandom(seeds.nextLong());
+    }
+}
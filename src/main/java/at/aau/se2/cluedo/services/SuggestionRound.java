@@ -0,0 +1,52 @@
+package at.aau.se2.cluedo.services;
+
+import at.aau.se2.cluedo.dto.SuggestionRequest;
+import at.aau.se2.cluedo.models.gameobjects.Player;
+import lombok.Getter;
+
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * State of one running suggestion round: who suggested, which player is currently asked to
+ * disprove and the pending response timeout. Guarded by its own monitor in {@link TurnService}.
+ */
+@Getter
+class SuggestionRound {
+    private final String lobbyId;
+    private final SuggestionRequest request;
+    private final Player suggester;
+    private Player responder;
+    private ScheduledFuture<?> timeout;
+    private boolean finished;
+
+    SuggestionRound(String lobbyId, SuggestionRequest request, Player suggester) {
+        this.lobbyId = lobbyId;
+        this.request = request;
+        this.suggester = suggester;
+    }
+
+    void awaitResponse(Player responder) {
+        this.responder = responder;
+    }
+
+    boolean isAwaiting(String playerId) {
+        return responder != null && String.valueOf(responder.getPlayerID()).equals(playerId);
+    }
+
+    void setTimeout(ScheduledFuture<?> timeout) {
+        this.timeout = timeout;
+    }
+
+    void cancelTimeout() {
+        if (timeout != null) {
+            timeout.cancel(false);
+            timeout = null;
+        }
+    }
+
+    void finish() {
+        cancelTimeout();
+        finished = true;
+        responder = null;
+    }
+}
@@ -5,35 +5,52 @@ import at.aau.se2.cluedo.models.gamemanager.GameManager;
 import at.aau.se2.cluedo.models.gamemanager.GameState;
 import at.aau.se2.cluedo.models.gameobjects.Player;
 import at.aau.se2.cluedo.models.gameobjects.SecretFile;
+import at.aau.se2.cluedo.services.events.GameEvent;
+import at.aau.se2.cluedo.services.events.GameEventPublisher;
+import at.aau.se2.cluedo.services.journal.GameJournal;
+import at.aau.se2.cluedo.services.journal.JournalEntry;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
 
 @Service
 public class TurnService {
     private static final Logger logger = LoggerFactory.getLogger(TurnService.class);
     // turn states for each lobby
-    private final Map<String, TurnState> lobbyTurnStates = new HashMap<>();
-    @Autowired
-    private GameService gameService;
-
-    @Autowired
-    private SimpMessagingTemplate messagingTemplate;
-
-    private static Map<String, CompletableFuture<String>> pendingResponses = new ConcurrentHashMap<>();
-
-    private static String successLiteral = "success";
-    private static String suspectLiteral = "suspect";
-    private static String weaponLiteral = "weapon";
+    private final Map<String, TurnState> lobbyTurnStates = new ConcurrentHashMap<>();
+    private final GameService gameService;
+    private final GameEventPublisher eventPublisher;
+    private final LobbyDispatcher lobbyDispatcher;
+    private final GameJournal gameJournal;
+
+    // suggestion rounds by lobby and by the id of the player whose answer is awaited
+    private final Map<String, SuggestionRound> activeSuggestionRounds = new ConcurrentHashMap<>();
+    private final Map<String, SuggestionRound> pendingResponses = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService suggestionTimeoutScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "suggestion-timeout");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${cluedo.suggestion.response-timeout-ms:60000}")
+    private long suggestionResponseTimeoutMs = 60000;
+
+    public TurnService(GameService gameService, GameEventPublisher eventPublisher, LobbyDispatcher lobbyDispatcher,
+                       GameJournal gameJournal) {
+        this.gameService = gameService;
+        this.eventPublisher = eventPublisher;
+        this.lobbyDispatcher = lobbyDispatcher;
+        this.gameJournal = gameJournal;
+    }
 
     /**
      * Initialize lobby state when created
@@ -41,7 +58,7 @@ public class TurnService {
      * @param lobbyId
      */
     public void initializeLobbyState(String lobbyId) {
-        lobbyTurnStates.put(lobbyId, TurnState.WAITING_FOR_PLAYERS);
+        setTurnState(lobbyId, TurnState.WAITING_FOR_PLAYERS);
         logger.info("Initialized lobby state for lobby: {}", lobbyId);
         notifyStateChange(lobbyId);
     }
@@ -53,7 +70,7 @@ public class TurnService {
      */
     public void setWaitingForStart(String lobbyId) {
         if (getTurnState(lobbyId) == TurnState.WAITING_FOR_PLAYERS) {
-            lobbyTurnStates.put(lobbyId, TurnState.WAITING_FOR_START);
+            setTurnState(lobbyId, TurnState.WAITING_FOR_START);
             logger.info("Lobby {} now waiting for start", lobbyId);
             notifyStateChange(lobbyId);
         }
@@ -66,7 +83,7 @@ public class TurnService {
      */
     public void setWaitingForPlayers(String lobbyId) {
         if (getTurnState(lobbyId) == TurnState.WAITING_FOR_START) {
-            lobbyTurnStates.put(lobbyId, TurnState.WAITING_FOR_PLAYERS);
+            setTurnState(lobbyId, TurnState.WAITING_FOR_PLAYERS);
             logger.info("Lobby {} now waiting for more players", lobbyId);
             notifyStateChange(lobbyId);
         }
@@ -78,7 +95,7 @@ public class TurnService {
      * @param lobbyId
      */
     public void initializeTurnState(String lobbyId) {
-        lobbyTurnStates.put(lobbyId, TurnState.PLAYERS_TURN_ROLL_DICE);
+        setTurnState(lobbyId, TurnState.PLAYERS_TURN_ROLL_DICE);
         logger.info("Game started in lobby: {}", lobbyId);
         notifyCurrentTurn(lobbyId);
     }
@@ -110,6 +127,44 @@ public class TurnService {
         return lobbyTurnStates.getOrDefault(lobbyId, TurnState.WAITING_FOR_PLAYERS);
     }
 
+    /**
+     * Forget a lobby: its turn state and a suggestion round that still waits for answers
+     * @param lobbyId
+     */
+    public void removeLobby(String lobbyId) {
+        lobbyTurnStates.remove(lobbyId);
+        SuggestionRound round = activeSuggestionRounds.remove(lobbyId);
+        if (round != null) {
+            synchronized (round) {
+                round.finish();
+            }
+            pendingResponses.values().removeIf(pending -> pending == round);
+        }
+    }
+
+    public int getLobbyCount() {
+        return lobbyTurnStates.size();
+    }
+
+    /**
+     * Put back the turn state of a game recovered from the journal, without notifying anyone
+     * @param lobbyId
+     * @param turnState
+     */
+    public void restoreTurnState(String lobbyId, TurnState turnState) {
+        lobbyTurnStates.put(lobbyId, turnState);
+    }
+
+    private void setTurnState(String lobbyId, TurnState turnState) {
+        if (lobbyTurnStates.put(lobbyId, turnState) == turnState) {
+            return;
+        }
+        gameJournal.append(lobbyId, new JournalEntry.TurnStateChanged(turnState));
+        if (turnState == TurnState.PLAYER_HAS_WON) {
+            gameJournal.end(lobbyId);
+        }
+    }
+
     /**
      * Process dice roll and determine next phase
      *
@@ -127,13 +182,13 @@ public class TurnService {
 
         GameManager game = gameService.getGame(lobbyId);
         game.setDiceRollS(diceValue);
+        gameJournal.append(lobbyId, new JournalEntry.DiceRolled(playerName, diceValue, game.getRandomDraws()));
 
         // advance to next (movement) phase
-        lobbyTurnStates.put(lobbyId, TurnState.PLAYERS_TURN_MOVE);
+        setTurnState(lobbyId, TurnState.PLAYERS_TURN_MOVE);
 
         // notify all players about dice roll and state change
-        messagingTemplate.convertAndSend("/topic/diceRolled/" + lobbyId,
-                Map.of("player", playerName, "diceValue", diceValue, "turnState", TurnState.PLAYERS_TURN_MOVE));
+        eventPublisher.publish(lobbyId, new GameEvent.DiceRolled(playerName, diceValue, TurnState.PLAYERS_TURN_MOVE));
 
         logger.info("Player {} rolled {} in lobby {}", playerName, diceValue, lobbyId);
         return true;
@@ -154,9 +209,9 @@ public class TurnService {
             // check if player is in a room after movement
             if (game.inRoom(currentPlayer)) {
                 // player can make a suspicion
-                lobbyTurnStates.put(lobbyId, TurnState.PLAYERS_TURN_SUGGEST);
-                messagingTemplate.convertAndSend("/topic/turnStateChanged/" + lobbyId,
-                        Map.of("turnState", TurnState.PLAYERS_TURN_SUGGEST, "currentPlayer", currentPlayer.getName()));
+                setTurnState(lobbyId, TurnState.PLAYERS_TURN_SUGGEST);
+                eventPublisher.publish(lobbyId,
+                        new GameEvent.TurnStateChanged(TurnState.PLAYERS_TURN_SUGGEST, currentPlayer.getName()));
                 logger.info("Player {} is in a room in lobby {}, turn state changed to suggestion", playerName, lobbyId);
             } else {
                 // end turn if not in room
@@ -168,10 +223,12 @@ public class TurnService {
     }
 
     /**
-     * Process suggestion and handle turn logic, AKA suspicion
+     * Process suggestion and handle turn logic, AKA suspicion.
+     * Starts an asynchronous suggestion round and returns immediately; the round is advanced by
+     * {@link #receiveSuggestionResponse(String, String)} and by the response timeout.
      * @param lobbyId
      * @param request SuggestionRequest containing playerID, weapon, room and character
-     * @return true if successful
+     * @return true if the suggestion round was started
      */
     public boolean processSuggestion(String lobbyId, SuggestionRequest request) {
 
@@ -182,16 +239,18 @@ public class TurnService {
             return false;
         }
 
-        messagingTemplate.convertAndSend("/topic/suggestionMade/"+lobbyId,Map.of(
-                successLiteral, true,
-                "player", request.getPlayerName(),
-                "playerId", request.getPlayerId(),
-                suspectLiteral, request.getSuspect(),
-                weaponLiteral, request.getWeapon(),
-                "room", request.getRoom(),
-                "message", request.getPlayerName() + " suggests " + request.getSuspect() + " with " + request.getWeapon() + " in " + request.getRoom(),
-                "lobbyId", lobbyId
-        ));
+        GameManager game = gameService.getGame(lobbyId);
+        SuggestionRound round = new SuggestionRound(lobbyId, request, game.getCurrentPlayer());
+
+        if (activeSuggestionRounds.putIfAbsent(lobbyId, round) != null) {
+            logger.warn("Suggestion round already running in lobby {}", lobbyId);
+            return false;
+        }
+
+        eventPublisher.publish(lobbyId, new GameEvent.SuggestionMade(true, request.getPlayerName(),
+                request.getPlayerId(), request.getSuspect(), request.getWeapon(), request.getRoom(),
+                request.getPlayerName() + " suggests " + request.getSuspect() + " with " + request.getWeapon() + " in " + request.getRoom(),
+                lobbyId));
 
         /*
         TurnState currentState = getTurnState(lobbyId);
@@ -201,58 +260,113 @@ public class TurnService {
         }
          */
 
-        GameManager game = gameService.getGame(lobbyId);
-        Player currentPlayer = game.getCurrentPlayer();
-        Player nextPlayer;
+        synchronized (round) {
+            askNextPlayer(game, round, round.getSuggester());
+        }
 
-        CompletableFuture<String> future = new CompletableFuture<>();
+        return true;
+    }
 
-        for (Player p: game.getPlayers()){
-            pendingResponses.put(String.valueOf(p.getPlayerID()),future);
+    /**
+     * Called when a player answers a suggestion, either with a card or with a blank answer (no matching card)
+     * @param playerID id of the answering player
+     * @param cardName shown card, blank if the player can't disprove
+     */
+    public void receiveSuggestionResponse(String playerID, String cardName){
+        SuggestionRound round = pendingResponses.remove(playerID);
+        if (round == null) {
+            logger.warn("No pending suggestion for player {}", playerID);
+            return;
         }
 
-        while(!(nextPlayer = game.getNextPlayer(currentPlayer.getName())).getName().equals(currentPlayer.getName())){
-            logger.info(String.format("Current player: %s",currentPlayer.getName()));
-            messagingTemplate.convertAndSend("/topic/processSuggestion/"+lobbyId+"/"+nextPlayer.getPlayerID(), Map.of("processSuggestion", true));
-
-            try {
-                String response = future.get(60, TimeUnit.SECONDS);
-                if (response != null && !response.isBlank()) {
-                    logger.info("Received suggestion response: {}", response);
-                    messagingTemplate.convertAndSend("/topic/resultSuggestion/"+lobbyId+"/"+request.getPlayerId(), Map.of("receivedCard", response,
-                                                                                                                                    "sendingPlayer", nextPlayer.getName()));
-                    break;
-                }else{
-                    currentPlayer = nextPlayer;
-                }
-            } catch (TimeoutException e) {
-                // No response received
-            } catch (InterruptedException e) {
-                logger.error("Interrupted Error in Process Suggestion:", e);
-            }catch (Exception e) {
-                    logger.error("Error in Process Suggestion", e);
-            } finally {
-                pendingResponses.remove(nextPlayer.getPlayerID().toString());
+        synchronized (round) {
+            if (round.isFinished() || !round.isAwaiting(playerID)) {
+                return;
             }
+            round.cancelTimeout();
+
+            Player responder = round.getResponder();
+            if (cardName != null && !cardName.isBlank()) {
+                logger.info("Received suggestion response: {}", cardName);
+                eventPublisher.publishTo(round.getLobbyId(), round.getRequest().getPlayerId(),
+                        new GameEvent.SuggestionResult(cardName, responder.getName()));
+                finishSuggestionRound(round);
+            } else {
+                askNextPlayer(gameService.getGame(round.getLobbyId()), round, responder);
+            }
+        }
+    }
 
+    /**
+     * Number of players the server is currently waiting on for a suggestion response
+     * @return pending suggestion responses
+     */
+    public int getPendingSuggestionCount() {
+        return pendingResponses.size();
+    }
 
-        }
+    /**
+     * Check if a suggestion round is currently running in a lobby
+     * @param lobbyId
+     * @return true if the lobby waits for suggestion responses
+     */
+    public boolean hasActiveSuggestion(String lobbyId) {
+        return activeSuggestionRounds.containsKey(lobbyId);
+    }
 
-        logger.info("Suggestion finished TurnService");
+    public void setSuggestionResponseTimeoutMs(long suggestionResponseTimeoutMs) {
+        this.suggestionResponseTimeoutMs = suggestionResponseTimeoutMs;
+    }
 
-        endTurn(lobbyId);
+    /**
+     * Asks the next active player after {@code previous} to disprove the suggestion.
+     * Ends the round if it wrapped around to the suggesting player. Caller must hold the round's lock.
+     */
+    private void askNextPlayer(GameManager game, SuggestionRound round, Player previous) {
+        Player nextPlayer = game == null ? null : game.getNextPlayer(previous.getName());
 
-        return true;
+        if (nextPlayer == null || nextPlayer.getName().equals(round.getSuggester().getName())) {
+            finishSuggestionRound(round);
+            return;
+        }
+
+        logger.info(String.format("Current player: %s",previous.getName()));
+        String responderId = String.valueOf(nextPlayer.getPlayerID());
+        round.awaitResponse(nextPlayer);
+        pendingResponses.put(responderId, round);
 
+        eventPublisher.publishTo(round.getLobbyId(), responderId, GameEvent.SuggestionRequested.INSTANCE);
+
+        round.setTimeout(suggestionTimeoutScheduler.schedule(
+                () -> lobbyDispatcher.execute(round.getLobbyId(), () -> onSuggestionTimeout(round, responderId)),
+                suggestionResponseTimeoutMs, TimeUnit.MILLISECONDS));
     }
 
-    public void receiveSuggestionResponse(String playerID, String cardName){
-        CompletableFuture<String> future = pendingResponses.get(playerID);
-        if (future != null) {
-            future.complete(cardName);
+    private void onSuggestionTimeout(SuggestionRound round, String responderId) {
+        synchronized (round) {
+            if (round.isFinished() || !round.isAwaiting(responderId)) {
+                return;
+            }
+            pendingResponses.remove(responderId, round);
+            logger.info("Suggestion response of {} timed out in lobby {}", round.getResponder().getName(), round.getLobbyId());
+            askNextPlayer(gameService.getGame(round.getLobbyId()), round, round.getResponder());
         }
     }
 
+    private void finishSuggestionRound(SuggestionRound round) {
+        round.finish();
+        activeSuggestionRounds.remove(round.getLobbyId(), round);
+
+        logger.info("Suggestion finished TurnService");
+
+        endTurn(round.getLobbyId());
+    }
+
+    @PreDestroy
+    void shutdownSuggestionTimeouts() {
+        suggestionTimeoutScheduler.shutdownNow();
+    }
+
     /**
      * Process accusation and handle game logic AKA Solve case file
      * @param lobbyId
@@ -277,17 +391,17 @@ public class TurnService {
 
         // check if accusation is correct using direct comparison
         boolean isCorrect = game.makeAccusation(currentPlayer, secretFile);
+        gameJournal.append(lobbyId, new JournalEntry.Accused(currentPlayer.getName(), isCorrect));
 
         if (isCorrect) {
             // player wins
             currentPlayer.setHasWon(true);
             game.setState(GameState.ENDED);
-            lobbyTurnStates.put(lobbyId, TurnState.PLAYER_HAS_WON);
+            setTurnState(lobbyId, TurnState.PLAYER_HAS_WON);
 
             // notify all players about the win
-            messagingTemplate.convertAndSend("/topic/accusationMade/" + lobbyId,
-                    Map.of("player", playerName, suspectLiteral, suspect, weaponLiteral, weapon, "room", room,
-                            "correct", true, "gameWon", true, successLiteral, true));
+            eventPublisher.publish(lobbyId,
+                    new GameEvent.AccusationMade(playerName, suspect, weapon, room, true, true, false, true));
 
             logger.info("Player {} won the game in lobby {} with correct accusation!", playerName, lobbyId);
         } else {
@@ -295,13 +409,12 @@ public class TurnService {
             logger.info("Player {} eliminated in the game in lobby {} with wrong accusation!", playerName, lobbyId);
             currentPlayer.setActive(false);
             // notify all players about the failed accusation
-            messagingTemplate.convertAndSend("/topic/accusationMade/" + lobbyId,
-                    Map.of("player", playerName, suspectLiteral, suspect, weaponLiteral, weapon, "room", room,
-                            "correct", false, "playerEliminated", true, successLiteral, true));
+            eventPublisher.publish(lobbyId,
+                    new GameEvent.AccusationMade(playerName, suspect, weapon, room, false, false, true, true));
 
             // check if game should end (only one player left)
             if (game.checkGameEnd()) {
-                lobbyTurnStates.put(lobbyId, TurnState.PLAYER_HAS_WON);
+                setTurnState(lobbyId, TurnState.PLAYER_HAS_WON);
             } else {
                 // end turn and move to next player
                 endTurn(lobbyId);
@@ -318,11 +431,11 @@ public class TurnService {
     public void endTurn(String lobbyId) {
         GameManager game = gameService.getGame(lobbyId);
         if (game == null || game.checkGameEnd()) {
-            lobbyTurnStates.put(lobbyId, TurnState.PLAYER_HAS_WON);
+            setTurnState(lobbyId, TurnState.PLAYER_HAS_WON);
             return;
         }
 
-        lobbyTurnStates.put(lobbyId, TurnState.PLAYERS_TURN_END);
+        setTurnState(lobbyId, TurnState.PLAYERS_TURN_END);
 
         nextTurn(lobbyId);
     }
@@ -334,12 +447,14 @@ public class TurnService {
     public void nextTurn(String lobbyId) {
         GameManager game = gameService.getGame(lobbyId);
         if (game == null || game.checkGameEnd()) {
-            lobbyTurnStates.put(lobbyId, TurnState.PLAYER_HAS_WON);
+            setTurnState(lobbyId, TurnState.PLAYER_HAS_WON);
             return;
         }
 
         game.nextTurn();
-        lobbyTurnStates.put(lobbyId, TurnState.PLAYERS_TURN_ROLL_DICE);
+        gameJournal.append(lobbyId, new JournalEntry.TurnChanged(game.getCurrentPlayerIndex()));
+        setTurnState(lobbyId, TurnState.PLAYERS_TURN_ROLL_DICE);
+        gameJournal.snapshotIfDue(game, TurnState.PLAYERS_TURN_ROLL_DICE);
 
         notifyCurrentTurn(lobbyId);
 
@@ -353,8 +468,7 @@ public class TurnService {
      */
     public void skipTurn(String lobbyId, String reason) {
         logger.info("Skipping turn in lobby {} - reason: {}", lobbyId, reason);
-        messagingTemplate.convertAndSend("/topic/turnSkipped/" + lobbyId,
-                Map.of("reason", reason));
+        eventPublisher.publish(lobbyId, new GameEvent.TurnSkipped(reason));
         nextTurn(lobbyId);
     }
 
@@ -409,10 +523,8 @@ public class TurnService {
         Player currentPlayer = game.getCurrentPlayer();
         TurnState turnState = getTurnState(lobbyId);
 
-        messagingTemplate.convertAndSend("/topic/currentTurn/" + lobbyId,
-                Map.of("currentPlayer", currentPlayer.getName(),
-                        "turnState", turnState,
-                        "playerIndex", game.getCurrentPlayerIndex()));
+        eventPublisher.publish(lobbyId,
+                new GameEvent.CurrentTurn(currentPlayer.getName(), turnState, game.getCurrentPlayerIndex()));
     }
 
     /**
@@ -422,8 +534,7 @@ public class TurnService {
     private void notifyStateChange(String lobbyId) {
         TurnState turnState = getTurnState(lobbyId);
 
-        messagingTemplate.convertAndSend("/topic/stateChanged/" + lobbyId,
-                Map.of("turnState", turnState, "lobbyId", lobbyId));
+        eventPublisher.publish(lobbyId, new GameEvent.StateChanged(turnState, lobbyId));
     }
 
     public enum TurnState {
@@ -0,0 +1,50 @@
+package at.aau.se2.cluedo.services.cluster;
+
+import at.aau.se2.cluedo.services.LobbyRegistry;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code /actuator/cluster}: the nodes on the ring, and adding or removing one. Like every
+ * actuator endpoint it has to be exposed with {@code management.endpoints.web.exposure.include}.
+ * A change has to be made on every node.
+ */
+@Component
+@Endpoint(id = "cluster")
+@ConditionalOnProperty(name = "cluedo.cluster.enabled", havingValue = "true")
+public class ClusterEndpoint {
+
+    private final ShardRouter shardRouter;
+    private final LobbyRegistry lobbyRegistry;
+
+    public ClusterEndpoint(ShardRouter shardRouter, LobbyRegistry lobbyRegistry) {
+        this.shardRouter = shardRouter;
+        this.lobbyRegistry = lobbyRegistry;
+    }
+
+    @ReadOperation
+    public Map<String, Object> cluster() {
+        return Map.of("nodeId", shardRouter.getNodeId(),
+                "nodes", shardRouter.getNodes(),
+                "lobbies", lobbyRegistry.getLobbyCount());
+    }
+
+    @WriteOperation
+    public Map<String, Object> addNode(String id, String url) {
+        shardRouter.addNode(id, url);
+        return cluster();
+    }
+
+    @DeleteOperation
+    public Map<String, Object> removeNode(@Selector String id) {
+        shardRouter.removeNode(id);
+        return cluster();
+    }
+}
@@ -0,0 +1,101 @@
+package at.aau.se2.cluedo.services.cluster;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Consistent hashing of lobby ids onto nodes. Every node is put on the ring at
+ * {@code virtualNodes} points and a key belongs to the node at the first point after its hash,
+ * so adding or removing a node only moves the keys next to that node's points. Rings are
+ * immutable, a change returns a new ring.
+ */
+public final class HashRing {
+
+    private final int virtualNodes;
+    private final Set<String> nodes;
+    private final NavigableMap<Long, String> points;
+
+    public HashRing(int virtualNodes) {
+        this(virtualNodes, new LinkedHashSet<>());
+    }
+
+    private HashRing(int virtualNodes, Set<String> nodes) {
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("A node needs at least one point on the ring");
+        }
+        this.virtualNodes = virtualNodes;
+        this.nodes = Collections.unmodifiableSet(nodes);
+        this.points = new TreeMap<>();
+        for (String node : nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                // on a collision the smaller id wins, whatever order the nodes were added in
+                points.merge(hash(node + "#" + i), node, (a, b) -> a.compareTo(b) <= 0 ? a : b);
+            }
+        }
+    }
+
+    /**
+     * @param node
+     * @return a ring that also contains the node
+     */
+    public HashRing withNode(String node) {
+        if (nodes.contains(node)) {
+            return this;
+        }
+        Set<String> next = new LinkedHashSet<>(nodes);
+        next.add(node);
+        return new HashRing(virtualNodes, next);
+    }
+
+    /**
+     * @param node
+     * @return a ring without the node
+     */
+    public HashRing withoutNode(String node) {
+        if (!nodes.contains(node)) {
+            return this;
+        }
+        Set<String> next = new LinkedHashSet<>(nodes);
+        next.remove(node);
+        return new HashRing(virtualNodes, next);
+    }
+
+    /**
+     * @param key
+     * @return the node owning the key, null if the ring is empty
+     */
+    public String ownerOf(String key) {
+        if (points.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> point = points.ceilingEntry(hash(key));
+        return point != null ? point.getValue() : points.firstEntry().getValue();
+    }
+
+    public boolean contains(String node) {
+        return nodes.contains(node);
+    }
+
+    public Set<String> getNodes() {
+        return nodes;
+    }
+
+    // 64 bit FNV-1a with the murmur3 finalizer, ids that differ in one character land far apart
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
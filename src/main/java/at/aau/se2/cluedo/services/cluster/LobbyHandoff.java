@@ -0,0 +1,42 @@
+package at.aau.se2.cluedo.services.cluster;
+
+import at.aau.se2.cluedo.models.gamemanager.GameManager;
+import at.aau.se2.cluedo.models.lobby.Lobby;
+import at.aau.se2.cluedo.services.TurnService.TurnState;
+import at.aau.se2.cluedo.services.journal.GameSnapshot;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A lobby moving to the node that owns it now
+ * @param lobbyId
+ * @param hostId
+ * @param players the lobby's players if no game was started, else empty
+ * @param game snapshot of the running game, null if there is none
+ * @param turnState
+ */
+public record LobbyHandoff(String lobbyId, UUID hostId, List<GameSnapshot.PlayerState> players,
+                           GameSnapshot game, TurnState turnState) {
+
+    /**
+     * Copy a lobby, called on the lobby's mailbox so the state is consistent
+     * @param lobby
+     * @param game null if no game was started
+     * @param turnState
+     * @return the handoff
+     */
+    public static LobbyHandoff of(Lobby lobby, GameManager game, TurnState turnState) {
+        return new LobbyHandoff(lobby.getId(), lobby.getHostId(),
+                game == null ? lobby.getPlayers().stream().map(GameSnapshot.PlayerState::of).toList() : List.of(),
+                game == null ? null : GameSnapshot.of(game, turnState, 0), turnState);
+    }
+
+    /**
+     * The receiving node's answer to a handoff
+     * @param lobbyId
+     * @param taken true if the node holds the lobby now, false if it rejected it
+     */
+    public record Ack(String lobbyId, boolean taken) {
+    }
+}
@@ -0,0 +1,199 @@
+package at.aau.se2.cluedo.services.cluster;
+
+import at.aau.se2.cluedo.models.gamemanager.GameManager;
+import at.aau.se2.cluedo.models.gameobjects.Player;
+import at.aau.se2.cluedo.models.lobby.Lobby;
+import at.aau.se2.cluedo.services.GameService;
+import at.aau.se2.cluedo.services.LobbyDirectory;
+import at.aau.se2.cluedo.services.LobbyDispatcher;
+import at.aau.se2.cluedo.services.LobbyRegistry;
+import at.aau.se2.cluedo.services.TurnService;
+import at.aau.se2.cluedo.services.journal.GameJournal;
+import at.aau.se2.cluedo.services.journal.GameSnapshot;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves lobbies between nodes. The lobby is copied on its mailbox and sent to
+ * {@link #HANDOFF_PREFIX}{lobbyId} on the new owner, which answers with a {@link LobbyHandoff.Ack}.
+ * Only once the owner took it the lobby, its game and journal are removed here; until then they
+ * stay, and a rejected or unanswered handoff is sent again on a later link check. Later commands
+ * are forwarded by the {@link ShardRouter}.
+ */
+@Service
+@ConditionalOnProperty(name = "cluedo.cluster.enabled", havingValue = "true")
+public class LobbyHandoffService {
+    private static final Logger logger = LoggerFactory.getLogger(LobbyHandoffService.class);
+
+    public static final String HANDOFF_PREFIX = "/app/handoff/";
+    // a handoff without answer is sent again after this
+    static final long ACK_TIMEOUT_MS = 30_000;
+
+    private final ShardRouter shardRouter;
+    private final LobbyRegistry lobbyRegistry;
+    private final LobbyDirectory lobbyDirectory;
+    private final GameService gameService;
+    private final TurnService turnService;
+    private final GameJournal gameJournal;
+    private final LobbyDispatcher lobbyDispatcher;
+    private final ObjectMapper objectMapper;
+    // lobbies handed over and not answered yet -> System.nanoTime() of the handoff
+    private final Map<String, Long> awaitingAck = new ConcurrentHashMap<>();
+
+    public LobbyHandoffService(ShardRouter shardRouter, LobbyRegistry lobbyRegistry, LobbyDirectory lobbyDirectory,
+                               GameService gameService, TurnService turnService, GameJournal gameJournal,
+                               LobbyDispatcher lobbyDispatcher, ObjectMapper objectMapper) {
+        this.shardRouter = shardRouter;
+        this.lobbyRegistry = lobbyRegistry;
+        this.lobbyDirectory = lobbyDirectory;
+        this.gameService = gameService;
+        this.turnService = turnService;
+        this.gameJournal = gameJournal;
+        this.lobbyDispatcher = lobbyDispatcher;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Queue the handoff of every lobby this node doesn't own anymore
+     */
+    public void handOffMovedLobbies() {
+        for (Lobby lobby : lobbyRegistry.getAllLobbies()) {
+            String lobbyId = lobby.getId();
+            if (!shardRouter.isLocal(lobbyId)) {
+                lobbyDispatcher.executeQuietly(lobbyId, () -> handOff(lobbyId));
+            }
+        }
+    }
+
+    // on the lobby's mailbox, the ring may have changed back since the handoff was queued
+    void handOff(String lobbyId) {
+        Lobby lobby = lobbyRegistry.getLobby(lobbyId);
+        if (lobby == null || shardRouter.isLocal(lobbyId)) {
+            return;
+        }
+        String owner = shardRouter.ownerOf(lobbyId);
+        // a handoff queued on a link that never connects would be lost with the lobby
+        if (!shardRouter.isConnected(owner)) {
+            logger.info("Node {} is not connected yet, handing lobby {} over on the next link check", owner, lobbyId);
+            return;
+        }
+        Long sent = awaitingAck.get(lobbyId);
+        if (sent != null && System.nanoTime() - sent < TimeUnit.MILLISECONDS.toNanos(ACK_TIMEOUT_MS)) {
+            return;
+        }
+        GameManager game = gameService.getGame(lobbyId);
+        LobbyHandoff handoff = LobbyHandoff.of(lobby, game, turnService.getTurnState(lobbyId));
+        try {
+            shardRouter.forward(owner, HANDOFF_PREFIX + lobbyId, MimeTypeUtils.APPLICATION_JSON,
+                    objectMapper.writeValueAsBytes(handoff));
+        } catch (JsonProcessingException | IllegalStateException e) {
+            logger.error("Handing lobby {} over to node {} failed, keeping it: {}", lobbyId, owner, e.getMessage());
+            return;
+        }
+        awaitingAck.put(lobbyId, System.nanoTime());
+        logger.info("Handed lobby {} over to node {}, keeping it until the node took it", lobbyId, owner);
+    }
+
+    /**
+     * An answer to a handoff, received over the link to the node it was sent to
+     * @param peerId
+     * @param payload a {@link LobbyHandoff.Ack}
+     */
+    public void acknowledged(String peerId, byte[] payload) {
+        LobbyHandoff.Ack ack;
+        try {
+            ack = objectMapper.readValue(payload, LobbyHandoff.Ack.class);
+        } catch (IOException e) {
+            logger.warn("Ignoring malformed handoff answer of node {}: {}", peerId, e.getMessage());
+            return;
+        }
+        if (ack.lobbyId() == null || !awaitingAck.containsKey(ack.lobbyId())) {
+            return;
+        }
+        lobbyDispatcher.executeQuietly(ack.lobbyId(), () -> finishHandOff(peerId, ack));
+    }
+
+    // on the lobby's mailbox
+    void finishHandOff(String peerId, LobbyHandoff.Ack ack) {
+        String lobbyId = ack.lobbyId();
+        if (awaitingAck.remove(lobbyId) == null) {
+            return;
+        }
+        if (!ack.taken()) {
+            logger.warn("Node {} rejected lobby {}, keeping it until the next link check", peerId, lobbyId);
+            return;
+        }
+        lobbyRegistry.removeLobby(lobbyId);
+        lobbyDirectory.remove(lobbyId);
+        gameService.removeGame(lobbyId);
+        turnService.removeLobby(lobbyId);
+        gameJournal.end(lobbyId);
+        lobbyDispatcher.removeMailbox(lobbyId);
+        logger.info("Node {} took lobby {}", peerId, lobbyId);
+    }
+
+    /**
+     * Take over a lobby from another node and answer it, called on the lobby's mailbox
+     * @param handoff
+     * @param linkSessionId session of the link the handoff came over
+     */
+    public void receive(LobbyHandoff handoff, String linkSessionId) {
+        boolean taken = take(handoff);
+        try {
+            shardRouter.acknowledge(linkSessionId,
+                    objectMapper.writeValueAsBytes(new LobbyHandoff.Ack(handoff.lobbyId(), taken)));
+        } catch (JsonProcessingException | RuntimeException e) {
+            // the other node sends it again
+            logger.warn("Answering the handoff of lobby {} failed: {}", handoff.lobbyId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Only lobbies this node owns by the ring and doesn't hold yet are taken
+     * @param handoff
+     * @return true if the lobby was taken
+     */
+    boolean take(LobbyHandoff handoff) {
+        if (!shardRouter.isLocal(handoff.lobbyId())) {
+            logger.warn("Rejected handoff of lobby {}, it belongs to node {}", handoff.lobbyId(),
+                    shardRouter.ownerOf(handoff.lobbyId()));
+            return false;
+        }
+        GameManager game = handoff.game() == null ? null : handoff.game().restore();
+        List<Player> players = game != null ? game.getPlayers()
+                : handoff.players().stream().map(GameSnapshot.PlayerState::restore).toList();
+        if (players.isEmpty()) {
+            logger.warn("Ignoring handoff of lobby {} without players", handoff.lobbyId());
+            return false;
+        }
+
+        Lobby lobby = new Lobby(handoff.lobbyId(), players.get(0));
+        lobby.setPlayers(players);
+        lobby.setHostId(handoff.hostId());
+        lobby.setGameManager(game);
+
+        if (!lobbyRegistry.restoreLobby(lobby)) {
+            logger.warn("Rejected handoff of lobby {}, it exists here already", handoff.lobbyId());
+            return false;
+        }
+        lobbyDirectory.update(lobby, game == null ? LobbyDirectory.LobbyState.OPEN : LobbyDirectory.LobbyState.IN_GAME);
+        if (game != null) {
+            gameService.restoreGame(game);
+            gameJournal.open(game, handoff.turnState());
+        }
+        turnService.restoreTurnState(handoff.lobbyId(), handoff.turnState());
+        logger.info("Took over lobby {} with {} players", handoff.lobbyId(), players.size());
+        return true;
+    }
+}
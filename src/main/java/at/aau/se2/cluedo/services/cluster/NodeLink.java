@@ -0,0 +1,282 @@
+package at.aau.se2.cluedo.services.cluster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.util.MimeType;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * STOMP connection to another node. Commands for lobbies of that node are sent over it, and
+ * topics of that node that clients of this node subscribed to are received over it. The
+ * connection is opened in the background on first use, and again with its subscriptions after it
+ * broke; no caller waits for it. Commands sent meanwhile are queued and sent once it is open.
+ */
+final class NodeLink {
+    private static final Logger logger = LoggerFactory.getLogger(NodeLink.class);
+
+    // CONNECT headers of a node
+    static final String NODE_HEADER = "cluedo-node";
+    static final String SECRET_HEADER = "cluedo-secret";
+    // set on messages a node republished from another node, those are never passed on again
+    static final String ORIGIN_HEADER = "cluedo-origin";
+    // commands queued while the link connects
+    static final int MAX_PENDING = 1000;
+    // the peer answers handoffs to this subscription of the link's session, never through its broker
+    static final String ACK_DESTINATION = "/topic/cluedo-node/handoffAcks";
+    static final String ACK_SUBSCRIPTION = "cluedo-handoff-acks";
+
+    /**
+     * Receives the messages of the link's subscriptions
+     */
+    interface Republisher {
+        void republish(String peerId, String destination, MimeType contentType, byte[] payload);
+    }
+
+    private record Pending(StompHeaders headers, byte[] payload) {
+    }
+
+    private final String peerId;
+    private final String url;
+    private final String selfId;
+    private final String secret;
+    private final long connectTimeoutMs;
+    private final WebSocketStompClient client;
+    private final Republisher republisher;
+    private final Handler handler = new Handler();
+
+    // only set once the subscriptions and pending commands are on it
+    private volatile StompSession session;
+    // the rest is guarded by this
+    private CompletableFuture<StompSession> connecting;
+    // destinations this node wants from the peer, null until subscribed on the session
+    private final Map<String, StompSession.Subscription> subscriptions = new HashMap<>();
+    private final List<Pending> pending = new ArrayList<>();
+    private boolean closed;
+
+    NodeLink(String peerId, String url, String selfId, String secret, long connectTimeoutMs,
+             WebSocketStompClient client, Republisher republisher) {
+        this.peerId = peerId;
+        this.url = url;
+        this.selfId = selfId;
+        this.secret = secret;
+        this.connectTimeoutMs = connectTimeoutMs;
+        this.client = client;
+        this.republisher = republisher;
+    }
+
+    String getPeerId() {
+        return peerId;
+    }
+
+    /**
+     * Send a command to the peer, or queue it until the link is connected
+     * @param destination
+     * @param contentType
+     * @param payload
+     * @throws IllegalStateException if the link is closed or too many commands wait for it
+     */
+    void send(String destination, MimeType contentType, byte[] payload) {
+        StompHeaders headers = new StompHeaders();
+        headers.setDestination(destination);
+        if (contentType != null) {
+            headers.setContentType(contentType);
+        }
+        StompSession current = session;
+        if (current != null && current.isConnected()) {
+            current.send(headers, payload);
+            return;
+        }
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Link to node " + peerId + " is closed");
+            }
+            current = session;
+            if (current != null && current.isConnected()) {
+                current.send(headers, payload);
+                return;
+            }
+            if (pending.size() >= MAX_PENDING) {
+                throw new IllegalStateException("Node " + peerId + " is not connected, " + MAX_PENDING + " commands wait already");
+            }
+            pending.add(new Pending(headers, payload));
+            connect();
+        }
+    }
+
+    /**
+     * Subscribe to or unsubscribe from a destination on the peer. If the peer isn't connected
+     * the subscription is made once it is.
+     * @param destination
+     * @param wanted asked under the link's lock, so the last change of concurrent callers wins
+     */
+    synchronized void update(String destination, BooleanSupplier wanted) {
+        if (wanted.getAsBoolean()) {
+            subscribe(destination);
+        } else {
+            unsubscribe(destination);
+        }
+    }
+
+    private void subscribe(String destination) {
+        if (subscriptions.containsKey(destination)) {
+            return;
+        }
+        subscriptions.put(destination, null);
+        StompSession current = session;
+        if (current == null || !current.isConnected()) {
+            connect();
+            return;
+        }
+        try {
+            subscriptions.put(destination, current.subscribe(destination, handler));
+        } catch (IllegalStateException e) {
+            // made again on the next connect
+            logger.warn("Subscribing to {} on node {} failed: {}", destination, peerId, e.getMessage());
+        }
+    }
+
+    private void unsubscribe(String destination) {
+        StompSession.Subscription subscription = subscriptions.remove(destination);
+        if (subscription != null && isConnected()) {
+            subscription.unsubscribe();
+        }
+    }
+
+    synchronized boolean hasSubscriptions() {
+        return !subscriptions.isEmpty();
+    }
+
+    boolean isConnected() {
+        StompSession current = session;
+        return current != null && current.isConnected();
+    }
+
+    /**
+     * @return true if connected, otherwise a connect is started
+     */
+    boolean isConnectedOrConnect() {
+        if (isConnected()) {
+            return true;
+        }
+        synchronized (this) {
+            if (!closed) {
+                connect();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Connect again if the link broke while it still has subscriptions or queued commands
+     */
+    synchronized void reconnectIfNeeded() {
+        if (!closed && !isConnected() && (!subscriptions.isEmpty() || !pending.isEmpty())) {
+            connect();
+        }
+    }
+
+    synchronized void close() {
+        closed = true;
+        subscriptions.clear();
+        pending.clear();
+        if (connecting != null) {
+            connecting.cancel(false);
+            connecting = null;
+        }
+        StompSession current = session;
+        if (current != null && current.isConnected()) {
+            current.disconnect();
+        }
+        session = null;
+    }
+
+    // starts a connect unless one is running, called under the lock
+    private void connect() {
+        if (connecting != null) {
+            return;
+        }
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.set(NODE_HEADER, selfId);
+        connectHeaders.set(SECRET_HEADER, secret);
+        CompletableFuture<StompSession> attempt = client.connectAsync(url, new WebSocketHttpHeaders(), connectHeaders, handler)
+                .orTimeout(connectTimeoutMs, TimeUnit.MILLISECONDS);
+        connecting = attempt;
+        attempt.whenComplete((connected, failure) -> connected(attempt, connected, failure));
+    }
+
+    private synchronized void connected(CompletableFuture<StompSession> attempt, StompSession connected, Throwable failure) {
+        if (connecting != attempt) {
+            // closed meanwhile
+            if (connected != null) {
+                connected.disconnect();
+            }
+            return;
+        }
+        connecting = null;
+        if (failure != null) {
+            logger.warn("Node {} at {} is unreachable, dropping {} queued commands: {}", peerId, url, pending.size(),
+                    failure.getMessage());
+            pending.clear();
+            return;
+        }
+        logger.info("Connected to node {} at {}", peerId, url);
+        try {
+            StompHeaders acks = new StompHeaders();
+            acks.setDestination(ACK_DESTINATION);
+            acks.setId(ACK_SUBSCRIPTION);
+            connected.subscribe(acks, handler);
+            for (Map.Entry<String, StompSession.Subscription> entry : subscriptions.entrySet()) {
+                entry.setValue(connected.subscribe(entry.getKey(), handler));
+            }
+            for (Pending command : pending) {
+                connected.send(command.headers(), command.payload());
+            }
+        } catch (IllegalStateException e) {
+            logger.warn("Link to node {} broke while connecting: {}", peerId, e.getMessage());
+        }
+        pending.clear();
+        session = connected;
+    }
+
+    private final class Handler extends StompSessionHandlerAdapter {
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return byte[].class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            // the peer only passes on what it published itself
+            if (headers.containsKey(ORIGIN_HEADER) || headers.getDestination() == null) {
+                return;
+            }
+            republisher.republish(peerId, headers.getDestination(), headers.getContentType(), (byte[]) payload);
+        }
+
+        @Override
+        public void handleException(StompSession session, StompCommand command, StompHeaders headers,
+                                    byte[] payload, Throwable exception) {
+            logger.warn("Frame from node {} failed: {}", peerId, exception.getMessage());
+        }
+
+        @Override
+        public void handleTransportError(StompSession session, Throwable exception) {
+            logger.warn("Link to node {} broke: {}", peerId, exception.getMessage());
+        }
+    }
+}
@@ -0,0 +1,415 @@
+package at.aau.se2.cluedo.services.cluster;
+
+import at.aau.se2.cluedo.config.ClusterProperties;
+import at.aau.se2.cluedo.config.MessagingProperties;
+import at.aau.se2.cluedo.services.LobbyOwnership;
+import jakarta.annotation.PreDestroy;
+import jakarta.websocket.ContainerProvider;
+import jakarta.websocket.WebSocketContainer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides which node owns a lobby and keeps the links to the other nodes. Lobby ids are placed
+ * on a {@link HashRing}; a command for a lobby of another node is forwarded to it, and a client
+ * subscribing to a topic of such a lobby gets it through this node's subscription on the owner.
+ * Topics without a lobby id are received from every node. With a broker relay all nodes share
+ * the broker's topics and nothing is mirrored. When the ring changes the lobbies that moved are
+ * handed over by the {@link LobbyHandoffService}.
+ * <p>
+ * The subscription bookkeeping is guarded by this router, the links are only told about changes
+ * after it is released. Links connect in the background, so no caller waits on another node.
+ */
+@Component
+@ConditionalOnProperty(name = "cluedo.cluster.enabled", havingValue = "true")
+public class ShardRouter implements LobbyOwnership {
+    private static final Logger logger = LoggerFactory.getLogger(ShardRouter.class);
+
+    /**
+     * Native header of broadcasts republished from another node, holds that node's id
+     */
+    public static final String ORIGIN_HEADER = NodeLink.ORIGIN_HEADER;
+
+    private static final String TOPIC_PREFIX = "/topic/";
+    // full game data of six players is larger than the default buffer
+    private static final int LINK_BUFFER_SIZE = 256 * 1024;
+
+    private final ClusterProperties properties;
+    private final String nodeId;
+    private final boolean mirrorSubscriptions;
+    private final ObjectProvider<SimpMessagingTemplate> brokerTemplate;
+    private final ObjectProvider<LobbyHandoffService> handoffService;
+    private final ObjectProvider<MessageChannel> clientOutboundChannel;
+    private final WebSocketStompClient stompClient;
+
+    private volatile HashRing ring;
+    private final Map<String, String> urls = new ConcurrentHashMap<>();
+    private final Map<String, NodeLink> links = new ConcurrentHashMap<>();
+    // sessions of other nodes' links, their messages are never routed again
+    private final Set<String> linkSessions = ConcurrentHashMap.newKeySet();
+
+    // subscriptions of this node's clients, guarded by this: session -> subscription id -> destination
+    private final Map<String, Map<String, String>> clientSubscriptions = new HashMap<>();
+    private final Map<String, Integer> subscribers = new HashMap<>();
+    // nodes each destination is currently received from
+    private final Map<String, Set<String>> proxied = new HashMap<>();
+
+    // a destination whose subscription on a node has to be made or dropped
+    private record LinkChange(String peer, String destination) {
+    }
+
+    public ShardRouter(ClusterProperties properties, MessagingProperties messagingProperties,
+                       ObjectProvider<SimpMessagingTemplate> brokerTemplate,
+                       ObjectProvider<LobbyHandoffService> handoffService,
+                       @Qualifier("clientOutboundChannel") ObjectProvider<MessageChannel> clientOutboundChannel) {
+        if (!StringUtils.hasText(properties.getSecret())) {
+            throw new IllegalStateException("cluedo.cluster.secret has to be set when cluedo.cluster.enabled is true");
+        }
+        this.properties = properties;
+        this.nodeId = properties.getNodeId();
+        this.mirrorSubscriptions = !messagingProperties.getRelay().isEnabled();
+        this.brokerTemplate = brokerTemplate;
+        this.handoffService = handoffService;
+        this.clientOutboundChannel = clientOutboundChannel;
+        this.stompClient = createStompClient();
+
+        HashRing initial = new HashRing(properties.getVirtualNodes());
+        for (ClusterProperties.Node node : properties.getNodes()) {
+            initial = initial.withNode(node.getId());
+            urls.put(node.getId(), node.getUrl());
+        }
+        if (!initial.contains(nodeId)) {
+            logger.warn("Node {} is not in the configured nodes {}, it owns no lobbies", nodeId, initial.getNodes());
+        }
+        this.ring = initial;
+        logger.info("Node {} joined the cluster of {}", nodeId, initial.getNodes());
+    }
+
+    private static WebSocketStompClient createStompClient() {
+        WebSocketContainer container = ContainerProvider.getWebSocketContainer();
+        container.setDefaultMaxTextMessageBufferSize(LINK_BUFFER_SIZE);
+        container.setDefaultMaxBinaryMessageBufferSize(LINK_BUFFER_SIZE);
+        WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient(container));
+        // payloads are passed through as they are, whatever their content type
+        client.setMessageConverter(new ByteArrayMessageConverter() {
+            @Override
+            protected boolean supportsMimeType(MessageHeaders headers) {
+                return true;
+            }
+        });
+        client.setInboundMessageSizeLimit(LINK_BUFFER_SIZE);
+        return client;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * @param key a lobby id or another id used in destinations
+     * @return the node owning the key
+     */
+    public String ownerOf(String key) {
+        return ring.ownerOf(key);
+    }
+
+    @Override
+    public boolean isLocal(String lobbyId) {
+        String owner = ring.ownerOf(lobbyId);
+        return owner == null || owner.equals(nodeId);
+    }
+
+    /**
+     * @return ids and urls of the nodes on the ring
+     */
+    public Map<String, String> getNodes() {
+        Map<String, String> nodes = new LinkedHashMap<>();
+        ring.getNodes().forEach(node -> nodes.put(node, urls.get(node)));
+        return nodes;
+    }
+
+    /**
+     * Put a node on the ring and hand the lobbies it now owns over to it
+     * @param id
+     * @param url STOMP endpoint of the node, e.g. ws://host:8321/ws
+     */
+    public void addNode(String id, String url) {
+        List<LinkChange> changes;
+        synchronized (this) {
+            urls.put(id, url);
+            ring = ring.withNode(id);
+            logger.info("Node {} added, cluster is {}", id, ring.getNodes());
+            changes = reconcileAll();
+        }
+        apply(changes);
+        handoffService.ifAvailable(LobbyHandoffService::handOffMovedLobbies);
+    }
+
+    /**
+     * Take a node off the ring. Called on the node itself it hands all its lobbies over.
+     * @param id
+     */
+    public void removeNode(String id) {
+        List<LinkChange> changes;
+        synchronized (this) {
+            ring = ring.withoutNode(id);
+            logger.info("Node {} removed, cluster is {}", id, ring.getNodes());
+            changes = reconcileAll();
+        }
+        apply(changes);
+        handoffService.ifAvailable(LobbyHandoffService::handOffMovedLobbies);
+        if (!id.equals(nodeId)) {
+            NodeLink link = links.remove(id);
+            if (link != null) {
+                link.close();
+            }
+            urls.remove(id);
+        }
+    }
+
+    private List<LinkChange> reconcileAll() {
+        List<LinkChange> changes = new ArrayList<>();
+        for (String destination : new HashSet<>(subscribers.keySet())) {
+            reconcile(destination, changes);
+        }
+        return changes;
+    }
+
+    /**
+     * Send a command to the node owning its lobby. While the link connects it is queued.
+     * @param owner
+     * @param destination
+     * @param contentType
+     * @param payload
+     * @throws IllegalStateException if the node is unknown or too many commands wait for it
+     */
+    public void forward(String owner, String destination, MimeType contentType, byte[] payload) {
+        link(owner).send(destination, contentType, payload);
+    }
+
+    /**
+     * @param peer
+     * @return true if the link to the node is open, otherwise it is opened in the background
+     */
+    public boolean isConnected(String peer) {
+        return link(peer).isConnectedOrConnect();
+    }
+
+    private NodeLink link(String peer) {
+        return links.computeIfAbsent(peer, id -> {
+            String url = urls.get(id);
+            if (url == null) {
+                throw new IllegalStateException("No url for node " + id);
+            }
+            return new NodeLink(id, url, nodeId, properties.getSecret(), properties.getConnectTimeoutMs(),
+                    stompClient, this::republish);
+        });
+    }
+
+    // a message of another node's topic, delivered to this node's subscribers
+    private void republish(String peerId, String destination, MimeType contentType, byte[] payload) {
+        if (NodeLink.ACK_DESTINATION.equals(destination)) {
+            handoffService.ifAvailable(service -> service.acknowledged(peerId, payload));
+            return;
+        }
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(contentType);
+        accessor.setNativeHeader(NodeLink.ORIGIN_HEADER, peerId);
+        accessor.setLeaveMutable(true);
+        brokerTemplate.getObject().send(destination, MessageBuilder.createMessage(payload, accessor.getMessageHeaders()));
+    }
+
+    /**
+     * Answer a handoff on the link session it came from. The answer goes straight to that session,
+     * the sending node may not be on this node's ring anymore.
+     * @param linkSessionId
+     * @param ack
+     */
+    public void acknowledge(String linkSessionId, byte[] ack) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(NodeLink.ACK_DESTINATION);
+        accessor.setSessionId(linkSessionId);
+        accessor.setSubscriptionId(NodeLink.ACK_SUBSCRIPTION);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        clientOutboundChannel.getObject().send(MessageBuilder.createMessage(ack, accessor.getMessageHeaders()));
+    }
+
+    /**
+     * @param sessionId
+     * @param node id the connection presented
+     * @param secret secret the connection presented
+     * @return true if the session is accepted as another node's link
+     */
+    public boolean linkConnected(String sessionId, String node, String secret) {
+        byte[] expected = properties.getSecret().getBytes(StandardCharsets.UTF_8);
+        byte[] presented = secret == null ? new byte[0] : secret.getBytes(StandardCharsets.UTF_8);
+        // in constant time, the comparison tells nothing about how much of the secret matched
+        if (!MessageDigest.isEqual(expected, presented)) {
+            logger.warn("Rejected link of node {} with a wrong secret", node);
+            return false;
+        }
+        linkSessions.add(sessionId);
+        logger.info("Node {} connected as session {}", node, sessionId);
+        return true;
+    }
+
+    public boolean isLinkSession(String sessionId) {
+        return sessionId != null && linkSessions.contains(sessionId);
+    }
+
+    public void subscribed(String sessionId, String subscriptionId, String destination) {
+        if (!mirrorSubscriptions || destination == null || !destination.startsWith(TOPIC_PREFIX)) {
+            return;
+        }
+        List<LinkChange> changes = new ArrayList<>();
+        synchronized (this) {
+            String previous = clientSubscriptions.computeIfAbsent(sessionId, id -> new HashMap<>())
+                    .put(subscriptionId, destination);
+            if (previous != null) {
+                release(previous, changes);
+            }
+            subscribers.merge(destination, 1, Integer::sum);
+            reconcile(destination, changes);
+        }
+        apply(changes);
+    }
+
+    public void unsubscribed(String sessionId, String subscriptionId) {
+        List<LinkChange> changes = new ArrayList<>();
+        synchronized (this) {
+            Map<String, String> subscriptions = clientSubscriptions.get(sessionId);
+            String destination = subscriptions == null ? null : subscriptions.remove(subscriptionId);
+            if (destination != null) {
+                release(destination, changes);
+            }
+        }
+        apply(changes);
+    }
+
+    public void disconnected(String sessionId) {
+        linkSessions.remove(sessionId);
+        List<LinkChange> changes = new ArrayList<>();
+        synchronized (this) {
+            Map<String, String> subscriptions = clientSubscriptions.remove(sessionId);
+            if (subscriptions != null) {
+                subscriptions.values().forEach(destination -> release(destination, changes));
+            }
+        }
+        apply(changes);
+    }
+
+    private void release(String destination, List<LinkChange> changes) {
+        if (subscribers.merge(destination, -1, Integer::sum) <= 0) {
+            subscribers.remove(destination);
+        }
+        reconcile(destination, changes);
+    }
+
+    // note the nodes the destination now comes from and the links that have to follow
+    private void reconcile(String destination, List<LinkChange> changes) {
+        Set<String> wanted = subscribers.containsKey(destination) ? sourcesOf(destination) : Set.of();
+        Set<String> current = proxied.getOrDefault(destination, Set.of());
+        for (String peer : current) {
+            if (!wanted.contains(peer)) {
+                changes.add(new LinkChange(peer, destination));
+            }
+        }
+        for (String peer : wanted) {
+            if (!current.contains(peer)) {
+                changes.add(new LinkChange(peer, destination));
+            }
+        }
+        if (wanted.isEmpty()) {
+            proxied.remove(destination);
+        } else {
+            proxied.put(destination, wanted);
+        }
+    }
+
+    // outside the lock, each link reads the latest state when it applies a change
+    private void apply(List<LinkChange> changes) {
+        for (LinkChange change : changes) {
+            NodeLink link = isProxied(change.peer(), change.destination()) ? link(change.peer()) : links.get(change.peer());
+            if (link != null) {
+                link.update(change.destination(), () -> isProxied(change.peer(), change.destination()));
+            }
+        }
+    }
+
+    private synchronized boolean isProxied(String peer, String destination) {
+        return proxied.getOrDefault(destination, Set.of()).contains(peer);
+    }
+
+    private Set<String> sourcesOf(String destination) {
+        String key = keyOf(destination);
+        Set<String> sources = new HashSet<>();
+        if (key != null) {
+            String owner = ring.ownerOf(key);
+            if (owner != null && !owner.equals(nodeId)) {
+                sources.add(owner);
+            }
+        } else {
+            sources.addAll(ring.getNodes());
+            sources.remove(nodeId);
+        }
+        sources.retainAll(urls.keySet());
+        return sources;
+    }
+
+    /**
+     * @param destination
+     * @return the id in /topic/name/id/..., null for topics of the whole server
+     */
+    static String keyOf(String destination) {
+        int nameEnd = destination.indexOf('/', TOPIC_PREFIX.length());
+        if (nameEnd < 0 || nameEnd == destination.length() - 1) {
+            return null;
+        }
+        int keyEnd = destination.indexOf('/', nameEnd + 1);
+        return keyEnd < 0 ? destination.substring(nameEnd + 1) : destination.substring(nameEnd + 1, keyEnd);
+    }
+
+    /**
+     * Open links again that broke while clients still subscribe through them or commands wait
+     * for them, and retry handoffs that found their node unconnected
+     */
+    @Scheduled(fixedDelayString = "${cluedo.cluster.link-check-ms:5000}")
+    public void checkLinks() {
+        links.values().forEach(NodeLink::reconnectIfNeeded);
+        handoffService.ifAvailable(LobbyHandoffService::handOffMovedLobbies);
+    }
+
+    @PreDestroy
+    public void close() {
+        links.values().forEach(NodeLink::close);
+        links.clear();
+    }
+}
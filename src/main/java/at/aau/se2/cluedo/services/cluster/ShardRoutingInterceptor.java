@@ -0,0 +1,121 @@
+package at.aau.se2.cluedo.services.cluster;
+
+import at.aau.se2.cluedo.config.LobbyRoutingTaskExecutor;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.NativeMessageHeaderAccessor;
+import org.springframework.util.MimeType;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Routes the clientInboundChannel by the {@link ShardRouter}: commands for lobbies of another
+ * node are forwarded there instead of being handled here, and subscriptions to topics of other
+ * nodes are mirrored on them. Connections of other nodes are recognized by their CONNECT
+ * headers; what they send is always handled here.
+ */
+public class ShardRoutingInterceptor implements ChannelInterceptor {
+    private static final Logger logger = LoggerFactory.getLogger(ShardRoutingInterceptor.class);
+
+    // commands that carry their lobby id in the payload instead of the destination
+    private static final Set<String> PAYLOAD_ROUTED = Set.of("/app/cheating", "/app/accusation");
+
+    private final ShardRouter shardRouter;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public ShardRoutingInterceptor(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        MessageHeaders headers = message.getHeaders();
+        SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(headers);
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(headers);
+        if (type == null) {
+            return message;
+        }
+        switch (type) {
+            case CONNECT -> {
+                String node = NativeMessageHeaderAccessor.getFirstNativeHeader(NodeLink.NODE_HEADER, headers);
+                if (node != null && !shardRouter.linkConnected(sessionId,
+                        node, NativeMessageHeaderAccessor.getFirstNativeHeader(NodeLink.SECRET_HEADER, headers))) {
+                    return null;
+                }
+            }
+            case MESSAGE -> {
+                return route(message, sessionId);
+            }
+            case SUBSCRIBE -> {
+                if (!shardRouter.isLinkSession(sessionId)) {
+                    shardRouter.subscribed(sessionId, SimpMessageHeaderAccessor.getSubscriptionId(headers),
+                            SimpMessageHeaderAccessor.getDestination(headers));
+                }
+            }
+            case UNSUBSCRIBE -> shardRouter.unsubscribed(sessionId, SimpMessageHeaderAccessor.getSubscriptionId(headers));
+            case DISCONNECT -> shardRouter.disconnected(sessionId);
+            default -> {
+                // heartbeats and the like stay on this node
+            }
+        }
+        return message;
+    }
+
+    private Message<?> route(Message<?> message, String sessionId) {
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (shardRouter.isLinkSession(sessionId)) {
+            return message;
+        }
+        if (destination != null && (destination.startsWith(LobbyHandoffService.HANDOFF_PREFIX)
+                || destination.equals(NodeLink.ACK_DESTINATION))) {
+            logger.warn("Dropped handoff from session {}, it is no node", sessionId);
+            return null;
+        }
+
+        String lobbyId = lobbyIdOf(message, destination);
+        if (lobbyId == null || shardRouter.isLocal(lobbyId)) {
+            return message;
+        }
+        String owner = shardRouter.ownerOf(lobbyId);
+        try {
+            shardRouter.forward(owner, destination, contentTypeOf(message.getHeaders()),
+                    message.getPayload() instanceof byte[] payload ? payload : new byte[0]);
+        } catch (IllegalStateException e) {
+            logger.warn("Dropped {} for lobby {}: {}", destination, lobbyId, e.getMessage());
+        }
+        return null;
+    }
+
+    private static MimeType contentTypeOf(MessageHeaders headers) {
+        Object contentType = headers.get(MessageHeaders.CONTENT_TYPE);
+        if (contentType instanceof MimeType mimeType) {
+            return mimeType;
+        }
+        return contentType instanceof String value ? MimeType.valueOf(value) : null;
+    }
+
+    private String lobbyIdOf(Message<?> message, String destination) {
+        if (!PAYLOAD_ROUTED.contains(destination)) {
+            return LobbyRoutingTaskExecutor.lobbyIdOf(message);
+        }
+        if (!(message.getPayload() instanceof byte[] payload)) {
+            return null;
+        }
+        try {
+            JsonNode lobbyId = objectMapper.readTree(payload).get("lobbyId");
+            return lobbyId == null || !lobbyId.isTextual() ? null : lobbyId.asText();
+        } catch (IOException e) {
+            // handled here, the controller rejects it
+            return null;
+        }
+    }
+}
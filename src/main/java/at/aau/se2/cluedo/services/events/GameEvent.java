@@ -0,0 +1,123 @@
+package at.aau.se2.cluedo.services.events;
+
+import at.aau.se2.cluedo.services.TurnService.TurnState;
+
+/**
+ * What the players of a lobby are told about their game. Each event is broadcast to its topic
+ * followed by the lobby id, see {@link GameEventPublisher}; the record components are the fields
+ * of the JSON message.
+ */
+public sealed interface GameEvent {
+
+    /**
+     * @return the destination of the event without the lobby id
+     */
+    String topic();
+
+    record DiceRolled(String player, int diceValue, TurnState turnState) implements GameEvent {
+        @Override
+        public String topic() {
+            return "/topic/diceRolled/";
+        }
+    }
+
+    record TurnStateChanged(TurnState turnState, String currentPlayer) implements GameEvent {
+        @Override
+        public String topic() {
+            return "/topic/turnStateChanged/";
+        }
+    }
+
+    record CurrentTurn(String currentPlayer, TurnState turnState, int playerIndex) implements GameEvent {
+        @Override
+        public String topic() {
+            return "/topic/currentTurn/";
+        }
+    }
+
+    record StateChanged(TurnState turnState, String lobbyId) implements GameEvent {
+        @Override
+        public String topic() {
+            return "/topic/stateChanged/";
+        }
+    }
+
+    record TurnSkipped(String reason) implements GameEvent {
+        @Override
+        public String topic() {
+            return "/topic/turnSkipped/";
+        }
+    }
+
+    record SuggestionMade(boolean success, String player, String playerId, String suspect, String weapon,
+                          String room, String message, String lobbyId) implements GameEvent {
+        @Override
+        public String topic() {
+            return "/topic/suggestionMade/";
+        }
+    }
+
+    /**
+     * Asks a player to disprove the running suggestion, sent to the player only
+     */
+    record SuggestionRequested(boolean processSuggestion) implements GameEvent {
+        public static final SuggestionRequested INSTANCE = new SuggestionRequested(true);
+
+        @Override
+        public String topic() {
+            return "/topic/processSuggestion/";
+        }
+    }
+
+    /**
+     * The card shown to the suggesting player, sent to that player only
+     */
+    record SuggestionResult(String receivedCard, String sendingPlayer) implements GameEvent {
+        @Override
+        public String topic() {
+            return "/topic/resultSuggestion/";
+        }
+    }
+
+    /**
+     * @param gameWon the accusation was right
+     * @param playerEliminated the accusation was wrong
+     */
+    record AccusationMade(String player, String suspect, String weapon, String room, boolean correct,
+                          boolean gameWon, boolean playerEliminated, boolean success) implements GameEvent {
+        @Override
+        public String topic() {
+            return "/topic/accusationMade/";
+        }
+    }
+
+    /**
+     * A player was sent back to the start, after a wrong cheating report or for cheating
+     */
+    record PlayerReset(String player, int x, int y) implements GameEvent {
+        @Override
+        public String topic() {
+            return "/topic/playerReset/";
+        }
+    }
+
+    record CheatingReported(String type, String suspect, String accuser, boolean valid, Reason reason)
+            implements GameEvent {
+        public static final String TYPE = "CHEATING_REPORT";
+
+        public enum Reason {
+            NOT_IN_ROOM,
+            NOT_IN_SAME_ROOM,
+            SUCCESS
+        }
+
+        public CheatingReported(String suspect, String accuser, boolean valid, Reason reason) {
+            this(TYPE, suspect, accuser, valid, reason);
+        }
+
+        @Override
+        public String topic() {
+            return "/topic/cheating/";
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package at.aau.se2.cluedo.services.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sends the {@link GameEvent}s of all lobbies, counted by type in {@code cluedo.events.published}
+ */
+@Component
+public class GameEventPublisher {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final Map<Class<?>, Counter> published = new HashMap<>();
+
+    /**
+     * A publisher with metrics of its own
+     * @param messagingTemplate
+     */
+    public GameEventPublisher(SimpMessagingTemplate messagingTemplate) {
+        this(messagingTemplate, new SimpleMeterRegistry());
+    }
+
+    @Autowired
+    public GameEventPublisher(SimpMessagingTemplate messagingTemplate, MeterRegistry meterRegistry) {
+        this.messagingTemplate = messagingTemplate;
+        // all types are known up front, the map is never written after this
+        for (Class<?> type : GameEvent.class.getPermittedSubclasses()) {
+            published.put(type, Counter.builder("cluedo.events.published")
+                    .description("Game events sent to the players")
+                    .tag("type", type.getSimpleName())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Send an event to all players of a lobby
+     * @param lobbyId
+     * @param event
+     */
+    public void publish(String lobbyId, GameEvent event) {
+        send(event.topic() + lobbyId, event);
+    }
+
+    /**
+     * Send an event to one player of a lobby
+     * @param lobbyId
+     * @param playerId
+     * @param event
+     */
+    public void publishTo(String lobbyId, String playerId, GameEvent event) {
+        send(event.topic() + lobbyId + "/" + playerId, event);
+    }
+
+    private void send(String destination, GameEvent event) {
+        messagingTemplate.convertAndSend(destination, event);
+        published.get(event.getClass()).increment();
+    }
+}
@@ -0,0 +1,157 @@
+package at.aau.se2.cluedo.services.events;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The last broadcasts of every lobby, numbered per lobby from 1. A client that lost its connection
+ * gets what it missed from here instead of fetching the whole state again. A lobby keeps at most
+ * {@code capacity} broadcasts and {@code maxBytes} of their payloads, older ones are dropped.
+ */
+public class LobbyEventLog {
+    public static final int DEFAULT_CAPACITY = 128;
+    public static final long DEFAULT_MAX_BYTES = 64 * 1024;
+
+    /**
+     * @param seq number of the broadcast in its lobby
+     * @param message the broadcast as it was sent to the broker
+     */
+    public record Entry(long seq, Message<?> message) {
+        long size() {
+            return message.getPayload() instanceof byte[] payload ? payload.length : 0;
+        }
+    }
+
+    /**
+     * What a client missed since a sequence number
+     * @param lastSeq number of the lobby's newest broadcast, 0 if there was none
+     * @param complete false if broadcasts after the sequence number were dropped already
+     * @param entries the missed broadcasts in order, empty if incomplete
+     */
+    public record Replay(long lastSeq, boolean complete, List<Entry> entries) {
+    }
+
+    private static final class Log {
+        private final ArrayDeque<Entry> entries = new ArrayDeque<>();
+        private long lastSeq;
+        private long bytes;
+        // System.nanoTime() of the last broadcast
+        private volatile long lastAppend = System.nanoTime();
+    }
+
+    private final int capacity;
+    private final long maxBytes;
+    private final Map<String, Log> logs = new ConcurrentHashMap<>();
+
+    public LobbyEventLog() {
+        this(DEFAULT_CAPACITY, DEFAULT_MAX_BYTES);
+    }
+
+    public LobbyEventLog(int capacity, long maxBytes) {
+        this.capacity = Math.max(1, capacity);
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Number a broadcast and keep it
+     * @param lobbyId
+     * @param message
+     * @return the broadcast's sequence number
+     */
+    public long append(String lobbyId, Message<?> message) {
+        Log log = logs.computeIfAbsent(lobbyId, id -> new Log());
+        synchronized (log) {
+            Entry entry = new Entry(++log.lastSeq, message);
+            log.entries.addLast(entry);
+            log.bytes += entry.size();
+            while (log.entries.size() > capacity || (log.bytes > maxBytes && log.entries.size() > 1)) {
+                log.bytes -= log.entries.removeFirst().size();
+            }
+            log.lastAppend = System.nanoTime();
+            return entry.seq();
+        }
+    }
+
+    /**
+     * The broadcasts to a destination after a sequence number. Incomplete if some of them were
+     * dropped or the client knows numbers the log doesn't, e.g. from before a restart.
+     * @param lobbyId
+     * @param seq last number the client got
+     * @param destination only broadcasts to this destination, null for all of the lobby
+     * @return the missed broadcasts
+     */
+    public Replay since(String lobbyId, long seq, String destination) {
+        Log log = logs.get(lobbyId);
+        if (log == null) {
+            return seq == 0 ? new Replay(0, true, List.of()) : new Replay(0, false, List.of());
+        }
+        synchronized (log) {
+            Entry oldest = log.entries.peekFirst();
+            if (seq > log.lastSeq || seq < 0 || (oldest != null && seq < oldest.seq() - 1)) {
+                return new Replay(log.lastSeq, false, List.of());
+            }
+
+            List<Entry> missed = new ArrayList<>();
+            for (Entry entry : log.entries) {
+                if (entry.seq() > seq && (destination == null || destination.equals(destinationOf(entry)))) {
+                    missed.add(entry);
+                }
+            }
+            return new Replay(log.lastSeq, true, missed);
+        }
+    }
+
+    private static String destinationOf(Entry entry) {
+        return SimpMessageHeaderAccessor.getDestination(entry.message().getHeaders());
+    }
+
+    /**
+     * @param lobbyId
+     * @return number of the lobby's newest broadcast, 0 if there was none
+     */
+    public long getLastSeq(String lobbyId) {
+        Log log = logs.get(lobbyId);
+        if (log == null) {
+            return 0;
+        }
+        synchronized (log) {
+            return log.lastSeq;
+        }
+    }
+
+    public void remove(String lobbyId) {
+        logs.remove(lobbyId);
+    }
+
+    /**
+     * Remove the log of a lobby that had no broadcast since the given time
+     * @param lobbyId
+     * @param idleSince System.nanoTime() the last broadcast must be older than
+     * @return true if removed
+     */
+    public boolean removeIdle(String lobbyId, long idleSince) {
+        boolean[] removed = new boolean[1];
+        logs.computeIfPresent(lobbyId, (id, log) -> {
+            if (log.lastAppend - idleSince > 0) {
+                return log;
+            }
+            removed[0] = true;
+            return null;
+        });
+        return removed[0];
+    }
+
+    public List<String> getLobbyIds() {
+        return List.copyOf(logs.keySet());
+    }
+
+    public int getLobbyCount() {
+        return logs.size();
+    }
+}
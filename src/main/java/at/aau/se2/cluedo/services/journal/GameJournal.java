@@ -0,0 +1,404 @@
+package at.aau.se2.cluedo.services.journal;
+
+import at.aau.se2.cluedo.models.gamemanager.GameManager;
+import at.aau.se2.cluedo.services.TurnService.TurnState;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.regex.Pattern;
+
+/**
+ * Append-only journal of the running games, one directory with two files per game:
+ * <ul>
+ *     <li>{@code <lobbyId>.snapshot}: the latest {@link GameSnapshot} as JSON</li>
+ *     <li>{@code <lobbyId>.journal}: one {@link Record} per line with the entries after the snapshot</li>
+ * </ul>
+ * Callers only queue their entries. A single writer thread group-commits everything queued since
+ * its last write with one write and one fsync per game, so a crash loses at most the last batch.
+ * A snapshot replaces the journal of its game, which keeps the tail that has to be replayed short.
+ * Turned on with {@code cluedo.journal.enabled}.
+ */
+@Service
+public class GameJournal {
+    private static final Logger logger = LoggerFactory.getLogger(GameJournal.class);
+
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
+    private static final String QUARANTINE_SUFFIX = ".broken";
+    // lobby ids end up in file names
+    private static final Pattern SAFE_ID = Pattern.compile("[A-Za-z0-9_-]+");
+    private static final int MAX_BATCH = 4096;
+
+    /**
+     * A journal line
+     * @param seq position of the entry in its game's journal, starting at 1
+     * @param entry
+     */
+    public record Record(long seq, JournalEntry entry) {
+    }
+
+    /**
+     * A game as it was when the server stopped
+     * @param game
+     * @param turnState
+     * @param seq last applied journal entry
+     */
+    public record RecoveredGame(GameManager game, TurnState turnState, long seq) {
+    }
+
+    private sealed interface Write {
+        String lobbyId();
+    }
+
+    private record Append(String lobbyId, Record line) implements Write {
+    }
+
+    private record Snapshot(String lobbyId, GameSnapshot snapshot) implements Write {
+    }
+
+    private record End(String lobbyId) implements Write {
+    }
+
+    // only wakes the writer on close, writes nothing
+    private record WakeUp() implements Write {
+        @Override
+        public String lobbyId() {
+            return null;
+        }
+    }
+
+    // sequence numbers of the open games, only touched on their mailboxes
+    private static final class GameLog {
+        private long seq;
+        private int sinceSnapshot;
+
+        GameLog(long seq) {
+            this.seq = seq;
+        }
+    }
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int snapshotEvery;
+    private final boolean fsync;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, GameLog> logs = new ConcurrentHashMap<>();
+    private final BlockingQueue<Write> queue = new LinkedBlockingQueue<>();
+    // channels are only used by the writer thread
+    private final Map<String, FileChannel> channels = new HashMap<>();
+    private final Thread writer;
+    private volatile boolean running;
+
+    /**
+     * A journal that drops everything, for services created outside of Spring
+     */
+    public GameJournal() {
+        this(false, Path.of("journal"), 0, false);
+    }
+
+    /**
+     * @param enabled write the journal, otherwise every call is a no-op
+     * @param directory
+     * @param snapshotEvery journal entries after which the next turn change takes a snapshot
+     * @param fsync force every batch to disk, off only loses data if the machine goes down
+     */
+    @Autowired
+    public GameJournal(@Value("${cluedo.journal.enabled:false}") boolean enabled,
+                       @Value("${cluedo.journal.directory:journal}") Path directory,
+                       @Value("${cluedo.journal.snapshot-every:200}") int snapshotEvery,
+                       @Value("${cluedo.journal.fsync:true}") boolean fsync) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.snapshotEvery = snapshotEvery;
+        this.fsync = fsync;
+        if (!enabled) {
+            this.writer = null;
+            return;
+        }
+
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't create journal directory " + directory, e);
+        }
+        this.running = true;
+        this.writer = new Thread(this::writeLoop, "game-journal");
+        this.writer.setDaemon(true);
+        this.writer.start();
+        logger.info("Journaling games to {}", directory.toAbsolutePath());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Start the journal of a new game with a snapshot of its initial state
+     * @param game
+     * @param turnState
+     */
+    public void open(GameManager game, TurnState turnState) {
+        String lobbyId = game.getLobbyId();
+        if (!enabled || lobbyId == null || !SAFE_ID.matcher(lobbyId).matches()) {
+            return;
+        }
+        logs.put(lobbyId, new GameLog(0));
+        queue.add(new Snapshot(lobbyId, GameSnapshot.of(game, turnState, 0)));
+    }
+
+    /**
+     * Queue an accepted command, ignored for games without journal
+     * @param lobbyId
+     * @param entry
+     */
+    public void append(String lobbyId, JournalEntry entry) {
+        GameLog log = lobbyId == null ? null : logs.get(lobbyId);
+        if (log == null) {
+            return;
+        }
+        log.sinceSnapshot++;
+        queue.add(new Append(lobbyId, new Record(++log.seq, entry)));
+    }
+
+    /**
+     * Snapshot the game if enough entries were written since the last snapshot. Call between
+     * commands, when the game state is consistent.
+     * @param game
+     * @param turnState
+     */
+    public void snapshotIfDue(GameManager game, TurnState turnState) {
+        GameLog log = game.getLobbyId() == null ? null : logs.get(game.getLobbyId());
+        if (log == null || log.sinceSnapshot < snapshotEvery) {
+            return;
+        }
+        log.sinceSnapshot = 0;
+        queue.add(new Snapshot(game.getLobbyId(), GameSnapshot.of(game, turnState, log.seq)));
+    }
+
+    /**
+     * The game is over, drop its journal
+     * @param lobbyId
+     */
+    public void end(String lobbyId) {
+        if (lobbyId != null && logs.remove(lobbyId) != null) {
+            queue.add(new End(lobbyId));
+        }
+    }
+
+    /**
+     * Read all journaled games back: the latest snapshot plus the entries after it. A torn last
+     * line from a crash ends the replay of its game. A game that can't be restored is skipped and
+     * its files get a {@value #QUARANTINE_SUFFIX} suffix. Recovered games stay journaled.
+     * @return the games in the journal directory
+     */
+    public List<RecoveredGame> recover() {
+        List<RecoveredGame> recovered = new ArrayList<>();
+        if (!enabled) {
+            return recovered;
+        }
+
+        try (DirectoryStream<Path> snapshots = Files.newDirectoryStream(directory, "*" + SNAPSHOT_SUFFIX)) {
+            for (Path snapshotFile : snapshots) {
+                RecoveredGame game = recover(snapshotFile);
+                if (game != null) {
+                    recovered.add(game);
+                    logs.put(game.game().getLobbyId(), new GameLog(game.seq()));
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Failed to read journal directory {}", directory, e);
+        }
+        return recovered;
+    }
+
+    private RecoveredGame recover(Path snapshotFile) {
+        String fileName = snapshotFile.getFileName().toString();
+        String lobbyId = fileName.substring(0, fileName.length() - SNAPSHOT_SUFFIX.length());
+        try {
+            return replay(snapshotFile);
+        } catch (IOException | RuntimeException e) {
+            // one broken game must not keep the server from starting
+            logger.error("Skipping game {}, its journal can't be recovered", lobbyId, e);
+            quarantine(lobbyId);
+            return null;
+        }
+    }
+
+    private RecoveredGame replay(Path snapshotFile) throws IOException {
+        GameSnapshot snapshot = mapper.readValue(snapshotFile.toFile(), GameSnapshot.class);
+        GameManager game = snapshot.restore();
+        TurnState turnState = snapshot.turnState();
+        long seq = snapshot.seq();
+        Path journalFile = directory.resolve(snapshot.lobbyId() + JOURNAL_SUFFIX);
+        if (Files.exists(journalFile)) {
+            try (BufferedReader reader = Files.newBufferedReader(journalFile)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    Record entry = mapper.readValue(line, Record.class);
+                    if (entry.seq() <= seq) {
+                        continue;
+                    }
+                    turnState = entry.entry().apply(game, turnState);
+                    seq = entry.seq();
+                }
+            } catch (IOException e) {
+                logger.warn("Journal of game {} ends in a broken line after entry {}", snapshot.lobbyId(), seq);
+            }
+        }
+        logger.info("Recovered game {} at entry {}", snapshot.lobbyId(), seq);
+        return new RecoveredGame(game, turnState, seq);
+    }
+
+    // renamed so the next start doesn't try them again and they are kept for a look
+    private void quarantine(String lobbyId) {
+        for (String suffix : List.of(SNAPSHOT_SUFFIX, JOURNAL_SUFFIX)) {
+            Path file = directory.resolve(lobbyId + suffix);
+            try {
+                if (Files.exists(file)) {
+                    Files.move(file, directory.resolve(lobbyId + suffix + QUARANTINE_SUFFIX),
+                            StandardCopyOption.REPLACE_EXISTING);
+                }
+            } catch (IOException e) {
+                logger.error("Failed to move {} aside", file, e);
+            }
+        }
+    }
+
+    private void writeLoop() {
+        List<Write> batch = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                // close() interrupts once the queue is drained
+                Thread.currentThread().interrupt();
+                break;
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+            try {
+                write(batch);
+            } catch (IOException | RuntimeException e) {
+                logger.error("Failed to write {} journal records", batch.size(), e);
+            }
+            batch.clear();
+        }
+    }
+
+    private void write(List<Write> batch) throws IOException {
+        Map<String, ByteArrayOutputStream> pending = new LinkedHashMap<>();
+        for (Write write : batch) {
+            String lobbyId = write.lobbyId();
+            if (write instanceof WakeUp) {
+                continue;
+            }
+            if (write instanceof Append append) {
+                ByteArrayOutputStream lines = pending.computeIfAbsent(lobbyId, id -> new ByteArrayOutputStream());
+                mapper.writeValue(lines, append.line());
+                lines.write('\n');
+            } else if (write instanceof Snapshot snapshot) {
+                // entries queued before the snapshot are part of it
+                pending.remove(lobbyId);
+                writeSnapshot(snapshot.snapshot());
+                channel(lobbyId).truncate(0);
+            } else if (write instanceof End) {
+                pending.remove(lobbyId);
+                closeChannel(lobbyId);
+                Files.deleteIfExists(directory.resolve(lobbyId + JOURNAL_SUFFIX));
+                Files.deleteIfExists(directory.resolve(lobbyId + SNAPSHOT_SUFFIX));
+            }
+        }
+
+        for (Map.Entry<String, ByteArrayOutputStream> lines : pending.entrySet()) {
+            FileChannel channel = channel(lines.getKey());
+            ByteBuffer buffer = ByteBuffer.wrap(lines.getValue().toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+        }
+    }
+
+    private void writeSnapshot(GameSnapshot snapshot) throws IOException {
+        Path target = directory.resolve(snapshot.lobbyId() + SNAPSHOT_SUFFIX);
+        Path temp = directory.resolve(snapshot.lobbyId() + SNAPSHOT_SUFFIX + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(mapper.writeValueAsBytes(snapshot));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (fsync) {
+                channel.force(true);
+            }
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private FileChannel channel(String lobbyId) throws IOException {
+        FileChannel channel = channels.get(lobbyId);
+        if (channel == null) {
+            channel = FileChannel.open(directory.resolve(lobbyId + JOURNAL_SUFFIX),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            channels.put(lobbyId, channel);
+        }
+        return channel;
+    }
+
+    private void closeChannel(String lobbyId) throws IOException {
+        FileChannel channel = channels.remove(lobbyId);
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    /**
+     * Write what is queued and stop the writer
+     */
+    @PreDestroy
+    public void close() {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        // wake the writer if it waits on an empty queue
+        queue.add(new WakeUp());
+        try {
+            writer.join(10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (String lobbyId : List.copyOf(channels.keySet())) {
+            try {
+                closeChannel(lobbyId);
+            } catch (IOException e) {
+                logger.warn("Failed to close journal of game {}", lobbyId, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package at.aau.se2.cluedo.services.journal;
+
+import at.aau.se2.cluedo.models.gamemanager.GameManager;
+import at.aau.se2.cluedo.models.gameobjects.Player;
+import at.aau.se2.cluedo.models.lobby.Lobby;
+import at.aau.se2.cluedo.services.GameService;
+import at.aau.se2.cluedo.services.LobbyDirectory;
+import at.aau.se2.cluedo.services.LobbyRegistry;
+import at.aau.se2.cluedo.services.TurnService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Puts the games of the {@link GameJournal} back before the server accepts connections. Lobbies
+ * are rebuilt from the game's players with the first player as host, suggestion rounds that were
+ * waiting for answers are not recovered and the turn continues where the journal left off.
+ */
+@Component
+public class GameRecovery implements SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(GameRecovery.class);
+
+    private final GameJournal gameJournal;
+    private final GameService gameService;
+    private final TurnService turnService;
+    private final LobbyRegistry lobbyRegistry;
+    private final LobbyDirectory lobbyDirectory;
+
+    public GameRecovery(GameJournal gameJournal, GameService gameService, TurnService turnService,
+                        LobbyRegistry lobbyRegistry, LobbyDirectory lobbyDirectory) {
+        this.gameJournal = gameJournal;
+        this.gameService = gameService;
+        this.turnService = turnService;
+        this.lobbyRegistry = lobbyRegistry;
+        this.lobbyDirectory = lobbyDirectory;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<GameJournal.RecoveredGame> recovered = gameJournal.recover();
+        int restored = 0;
+        for (GameJournal.RecoveredGame game : recovered) {
+            try {
+                restore(game.game(), game.turnState());
+                restored++;
+            } catch (RuntimeException e) {
+                logger.error("Failed to restore game {}, skipping it", game.game().getLobbyId(), e);
+            }
+        }
+        if (restored > 0) {
+            logger.info("Recovered {} games from the journal", restored);
+        }
+    }
+
+    private void restore(GameManager game, TurnService.TurnState turnState) {
+        List<Player> players = game.getPlayers();
+        Lobby lobby = new Lobby(game.getLobbyId(), players.get(0));
+        players.stream().skip(1).forEach(lobby::addPlayer);
+        lobby.setGameManager(game);
+
+        lobbyRegistry.restoreLobby(lobby);
+        lobbyDirectory.update(lobby, LobbyDirectory.LobbyState.IN_GAME);
+        gameService.restoreGame(game);
+        turnService.restoreTurnState(game.getLobbyId(), turnState);
+    }
+}
@@ -0,0 +1,97 @@
+package at.aau.se2.cluedo.services.journal;
+
+import at.aau.se2.cluedo.models.GameRandom;
+import at.aau.se2.cluedo.models.cards.BasicCard;
+import at.aau.se2.cluedo.models.cards.CardCatalog;
+import at.aau.se2.cluedo.models.gamemanager.GameManager;
+import at.aau.se2.cluedo.models.gamemanager.GameState;
+import at.aau.se2.cluedo.models.gameobjects.Player;
+import at.aau.se2.cluedo.models.gameobjects.PlayerColor;
+import at.aau.se2.cluedo.models.gameobjects.SecretFile;
+import at.aau.se2.cluedo.services.TurnService.TurnState;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Complete state of a game after journal entry {@code seq}. Cards are stored by name, they are
+ * interned in the {@link CardCatalog}.
+ */
+public record GameSnapshot(String lobbyId, long seq, List<PlayerState> players, String secretRoom,
+                           String secretWeapon, String secretCharacter, int currentPlayerIndex, int diceRoll,
+                           GameState state, String winner, long stateVersion, long seed, long draws,
+                           TurnState turnState,
+                           Map<String, Set<String>> cheatingReports,
+                           Map<String, GameManager.SuggestionRecord> lastSuggestions) {
+
+    public record PlayerState(String name, String character, UUID playerID, PlayerColor color, int startX, int startY,
+                              int x, int y, List<String> cards, boolean active, boolean hasWon, boolean currentPlayer,
+                              boolean canReport, String currentRoom, int suggestionsInCurrentRoom,
+                              boolean hasSuggestedInCurrentRoom, String lastRoomName) {
+
+        public static PlayerState of(Player player) {
+            return new PlayerState(player.getName(), player.getCharacter(), player.getPlayerID(), player.getColor(),
+                    player.getStartX(), player.getStartY(), player.getX(), player.getY(),
+                    player.getCards().stream().map(BasicCard::getCardName).toList(),
+                    player.isActive(), player.hasWon(), player.isCurrentPlayer(), player.isCanReport(),
+                    player.getCurrentRoom(), player.getSuggestionsInCurrentRoom(),
+                    player.isHasSuggestedInCurrentRoom(), player.getLastRoomName());
+        }
+
+        public Player restore() {
+            Player player = new Player(name, character, startX, startY, color, playerID);
+            player.move(x, y);
+            cards.forEach(card -> player.addCard(CardCatalog.byName(card)));
+            player.setActive(active);
+            player.setHasWon(hasWon);
+            player.setCurrentPlayer(currentPlayer);
+            player.setCanReport(canReport);
+            player.setCurrentRoom(currentRoom);
+            player.setSuggestionsInCurrentRoom(suggestionsInCurrentRoom);
+            player.setHasSuggestedInCurrentRoom(hasSuggestedInCurrentRoom);
+            player.setLastRoomName(lastRoomName);
+            return player;
+        }
+    }
+
+    /**
+     * Copy the state of a game, called on the game's mailbox so the state is consistent
+     * @param game
+     * @param turnState
+     * @param seq last journal entry contained in the snapshot
+     * @return the snapshot
+     */
+    public static GameSnapshot of(GameManager game, TurnState turnState, long seq) {
+        Map<String, Set<String>> reports = new HashMap<>();
+        game.getCheatingReports().forEach((accuser, suspects) -> reports.put(accuser, new HashSet<>(suspects)));
+        SecretFile secretFile = game.getSecretFile();
+        return new GameSnapshot(game.getLobbyId(), seq,
+                game.getPlayers().stream().map(PlayerState::of).toList(),
+                secretFile.room().getCardName(), secretFile.weapon().getCardName(), secretFile.character().getCardName(),
+                game.getCurrentPlayerIndex(), game.getDiceRollS(), game.getState(),
+                game.getWinner() == null ? null : game.getWinner().getName(),
+                game.getStateVersion(), game.getRandom().getSeed(), game.getRandom().getDraws(), turnState, reports, new HashMap<>(game.getLastSuggestions()));
+    }
+
+    public GameManager restore() {
+        List<Player> restored = new ArrayList<>(players.size());
+        players.forEach(player -> restored.add(player.restore()));
+        SecretFile secretFile = new SecretFile(CardCatalog.byName(secretRoom), CardCatalog.byName(secretWeapon),
+                CardCatalog.byName(secretCharacter));
+
+        GameManager game = GameManager.restore(lobbyId, restored, secretFile, stateVersion,
+                GameRandom.restore(seed, draws));
+        game.setCurrentPlayerIndex(currentPlayerIndex);
+        game.setDiceRollS(diceRoll);
+        game.setState(state);
+        game.setWinner(winner == null ? null : game.getPlayer(winner));
+        cheatingReports.forEach((accuser, suspects) -> game.getCheatingReports().put(accuser, new HashSet<>(suspects)));
+        game.getLastSuggestions().putAll(lastSuggestions);
+        return game;
+    }
+}
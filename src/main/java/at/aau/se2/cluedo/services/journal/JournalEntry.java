@@ -0,0 +1,144 @@
+package at.aau.se2.cluedo.services.journal;
+
+import at.aau.se2.cluedo.models.gameboard.Room;
+import at.aau.se2.cluedo.models.gamemanager.GameManager;
+import at.aau.se2.cluedo.models.gamemanager.GameState;
+import at.aau.se2.cluedo.models.gameobjects.Player;
+import at.aau.se2.cluedo.services.TurnService.TurnState;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+import java.util.HashSet;
+
+/**
+ * An accepted command of a running game as it is written to the {@link GameJournal}. Entries
+ * carry the outcome of the command (where the player ended up, whether the accusation was right)
+ * instead of its input, so replaying them needs no dice, no validation and no timeouts.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = JournalEntry.DiceRolled.class, name = "diceRolled"),
+        @JsonSubTypes.Type(value = JournalEntry.Moved.class, name = "moved"),
+        @JsonSubTypes.Type(value = JournalEntry.Suggested.class, name = "suggested"),
+        @JsonSubTypes.Type(value = JournalEntry.Accused.class, name = "accused"),
+        @JsonSubTypes.Type(value = JournalEntry.CheatingReported.class, name = "cheatingReported"),
+        @JsonSubTypes.Type(value = JournalEntry.TurnChanged.class, name = "turnChanged"),
+        @JsonSubTypes.Type(value = JournalEntry.TurnStateChanged.class, name = "turnStateChanged")
+})
+public sealed interface JournalEntry {
+
+    /**
+     * Apply the entry to a restored game
+     * @param game
+     * @param turnState turn state before the entry
+     * @return turn state after the entry
+     */
+    TurnState apply(GameManager game, TurnState turnState);
+
+    /**
+     * @param player
+     * @param value
+     * @param draws position of the game in its random stream after the roll
+     */
+    record DiceRolled(String player, int value, long draws) implements JournalEntry {
+        @Override
+        public TurnState apply(GameManager game, TurnState turnState) {
+            game.setDiceRollS(value);
+            game.getRandom().skipTo(draws);
+            return turnState;
+        }
+    }
+
+    record Moved(String player, int x, int y) implements JournalEntry {
+        @Override
+        public TurnState apply(GameManager game, TurnState turnState) {
+            Player moved = game.getPlayer(player);
+            if (moved != null) {
+                Room from = game.getGameBoard().getRoomAt(moved.getX(), moved.getY());
+                Room to = game.getGameBoard().getRoomAt(x, y);
+                if (from != null) {
+                    from.playerLeavesRoom(moved);
+                }
+                moved.move(x, y);
+                if (to != null) {
+                    to.playerEntersRoom(moved);
+                }
+            }
+            return turnState;
+        }
+    }
+
+    record Suggested(String player, String suspect, String room, String weapon) implements JournalEntry {
+        @Override
+        public TurnState apply(GameManager game, TurnState turnState) {
+            Player suggester = game.getPlayer(player);
+            if (suggester != null) {
+                game.recordSuggestion(suggester, suspect, room, weapon);
+            }
+            return turnState;
+        }
+    }
+
+    record Accused(String player, boolean correct) implements JournalEntry {
+        @Override
+        public TurnState apply(GameManager game, TurnState turnState) {
+            Player accuser = game.getPlayer(player);
+            if (accuser == null) {
+                return turnState;
+            }
+            if (correct) {
+                accuser.setHasWon(true);
+                game.setWinner(accuser);
+                game.setState(GameState.ENDED);
+            } else {
+                accuser.setActive(false);
+            }
+            return turnState;
+        }
+    }
+
+    /**
+     * @param accuser
+     * @param suspect
+     * @param resetPlayer player sent back to the start, accuser or suspect
+     * @param accuserBlocked accuser may not report again this turn
+     */
+    record CheatingReported(String accuser, String suspect, String resetPlayer, boolean accuserBlocked) implements JournalEntry {
+        @Override
+        public TurnState apply(GameManager game, TurnState turnState) {
+            Player reset = game.getPlayer(resetPlayer);
+            if (reset != null) {
+                game.resetPlayer(reset);
+            }
+            Player reporting = game.getPlayer(accuser);
+            if (reporting != null && accuserBlocked) {
+                reporting.setCanReport(false);
+            }
+            game.getCheatingReports().computeIfAbsent(accuser, k -> new HashSet<>()).add(suspect);
+            return turnState;
+        }
+    }
+
+    /**
+     * The turn passed on, replayed with {@link GameManager#nextTurn()} which only depends on the game state.
+     * @param currentPlayerIndex index of the player whose turn it is now
+     */
+    record TurnChanged(int currentPlayerIndex) implements JournalEntry {
+        @Override
+        public TurnState apply(GameManager game, TurnState turnState) {
+            game.nextTurn();
+            if (game.getCurrentPlayerIndex() != currentPlayerIndex) {
+                throw new IllegalStateException("Replayed turn went to player " + game.getCurrentPlayerIndex()
+                        + " instead of " + currentPlayerIndex + " in game " + game.getLobbyId());
+            }
+            return turnState;
+        }
+    }
+
+    record TurnStateChanged(TurnState turnState) implements JournalEntry {
+        @Override
+        public TurnState apply(GameManager game, TurnState previous) {
+            return turnState;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package at.aau.se2.cluedo.benchmarks;
+
+import at.aau.se2.cluedo.models.gameboard.BoardDistances;
+import at.aau.se2.cluedo.models.gameboard.BoardTopology;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Build time of the distance tables. The GC profiler's {@code gc.alloc.rate.norm} is close to the
+ * memory the tables keep, which is also printed before the run.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardDistancesBenchmark {
+
+    @Benchmark
+    public BoardDistances build() {
+        return BoardDistances.build(BoardTopology.getInstance());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        System.out.printf("Distance tables: %d bytes%n", BoardDistances.getInstance().getFootprintBytes());
+        new Runner(new OptionsBuilder()
+                .include(BoardDistancesBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
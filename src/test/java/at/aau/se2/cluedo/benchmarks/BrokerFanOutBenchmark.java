@@ -0,0 +1,167 @@
+package at.aau.se2.cluedo.benchmarks;
+
+import at.aau.se2.cluedo.CluedoApplication;
+import at.aau.se2.cluedo.config.EmbeddedStompBroker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompBrokerRelayMessageHandler;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Lobby broadcasts per second from the server to real STOMP clients, with the in-memory simple
+ * broker and with the relay to an external broker (an embedded Artemis on localhost). Every
+ * operation publishes one message to each lobby topic and waits until all players of all
+ * lobbies got it, so the score is rounds of broadcasts over all lobbies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+public class BrokerFanOutBenchmark {
+
+    private static final int PLAYERS = 6;
+    private static final long TIMEOUT_MS = 10_000;
+    // about the size of a turn state update
+    private static final String PAYLOAD = "{\"lobbyId\":\"bench\",\"currentPlayerName\":\"Player\",\"currentPlayerIndex\":1,"
+            + "\"turnState\":\"PLAYERS_TURN_MOVE\",\"canMakeSuggestion\":false,\"canMakeAccusation\":true,\"diceValue\":7}";
+
+    @Param({"simple", "relay"})
+    public String broker;
+
+    @Param({"16", "64"})
+    public int lobbies;
+
+    private EmbeddedStompBroker stompBroker;
+    private ConfigurableApplicationContext server;
+    private SimpMessagingTemplate messagingTemplate;
+    private final List<StompSession> sessions = new ArrayList<>();
+    private volatile CountDownLatch delivered = new CountDownLatch(0);
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        List<String> arguments = new ArrayList<>(List.of("--server.port=0"));
+        if ("relay".equals(broker)) {
+            stompBroker = EmbeddedStompBroker.start();
+            arguments.addAll(List.of(stompBroker.relayArguments()));
+        }
+        server = SpringApplication.run(CluedoApplication.class, arguments.toArray(String[]::new));
+        messagingTemplate = server.getBean(SimpMessagingTemplate.class);
+        if (stompBroker != null) {
+            awaitRelay(server.getBean(StompBrokerRelayMessageHandler.class));
+        }
+
+        WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new ByteArrayMessageConverter() {
+            @Override
+            protected boolean supportsMimeType(MessageHeaders headers) {
+                return true;
+            }
+        });
+
+        String url = "ws://localhost:" + ((WebServerApplicationContext) server).getWebServer().getPort() + "/ws";
+        for (int lobby = 0; lobby < lobbies; lobby++) {
+            for (int player = 0; player < PLAYERS; player++) {
+                StompSession session = stompClient.connectAsync(url, new StompSessionHandlerAdapter() {
+                }).get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                session.subscribe(topic(lobby), new Counting());
+                sessions.add(session);
+            }
+        }
+        awaitSubscriptions();
+    }
+
+    // the simple broker sends no receipts, so broadcast until a round reaches every subscriber
+    private void awaitSubscriptions() throws InterruptedException, TimeoutException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!broadcast(500)) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new TimeoutException("Subscriptions not active");
+            }
+        }
+        // late copies of earlier rounds must not count for the measured ones
+        Thread.sleep(200);
+    }
+
+    private static void awaitRelay(StompBrokerRelayMessageHandler relay) throws InterruptedException, TimeoutException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!relay.isBrokerAvailable()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new TimeoutException("Relay did not connect to the broker");
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private static String topic(int lobby) {
+        return "/topic/fanOut/lobby-" + lobby;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        sessions.forEach(StompSession::disconnect);
+        sessions.clear();
+        server.close();
+        if (stompBroker != null) {
+            stompBroker.close();
+        }
+    }
+
+    private boolean broadcast(long timeoutMs) throws InterruptedException {
+        CountDownLatch round = new CountDownLatch(lobbies * PLAYERS);
+        delivered = round;
+        for (int lobby = 0; lobby < lobbies; lobby++) {
+            messagingTemplate.convertAndSend(topic(lobby), PAYLOAD);
+        }
+        return round.await(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Benchmark
+    public void broadcastToAllLobbies() throws InterruptedException, TimeoutException {
+        if (!broadcast(TIMEOUT_MS)) {
+            throw new TimeoutException("Deliveries missing after " + TIMEOUT_MS + " ms");
+        }
+    }
+
+    private final class Counting implements StompFrameHandler {
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return byte[].class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            delivered.countDown();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package at.aau.se2.cluedo.benchmarks;
+
+import at.aau.se2.cluedo.models.gameboard.GameBoard;
+import at.aau.se2.cluedo.models.gameboard.GameBoardCell;
+import at.aau.se2.cluedo.models.gameboard.Room;
+import at.aau.se2.cluedo.models.gamemanager.GameManager;
+import at.aau.se2.cluedo.models.gameobjects.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The game engine operations behind the most frequent commands, for 3 to 6 players. Every
+ * benchmark leaves the game as it found it so iterations stay comparable. Logging is turned down
+ * to warnings, the numbers cover the engine alone.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+public class GameEngineBenchmark {
+
+    // there and back again through the hallway, always 4 valid steps
+    private static final List<String> ROUND_TRIP = List.of("W", "W", "S", "S");
+
+    @Param({"3", "4", "5", "6"})
+    public int players;
+
+    private GameManager game;
+    private GameBoard board;
+    private Player mover;
+    private Room kitchen;
+    private String undisprovableSuspect;
+    private String undisprovableWeapon;
+
+    @Setup
+    public void setUp() {
+        game = new GameManager(players);
+        board = game.getGameBoard();
+        mover = game.getPlayers().get(0);
+        mover.move(7, 20);
+        game.setDiceRollS(ROUND_TRIP.size());
+        kitchen = board.getRooms().get("Kitchen");
+        // cards of the secret file are in nobody's hand, so every player has to be asked
+        undisprovableSuspect = game.getSecretFile().character().getCardName();
+        undisprovableWeapon = game.getSecretFile().weapon().getCardName();
+    }
+
+    @Benchmark
+    public int performMovement() {
+        return game.performMovement(mover, ROUND_TRIP);
+    }
+
+    @Benchmark
+    public boolean makeSuggestion() {
+        return game.makeSuggestion(mover, undisprovableSuspect, undisprovableWeapon);
+    }
+
+    @Benchmark
+    public int nextTurn() {
+        game.nextTurn();
+        return game.getCurrentPlayerIndex();
+    }
+
+    @Benchmark
+    public boolean movePlayer() {
+        return board.movePlayer(mover, 7, 19, false) & board.movePlayer(mover, 7, 20, false);
+    }
+
+    @Benchmark
+    public GameBoardCell findPassageExitInRoom() {
+        return board.findPassageExitInRoom(kitchen);
+    }
+
+    @Benchmark
+    public GameManager createGame() {
+        return new GameManager(players);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GameEngineBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
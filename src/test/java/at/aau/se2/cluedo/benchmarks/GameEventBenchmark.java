@@ -0,0 +1,70 @@
+package at.aau.se2.cluedo.benchmarks;
+
+import at.aau.se2.cluedo.services.TurnService.TurnState;
+import at.aau.se2.cluedo.services.events.GameEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building and serializing a turn's broadcasts as typed {@link GameEvent}s against the
+ * {@code Map.of} payloads they replaced.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameEventBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Param({"map", "event"})
+    public String payload;
+
+    private int diceValue = 7;
+
+    @Benchmark
+    public byte[] diceRolled() throws JsonProcessingException {
+        diceValue = diceValue % 12 + 1;
+        Object message = "map".equals(payload)
+                ? Map.of("player", "Scarlet", "diceValue", diceValue, "turnState", TurnState.PLAYERS_TURN_MOVE)
+                : new GameEvent.DiceRolled("Scarlet", diceValue, TurnState.PLAYERS_TURN_MOVE);
+        return objectMapper.writeValueAsBytes(message);
+    }
+
+    @Benchmark
+    public byte[] suggestionMade() throws JsonProcessingException {
+        Object message = "map".equals(payload)
+                ? Map.of("success", true, "player", "Scarlet", "playerId", "7d9f3c1e-0000-0000-0000-000000000001",
+                "suspect", "Mrs. White", "weapon", "Rope", "room", "Hall",
+                "message", "Scarlet suggests Mrs. White with Rope in Hall", "lobbyId", "lobby-1234")
+                : new GameEvent.SuggestionMade(true, "Scarlet", "7d9f3c1e-0000-0000-0000-000000000001", "Mrs. White",
+                "Rope", "Hall", "Scarlet suggests Mrs. White with Rope in Hall", "lobby-1234");
+        return objectMapper.writeValueAsBytes(message);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GameEventBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,135 @@
+package at.aau.se2.cluedo.benchmarks;
+
+import at.aau.se2.cluedo.dto.SuggestionRequest;
+import at.aau.se2.cluedo.models.gameobjects.Player;
+import at.aau.se2.cluedo.models.gameobjects.PlayerColor;
+import at.aau.se2.cluedo.services.GameService;
+import at.aau.se2.cluedo.services.LobbyDispatcher;
+import at.aau.se2.cluedo.services.LobbyRegistry;
+import at.aau.se2.cluedo.services.LobbyService;
+import at.aau.se2.cluedo.services.TurnService;
+import at.aau.se2.cluedo.services.events.GameEventPublisher;
+import at.aau.se2.cluedo.services.journal.GameJournal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Throughput of lobby commands on the mailbox workers while other lobbies wait for suggestion
+ * answers that never come. Each command reads the turn state and then blocks for blockMicros,
+ * standing in for handlers that wait on I/O. Compares the fixed worker pool with virtual thread
+ * workers; before Java 21 both rows run on the pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+public class LobbyDispatcherBenchmark {
+
+    private static final int ACTIVE_LOBBIES = 64;
+    private static final int COMMANDS = 1024;
+    private static final int WORKER_THREADS = 4;
+    private static final int PLAYERS = 4;
+
+    @Param({"pool", "virtual"})
+    public String workers;
+
+    @Param({"0", "500"})
+    public int waitingRounds;
+
+    @Param({"0", "200"})
+    public int blockMicros;
+
+    private LobbyDispatcher dispatcher;
+    private TurnService turnService;
+    private String[] activeLobbies;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dispatcher = new LobbyDispatcher(WORKER_THREADS, "virtual".equals(workers));
+        LobbyService lobbyService = new LobbyService(new LobbyRegistry());
+        GameService gameService = new GameService(lobbyService);
+        turnService = new TurnService(gameService,
+                new GameEventPublisher(new SimpMessagingTemplate(new DiscardingChannel())), dispatcher, new GameJournal());
+        // answers never arrive and never time out during the run
+        turnService.setSuggestionResponseTimeoutMs(TimeUnit.HOURS.toMillis(1));
+
+        activeLobbies = new String[ACTIVE_LOBBIES];
+        for (int i = 0; i < ACTIVE_LOBBIES; i++) {
+            activeLobbies[i] = startGame(lobbyService, gameService, "active-" + i);
+            turnService.initializeTurnState(activeLobbies[i]);
+        }
+        for (int i = 0; i < waitingRounds; i++) {
+            String lobbyId = startGame(lobbyService, gameService, "waiting-" + i);
+            Player suggester = gameService.getGame(lobbyId).getCurrentPlayer();
+            turnService.processSuggestion(lobbyId, new SuggestionRequest(suggester.getName(),
+                    suggester.getPlayerID().toString(), "Colonel Mustard", "Rope", "Kitchen"));
+        }
+        if (turnService.getPendingSuggestionCount() != waitingRounds) {
+            throw new IllegalStateException("expected " + waitingRounds + " waiting rounds");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COMMANDS)
+    public void lobbyCommands() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(COMMANDS);
+        for (int i = 0; i < COMMANDS; i++) {
+            String lobbyId = activeLobbies[i % ACTIVE_LOBBIES];
+            dispatcher.execute(lobbyId, () -> {
+                turnService.getTurnState(lobbyId);
+                if (blockMicros > 0) {
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(blockMicros));
+                }
+                done.countDown();
+            });
+        }
+        done.await();
+    }
+
+    private static String startGame(LobbyService lobbyService, GameService gameService, String name) {
+        String lobbyId = lobbyService.createLobby(new Player(name + "-0", "Red", 0, 0, PlayerColor.RED));
+        for (int i = 1; i < PLAYERS; i++) {
+            lobbyService.joinLobby(lobbyId, new Player(name + "-" + i, "Player", 0, 0, PlayerColor.values()[i]));
+        }
+        gameService.startGameFromLobby(lobbyId);
+        return lobbyId;
+    }
+
+    private static class DiscardingChannel implements MessageChannel {
+        @Override
+        public boolean send(Message<?> message) {
+            return true;
+        }
+
+        @Override
+        public boolean send(Message<?> message, long timeout) {
+            return true;
+        }
+    }
+}
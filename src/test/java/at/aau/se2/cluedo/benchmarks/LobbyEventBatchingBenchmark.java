@@ -0,0 +1,162 @@
+package at.aau.se2.cluedo.benchmarks;
+
+import at.aau.se2.cluedo.CluedoApplication;
+import at.aau.se2.cluedo.config.LobbyEventBatcher;
+import at.aau.se2.cluedo.services.LobbyDispatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Moves per second delivered to real STOMP clients, with every broadcast in its own frame and
+ * with the broadcasts of a command merged by {@link LobbyEventBatcher}. A move sends what
+ * {@code /performMovement} and the turn change after it send: the board, the completed movement,
+ * the new turn state and the current player. Every operation applies one move in each lobby on
+ * its mailbox and waits until all players got everything.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+public class LobbyEventBatchingBenchmark {
+
+    private static final int PLAYERS = 6;
+    private static final long TIMEOUT_MS = 10_000;
+    private static final List<String> MOVE_TOPICS = List.of("/topic/performMovement/", "/topic/movementCompleted/",
+            "/topic/turnStateChanged/", "/topic/currentTurn/");
+    private static final String PAYLOAD = "{\"lobbyId\":\"bench\",\"currentPlayerName\":\"Player\",\"currentPlayerIndex\":1,"
+            + "\"turnState\":\"PLAYERS_TURN_MOVE\",\"canMakeSuggestion\":false,\"canMakeAccusation\":true,\"diceValue\":7}";
+
+    @Param({"false", "true"})
+    public boolean batching;
+
+    @Param({"16", "64"})
+    public int lobbies;
+
+    private ConfigurableApplicationContext server;
+    private SimpMessagingTemplate messagingTemplate;
+    private LobbyDispatcher lobbyDispatcher;
+    private final List<StompSession> sessions = new ArrayList<>();
+    private volatile CountDownLatch delivered = new CountDownLatch(0);
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        server = SpringApplication.run(CluedoApplication.class, "--server.port=0",
+                "--cluedo.messaging.batching.enabled=" + batching);
+        messagingTemplate = server.getBean(SimpMessagingTemplate.class);
+        lobbyDispatcher = server.getBean(LobbyDispatcher.class);
+
+        WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new ByteArrayMessageConverter() {
+            @Override
+            protected boolean supportsMimeType(MessageHeaders headers) {
+                return true;
+            }
+        });
+
+        String url = "ws://localhost:" + ((WebServerApplicationContext) server).getWebServer().getPort() + "/ws";
+        for (int lobby = 0; lobby < lobbies; lobby++) {
+            for (int player = 0; player < PLAYERS; player++) {
+                StompSession session = stompClient.connectAsync(url, new StompSessionHandlerAdapter() {
+                }).get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (batching) {
+                    session.subscribe(LobbyEventBatcher.TOPIC + lobbyId(lobby), new Counting());
+                } else {
+                    for (String topic : MOVE_TOPICS) {
+                        session.subscribe(topic + lobbyId(lobby), new Counting());
+                    }
+                }
+                sessions.add(session);
+            }
+        }
+        awaitSubscriptions();
+    }
+
+    // the simple broker sends no receipts, so move until a round reaches every subscriber
+    private void awaitSubscriptions() throws InterruptedException, TimeoutException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!move(500)) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new TimeoutException("Subscriptions not active");
+            }
+        }
+        // late copies of earlier rounds must not count for the measured ones
+        Thread.sleep(200);
+    }
+
+    private static String lobbyId(int lobby) {
+        return "lobby-" + lobby;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessions.forEach(StompSession::disconnect);
+        sessions.clear();
+        server.close();
+    }
+
+    private boolean move(long timeoutMs) throws InterruptedException {
+        int framesPerMove = batching ? 1 : MOVE_TOPICS.size();
+        CountDownLatch round = new CountDownLatch(lobbies * PLAYERS * framesPerMove);
+        delivered = round;
+        for (int lobby = 0; lobby < lobbies; lobby++) {
+            String lobbyId = lobbyId(lobby);
+            lobbyDispatcher.execute(lobbyId, () -> {
+                for (String topic : MOVE_TOPICS) {
+                    messagingTemplate.convertAndSend(topic + lobbyId, PAYLOAD);
+                }
+            });
+        }
+        return round.await(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Benchmark
+    public void moveInAllLobbies() throws InterruptedException, TimeoutException {
+        if (!move(TIMEOUT_MS)) {
+            throw new TimeoutException("Deliveries missing after " + TIMEOUT_MS + " ms");
+        }
+    }
+
+    private final class Counting implements StompFrameHandler {
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return byte[].class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            delivered.countDown();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package at.aau.se2.cluedo.benchmarks;
+
+import at.aau.se2.cluedo.models.gameboard.BoardTopology;
+import at.aau.se2.cluedo.models.gameboard.CellType;
+import at.aau.se2.cluedo.models.gameboard.GameBoard;
+import at.aau.se2.cluedo.models.gameboard.GameBoardCell;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validates every single step on the board (each cell to each of its neighbours), once against the
+ * materialized {@link GameBoardCell} grid and once against the packed {@link BoardTopology} cells.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveValidationBenchmark {
+
+    private static final int[][] DIRECTIONS = {{0, 1}, {0, -1}, {1, 0}, {-1, 0}};
+
+    private GameBoardCell[][] grid;
+    private BoardTopology topology;
+    private int[] steps;
+
+    @Setup
+    public void setUp() {
+        grid = new GameBoard().getGrid();
+        topology = BoardTopology.getInstance();
+
+        int[] buffer = new int[GameBoard.WIDTH * GameBoard.HEIGHT * DIRECTIONS.length * 2];
+        int count = 0;
+        for (int x = 0; x < GameBoard.WIDTH; x++) {
+            for (int y = 0; y < GameBoard.HEIGHT; y++) {
+                for (int[] d : DIRECTIONS) {
+                    if (topology.contains(x + d[0], y + d[1])) {
+                        buffer[count++] = topology.index(x, y);
+                        buffer[count++] = topology.index(x + d[0], y + d[1]);
+                    }
+                }
+            }
+        }
+        steps = Arrays.copyOf(buffer, count);
+    }
+
+    @Benchmark
+    public int objectGrid() {
+        int valid = 0;
+        for (int i = 0; i < steps.length; i += 2) {
+            GameBoardCell from = grid[topology.x(steps[i])][topology.y(steps[i])];
+            GameBoardCell to = grid[topology.x(steps[i + 1])][topology.y(steps[i + 1])];
+            if (isMoveValid(from, to)) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+
+    @Benchmark
+    public int packedGrid() {
+        int valid = 0;
+        for (int i = 0; i < steps.length; i += 2) {
+            if (topology.isStepValid(steps[i], steps[i + 1])) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+
+    // the check GameBoard ran on cell objects before the cells were packed
+    private static boolean isMoveValid(GameBoardCell from, GameBoardCell to) {
+        return to != null && to.isAccessible() && (
+                from.getCellType() == to.getCellType() ||
+                from.getCellType() == CellType.DOOR ||
+                to.getCellType() == CellType.DOOR ||
+                from.getCellType() == CellType.SECRET_PASSAGE ||
+                to.getCellType() == CellType.SECRET_PASSAGE
+        );
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MoveValidationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,116 @@
+package at.aau.se2.cluedo.benchmarks;
+
+import at.aau.se2.cluedo.dto.GameDataResponse;
+import at.aau.se2.cluedo.dto.GameDeltaResponse;
+import at.aau.se2.cluedo.dto.LobbyResponse;
+import at.aau.se2.cluedo.dto.TurnActionRequest;
+import at.aau.se2.cluedo.dto.TurnStateResponse;
+import at.aau.se2.cluedo.dto.binary.BinaryCodecs;
+import at.aau.se2.cluedo.models.gamemanager.GameManager;
+import at.aau.se2.cluedo.models.gameobjects.Player;
+import at.aau.se2.cluedo.services.TurnService.TurnState;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of the frequent messages in JSON and in the binary format: {@code encode} for
+ * what the server broadcasts, with a game of 6 players, and {@code decode} for the turn actions
+ * clients send. The bytes per message of both formats are printed before the run.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final BinaryCodecs CODECS = BinaryCodecs.standard();
+
+    static Object message(String name) {
+        GameManager game = new GameManager(6);
+        Player current = game.getCurrentPlayer();
+        return switch (name) {
+            case "turnState" -> new TurnStateResponse("lobby-1234", current.getName(), game.getCurrentPlayerIndex(),
+                    TurnState.PLAYERS_TURN_MOVE, false, true, 8, current.getName() + " rolled 8. Time to move!");
+            case "gameData" -> new GameDataResponse("lobby-1234", game.getPlayers(), current, 17);
+            case "gameDelta" -> new GameDeltaResponse("lobby-1234", 17, current.getName(), 7, 19, current.getName());
+            case "lobby" -> new LobbyResponse("lobby-1234", current, game.getPlayers());
+            default -> throw new IllegalArgumentException(name);
+        };
+    }
+
+    static TurnActionRequest turnAction() {
+        return new TurnActionRequest("Scarlet", "SUGGESTION", 0, "Mrs. White", "Rope", "Kitchen");
+    }
+
+    @State(Scope.Thread)
+    public static class Outbound {
+        @Param({"turnState", "gameData", "gameDelta", "lobby"})
+        public String message;
+
+        @Param({"json", "binary"})
+        public String format;
+
+        Object payload;
+
+        @Setup
+        public void setUp() {
+            payload = message(message);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Inbound {
+        @Param({"json", "binary"})
+        public String format;
+
+        byte[] bytes;
+
+        @Setup
+        public void setUp() throws JsonProcessingException {
+            bytes = "json".equals(format) ? OBJECT_MAPPER.writeValueAsBytes(turnAction()) : CODECS.encode(turnAction());
+        }
+    }
+
+    @Benchmark
+    public byte[] encode(Outbound state) throws JsonProcessingException {
+        return "json".equals(state.format) ? OBJECT_MAPPER.writeValueAsBytes(state.payload) : CODECS.encode(state.payload);
+    }
+
+    @Benchmark
+    public TurnActionRequest decode(Inbound state) throws IOException {
+        return "json".equals(state.format) ? OBJECT_MAPPER.readValue(state.bytes, TurnActionRequest.class)
+                : CODECS.decode(state.bytes, TurnActionRequest.class);
+    }
+
+    public static void main(String[] args) throws RunnerException, JsonProcessingException {
+        for (String name : new String[]{"turnState", "gameData", "gameDelta", "lobby"}) {
+            Object payload = message(name);
+            System.out.printf("%-10s json %5d bytes, binary %5d bytes%n", name,
+                    OBJECT_MAPPER.writeValueAsBytes(payload).length, CODECS.encode(payload).length);
+        }
+        new Runner(new OptionsBuilder()
+                .include(WireFormatBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
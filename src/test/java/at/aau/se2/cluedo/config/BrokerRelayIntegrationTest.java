@@ -0,0 +1,103 @@
+package at.aau.se2.cluedo.config;
+
+import at.aau.se2.cluedo.CluedoApplication;
+import at.aau.se2.cluedo.config.StompTestSupport.Frame;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompBrokerRelayMessageHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static at.aau.se2.cluedo.config.StompTestSupport.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BrokerRelayIntegrationTest {
+
+    private EmbeddedStompBroker broker;
+    private ConfigurableApplicationContext server;
+    private WebSocketStompClient stompClient;
+    private String url;
+    private ThreadPoolTaskScheduler receiptScheduler;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        broker = EmbeddedStompBroker.start();
+        String[] arguments = broker.relayArguments();
+        server = SpringApplication.run(CluedoApplication.class, "--server.port=0", arguments[0], arguments[1]);
+        url = url(server);
+
+        // clients are only let through once the relay's own connection to the broker is up
+        StompBrokerRelayMessageHandler relay = server.getBean(StompBrokerRelayMessageHandler.class);
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!relay.isBrokerAvailable() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        stompClient = stompClient();
+        receiptScheduler = new ThreadPoolTaskScheduler();
+        receiptScheduler.initialize();
+        stompClient.setTaskScheduler(receiptScheduler);
+        stompClient.setReceiptTimeLimit(TIMEOUT_MS);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        receiptScheduler.shutdown();
+        server.close();
+        broker.close();
+    }
+
+    private static BlockingQueue<Frame> subscribe(StompSession session, String destination) {
+        BlockingQueue<Frame> inbox = new LinkedBlockingQueue<>();
+        StompHeaders headers = new StompHeaders();
+        headers.setDestination(destination);
+        // the receipt tells when the broker has the subscription
+        headers.setReceipt(UUID.randomUUID().toString());
+        BlockingQueue<Boolean> receipt = new LinkedBlockingQueue<>();
+        session.subscribe(headers, collectInto(inbox)).addReceiptTask(() -> receipt.add(true));
+        try {
+            assertNotNull(receipt.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS), "no receipt for " + destination);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return inbox;
+    }
+
+    @Test
+    void testRelayReplacesSimpleBroker() {
+        assertTrue(server.getBean(StompBrokerRelayMessageHandler.class).isBrokerAvailable());
+        assertTrue(server.getBeansOfType(SimpleBrokerMessageHandler.class).isEmpty());
+    }
+
+    @Test
+    void testLobbyUpdatesReachSubscribersThroughBroker() throws Exception {
+        StompSession host = connect(stompClient, url);
+        BlockingQueue<Frame> created = subscribe(host, "/topic/lobbyCreated");
+        host.send("/app/createLobby", player("Host", "RED"));
+        String lobbyId = await(created).text();
+
+        BlockingQueue<Frame> hostUpdates = subscribe(host, "/topic/lobby/" + lobbyId);
+        StompSession guest = connect(stompClient, url);
+        BlockingQueue<Frame> guestUpdates = subscribe(guest, "/topic/lobby/" + lobbyId);
+        guest.send("/app/joinLobby/" + lobbyId, player("Guest", "BLUE"));
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        assertEquals(2, objectMapper.readTree(await(hostUpdates).payload()).get("players").size());
+        assertEquals(2, objectMapper.readTree(await(guestUpdates).payload()).get("players").size());
+
+        host.disconnect();
+        guest.disconnect();
+    }
+}
@@ -0,0 +1,62 @@
+package at.aau.se2.cluedo.config;
+
+import org.apache.activemq.artemis.core.config.Configuration;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * An ActiveMQ Artemis broker in this JVM that only speaks STOMP, as the external broker of the
+ * relay mode in tests and benchmarks. Nothing is persisted and there is no security.
+ */
+public final class EmbeddedStompBroker implements AutoCloseable {
+
+    private final EmbeddedActiveMQ server;
+    private final int port;
+
+    private EmbeddedStompBroker(EmbeddedActiveMQ server, int port) {
+        this.server = server;
+        this.port = port;
+    }
+
+    /**
+     * @return a started broker on a free localhost port
+     * @throws Exception if the broker doesn't start
+     */
+    public static EmbeddedStompBroker start() throws Exception {
+        int port = StompTestSupport.freePort();
+        Path data = Files.createTempDirectory("stomp-broker");
+        Configuration configuration = new ConfigurationImpl()
+                .setPersistenceEnabled(false)
+                .setSecurityEnabled(false)
+                .setJMXManagementEnabled(false)
+                .setBindingsDirectory(data.resolve("bindings").toString())
+                .setJournalDirectory(data.resolve("journal").toString())
+                .setPagingDirectory(data.resolve("paging").toString())
+                .setLargeMessagesDirectory(data.resolve("large-messages").toString())
+                .addAcceptorConfiguration("stomp", "tcp://localhost:" + port + "?protocols=STOMP");
+        EmbeddedActiveMQ server = new EmbeddedActiveMQ();
+        server.setConfiguration(configuration);
+        server.start();
+        return new EmbeddedStompBroker(server, port);
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * @return the arguments that point a server's relay at this broker
+     */
+    public String[] relayArguments() {
+        return new String[]{"--cluedo.messaging.relay.enabled=true", "--cluedo.messaging.relay.port=" + port};
+    }
+
+    @Override
+    public void close() throws Exception {
+        server.stop();
+    }
+}
@@ -0,0 +1,177 @@
+package at.aau.se2.cluedo.config;
+
+import at.aau.se2.cluedo.services.LobbyDispatcher;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LobbyEventBatcherTest {
+
+    private static final long TIMEOUT_MS = 5000;
+
+    private final LobbyDispatcher dispatcher = new LobbyDispatcher(2);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Message<?>> sent = new CopyOnWriteArrayList<>();
+    private LobbyEventBatcher batcher;
+
+    private final MessageHandler broker = sent::add;
+
+    // the brokerChannel with the batcher in front of the broker
+    private final MessageChannel channel = new MessageChannel() {
+        @Override
+        public boolean send(Message<?> message, long timeout) {
+            Message<?> handled = batcher.beforeHandle(batcher.preSend(message, this), this, broker);
+            if (handled != null) {
+                broker.handleMessage(handled);
+            }
+            return true;
+        }
+    };
+
+    @AfterEach
+    void tearDown() {
+        if (batcher != null) {
+            batcher.close();
+        }
+        dispatcher.shutdown();
+    }
+
+    private void batch(long windowMs, int maxEvents) {
+        MessagingProperties.Batching batching = new MessagingProperties.Batching();
+        batching.setEnabled(true);
+        batching.setWindowMs(windowMs);
+        batching.setMaxEvents(maxEvents);
+        batcher = new LobbyEventBatcher(dispatcher, batching, meterRegistry);
+    }
+
+    private void send(String destination, String payload, MimeType contentType) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        accessor.setContentType(contentType);
+        channel.send(MessageBuilder.createMessage(payload.getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders()));
+    }
+
+    private void sendJson(String destination, String payload) {
+        send(destination, payload, MimeTypeUtils.APPLICATION_JSON);
+    }
+
+    private List<String> destinations() {
+        return sent.stream().map(m -> SimpMessageHeaderAccessor.getDestination(m.getHeaders())).toList();
+    }
+
+    private void awaitSent(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (sent.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static JsonNode json(Message<?> message) throws Exception {
+        return new ObjectMapper().readTree((byte[]) message.getPayload());
+    }
+
+    @Test
+    void testBroadcastsOfOneCommandBecomeOneFrameInOrder() throws Exception {
+        batch(0, 100);
+
+        dispatcher.run("l1", () -> {
+            sendJson("/topic/performMovement/l1", "{\"x\":3}");
+            sendJson("/topic/movementCompleted/l1", "{\"turnState\":\"PLAYERS_TURN_SUGGEST\"}");
+            send("/topic/gameBoard/l1", "line \"1\"", MimeTypeUtils.TEXT_PLAIN);
+            assertTrue(sent.isEmpty());
+        });
+        // the listener of the first command runs before the second
+        dispatcher.run("l1", () -> { });
+
+        assertEquals(List.of(LobbyEventBatcher.TOPIC + "l1"), destinations());
+        Message<?> frame = sent.get(0);
+        assertEquals(MimeTypeUtils.APPLICATION_JSON, frame.getHeaders().get(MessageHeaders.CONTENT_TYPE));
+        JsonNode batch = json(frame);
+        assertEquals("l1", batch.get("lobbyId").asText());
+        JsonNode events = batch.get("events");
+        assertEquals(3, events.size());
+        assertEquals("/topic/performMovement/l1", events.get(0).get("destination").asText());
+        assertEquals(3, events.get(0).get("payload").get("x").asInt());
+        assertEquals("PLAYERS_TURN_SUGGEST", events.get(1).get("payload").get("turnState").asText());
+        assertEquals("line \"1\"", events.get(2).get("payload").asText());
+
+        assertEquals(1.0, meterRegistry.counter("cluedo.events.batches").count());
+        assertEquals(3.0, meterRegistry.counter("cluedo.events.batched").count());
+        assertEquals(0, batcher.getPendingLobbyCount());
+    }
+
+    @Test
+    void testOnlyBroadcastsOfTheDispatchedLobbyAreHeldBack() {
+        batch(0, 100);
+
+        sendJson("/topic/currentTurn/l1", "{}");
+        dispatcher.run("l1", () -> {
+            sendJson("/topic/lobbyDirectory", "{}");
+            sendJson("/topic/currentTurn/l2", "{}");
+            sendJson("/topic/resultSuggestion/l1/player", "{}");
+            sendJson("/topic/currentTurn/l1", "{}");
+        });
+        dispatcher.run("l1", () -> { });
+
+        assertEquals(List.of("/topic/currentTurn/l1", "/topic/lobbyDirectory", "/topic/currentTurn/l2",
+                "/topic/resultSuggestion/l1/player", LobbyEventBatcher.TOPIC + "l1"), destinations());
+    }
+
+    @Test
+    void testCommandsWithoutBroadcastsSendNothing() {
+        batch(0, 100);
+
+        dispatcher.run("l1", () -> { });
+        dispatcher.run("l1", () -> { });
+
+        assertTrue(sent.isEmpty());
+    }
+
+    @Test
+    void testWindowMergesSeveralCommands() throws Exception {
+        batch(200, 100);
+
+        dispatcher.run("l1", () -> sendJson("/topic/diceRolled/l1", "{\"diceValue\":7}"));
+        dispatcher.run("l1", () -> sendJson("/topic/currentTurn/l1", "{}"));
+        assertTrue(sent.isEmpty());
+
+        awaitSent(1);
+        assertEquals(List.of(LobbyEventBatcher.TOPIC + "l1"), destinations());
+        JsonNode events = json(sent.get(0)).get("events");
+        assertEquals(2, events.size());
+        assertEquals("/topic/diceRolled/l1", events.get(0).get("destination").asText());
+        assertEquals("/topic/currentTurn/l1", events.get(1).get("destination").asText());
+    }
+
+    @Test
+    void testFullBatchIsSentEarly() throws Exception {
+        batch(60_000, 2);
+
+        dispatcher.run("l1", () -> {
+            sendJson("/topic/currentTurn/l1", "{\"n\":1}");
+            sendJson("/topic/currentTurn/l1", "{\"n\":2}");
+            sendJson("/topic/currentTurn/l1", "{\"n\":3}");
+        });
+
+        assertEquals(1, sent.size());
+        assertEquals(2, json(sent.get(0)).get("events").size());
+        assertEquals(1, batcher.getPendingLobbyCount());
+    }
+}
@@ -0,0 +1,82 @@
+package at.aau.se2.cluedo.config;
+
+import at.aau.se2.cluedo.CluedoApplication;
+import at.aau.se2.cluedo.config.StompTestSupport.Frame;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+
+import static at.aau.se2.cluedo.config.StompTestSupport.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LobbyEventBatchingIntegrationTest {
+
+    private ConfigurableApplicationContext server;
+    private StompSession session;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = SpringApplication.run(CluedoApplication.class, "--server.port=0",
+                "--cluedo.messaging.batching.enabled=true");
+        session = connect(stompClient(), url(server));
+    }
+
+    @AfterEach
+    void tearDown() {
+        session.disconnect();
+        server.close();
+    }
+
+    // only commands of existing lobbies run on a mailbox and are batched
+    private String createLobby() throws Exception {
+        BlockingQueue<Frame> created = subscribe(session, "/topic/lobbyCreated");
+        StompHeaders headers = new StompHeaders();
+        headers.setDestination("/app/createLobby");
+        headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        byte[] request = "{\"player\":{\"name\":\"Alice\",\"character\":\"Alice\",\"color\":\"RED\"}}"
+                .getBytes(StandardCharsets.UTF_8);
+
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (created.isEmpty() && System.currentTimeMillis() < deadline) {
+            session.send(headers, request);
+            Thread.sleep(50);
+        }
+        return await(created).text();
+    }
+
+    @Test
+    void testReplyOfALobbyCommandArrivesOnTheLobbyEventTopic() throws Exception {
+        String lobbyId = createLobby();
+        BlockingQueue<Frame> batches = subscribe(session, LobbyEventBatcher.TOPIC + lobbyId);
+        BlockingQueue<Frame> replies = subscribe(session, "/topic/rollDice/" + lobbyId);
+        byte[] request = ("{\"lobbyId\":\"" + lobbyId + "\",\"playerName\":\"Alice\"}").getBytes(StandardCharsets.UTF_8);
+        StompHeaders headers = new StompHeaders();
+        headers.setDestination("/app/rollDice/" + lobbyId);
+        headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+
+        // the simple broker sends no receipts, roll until the subscription is in place
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (batches.isEmpty() && System.currentTimeMillis() < deadline) {
+            session.send(headers, request);
+            Thread.sleep(50);
+        }
+
+        JsonNode batch = new ObjectMapper().readTree(await(batches).payload());
+        assertEquals(lobbyId, batch.get("lobbyId").asText());
+        JsonNode event = batch.get("events").get(0);
+        assertEquals("/topic/rollDice/" + lobbyId, event.get("destination").asText());
+        assertEquals(lobbyId, event.get("payload").get("lobbyId").asText());
+        // the reply only went out inside the batch
+        assertTrue(replies.isEmpty());
+    }
+}
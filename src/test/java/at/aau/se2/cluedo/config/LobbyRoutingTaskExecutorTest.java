@@ -0,0 +1,102 @@
+package at.aau.se2.cluedo.config;
+
+import at.aau.se2.cluedo.models.gameobjects.Player;
+import at.aau.se2.cluedo.models.gameobjects.PlayerColor;
+import at.aau.se2.cluedo.services.LobbyDispatcher;
+import at.aau.se2.cluedo.services.LobbyRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+class LobbyRoutingTaskExecutorTest {
+
+    private final LobbyDispatcher dispatcher = new LobbyDispatcher(1);
+    private final LobbyRegistry lobbyRegistry = new LobbyRegistry();
+    private final LobbyRoutingTaskExecutor executor = new LobbyRoutingTaskExecutor(dispatcher, lobbyRegistry,
+            "node-link"::equals);
+
+    @BeforeEach
+    void setUp() {
+        executor.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        dispatcher.shutdown();
+    }
+
+    private void send(String destination, CountDownLatch handled) {
+        send(destination, "client", handled);
+    }
+
+    private void send(String destination, String sessionId, CountDownLatch handled) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        accessor.setSessionId(sessionId);
+        MessageHandler handler = message -> handled.countDown();
+        executor.execute(new MessageHandlingRunnable() {
+            @Override
+            public Message<?> getMessage() {
+                return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+            }
+
+            @Override
+            public MessageHandler getMessageHandler() {
+                return handler;
+            }
+
+            @Override
+            public void run() {
+                handler.handleMessage(getMessage());
+            }
+        });
+    }
+
+    @Test
+    void testOnlyExistingLobbiesGetAMailbox() throws InterruptedException {
+        String lobbyId = lobbyRegistry.createLobby(new Player("Host", "Host", 0, 0, PlayerColor.RED)).getId();
+        CountDownLatch handled = new CountDownLatch(5);
+
+        send("/app/rollDice/" + lobbyId, handled);
+        send("/app/rollDice/made-up", handled);
+        send("/app/queryLobbies/" + lobbyId, handled);
+        send("/app/queryLobbies/client-1", handled);
+        send("/app/createLobby", handled);
+
+        assertTrue(handled.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(lobbyId), dispatcher.getMailboxIds());
+    }
+
+    @Test
+    void testHandoffIsOrderedOnTheLobbyItBrings() throws InterruptedException {
+        CountDownLatch handled = new CountDownLatch(1);
+
+        send("/app/handoff/moving-lobby", "node-link", handled);
+
+        assertTrue(handled.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("moving-lobby"), dispatcher.getMailboxIds());
+    }
+
+    @Test
+    void testHandoffsOfClientsGetNoMailbox() throws InterruptedException {
+        CountDownLatch handled = new CountDownLatch(2);
+
+        send("/app/handoff/made-up", handled);
+        send("/app/handoff/other", "unknown-node", handled);
+
+        assertTrue(handled.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(), dispatcher.getMailboxIds());
+    }
+}
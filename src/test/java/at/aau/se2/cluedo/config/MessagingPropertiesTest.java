@@ -0,0 +1,80 @@
+package at.aau.se2.cluedo.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class MessagingPropertiesTest {
+
+    @Test
+    void testDefaults() {
+        MessagingProperties properties = new MessagingProperties();
+
+        assertFalse(properties.isVirtualThreads());
+        assertEquals(Runtime.getRuntime().availableProcessors() * 2, properties.getInbound().getCorePoolSize());
+        assertEquals(Runtime.getRuntime().availableProcessors() * 2, properties.getOutbound().getCorePoolSize());
+        // broker channel sends on the publishing thread by default
+        assertEquals(0, properties.getBroker().getCorePoolSize());
+    }
+
+    @Test
+    void testApplyPlatformPool() {
+        MessagingProperties.Pool pool = new MessagingProperties.Pool();
+        pool.setCorePoolSize(3);
+        pool.setMaxPoolSize(5);
+        pool.setQueueCapacity(100);
+
+        ThreadPoolTaskExecutor executor = pool.applyTo(new ThreadPoolTaskExecutor(), "test-", null);
+        executor.initialize();
+
+        assertEquals(3, executor.getCorePoolSize());
+        assertEquals(5, executor.getMaxPoolSize());
+        assertEquals(100, executor.getQueueCapacity());
+        assertTrue(executor.newThread(() -> { }).getName().startsWith("test-"));
+        executor.shutdown();
+    }
+
+    @Test
+    void testApplyThreadFactoryHandsOffEveryTask() {
+        MessagingProperties.Pool pool = new MessagingProperties.Pool();
+        pool.setCorePoolSize(3);
+        ThreadFactory factory = r -> new Thread(r, "handoff");
+
+        ThreadPoolTaskExecutor executor = pool.applyTo(new ThreadPoolTaskExecutor(), "test-", factory);
+        executor.initialize();
+
+        assertEquals(0, executor.getCorePoolSize());
+        assertEquals(0, executor.getQueueCapacity());
+        assertEquals(Integer.MAX_VALUE, executor.getMaxPoolSize());
+        executor.shutdown();
+    }
+
+    @Test
+    void testVirtualThreadFactoryMatchesRuntime() {
+        ThreadFactory factory = VirtualThreads.factory("test-");
+
+        assertEquals(Runtime.version().feature() >= 21, factory != null);
+    }
+
+    @Test
+    void testApplyRelay() {
+        MessagingProperties.Relay relay = new MessagingProperties().getRelay();
+        assertFalse(relay.isEnabled());
+        relay.setHost("broker");
+        relay.setPort(61614);
+        StompBrokerRelayRegistration registration = mock(StompBrokerRelayRegistration.class, RETURNS_SELF);
+
+        relay.applyTo(registration);
+
+        verify(registration).setRelayHost("broker");
+        verify(registration).setRelayPort(61614);
+        verify(registration).setSystemLogin("guest");
+        verify(registration, never()).setVirtualHost(any());
+    }
+}
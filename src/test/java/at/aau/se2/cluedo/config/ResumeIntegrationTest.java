@@ -0,0 +1,141 @@
+package at.aau.se2.cluedo.config;
+
+import at.aau.se2.cluedo.CluedoApplication;
+import at.aau.se2.cluedo.config.StompTestSupport.Frame;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+
+import static at.aau.se2.cluedo.config.StompTestSupport.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResumeIntegrationTest {
+
+    private ConfigurableApplicationContext server;
+    private WebSocketStompClient stompClient;
+    private String url;
+    private final List<StompSession> sessions = new ArrayList<>();
+    // only commands of existing lobbies run on the mailbox the resume is ordered on
+    private String lobbyId;
+    private String topic;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = SpringApplication.run(CluedoApplication.class, "--server.port=0");
+        url = url(server);
+        stompClient = stompClient();
+        lobbyId = createLobby(connect());
+        topic = "/topic/rollDice/" + lobbyId;
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessions.stream().filter(StompSession::isConnected).forEach(StompSession::disconnect);
+        server.close();
+    }
+
+    private StompSession connect() throws Exception {
+        StompSession session = StompTestSupport.connect(stompClient, url);
+        sessions.add(session);
+        return session;
+    }
+
+    private static BlockingQueue<Frame> subscribe(StompSession session, String destination, String resumeFrom) {
+        StompHeaders headers = new StompHeaders();
+        headers.setDestination(destination);
+        if (resumeFrom != null) {
+            headers.add(ResumeInterceptor.RESUME_HEADER, resumeFrom);
+        }
+        return StompTestSupport.subscribe(session, headers);
+    }
+
+    private String createLobby(StompSession session) throws InterruptedException {
+        BlockingQueue<Frame> created = subscribe(session, "/topic/lobbyCreated", null);
+        awaitSubscribers(server, "/topic/lobbyCreated", 1);
+        StompHeaders headers = new StompHeaders();
+        headers.setDestination("/app/createLobby");
+        headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        byte[] request = "{\"player\":{\"name\":\"Alice\",\"character\":\"Alice\",\"color\":\"RED\"}}"
+                .getBytes(StandardCharsets.UTF_8);
+        session.send(headers, request);
+        return await(created).text();
+    }
+
+    private static long seq(Frame frame) {
+        return Long.parseLong(frame.headers().getFirst(ResumeInterceptor.SEQ_HEADER));
+    }
+
+    private BlockingQueue<Frame> subscribe(StompSession session, String resumeFrom) {
+        return subscribe(session, topic, resumeFrom);
+    }
+
+    private void roll(StompSession session) {
+        StompHeaders headers = new StompHeaders();
+        headers.setDestination("/app/rollDice/" + lobbyId);
+        headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        session.send(headers, "{\"playerName\":\"Alice\"}".getBytes(StandardCharsets.UTF_8));
+    }
+
+    // rolls once the subscription is in place and returns the number of the broadcast
+    private long rollOnceSubscribed(StompSession session, BlockingQueue<Frame> inbox, int subscribers)
+            throws InterruptedException {
+        awaitSubscribers(server, topic, subscribers);
+        roll(session);
+        return seq(await(inbox));
+    }
+
+    @Test
+    void testReconnectingClientGetsWhatItMissed() throws Exception {
+        StompSession dropped = connect();
+        long lastSeen = rollOnceSubscribed(dropped, subscribe(dropped, null), 1);
+        dropped.disconnect();
+        awaitSubscribers(server, topic, 0);
+
+        StompSession other = connect();
+        BlockingQueue<Frame> otherInbox = subscribe(other, null);
+        awaitSubscribers(server, topic, 1);
+        // two broadcasts the dropped client misses, the outbound channel may deliver them in any order
+        roll(other);
+        roll(other);
+        long newest = Math.max(seq(await(otherInbox)), seq(await(otherInbox)));
+        assertEquals(lastSeen + 2, newest);
+
+        StompSession resumed = connect();
+        BlockingQueue<Frame> inbox = subscribe(resumed, Long.toString(lastSeen));
+        long expected = lastSeen;
+        while (expected < newest) {
+            Frame frame = await(inbox);
+            assertEquals("true", frame.headers().getFirst(ResumeInterceptor.REPLAY_HEADER));
+            assertEquals(++expected, seq(frame));
+            assertEquals(lobbyId, new ObjectMapper().readTree(frame.payload()).get("lobbyId").asText());
+        }
+    }
+
+    @Test
+    void testResumeFromUnknownNumberGetsSnapshot() throws Exception {
+        StompSession session = connect();
+        long newest = rollOnceSubscribed(session, subscribe(session, null), 1);
+
+        BlockingQueue<Frame> inbox = subscribe(session, Long.toString(newest + 1000));
+        Frame frame = await(inbox);
+
+        assertEquals("true", frame.headers().getFirst(ResumeInterceptor.SNAPSHOT_HEADER));
+        JsonNode snapshot = new ObjectMapper().readTree(frame.payload());
+        assertEquals(lobbyId, snapshot.get("lobbyId").asText());
+        assertEquals(newest, snapshot.get("seq").asLong());
+        assertTrue(snapshot.get("game").isNull());
+    }
+}
@@ -0,0 +1,169 @@
+package at.aau.se2.cluedo.config;
+
+import at.aau.se2.cluedo.dto.GameDataResponse;
+import at.aau.se2.cluedo.services.LobbyDispatcher;
+import at.aau.se2.cluedo.services.cluster.ShardRouter;
+import at.aau.se2.cluedo.services.events.LobbyEventLog;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ResumeInterceptorTest {
+
+    private final LobbyDispatcher dispatcher = new LobbyDispatcher(2);
+    private final LobbyEventLog eventLog = new LobbyEventLog(4, Long.MAX_VALUE);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Message<?>> toClients = new CopyOnWriteArrayList<>();
+    private final MessageChannel brokerChannel = mock(MessageChannel.class);
+    private final MessageHandler broker = mock(SimpleBrokerMessageHandler.class);
+    private final ResumeInterceptor interceptor = new ResumeInterceptor(eventLog, dispatcher,
+            lobbyId -> new GameDataResponse(lobbyId, new ArrayList<>(), null, 7), new ObjectMapper(),
+            () -> (message, timeout) -> toClients.add(message), meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    private Message<?> broadcast(String destination, String payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        return interceptor.preSend(MessageBuilder.createMessage(payload.getBytes(StandardCharsets.UTF_8),
+                accessor.getMessageHeaders()), brokerChannel);
+    }
+
+    private void subscribe(String destination, String resumeFrom) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setSessionId("s1");
+        accessor.setSubscriptionId("sub-1");
+        accessor.setDestination(destination);
+        if (resumeFrom != null) {
+            accessor.setNativeHeader(ResumeInterceptor.RESUME_HEADER, resumeFrom);
+        }
+        interceptor.afterMessageHandled(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()),
+                mock(MessageChannel.class), broker, null);
+        // the resume runs on the lobby's mailbox
+        dispatcher.run("l1", () -> { });
+    }
+
+    private static String header(Message<?> message, String name) {
+        return SimpMessageHeaderAccessor.getFirstNativeHeader(name, message.getHeaders());
+    }
+
+    @Test
+    void testNumbersLobbyBroadcasts() {
+        Message<?> first = broadcast("/topic/currentTurn/l1", "{}");
+        Message<?> second = broadcast("/topic/resultSuggestion/l1/player", "{}");
+        Message<?> global = broadcast("/topic/lobbyDirectory", "{}");
+
+        assertEquals("1", header(first, ResumeInterceptor.SEQ_HEADER));
+        assertEquals("2", header(second, ResumeInterceptor.SEQ_HEADER));
+        assertNull(header(global, ResumeInterceptor.SEQ_HEADER));
+        assertEquals(2, eventLog.getLastSeq("l1"));
+    }
+
+    @Test
+    void testSkipsHeldAndNumberedBroadcasts() {
+        Message<?> numbered = broadcast("/topic/currentTurn/l1", "{}");
+        interceptor.preSend(numbered, brokerChannel);
+        interceptor.preSend(MessageBuilder.fromMessage(numbered).setHeader(LobbyEventBatcher.HELD_HEADER, true).build(),
+                brokerChannel);
+
+        assertEquals(1, eventLog.getLastSeq("l1"));
+    }
+
+    @Test
+    void testSkipsBroadcastsOfOtherNodes() {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination("/topic/currentTurn/l1");
+        accessor.setNativeHeader(ShardRouter.ORIGIN_HEADER, "b");
+        Message<?> republished = interceptor.preSend(MessageBuilder.createMessage("{}".getBytes(StandardCharsets.UTF_8),
+                accessor.getMessageHeaders()), brokerChannel);
+
+        assertNull(header(republished, ResumeInterceptor.SEQ_HEADER));
+        assertEquals(0, eventLog.getLastSeq("l1"));
+    }
+
+    @Test
+    void testReplaysMissedBroadcastsOfTheDestination() {
+        broadcast("/topic/currentTurn/l1", "{\"n\":1}");
+        broadcast("/topic/diceRolled/l1", "{\"n\":2}");
+        broadcast("/topic/currentTurn/l1", "{\"n\":3}");
+
+        subscribe("/topic/currentTurn/l1", "1");
+
+        assertEquals(1, toClients.size());
+        Message<?> replayed = toClients.get(0);
+        assertEquals("{\"n\":3}", new String((byte[]) replayed.getPayload(), StandardCharsets.UTF_8));
+        assertEquals("3", header(replayed, ResumeInterceptor.SEQ_HEADER));
+        assertEquals("true", header(replayed, ResumeInterceptor.REPLAY_HEADER));
+        assertEquals("s1", SimpMessageHeaderAccessor.getSessionId(replayed.getHeaders()));
+        assertEquals("sub-1", SimpMessageHeaderAccessor.getSubscriptionId(replayed.getHeaders()));
+        assertEquals(1.0, meterRegistry.counter("cluedo.resume.replayed").count());
+    }
+
+    @Test
+    void testSendsSnapshotWhenTooMuchWasMissed() throws Exception {
+        for (int i = 0; i < 6; i++) {
+            broadcast("/topic/currentTurn/l1", "{}");
+        }
+
+        subscribe("/topic/currentTurn/l1", "1");
+
+        assertEquals(1, toClients.size());
+        Message<?> snapshot = toClients.get(0);
+        assertEquals("true", header(snapshot, ResumeInterceptor.SNAPSHOT_HEADER));
+        assertEquals("6", header(snapshot, ResumeInterceptor.SEQ_HEADER));
+        JsonNode json = new ObjectMapper().readTree((byte[]) snapshot.getPayload());
+        assertEquals(6, json.get("seq").asLong());
+        assertEquals(7, json.get("game").get("version").asLong());
+        assertEquals(1.0, meterRegistry.counter("cluedo.resume.snapshots").count());
+    }
+
+    @Test
+    void testResumeOfUnknownLobbyCreatesNoMailbox() {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setSessionId("s1");
+        accessor.setSubscriptionId("sub-1");
+        accessor.setDestination("/topic/currentTurn/unknown");
+        accessor.setNativeHeader(ResumeInterceptor.RESUME_HEADER, "3");
+        interceptor.afterMessageHandled(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()),
+                mock(MessageChannel.class), broker, null);
+
+        assertEquals(0, dispatcher.getMailboxCount());
+        assertEquals(1, toClients.size());
+        assertEquals("true", header(toClients.get(0), ResumeInterceptor.SNAPSHOT_HEADER));
+    }
+
+    @Test
+    void testPlainSubscriptionsGetNothing() {
+        broadcast("/topic/currentTurn/l1", "{}");
+
+        subscribe("/topic/currentTurn/l1", null);
+        subscribe("/topic/currentTurn/l1", "not a number");
+        subscribe("/topic/currentTurn/l1", "1");
+
+        assertTrue(toClients.isEmpty());
+    }
+}
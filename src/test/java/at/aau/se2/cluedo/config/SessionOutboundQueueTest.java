@@ -0,0 +1,180 @@
+package at.aau.se2.cluedo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SessionOutboundQueueTest {
+
+    private final Deque<Runnable> tasks = new ArrayDeque<>();
+    private MeterRegistry registry;
+    private MessagingProperties.SessionQueue properties;
+    private WebSocketSession delegate;
+    private SessionOutboundQueues queues;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        properties = new MessagingProperties.SessionQueue();
+        delegate = mock(WebSocketSession.class);
+        when(delegate.getId()).thenReturn("session-1");
+        queues = new SessionOutboundQueues(properties, new ThreadPoolTaskExecutor(), registry);
+    }
+
+    private SessionOutboundQueue queue() {
+        return new SessionOutboundQueue(delegate, tasks::add, queues, properties);
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.poll().run();
+        }
+    }
+
+    private static TextMessage frame(String destination, String subscription, String body) {
+        return new TextMessage("MESSAGE\ndestination:" + destination + "\ncontent-type:application/json\nsubscription:"
+                + subscription + "\nmessage-id:1\ncontent-length:" + body.length() + "\n\n" + body + "\u0000");
+    }
+
+    private List<String> sentBodies() throws IOException {
+        ArgumentCaptor<WebSocketMessage<?>> sent = ArgumentCaptor.forClass(WebSocketMessage.class);
+        verify(delegate, atLeast(0)).sendMessage(sent.capture());
+        return sent.getAllValues().stream()
+                .map(message -> ((TextMessage) message).getPayload())
+                .map(frame -> frame.substring(frame.indexOf("\n\n") + 2, frame.length() - 1))
+                .toList();
+    }
+
+    @Test
+    void testCoalescesSnapshotsOfTheSameDestination() throws IOException {
+        SessionOutboundQueue queue = queue();
+
+        queue.sendMessage(frame("/topic/gameData/l1", "0", "state-1"));
+        queue.sendMessage(frame("/topic/diceRolled/l1", "1", "dice"));
+        queue.sendMessage(frame("/topic/gameData/l1", "0", "state-2"));
+        queue.sendMessage(frame("/topic/gameData/l2", "2", "other"));
+        assertEquals(3, queue.getQueuedMessages());
+        assertEquals(1, tasks.size());
+
+        runTasks();
+
+        // the newer snapshot takes the place after the events queued before it
+        assertEquals(List.of("dice", "state-2", "other"), sentBodies());
+        assertEquals(0, queue.getQueuedMessages());
+        assertEquals(0, queue.getQueuedBytes());
+        assertEquals(1, registry.counter("cluedo.session.queue.coalesced").count());
+    }
+
+    @Test
+    void testKeepsEveryEventAndSubscription() throws IOException {
+        SessionOutboundQueue queue = queue();
+
+        queue.sendMessage(frame("/topic/diceRolled/l1", "1", "a"));
+        queue.sendMessage(frame("/topic/diceRolled/l1", "1", "b"));
+        queue.sendMessage(frame("/topic/gameData/l1", "0", "x"));
+        queue.sendMessage(frame("/topic/gameData/l1", "3", "y"));
+        runTasks();
+
+        assertEquals(List.of("a", "b", "x", "y"), sentBodies());
+    }
+
+    @Test
+    void testCoalescesBinaryFrames() throws IOException {
+        SessionOutboundQueue queue = queue();
+        byte[] headers = "MESSAGE\ndestination:/topic/gameData/l1\nsubscription:0\n\n".getBytes(StandardCharsets.UTF_8);
+        byte[] frame = Arrays.copyOf(headers, headers.length + 3);
+        frame[headers.length] = 2;
+
+        queue.sendMessage(new BinaryMessage(frame));
+        queue.sendMessage(new BinaryMessage(frame));
+
+        assertEquals(1, queue.getQueuedMessages());
+        assertEquals(1, registry.counter("cluedo.session.queue.coalesced").count());
+    }
+
+    @Test
+    void testClosesSessionOnOverflow() throws IOException {
+        properties.setMaxMessages(2);
+        SessionOutboundQueue queue = queue();
+
+        queue.sendMessage(frame("/topic/diceRolled/l1", "1", "a"));
+        queue.sendMessage(frame("/topic/diceRolled/l1", "1", "b"));
+        queue.sendMessage(frame("/topic/diceRolled/l1", "1", "c"));
+        queue.sendMessage(frame("/topic/diceRolled/l1", "1", "d"));
+        runTasks();
+
+        verify(delegate).close(CloseStatus.SESSION_NOT_RELIABLE);
+        verify(delegate, never()).sendMessage(any());
+        assertEquals(0, queue.getQueuedMessages());
+        assertEquals(1, registry.counter("cluedo.session.queue.overflow", "action", "close").count());
+    }
+
+    @Test
+    void testDropsOldestOnOverflow() throws IOException {
+        properties.setOverflow(MessagingProperties.SessionQueue.Overflow.DROP_OLDEST);
+        properties.setMaxBytes(frame("/topic/diceRolled/l1", "1", "a").getPayloadLength() * 2L);
+        SessionOutboundQueue queue = queue();
+
+        queue.sendMessage(frame("/topic/diceRolled/l1", "1", "a"));
+        queue.sendMessage(frame("/topic/diceRolled/l1", "1", "b"));
+        queue.sendMessage(frame("/topic/diceRolled/l1", "1", "c"));
+        runTasks();
+
+        assertEquals(List.of("b", "c"), sentBodies());
+        verify(delegate, never()).close(any());
+        assertEquals(1, registry.counter("cluedo.session.queue.overflow", "action", "drop").count());
+    }
+
+    @Test
+    void testCloseWaitsForQueuedFrames() throws IOException {
+        SessionOutboundQueue queue = queue();
+
+        queue.sendMessage(new TextMessage("ERROR\nmessage:failed\n\n\u0000"));
+        queue.close(CloseStatus.PROTOCOL_ERROR);
+        verify(delegate, never()).close(any());
+
+        runTasks();
+
+        verify(delegate).sendMessage(any());
+        verify(delegate).close(CloseStatus.PROTOCOL_ERROR);
+    }
+
+    @Test
+    void testTracksSessionsOfDecoratedHandler() throws Exception {
+        WebSocketHandler handler = mock(WebSocketHandler.class);
+        WebSocketHandler decorated = queues.decorate(handler);
+
+        decorated.afterConnectionEstablished(delegate);
+
+        ArgumentCaptor<WebSocketSession> session = ArgumentCaptor.forClass(WebSocketSession.class);
+        verify(handler).afterConnectionEstablished(session.capture());
+        assertInstanceOf(SessionOutboundQueue.class, session.getValue());
+        assertEquals(1, queues.getSessionCount());
+        assertEquals(0, registry.get("cluedo.session.queue.messages").gauge().value());
+
+        decorated.afterConnectionClosed(delegate, CloseStatus.NORMAL);
+
+        assertEquals(0, queues.getSessionCount());
+        verify(handler).afterConnectionClosed(delegate, CloseStatus.NORMAL);
+    }
+}
@@ -0,0 +1,71 @@
+package at.aau.se2.cluedo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.annotation.support.SimpAnnotationMethodMessageHandler;
+import org.springframework.messaging.support.MessageBuilder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class StompMetricsInterceptorTest {
+
+    private MeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void testDestinationTagDropsIds() {
+        assertEquals("/app/rollDice", StompMetricsInterceptor.destinationTag(message("/app/rollDice/lobby-1")));
+        assertEquals("/app/processSuggestion",
+                StompMetricsInterceptor.destinationTag(message("/app/processSuggestion/lobby-1/player-2")));
+        assertEquals("/app/createLobby", StompMetricsInterceptor.destinationTag(message("/app/createLobby")));
+        assertEquals("none", StompMetricsInterceptor.destinationTag(message(null)));
+    }
+
+    @Test
+    void testCountsMessagesAndPayload() {
+        StompMetricsInterceptor interceptor = new StompMetricsInterceptor(registry, StompMetricsInterceptor.BROKER);
+
+        interceptor.preSend(message("/topic/gameDelta/lobby-1"), null);
+        interceptor.preSend(message("/topic/gameDelta/lobby-2"), null);
+
+        assertEquals(2, registry.get("cluedo.stomp.messages")
+                .tags("channel", "broker", "destination", "/topic/gameDelta").counter().count());
+        assertEquals(8, registry.get("cluedo.stomp.payload")
+                .tags("destination", "/topic/gameDelta").summary().totalAmount());
+    }
+
+    @Test
+    void testTimesOnlyMessageMappingHandlerOnInbound() {
+        StompMetricsInterceptor interceptor = new StompMetricsInterceptor(registry, StompMetricsInterceptor.INBOUND);
+        Message<?> message = message("/app/rollDice/lobby-1");
+        MessageHandler annotationHandler = mock(SimpAnnotationMethodMessageHandler.class);
+        MessageHandler brokerHandler = mock(MessageHandler.class);
+
+        interceptor.beforeHandle(message, null, brokerHandler);
+        interceptor.afterMessageHandled(message, null, brokerHandler, null);
+        interceptor.beforeHandle(message, null, annotationHandler);
+        interceptor.afterMessageHandled(message, null, annotationHandler, new IllegalStateException());
+
+        Timer timer = registry.get("cluedo.stomp.handle").tags("destination", "/app/rollDice").timer();
+        assertEquals(1, timer.count());
+        assertEquals("error", timer.getId().getTag("outcome"));
+    }
+
+    private static Message<byte[]> message(String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage("data".getBytes(), accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,164 @@
+package at.aau.se2.cluedo.config;
+
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.converter.CompositeMessageConverter;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.broker.SubscriptionRegistry;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Helpers of the tests that talk STOMP to a running server. Frames are received as raw bytes
+ * whatever their content type; byte arrays are sent as they are, other payloads as JSON.
+ */
+public final class StompTestSupport {
+
+    public static final long TIMEOUT_MS = 5000;
+
+    /**
+     * A received frame
+     * @param headers
+     * @param payload
+     */
+    public record Frame(StompHeaders headers, byte[] payload) {
+        public String text() {
+            return new String(payload, StandardCharsets.UTF_8);
+        }
+    }
+
+    private StompTestSupport() {
+    }
+
+    public static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * @param server a server started on a random port
+     * @return the url of its STOMP endpoint
+     */
+    public static String url(ConfigurableApplicationContext server) {
+        return "ws://localhost:" + ((WebServerApplicationContext) server).getWebServer().getPort() + "/ws";
+    }
+
+    public static WebSocketStompClient stompClient() {
+        WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        ByteArrayMessageConverter raw = new ByteArrayMessageConverter() {
+            @Override
+            protected boolean supportsMimeType(MessageHeaders headers) {
+                return true;
+            }
+        };
+        stompClient.setMessageConverter(new CompositeMessageConverter(List.of(raw, new MappingJackson2MessageConverter())));
+        return stompClient;
+    }
+
+    public static StompSession connect(WebSocketStompClient stompClient, String url) throws Exception {
+        return connect(stompClient, url, new StompHeaders());
+    }
+
+    public static StompSession connect(WebSocketStompClient stompClient, String url, StompHeaders connectHeaders)
+            throws Exception {
+        return stompClient.connectAsync(url, new WebSocketHttpHeaders(), connectHeaders, new StompSessionHandlerAdapter() {
+        }).get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public static BlockingQueue<Frame> subscribe(StompSession session, String destination) {
+        StompHeaders headers = new StompHeaders();
+        headers.setDestination(destination);
+        return subscribe(session, headers);
+    }
+
+    public static BlockingQueue<Frame> subscribe(StompSession session, StompHeaders headers) {
+        BlockingQueue<Frame> inbox = new LinkedBlockingQueue<>();
+        session.subscribe(headers, collectInto(inbox));
+        return inbox;
+    }
+
+    /**
+     * @param inbox
+     * @return a handler that adds the frames it gets to the inbox
+     */
+    public static StompFrameHandler collectInto(BlockingQueue<Frame> inbox) {
+        return new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return byte[].class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                inbox.add(new Frame(headers, (byte[]) payload));
+            }
+        };
+    }
+
+    /**
+     * @param inbox
+     * @return the next frame of the inbox, fails if none comes in time
+     */
+    public static Frame await(BlockingQueue<Frame> inbox) throws InterruptedException {
+        Frame frame = inbox.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        assertNotNull(frame, "no message in time");
+        return frame;
+    }
+
+    /**
+     * The simple broker sends no receipts; waiting until it has the subscriptions lets a test send
+     * exactly the broadcasts it expects instead of resending until something arrives.
+     * @param server a server with the simple broker
+     * @param destination
+     * @param sessions the number of sessions that have to be subscribed to the destination
+     */
+    public static void awaitSubscribers(ConfigurableApplicationContext server, String destination, int sessions)
+            throws InterruptedException {
+        SubscriptionRegistry registry = server.getBean(SimpleBrokerMessageHandler.class).getSubscriptionRegistry();
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        Message<byte[]> broadcast = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (registry.findSubscriptions(broadcast).size() != sessions && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(sessions, registry.findSubscriptions(broadcast).size(), "sessions subscribed to " + destination);
+    }
+
+    /**
+     * @param name
+     * @param color
+     * @return the body of a lobby request of a new player
+     */
+    public static Map<String, Object> player(String name, String color) {
+        return Map.of("player", Map.of("name", name, "character", name,
+                "playerID", UUID.randomUUID().toString(), "color", color));
+    }
+}
@@ -0,0 +1,76 @@
+package at.aau.se2.cluedo.config;
+
+import at.aau.se2.cluedo.CluedoApplication;
+import at.aau.se2.cluedo.config.StompTestSupport.Frame;
+import at.aau.se2.cluedo.dto.DiceResult;
+import at.aau.se2.cluedo.dto.binary.BinaryCodecs;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+
+import java.util.concurrent.BlockingQueue;
+
+import static at.aau.se2.cluedo.config.StompTestSupport.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class WireFormatIntegrationTest {
+
+    private ConfigurableApplicationContext server;
+    private String url;
+
+    @BeforeEach
+    void setUp() {
+        server = SpringApplication.run(CluedoApplication.class, "--server.port=0");
+        url = url(server);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    private StompSession connect(String accept) throws Exception {
+        StompHeaders connectHeaders = new StompHeaders();
+        if (accept != null) {
+            connectHeaders.add(WireFormat.ACCEPT_HEADER, accept);
+        }
+        return StompTestSupport.connect(stompClient(), url, connectHeaders);
+    }
+
+    @Test
+    void testBroadcastReachesEachClientInItsFormat() throws Exception {
+        StompSession jsonClient = connect(null);
+        StompSession binaryClient = connect(WireFormat.BINARY.toString());
+        BlockingQueue<Frame> jsonInbox = subscribe(jsonClient, "/topic/diceResult");
+        BlockingQueue<Frame> binaryInbox = subscribe(binaryClient, "/topic/diceResult");
+
+        // the simple broker sends no receipts, roll until both subscriptions are in place
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while ((jsonInbox.isEmpty() || binaryInbox.isEmpty()) && System.currentTimeMillis() < deadline) {
+            jsonClient.send("/app/rollDice", new byte[0]);
+            Thread.sleep(50);
+        }
+        jsonInbox.clear();
+        binaryInbox.clear();
+        jsonClient.send("/app/rollDice", new byte[0]);
+
+        Frame json = await(jsonInbox);
+        Frame binary = await(binaryInbox);
+
+        assertEquals("application/json", json.headers().getContentType().toString());
+        JsonNode fromJson = new ObjectMapper().readTree(json.payload());
+        assertTrue(WireFormat.isBinary(binary.headers().getContentType()));
+        DiceResult fromBinary = BinaryCodecs.standard().decode(binary.payload(), DiceResult.class);
+        assertEquals(fromJson.get("diceOne").asInt(), fromBinary.getDiceOne());
+        assertEquals(fromJson.get("diceTwo").asInt(), fromBinary.getDiceTwo());
+
+        jsonClient.disconnect();
+        binaryClient.disconnect();
+    }
+}
@@ -0,0 +1,130 @@
+package at.aau.se2.cluedo.config;
+
+import at.aau.se2.cluedo.dto.DiceResult;
+import at.aau.se2.cluedo.dto.TurnActionRequest;
+import at.aau.se2.cluedo.dto.binary.BinaryCodecs;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class WireFormatTest {
+
+    private final WireFormat wireFormat = new WireFormat();
+    private final MessageChannel channel = mock(MessageChannel.class);
+    private final BinaryMessageConverter converter = new BinaryMessageConverter(BinaryCodecs.standard(), wireFormat,
+            new MappingJackson2MessageConverter());
+
+    private void connect(String sessionId, String accept) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.setSessionId(sessionId);
+        if (accept != null) {
+            accessor.setNativeHeader(WireFormat.ACCEPT_HEADER, accept);
+        }
+        wireFormat.preSend(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()), channel);
+    }
+
+    private static Message<?> toSession(Message<?> broadcast, String sessionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId("0");
+        accessor.copyHeadersIfAbsent(broadcast.getHeaders());
+        return MessageBuilder.createMessage(broadcast.getPayload(), accessor.getMessageHeaders());
+    }
+
+    private static MessageHeaders sendHeaders() {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setLeaveMutable(true);
+        return accessor.getMessageHeaders();
+    }
+
+    @Test
+    void testNegotiation() {
+        assertTrue(WireFormat.isBinary(MimeType.valueOf("application/octet-stream;format=cluedo")));
+        assertFalse(WireFormat.isBinary(MimeTypeUtils.APPLICATION_OCTET_STREAM));
+        assertFalse(WireFormat.isBinary(MimeTypeUtils.APPLICATION_JSON));
+
+        connect("json", null);
+        connect("other", "application/json, not a type");
+        assertFalse(wireFormat.hasBinarySessions());
+
+        connect("binary", "application/json, application/octet-stream;format=cluedo");
+        assertTrue(wireFormat.isBinarySession("binary"));
+        assertFalse(wireFormat.isBinarySession("json"));
+
+        StompHeaderAccessor disconnect = StompHeaderAccessor.create(StompCommand.DISCONNECT);
+        disconnect.setSessionId("binary");
+        wireFormat.preSend(MessageBuilder.createMessage(new byte[0], disconnect.getMessageHeaders()), channel);
+        assertFalse(wireFormat.hasBinarySessions());
+    }
+
+    @Test
+    void testJsonOnlyWithoutBinarySessions() {
+        Message<?> message = converter.toMessage(new DiceResult(2, 5), sendHeaders());
+
+        assertEquals("{\"diceOne\":2,\"diceTwo\":5}", new String((byte[]) message.getPayload(), StandardCharsets.UTF_8));
+        assertNull(message.getHeaders().get(WireFormat.BINARY_PAYLOAD_HEADER));
+        assertNull(converter.toMessage("text", sendHeaders()));
+    }
+
+    @Test
+    void testEachSessionGetsItsFormat() {
+        connect("json", null);
+        connect("binary", WireFormat.BINARY.toString());
+        Message<?> broadcast = converter.toMessage(new DiceResult(2, 5), sendHeaders());
+
+        Message<?> json = wireFormat.preSend(toSession(broadcast, "json"), channel);
+        Message<?> binary = wireFormat.preSend(toSession(broadcast, "binary"), channel);
+
+        assertSame(broadcast.getPayload(), json.getPayload());
+        assertTrue(MimeTypeUtils.APPLICATION_JSON.equalsTypeAndSubtype(
+                (MimeType) json.getHeaders().get(MessageHeaders.CONTENT_TYPE)));
+        assertTrue(WireFormat.isBinary((MimeType) binary.getHeaders().get(MessageHeaders.CONTENT_TYPE)));
+        DiceResult dice = BinaryCodecs.standard().decode((byte[]) binary.getPayload(), DiceResult.class);
+        assertEquals(2, dice.getDiceOne());
+        assertEquals(5, dice.getDiceTwo());
+        assertNull(binary.getHeaders().get(WireFormat.BINARY_PAYLOAD_HEADER));
+        assertEquals("binary", SimpMessageHeaderAccessor.getSessionId(binary.getHeaders()));
+    }
+
+    @Test
+    void testDecodesBinaryFromClients() {
+        TurnActionRequest request = new TurnActionRequest("Scarlet", "DICE_ROLL", 7, null, null, null);
+        Message<byte[]> message = MessageBuilder.withPayload(BinaryCodecs.standard().encode(request))
+                .setHeader(MessageHeaders.CONTENT_TYPE, WireFormat.BINARY)
+                .build();
+        Message<byte[]> json = MessageBuilder.withPayload("{}".getBytes(StandardCharsets.UTF_8))
+                .setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON)
+                .build();
+
+        assertEquals(request, converter.fromMessage(message, TurnActionRequest.class));
+        assertNull(converter.fromMessage(json, TurnActionRequest.class));
+        assertNull(converter.fromMessage(message, String.class));
+        assertThrows(MessageConversionException.class, () -> converter.fromMessage(message, DiceResult.class));
+    }
+
+    @Test
+    void testEncodesBinaryWhenAskedFor() {
+        MessageHeaders headers = new MessageHeaders(Map.of(MessageHeaders.CONTENT_TYPE, WireFormat.BINARY));
+
+        Message<?> message = converter.toMessage(new DiceResult(1, 1), headers);
+
+        assertEquals(3, ((byte[]) message.getPayload()).length);
+        assertEquals(WireFormat.BINARY, message.getHeaders().get(MessageHeaders.CONTENT_TYPE));
+    }
+}
@@ -4,20 +4,23 @@ import at.aau.se2.cluedo.dto.CheatingReport;
 import at.aau.se2.cluedo.models.gamemanager.GameManager;
 import at.aau.se2.cluedo.models.gameobjects.Player;
 import at.aau.se2.cluedo.services.GameService;
+import at.aau.se2.cluedo.services.LobbyDispatcher;
+import at.aau.se2.cluedo.services.events.GameEvent;
+import at.aau.se2.cluedo.services.events.GameEventPublisher;
+import at.aau.se2.cluedo.services.journal.GameJournal;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.startsWith;
 
-import java.util.Map;
-
 import static org.mockito.Mockito.*;
 
 class CheatingControllerTest {
 
     private GameService gameService;
     private SimpMessagingTemplate messagingTemplate;
+    private LobbyDispatcher lobbyDispatcher;
     private CheatingController cheatingController;
     private GameManager mockGameManager;
     private Player accuserPlayer;
@@ -28,7 +31,9 @@ class CheatingControllerTest {
     void setUp() {
         gameService = mock(GameService.class);
         messagingTemplate = mock(SimpMessagingTemplate.class);
-        cheatingController = new CheatingController(gameService, messagingTemplate);
+        lobbyDispatcher = new LobbyDispatcher();
+        cheatingController = new CheatingController(gameService, new GameEventPublisher(messagingTemplate), lobbyDispatcher,
+                new GameJournal());
         mockGameManager = mock(GameManager.class);
         accuserPlayer = mock(Player.class);
         suspectPlayer = mock(Player.class);
@@ -38,6 +43,12 @@ class CheatingControllerTest {
         report.setSuspect("Suspect");
     }
 
+    // reports are applied on the lobby's mailbox, wait until it got there
+    private void report(CheatingReport report) {
+        cheatingController.handleCheatingReport(report);
+        lobbyDispatcher.run("2131230973", () -> { });
+    }
+
     @Test
     void testHandleCheatingReport_sendsMessageAndRecordsReport() {
         CheatingReport report = new CheatingReport();
@@ -62,17 +73,11 @@ class CheatingControllerTest {
 
         when(suspectPlayer.getSuggestionsInCurrentRoom()).thenReturn(2);
 
-        cheatingController.handleCheatingReport(report);
+        report(report);
 
         verify(messagingTemplate).convertAndSend(
                 ("/topic/cheating/2131230973"),
-                Map.of(
-                        "type", "CHEATING_REPORT",
-                        "suspect", "Colonel Mustard",
-                        "accuser", "Professor Plum",
-                        "valid", true,
-                        "reason", "SUCCESS"
-                )
+                new GameEvent.CheatingReported("Colonel Mustard", "Professor Plum", true, GameEvent.CheatingReported.Reason.SUCCESS)
         );
     }
 
@@ -81,7 +86,7 @@ class CheatingControllerTest {
     void testHandleCheatingReport_invalidReport_doesNothing() {
         CheatingReport report = new CheatingReport();
 
-        cheatingController.handleCheatingReport(report);
+        report(report);
 
         verifyNoInteractions(gameService);
         verifyNoInteractions(messagingTemplate);
@@ -96,7 +101,7 @@ class CheatingControllerTest {
 
         when(gameService.getGame("2131230973")).thenReturn(null);
 
-        cheatingController.handleCheatingReport(report);
+        report(report);
 
         verifyNoInteractions(messagingTemplate);
     }
@@ -121,7 +126,7 @@ class CheatingControllerTest {
         when(suspectPlayer.getSuggestionsInCurrentRoom()).thenReturn(2);
         when(mockGameManager.hasPlayerLeftRoom(suspectPlayer, "Kitchen")).thenReturn(false);
 
-        cheatingController.handleCheatingReport(report);
+        report(report);
 
         verify(mockGameManager).resetPlayer(argThat(player ->
                 player != null && "Suspect".equals(player.getName())
@@ -151,14 +156,14 @@ class CheatingControllerTest {
         when(mockGameManager.getCurrentRoom(suspectPlayer)).thenReturn("Kitchen");
         when(suspectPlayer.getSuggestionsInCurrentRoom()).thenReturn(1);
 
-        cheatingController.handleCheatingReport(report);
+        report(report);
 
         verify(mockGameManager).resetPlayer(accuserPlayer);
         verify(accuserPlayer).setCanReport(false);
 
         verify(messagingTemplate).convertAndSend(
                 "/topic/playerReset/2131230973",
-                Map.of("player", "Accuser", "x", 5, "y", 6)
+                new GameEvent.PlayerReset("Accuser", 5, 6)
         );
     }
 
@@ -179,25 +184,19 @@ class CheatingControllerTest {
         when(accuserPlayer.getY()).thenReturn(3);
         when(suspectPlayer.getName()).thenReturn("Suspect");
 
-        cheatingController.handleCheatingReport(report);
+        report(report);
 
         verify(mockGameManager).resetPlayer(accuserPlayer);
         verify(accuserPlayer).setCanReport(false);
 
         verify(messagingTemplate).convertAndSend(
                 "/topic/playerReset/2131230973",
-                Map.of("player", "Accuser", "x", 2, "y", 3)
+                new GameEvent.PlayerReset("Accuser", 2, 3)
         );
 
         verify(messagingTemplate).convertAndSend(
                 "/topic/cheating/2131230973",
-                Map.of(
-                        "type", "CHEATING_REPORT",
-                        "suspect", "Suspect",
-                        "accuser", "Accuser",
-                        "valid", false,
-                        "reason", "NOT_IN_SAME_ROOM"
-                )
+                new GameEvent.CheatingReported("Suspect", "Accuser", false, GameEvent.CheatingReported.Reason.NOT_IN_SAME_ROOM)
         );
     }
 
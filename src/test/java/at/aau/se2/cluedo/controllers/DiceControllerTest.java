@@ -1,6 +1,9 @@
 package at.aau.se2.cluedo.controllers;
 
 import at.aau.se2.cluedo.dto.DiceResult;
+import at.aau.se2.cluedo.services.GameService;
+import at.aau.se2.cluedo.services.RandomService;
+import at.aau.se2.cluedo.services.TurnService;
 import org.junit.jupiter.api.Test;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 
@@ -9,6 +12,7 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
 
 class DiceControllerTest {
 
@@ -42,7 +46,8 @@ class DiceControllerTest {
     @Test
     void testRollDice() {
         FakeSimpMessagingTemplate fakeTemplate = new FakeSimpMessagingTemplate();
-        DiceController controller = new DiceController(fakeTemplate);
+        DiceController controller = new DiceController(fakeTemplate, mock(TurnService.class), mock(GameService.class),
+                new RandomService(42L));
 
         controller.rollDice();
 
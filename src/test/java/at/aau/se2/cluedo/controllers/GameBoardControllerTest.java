@@ -0,0 +1,121 @@
+package at.aau.se2.cluedo.controllers;
+
+import at.aau.se2.cluedo.dto.GameDataResponse;
+import at.aau.se2.cluedo.dto.GameDeltaResponse;
+import at.aau.se2.cluedo.dto.PerformMoveRequest;
+import at.aau.se2.cluedo.dto.StartGameRequest;
+import at.aau.se2.cluedo.models.gamemanager.GameManager;
+import at.aau.se2.cluedo.models.gameobjects.Player;
+import at.aau.se2.cluedo.models.lobby.Lobby;
+import at.aau.se2.cluedo.services.GameService;
+import at.aau.se2.cluedo.services.LobbyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class GameBoardControllerTest {
+
+    private static final String LOBBY_ID = "test-lobby";
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private GameService gameService;
+
+    @Mock
+    private LobbyService lobbyService;
+
+    private GameBoardController controller;
+    private GameManager game;
+    private Player player;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        game = new GameManager(6);
+        game.setDiceRollS(6);
+        player = game.getPlayers().get(0);
+
+        controller = new GameBoardController(messagingTemplate);
+        ReflectionTestUtils.setField(controller, "gameService", gameService);
+        ReflectionTestUtils.setField(controller, "lobbyService", lobbyService);
+        when(gameService.getGame(LOBBY_ID)).thenReturn(game);
+        when(lobbyService.getLobby(LOBBY_ID)).thenReturn(new Lobby(LOBBY_ID, player));
+        doAnswer(invocation -> {
+            List<String> moves = invocation.getArgument(1);
+            game.performMovement(player, moves);
+            return null;
+        }).when(gameService).performMovement(any(Player.class), anyList(), eq(LOBBY_ID));
+    }
+
+    private PerformMoveRequest moveUp() {
+        return new PerformMoveRequest(player, new ArrayList<>(List.of("W")));
+    }
+
+    @Test
+    void testMovementSendsVersionedDeltas() {
+        controller.performMovement(LOBBY_ID, moveUp());
+        controller.performMovement(LOBBY_ID, moveUp());
+
+        ArgumentCaptor<GameDeltaResponse> deltas = ArgumentCaptor.forClass(GameDeltaResponse.class);
+        verify(messagingTemplate, times(2)).convertAndSend(eq("/topic/gameDelta/" + LOBBY_ID), deltas.capture());
+        verify(messagingTemplate, never()).convertAndSend(eq("/topic/performMovement/" + LOBBY_ID), any(Object.class));
+
+        assertEquals(1, deltas.getAllValues().get(0).getVersion());
+        GameDeltaResponse last = deltas.getAllValues().get(1);
+        assertEquals(2, last.getVersion());
+        assertEquals(player.getName(), last.getPlayerName());
+        assertEquals(player.getX(), last.getX());
+        assertEquals(player.getY(), last.getY());
+        verify(gameService, times(2)).performMovement(eq(player), anyList(), eq(LOBBY_ID));
+    }
+
+    @Test
+    void testRejectedMovementSendsNothing() {
+        controller.performMovement(LOBBY_ID, new PerformMoveRequest(player, new ArrayList<>(List.of("S"))));
+        when(gameService.getGame(LOBBY_ID)).thenReturn(null);
+        controller.performMovement(LOBBY_ID, moveUp());
+
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+        assertEquals(0, game.getStateVersion());
+    }
+
+    @Test
+    void testFullStateBroadcastCarriesVersion() {
+        ReflectionTestUtils.setField(controller, "fullStateBroadcast", true);
+
+        controller.performMovement(LOBBY_ID, moveUp());
+
+        ArgumentCaptor<GameDataResponse> full = ArgumentCaptor.forClass(GameDataResponse.class);
+        verify(messagingTemplate).convertAndSend(eq("/topic/performMovement/" + LOBBY_ID), full.capture());
+        assertEquals(1, full.getValue().getVersion());
+        assertEquals(1, controller.gameData(LOBBY_ID, new StartGameRequest()).getVersion());
+    }
+
+    @Test
+    void testBytesPerMove() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        byte[] full = mapper.writeValueAsBytes(controller.gameData(LOBBY_ID, new StartGameRequest()));
+        byte[] delta = mapper.writeValueAsBytes(new GameDeltaResponse(LOBBY_ID, 42, player.getName(),
+                player.getX(), player.getY(), player.getName()));
+
+        assertTrue(delta.length > 0);
+        assertTrue(delta.length * 20 < full.length, full.length + " vs " + delta.length);
+    }
+}
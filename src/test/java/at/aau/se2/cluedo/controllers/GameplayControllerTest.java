@@ -1,6 +1,7 @@
 package at.aau.se2.cluedo.controllers;
 
 import at.aau.se2.cluedo.dto.AccusationRequest;
+import at.aau.se2.cluedo.dto.SuggestionRequest;
 import at.aau.se2.cluedo.models.cards.BasicCard;
 import at.aau.se2.cluedo.models.cards.CardType;
 import at.aau.se2.cluedo.models.gameboard.GameBoard;
@@ -11,6 +12,7 @@ import at.aau.se2.cluedo.models.gameobjects.SecretFile;
 import at.aau.se2.cluedo.services.GameService;
 import at.aau.se2.cluedo.services.LobbyService;
 import at.aau.se2.cluedo.services.TurnService;
+import at.aau.se2.cluedo.services.journal.GameJournal;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -42,6 +44,9 @@ class GameplayControllerTest {
     @Mock
     private TurnService turnService;
 
+    @Mock
+    private GameJournal gameJournal;
+
     @InjectMocks
     private GameplayController gameplayController;
 
@@ -79,6 +84,18 @@ class GameplayControllerTest {
         verify(turnService, times(1)).processAccusation(lobbyId, testPlayer.getName(), suspectName, weaponName, roomName);
     }
 
+    @Test
+    void testRejectedSuggestionIsNotRecorded() {
+        SuggestionRequest request = new SuggestionRequest(testPlayer.getName(), testPlayer.getPlayerID().toString(),
+                "Colonel Mustard", "Knife", "Kitchen");
+        when(turnService.processSuggestion(lobbyId, request)).thenReturn(false);
+
+        gameplayController.makeSuggestion(lobbyId, request);
+
+        verify(gameManager, never()).recordSuggestion(any(), any(), any(), any());
+        verifyNoInteractions(gameJournal);
+    }
+
     @Test
     void testDisplayGameBoard() {
         // Arrange
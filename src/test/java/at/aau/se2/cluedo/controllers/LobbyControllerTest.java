@@ -3,16 +3,19 @@ package at.aau.se2.cluedo.controllers;
 import at.aau.se2.cluedo.dto.AccusationRequest;
 import at.aau.se2.cluedo.dto.ActiveLobbiesResponse;
 import at.aau.se2.cluedo.dto.GetActiveLobbiesRequest;
+import at.aau.se2.cluedo.models.gamemanager.GameManager;
 import at.aau.se2.cluedo.models.gameobjects.Player;
 import at.aau.se2.cluedo.models.gameobjects.PlayerColor;
 import at.aau.se2.cluedo.models.lobby.Lobby;
 import at.aau.se2.cluedo.services.GameService;
+import at.aau.se2.cluedo.services.LobbyDispatcher;
 import at.aau.se2.cluedo.services.LobbyService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
 import java.util.Arrays;
 import java.util.List;
@@ -29,6 +32,9 @@ class LobbyControllerTest {
     @Mock
     private GameService gameService;
 
+    @Spy
+    private LobbyDispatcher lobbyDispatcher = new LobbyDispatcher();
+
     @InjectMocks
     private LobbyController lobbyController;
 
@@ -77,7 +83,11 @@ class LobbyControllerTest {
 
         AccusationRequest request = new AccusationRequest("lobby-id-1", "Scarlett", "Study", "Candlestick", "Player1");
 
+        when(gameService.getGame("lobby-id-1")).thenReturn(mock(GameManager.class));
+
         lobbyController.accusation(request);
+        // applied on the lobby's mailbox
+        lobbyDispatcher.run("lobby-id-1", () -> { });
 
         verify(gameService, times(1)).processAccusation(request);
     }
@@ -0,0 +1,196 @@
+package at.aau.se2.cluedo.dto.binary;
+
+import at.aau.se2.cluedo.dto.DiceResult;
+import at.aau.se2.cluedo.dto.GameDataResponse;
+import at.aau.se2.cluedo.dto.GameDeltaResponse;
+import at.aau.se2.cluedo.dto.LobbyResponse;
+import at.aau.se2.cluedo.dto.TurnActionRequest;
+import at.aau.se2.cluedo.dto.TurnStateResponse;
+import at.aau.se2.cluedo.models.cards.BasicCard;
+import at.aau.se2.cluedo.models.cards.CardCatalog;
+import at.aau.se2.cluedo.models.cards.CardType;
+import at.aau.se2.cluedo.models.gameobjects.Player;
+import at.aau.se2.cluedo.models.gameobjects.PlayerColor;
+import at.aau.se2.cluedo.services.TurnService.TurnState;
+import at.aau.se2.cluedo.services.events.GameEvent;
+import at.aau.se2.cluedo.services.journal.GameSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryCodecsTest {
+
+    private final BinaryCodecs codecs = BinaryCodecs.standard();
+    private List<Player> players;
+
+    @BeforeEach
+    void setUp() {
+        Player scarlet = new Player("Scarlet", "Miss Scarlet", 7, 24, PlayerColor.RED);
+        Player mustard = new Player("Mustard", "Colonel Mustard", 0, 17, PlayerColor.YELLOW);
+        Player plum = new Player("Plüm", "Professor Plum", 23, 19, PlayerColor.PURPLE);
+        scarlet.addCard(CardCatalog.get(0));
+        scarlet.addCard(CardCatalog.get(20));
+        scarlet.addCard(new BasicCard("Poison", UUID.randomUUID(), CardType.WEAPON));
+        scarlet.move(8, 23);
+        scarlet.setCurrentPlayer(true);
+        scarlet.setCurrentRoom("Hall");
+        scarlet.setSuggestionsInCurrentRoom(1);
+        mustard.setActive(false);
+        mustard.setCanReport(false);
+        plum.setHasWon(true);
+        plum.setLastRoomName("Kitchen");
+        players = List.of(scarlet, mustard, plum);
+    }
+
+    private static void assertSamePlayers(List<Player> expected, List<Player> actual) {
+        assertEquals(expected.stream().map(GameSnapshot.PlayerState::of).toList(),
+                actual.stream().map(GameSnapshot.PlayerState::of).toList());
+    }
+
+    private <T> T roundTrip(T value) {
+        @SuppressWarnings("unchecked")
+        Class<T> type = (Class<T>) value.getClass();
+        return codecs.decode(codecs.encode(value), type);
+    }
+
+    @Test
+    void testTurnState() {
+        TurnStateResponse response = new TurnStateResponse("lobby-1", "Scarlet", -1, TurnState.PLAYERS_TURN_MOVE,
+                false, true, 9, "Scarlet rolled 9. Time to move!");
+
+        assertEquals(response, roundTrip(response));
+        assertEquals(new TurnStateResponse(), roundTrip(new TurnStateResponse()));
+    }
+
+    @Test
+    void testGameData() {
+        GameDataResponse response = roundTrip(new GameDataResponse("lobby-1", players, players.get(0), 42));
+
+        assertEquals("lobby-1", response.getLobbyId());
+        assertEquals(42, response.getVersion());
+        assertSamePlayers(players, response.getPlayers());
+        // the playing player is one of the players, not a copy
+        assertSame(response.getPlayers().get(0), response.getPlayingPlayer());
+        assertEquals(List.of(CardCatalog.get(0), CardCatalog.get(20)), response.getPlayers().get(0).getCards().subList(0, 2));
+        assertEquals(CardCatalog.get(0).getMask() | CardCatalog.get(20).getMask(), response.getPlayers().get(0).getCardMask());
+    }
+
+    @Test
+    void testGameDataWithPlayerOutsideOfList() {
+        Player outsider = new Player("Green", "Mr. Green", 14, 0, PlayerColor.GREEN);
+        GameDataResponse response = roundTrip(new GameDataResponse("lobby-1", players, outsider, 0));
+
+        assertSamePlayers(List.of(outsider), List.of(response.getPlayingPlayer()));
+        assertNull(roundTrip(new GameDataResponse("lobby-1", null, null, 0)).getPlayers());
+    }
+
+    @Test
+    void testLobby() {
+        LobbyResponse response = roundTrip(new LobbyResponse("lobby-1", players.get(1), players));
+
+        assertEquals("lobby-1", response.getId());
+        assertSamePlayers(players, response.getPlayers());
+        assertSame(response.getPlayers().get(1), response.getHost());
+    }
+
+    @Test
+    void testSmallMessages() {
+        GameDeltaResponse delta = new GameDeltaResponse("lobby-1", 1L << 40, "Scarlet", 8, 23, "Mustard");
+        TurnActionRequest action = new TurnActionRequest("Scarlet", "SUGGESTION", 0, "Mrs. White", "Rope", "Hall");
+
+        assertEquals(delta, roundTrip(delta));
+        assertEquals(action, roundTrip(action));
+        DiceResult dice = roundTrip(new DiceResult(3, 6));
+        assertEquals(3, dice.getDiceOne());
+        assertEquals(6, dice.getDiceTwo());
+        assertEquals(3, codecs.encode(new DiceResult(3, 6)).length);
+    }
+
+    @Test
+    void testTurnEvents() {
+        GameEvent.DiceRolled dice = new GameEvent.DiceRolled("Scarlet", 9, TurnState.PLAYERS_TURN_MOVE);
+        GameEvent.CurrentTurn turn = new GameEvent.CurrentTurn("Mustard", TurnState.PLAYERS_TURN_ROLL_DICE, 1);
+        GameEvent.TurnStateChanged state = new GameEvent.TurnStateChanged(TurnState.PLAYERS_TURN_SUGGEST, "Plum");
+
+        assertEquals(dice, roundTrip(dice));
+        assertEquals(turn, roundTrip(turn));
+        assertEquals(state, roundTrip(state));
+        assertFalse(codecs.supports(GameEvent.TurnSkipped.class));
+    }
+
+    @Test
+    void testSmallerThanJson() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        Object[] messages = {
+                new TurnStateResponse("lobby-1", "Scarlet", 0, TurnState.PLAYERS_TURN_ROLL_DICE, false, true, 0, "Roll"),
+                new GameDataResponse("lobby-1", players, players.get(0), 42),
+                new GameDeltaResponse("lobby-1", 7, "Scarlet", 8, 23, "Mustard"),
+                new LobbyResponse("lobby-1", players.get(0), players)
+        };
+        for (Object message : messages) {
+            int json = objectMapper.writeValueAsBytes(message).length;
+            int binary = codecs.encode(message).length;
+            assertTrue(binary * 2 < json, message.getClass().getSimpleName() + ": " + binary + " vs " + json + " bytes");
+        }
+    }
+
+    @Test
+    void testRejectsMalformedMessages() {
+        byte[] message = codecs.encode(new GameDeltaResponse("lobby-1", 7, "Scarlet", 8, 23, "Mustard"));
+
+        assertThrows(IllegalArgumentException.class, () -> codecs.decode(Arrays.copyOf(message, message.length - 1)));
+        assertThrows(IllegalArgumentException.class, () -> codecs.decode(Arrays.copyOf(message, message.length + 1)));
+        assertThrows(IllegalArgumentException.class, () -> codecs.decode(new byte[]{(byte) 200}));
+        assertThrows(IllegalArgumentException.class, () -> codecs.decode(message, TurnStateResponse.class));
+        assertThrows(IllegalArgumentException.class, () -> codecs.encode("text"));
+        assertFalse(codecs.supports(String.class));
+    }
+
+    @Test
+    void testRejectsForgedLengths() {
+        byte[] overflowing = new WireWriter(8).writeByte(0).writeVarInt(Integer.MIN_VALUE).toByteArray();
+        byte[] negative = new WireWriter(8).writeVarInt(-1).toByteArray();
+
+        WireReader in = new WireReader(overflowing);
+        in.readByte();
+        assertThrows(IllegalArgumentException.class, in::readString);
+        assertThrows(IllegalArgumentException.class, () -> new WireReader(negative).readString());
+    }
+
+    @Test
+    void testRejectsForgedListsAndCards() {
+        byte[] hugeList = new WireWriter(8).writeByte(5).writeString("l1").writeVarInt(Integer.MAX_VALUE).toByteArray();
+        byte[] unknownCard = new WireWriter(16).writeString("Scarlet").writeString("Scarlet").writeByte(0)
+                .writeVarInt(0).writeSignedVarInt(0).writeSignedVarInt(0).writeSignedVarInt(0).writeSignedVarInt(0)
+                .writeVarInt(1).writeByte(200).toByteArray();
+
+        assertThrows(IllegalArgumentException.class, () -> codecs.decode(hugeList));
+        // the lobby is not even read when a dice result is expected
+        assertThrows(IllegalArgumentException.class, () -> codecs.decode(hugeList, DiceResult.class));
+        assertThrows(IllegalArgumentException.class, () -> PlayerCodec.read(new WireReader(unknownCard)));
+        assertThrows(IllegalArgumentException.class, () -> CardCatalog.get(CardCatalog.CARD_COUNT));
+    }
+
+    @Test
+    void testVarints() {
+        WireWriter out = new WireWriter(1);
+        out.writeVarInt(127).writeVarInt(128).writeSignedVarInt(-1).writeSignedVarInt(Integer.MIN_VALUE)
+                .writeVarLong(Long.MAX_VALUE).writeVarInt(-1);
+        WireReader in = new WireReader(out.toByteArray());
+
+        assertEquals(127, in.readVarInt());
+        assertEquals(128, in.readVarInt());
+        assertEquals(-1, in.readSignedVarInt());
+        assertEquals(Integer.MIN_VALUE, in.readSignedVarInt());
+        assertEquals(Long.MAX_VALUE, in.readVarLong());
+        assertEquals(-1, in.readVarInt());
+        assertFalse(in.hasRemaining());
+        assertEquals(1 + 2 + 1 + 5 + 9 + 5, out.size());
+    }
+}
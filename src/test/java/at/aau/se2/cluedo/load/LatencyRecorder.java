@@ -0,0 +1,77 @@
+package at.aau.se2.cluedo.load;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Round-trip times and errors per endpoint, shared by all simulated clients of a run.
+ */
+public class LatencyRecorder {
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    private Endpoint endpoint(String name) {
+        return endpoints.computeIfAbsent(name, n -> new Endpoint());
+    }
+
+    public void record(String endpoint, long nanos) {
+        endpoint(endpoint).samples.add(nanos);
+    }
+
+    public void error(String endpoint) {
+        endpoint(endpoint).errors.incrementAndGet();
+    }
+
+    public long getCount(String endpoint) {
+        Endpoint e = endpoints.get(endpoint);
+        return e == null ? 0 : e.samples.size();
+    }
+
+    public long getTotalCount() {
+        return endpoints.values().stream().mapToLong(e -> e.samples.size()).sum();
+    }
+
+    public long getTotalErrors() {
+        return endpoints.values().stream().mapToLong(e -> e.errors.get()).sum();
+    }
+
+    /**
+     * @param endpoint
+     * @param percentile between 0 and 100
+     * @return round-trip time in milliseconds, 0 without samples
+     */
+    public double getPercentileMs(String endpoint, double percentile) {
+        Endpoint e = endpoints.get(endpoint);
+        if (e == null || e.samples.isEmpty()) return 0;
+
+        long[] sorted = e.samples.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    /**
+     * @return one line per endpoint with count, errors, p50 and p99
+     */
+    public List<String> formatTable() {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("%-18s %8s %7s %9s %9s", "endpoint", "count", "errors", "p50 ms", "p99 ms"));
+        for (Map.Entry<String, Endpoint> entry : new TreeMap<>(endpoints).entrySet()) {
+            String name = entry.getKey();
+            lines.add(String.format("%-18s %8d %7d %9.2f %9.2f", name, entry.getValue().samples.size(),
+                    entry.getValue().errors.get(), getPercentileMs(name, 50), getPercentileMs(name, 99)));
+        }
+        return lines;
+    }
+
+    private static final class Endpoint {
+        private final ConcurrentLinkedQueue<Long> samples = new ConcurrentLinkedQueue<>();
+        private final AtomicLong errors = new AtomicLong();
+    }
+}
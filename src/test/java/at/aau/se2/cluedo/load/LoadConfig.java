@@ -0,0 +1,39 @@
+package at.aau.se2.cluedo.load;
+
+/**
+ * Settings of a load run.
+ *
+ * @param url STOMP endpoint, e.g. ws://localhost:8321/ws
+ * @param lobbies lobbies playing at the same time
+ * @param playersPerLobby simulated clients per lobby, 3 to 6
+ * @param thinkTimeMs pause of a client before each of its actions
+ * @param turnsPerPlayer regular turns per player before everyone starts accusing
+ * @param timeoutMs how long a client waits for the answer to a request
+ */
+public record LoadConfig(String url, int lobbies, int playersPerLobby, long thinkTimeMs, int turnsPerPlayer, long timeoutMs) {
+
+    public LoadConfig {
+        if (playersPerLobby < 3 || playersPerLobby > 6) {
+            throw new IllegalArgumentException("A game needs 3 to 6 players");
+        }
+    }
+
+    /**
+     * Reads the settings from load.* system properties, e.g. -Dload.lobbies=50
+     * @param url used when load.url isn't set
+     * @return the settings
+     */
+    public static LoadConfig fromSystemProperties(String url) {
+        return new LoadConfig(
+                System.getProperty("load.url", url),
+                Integer.getInteger("load.lobbies", 10),
+                Integer.getInteger("load.players", 4),
+                Long.getLong("load.thinkTimeMs", 50),
+                Integer.getInteger("load.turnsPerPlayer", 5),
+                Long.getLong("load.timeoutMs", 5000));
+    }
+
+    public LoadConfig withLobbies(int lobbies) {
+        return new LoadConfig(url, lobbies, playersPerLobby, thinkTimeMs, turnsPerPlayer, timeoutMs);
+    }
+}
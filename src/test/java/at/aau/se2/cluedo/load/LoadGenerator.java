@@ -0,0 +1,188 @@
+package at.aau.se2.cluedo.load;
+
+import at.aau.se2.cluedo.CluedoApplication;
+import jakarta.websocket.ContainerProvider;
+import jakarta.websocket.WebSocketContainer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.converter.CompositeMessageConverter;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plays full games over STOMP with simulated clients and reports throughput, round-trip latency
+ * per endpoint and errors. Without load.url the server is started in this JVM on a free port.
+ * <pre>
+ * java -cp target/test-classes:target/classes:&lt;test classpath&gt; at.aau.se2.cluedo.load.LoadGenerator
+ *     -Dload.lobbies=50 -Dload.players=4 -Dload.thinkTimeMs=50 -Dload.saturation=true
+ * </pre>
+ * With load.saturation the number of lobbies doubles from load.lobbies until throughput stops
+ * growing or errors show up.
+ */
+public class LoadGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+
+    // a step counts as growth with at least 10% more requests per second
+    private static final double MIN_GROWTH = 1.1;
+    private static final double MAX_ERROR_RATE = 0.01;
+
+    private LoadGenerator() {
+    }
+
+    /**
+     * Result of one run.
+     *
+     * @param lobbies lobbies played at the same time
+     * @param gamesCompleted games played to the end
+     * @param gamesFailed games aborted by a timeout or a rejected request
+     * @param seconds wall time of the run
+     * @param latencies round trips per endpoint
+     * @param receivedMessages messages delivered to all clients
+     * @param receivedBytes payload bytes delivered to all clients
+     */
+    public record Result(int lobbies, int gamesCompleted, int gamesFailed, double seconds, LatencyRecorder latencies,
+                         long receivedMessages, long receivedBytes) {
+
+        public double getThroughput() {
+            return latencies.getTotalCount() / seconds;
+        }
+
+        public double getErrorRate() {
+            long requests = latencies.getTotalCount() + latencies.getTotalErrors();
+            return requests == 0 ? 0 : (double) latencies.getTotalErrors() / requests;
+        }
+
+        public List<String> format() {
+            List<String> lines = new ArrayList<>();
+            lines.add(String.format("%d lobbies: %d games completed, %d failed in %.1f s", lobbies, gamesCompleted, gamesFailed, seconds));
+            lines.add(String.format("%.0f requests/s, error rate %.2f%%, %d messages (%d bytes) delivered",
+                    getThroughput(), getErrorRate() * 100, receivedMessages, receivedBytes));
+            lines.addAll(latencies.formatTable());
+            return lines;
+        }
+    }
+
+    /**
+     * Plays one game in each of the configured lobbies at the same time.
+     * @param config
+     * @return the measurements of the run
+     */
+    public static Result run(LoadConfig config) throws InterruptedException {
+        LatencyRecorder recorder = new LatencyRecorder();
+        AtomicLong receivedMessages = new AtomicLong();
+        AtomicLong receivedBytes = new AtomicLong();
+        WebSocketStompClient stompClient = createStompClient();
+        ScheduledExecutorService responders = Executors.newScheduledThreadPool(4);
+        ExecutorService lobbies = Executors.newFixedThreadPool(config.lobbies());
+
+        List<Future<?>> games = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < config.lobbies(); i++) {
+            LobbySimulation simulation = new LobbySimulation(i, config, recorder, responders, receivedMessages, receivedBytes);
+            games.add(lobbies.submit(() -> {
+                simulation.play(stompClient);
+                return null;
+            }));
+        }
+
+        int completed = 0;
+        for (Future<?> game : games) {
+            try {
+                game.get();
+                completed++;
+            } catch (java.util.concurrent.ExecutionException e) {
+                logger.warn("Game failed: {}", e.getCause().toString());
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        lobbies.shutdown();
+        responders.shutdownNow();
+        stompClient.stop();
+        return new Result(config.lobbies(), completed, config.lobbies() - completed, seconds, recorder,
+                receivedMessages.get(), receivedBytes.get());
+    }
+
+    /**
+     * Doubles the lobbies from the configured count up to maxLobbies until throughput grows by
+     * less than 10% or more than 1% of the requests fail.
+     * @param config
+     * @param maxLobbies
+     * @return all steps, the second to last one is the saturation point if the search stopped early
+     */
+    public static List<Result> findSaturation(LoadConfig config, int maxLobbies) throws InterruptedException {
+        List<Result> steps = new ArrayList<>();
+        Result previous = null;
+        for (int lobbies = config.lobbies(); lobbies <= maxLobbies; lobbies *= 2) {
+            Result result = run(config.withLobbies(lobbies));
+            steps.add(result);
+            result.format().forEach(logger::info);
+
+            if (result.getErrorRate() > MAX_ERROR_RATE
+                    || previous != null && result.getThroughput() < previous.getThroughput() * MIN_GROWTH) {
+                break;
+            }
+            previous = result;
+        }
+        return steps;
+    }
+
+    private static WebSocketStompClient createStompClient() {
+        WebSocketContainer container = ContainerProvider.getWebSocketContainer();
+        // full game data of six players is larger than the default buffer
+        container.setDefaultMaxTextMessageBufferSize(256 * 1024);
+        WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient(container));
+        // requests go out as JSON, answers are kept as raw bytes whatever their content type
+        ByteArrayMessageConverter rawAnswers = new ByteArrayMessageConverter() {
+            @Override
+            protected boolean supportsMimeType(MessageHeaders headers) {
+                return true;
+            }
+        };
+        stompClient.setMessageConverter(new CompositeMessageConverter(
+                List.of(rawAnswers, new MappingJackson2MessageConverter())));
+        stompClient.setInboundMessageSizeLimit(256 * 1024);
+        return stompClient;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        ConfigurableApplicationContext server = null;
+        String url = System.getProperty("load.url");
+        if (url == null) {
+            server = SpringApplication.run(CluedoApplication.class, "--server.port=0");
+            int port = ((WebServerApplicationContext) server).getWebServer().getPort();
+            url = "ws://localhost:" + port + "/ws";
+        }
+
+        try {
+            LoadConfig config = LoadConfig.fromSystemProperties(url);
+            if (Boolean.getBoolean("load.saturation")) {
+                List<Result> steps = findSaturation(config, Integer.getInteger("load.maxLobbies", 1024));
+                Result saturation = steps.size() > 1 ? steps.get(steps.size() - 2) : steps.get(0);
+                logger.info("Saturation at about {} lobbies with {} players, {} requests/s",
+                        saturation.lobbies(), config.playersPerLobby(), Math.round(saturation.getThroughput()));
+            } else {
+                run(config).format().forEach(logger::info);
+            }
+        } finally {
+            if (server != null) {
+                server.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package at.aau.se2.cluedo.load;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class LoadGeneratorTest {
+    private static final Logger logger = LoggerFactory.getLogger(LoadGeneratorTest.class);
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void testPlaysCompleteGames() throws Exception {
+        LoadConfig config = new LoadConfig("ws://localhost:" + port + "/ws", 2, 3, 0, 3, 5000);
+
+        LoadGenerator.Result result = LoadGenerator.run(config);
+
+        result.format().forEach(logger::info);
+        assertEquals(2, result.gamesCompleted());
+        assertEquals(0, result.latencies().getTotalErrors());
+        assertEquals(2, result.latencies().getCount("createLobby"));
+        assertEquals(4, result.latencies().getCount("joinLobby"));
+        assertEquals(18, result.latencies().getCount("rollDice"));
+        assertTrue(result.latencies().getCount("performMovement") > 0);
+        assertTrue(result.getThroughput() > 0);
+    }
+}
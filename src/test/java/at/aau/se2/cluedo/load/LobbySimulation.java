@@ -0,0 +1,342 @@
+package at.aau.se2.cluedo.load;
+
+import at.aau.se2.cluedo.models.cards.BasicCard;
+import at.aau.se2.cluedo.models.cards.CardCatalog;
+import at.aau.se2.cluedo.models.gameboard.BoardTopology;
+import at.aau.se2.cluedo.models.gameboard.PathValidator;
+import at.aau.se2.cluedo.models.gameboard.Reachability;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plays one complete game: the host creates a lobby, the others join, and the game is started.
+ * Everyone takes a number of regular turns with dice, movement and suggestions, then the
+ * players accuse one after another until a single player is left. Every request is timed from
+ * sending until the answer arrives on its topic.
+ */
+class LobbySimulation {
+
+    private static final String[] COLORS = {"RED", "YELLOW", "WHITE", "GREEN", "BLUE", "PURPLE"};
+    // the server hands out lobby ids only through a shared topic, so lobbies are created one at a time
+    private static final Object CREATE_LOCK = new Object();
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final LoadConfig config;
+    private final LatencyRecorder recorder;
+    private final ScheduledExecutorService responders;
+    private final BoardTopology topology = BoardTopology.getInstance();
+    private final List<SimulatedClient> clients = new ArrayList<>();
+    private final Map<String, SimulatedClient> clientsByName = new HashMap<>();
+    private final Map<String, Integer> positions = new HashMap<>();
+    private final Map<String, Boolean> active = new HashMap<>();
+    private String lobbyId;
+
+    LobbySimulation(int number, LoadConfig config, LatencyRecorder recorder, ScheduledExecutorService responders,
+                    AtomicLong receivedMessages, AtomicLong receivedBytes) {
+        this.config = config;
+        this.recorder = recorder;
+        this.responders = responders;
+        for (int i = 0; i < config.playersPerLobby(); i++) {
+            SimulatedClient client = new SimulatedClient("lobby" + number + "-player" + i, COLORS[i],
+                    receivedMessages, receivedBytes);
+            clients.add(client);
+            clientsByName.put(client.getName(), client);
+        }
+    }
+
+    /**
+     * Plays the game from connecting to the last accusation.
+     * @param stompClient
+     * @throws Exception when an answer doesn't arrive or the server rejects a request
+     */
+    void play(WebSocketStompClient stompClient) throws Exception {
+        try {
+            for (SimulatedClient client : clients) {
+                client.connect(stompClient, config.url(), config.timeoutMs());
+            }
+            createLobby();
+            for (SimulatedClient client : clients) {
+                subscribeToLobby(client);
+            }
+            for (SimulatedClient client : clients.subList(1, clients.size())) {
+                joinLobby(client);
+            }
+            String current = startGame();
+
+            int regularTurns = config.turnsPerPlayer() * clients.size();
+            for (int turn = 0; current != null; turn++) {
+                current = turn < regularTurns ? playTurn(clientsByName.get(current)) : accuse(clientsByName.get(current));
+            }
+        } finally {
+            clients.forEach(SimulatedClient::disconnect);
+        }
+    }
+
+    private void createLobby() throws Exception {
+        SimulatedClient host = clients.get(0);
+        synchronized (CREATE_LOCK) {
+            var created = host.subscribe("/topic/lobbyCreated");
+            var lobbies = host.subscribe("/topic/activeLobbies");
+            try {
+                awaitSubscription(host, "/topic/activeLobbies", "/app/getActiveLobbies", Map.of("player", host.player()));
+                byte[] id = request("createLobby", host, "/app/createLobby", Map.of("player", host.player()), "/topic/lobbyCreated");
+                lobbyId = new String(id, StandardCharsets.UTF_8);
+            } finally {
+                created.unsubscribe();
+                lobbies.unsubscribe();
+            }
+        }
+    }
+
+    private void subscribeToLobby(SimulatedClient client) throws Exception {
+        for (String topic : List.of("lobby", "gameStarted", "currentTurn", "rollDice", "diceRolled", "gameDelta",
+                "performMovement", "movementCompleted", "turnStateChanged", "makeSuggestion", "suggestionMade",
+                "accusationMade")) {
+            client.subscribe("/topic/" + topic + "/" + lobbyId);
+        }
+        client.subscribe("/topic/resultSuggestion/" + lobbyId + "/" + client.getPlayerId());
+        client.subscribe("/topic/processSuggestion/" + lobbyId + "/" + client.getPlayerId(),
+                message -> responders.schedule(() -> answerSuggestion(client), config.thinkTimeMs(), TimeUnit.MILLISECONDS));
+        client.subscribe("/topic/canStartGame/" + lobbyId);
+        awaitSubscription(client, "/topic/canStartGame/" + lobbyId, "/app/canStartGame/" + lobbyId, Map.of());
+    }
+
+    /**
+     * Subscriptions are applied asynchronously, so pings until the topic answers. The topic is
+     * subscribed last, the ones before are in place by then.
+     */
+    private void awaitSubscription(SimulatedClient client, String topic, String ping, Object payload) throws Exception {
+        long deadline = System.currentTimeMillis() + config.timeoutMs();
+        while (System.currentTimeMillis() < deadline) {
+            client.send(ping, payload);
+            if (client.poll(topic) != null) {
+                client.clear(topic);
+                return;
+            }
+            Thread.sleep(20);
+            if (client.poll(topic) != null) {
+                client.clear(topic);
+                return;
+            }
+        }
+        throw new TimeoutException(client.getName() + " could not subscribe to " + topic);
+    }
+
+    private void joinLobby(SimulatedClient client) throws Exception {
+        String topic = "/topic/lobby/" + lobbyId;
+        think();
+        long start = System.nanoTime();
+        client.clear(topic);
+        client.send("/app/joinLobby/" + lobbyId, Map.of("player", client.player()));
+        // others may be answered on the same topic in between
+        while (true) {
+            JsonNode lobby = read(awaitAnswer("joinLobby", client, topic));
+            for (JsonNode player : lobby.path("players")) {
+                if (client.getName().equals(player.path("name").asText())) {
+                    recorder.record("joinLobby", System.nanoTime() - start);
+                    return;
+                }
+            }
+        }
+    }
+
+    private String startGame() throws Exception {
+        SimulatedClient host = clients.get(0);
+        think();
+        JsonNode started = read(request("startGame", host, "/app/startGame/" + lobbyId,
+                Map.of("player", host.player()), "/topic/gameStarted/" + lobbyId));
+
+        for (JsonNode player : started.path("players")) {
+            String name = player.path("name").asText();
+            positions.put(name, topology.index(player.path("x").asInt(), player.path("y").asInt()));
+            active.put(name, true);
+            SimulatedClient client = clientsByName.get(name);
+            for (JsonNode card : player.path("cards")) {
+                client.getCards().add(card.path("cardName").asText());
+            }
+        }
+        if (positions.size() != clients.size()) {
+            recorder.error("startGame");
+            throw new IllegalStateException("Game in lobby " + lobbyId + " started with " + positions.size() + " players");
+        }
+        return started.path("players").get(0).path("name").asText();
+    }
+
+    /**
+     * Rolls, moves toward a room if one is in reach and suggests when inside one.
+     * @return the player whose turn is next
+     */
+    private String playTurn(SimulatedClient client) throws Exception {
+        Map<String, Object> turnAction = Map.of("playerName", client.getName());
+
+        think();
+        JsonNode rolled = read(request("rollDice", client, "/app/rollDice/" + lobbyId, turnAction, "/topic/rollDice/" + lobbyId));
+        checkTurnState("rollDice", rolled);
+
+        think();
+        List<String> moves = chooseMoves(client, rolled.path("diceValue").asInt());
+        // a move that goes nowhere isn't broadcast, a boxed in player stays put
+        if (!moves.isEmpty()) {
+            JsonNode delta = read(request("performMovement", client, "/app/performMovement/" + lobbyId,
+                    Map.of("player", client.player(), "moves", moves), "/topic/gameDelta/" + lobbyId));
+            positions.put(client.getName(), topology.index(delta.path("x").asInt(), delta.path("y").asInt()));
+        }
+
+        think();
+        client.clear("/topic/currentTurn/" + lobbyId);
+        JsonNode completed = read(request("completeMovement", client, "/app/completeMovement/" + lobbyId, turnAction,
+                "/topic/movementCompleted/" + lobbyId));
+        checkTurnState("completeMovement", completed);
+        if (!"PLAYERS_TURN_SUGGEST".equals(completed.path("turnState").asText())) {
+            return completed.path("currentPlayerName").asText();
+        }
+
+        think();
+        return suggest(client);
+    }
+
+    private List<String> chooseMoves(SimulatedClient client, int dice) {
+        long[] blocked = PathValidator.newOccupancy();
+        positions.forEach((name, cell) -> {
+            if (!name.equals(client.getName())) {
+                PathValidator.occupy(blocked, cell);
+            }
+        });
+        Reachability reachability = Reachability.compute(positions.get(client.getName()), dice, blocked);
+
+        int[] targets = reachability.getTargets();
+        if (targets.length == 0) {
+            return List.of();
+        }
+        int target = targets[ThreadLocalRandom.current().nextInt(targets.length)];
+        for (int cell : targets) {
+            if (topology.getRoomId(cell) != BoardTopology.NO_ROOM) {
+                target = cell;
+                break;
+            }
+        }
+        return reachability.getPathTo(target);
+    }
+
+    private String suggest(SimulatedClient client) throws Exception {
+        String turnTopic = "/topic/currentTurn/" + lobbyId;
+        client.clear(turnTopic);
+        long round = System.nanoTime();
+        String room = topology.getRoomName(topology.getRoomId(positions.get(client.getName())));
+        JsonNode answer = read(request("makeSuggestion", client, "/app/makeSuggestion/" + lobbyId, Map.of(
+                "playerName", client.getName(),
+                "playerId", client.getPlayerId().toString(),
+                "suspect", pick(CardCatalog.characters()),
+                "weapon", pick(CardCatalog.weapons()),
+                "room", room), "/topic/makeSuggestion/" + lobbyId));
+        if (!answer.path("success").asBoolean()) {
+            recorder.error("makeSuggestion");
+            throw new IllegalStateException("Suggestion rejected in lobby " + lobbyId + ": " + answer);
+        }
+
+        JsonNode next = read(awaitAnswer("suggestionRound", client, turnTopic));
+        recorder.record("suggestionRound", System.nanoTime() - round);
+        return next.path("currentPlayer").asText();
+    }
+
+    private void answerSuggestion(SimulatedClient client) {
+        // the last suggestion of the lobby is the one being asked about
+        String suggestion = "";
+        byte[] made;
+        while ((made = client.poll("/topic/suggestionMade/" + lobbyId)) != null) {
+            suggestion = new String(made, StandardCharsets.UTF_8);
+        }
+        String shown = "";
+        for (String card : client.getCards()) {
+            if (suggestion.contains("\"" + card + "\"")) {
+                shown = card;
+                break;
+            }
+        }
+        client.send("/app/processSuggestion/" + lobbyId,
+                Map.of("lobbyId", lobbyId, "playerId", client.getPlayerId().toString(), "cardName", shown));
+    }
+
+    /**
+     * Accuses with cards from the own hand, which is always wrong and eliminates the player.
+     * @return the player whose turn is next, null when the game is over
+     */
+    private String accuse(SimulatedClient client) throws Exception {
+        String turnTopic = "/topic/currentTurn/" + lobbyId;
+        client.clear(turnTopic);
+        think();
+        List<String> hand = client.getCards();
+        String card = hand.isEmpty() ? "Nobody" : hand.get(0);
+        JsonNode result = read(request("makeAccusation", client, "/app/makeAccusation/" + lobbyId, Map.of(
+                "lobbyId", lobbyId, "username", client.getName(), "suspect", card, "room", card, "weapon", card),
+                "/topic/accusationMade/" + lobbyId));
+
+        if (result.path("gameWon").asBoolean()) {
+            return null;
+        }
+        active.put(client.getName(), false);
+        if (active.values().stream().filter(Boolean::booleanValue).count() <= 1) {
+            return null;
+        }
+        // a turn update sent before the accusation can still be queued, skip it
+        String next;
+        do {
+            next = read(awaitAnswer("makeAccusation", client, turnTopic)).path("currentPlayer").asText();
+        } while (!active.getOrDefault(next, false));
+        return next;
+    }
+
+    private byte[] request(String endpoint, SimulatedClient client, String destination, Object payload, String answerTopic)
+            throws Exception {
+        client.clear(answerTopic);
+        long start = System.nanoTime();
+        client.send(destination, payload);
+        byte[] answer = awaitAnswer(endpoint, client, answerTopic);
+        recorder.record(endpoint, System.nanoTime() - start);
+        return answer;
+    }
+
+    private byte[] awaitAnswer(String endpoint, SimulatedClient client, String topic) throws Exception {
+        try {
+            return client.await(topic, config.timeoutMs());
+        } catch (TimeoutException e) {
+            recorder.error(endpoint);
+            throw e;
+        }
+    }
+
+    // the server answers rejected turn actions with an error state instead of an exception
+    private void checkTurnState(String endpoint, JsonNode response) {
+        if (response.path("currentPlayerIndex").asInt() < 0) {
+            recorder.error(endpoint);
+            throw new IllegalStateException(endpoint + " rejected in lobby " + lobbyId + ": " + response.path("message").asText());
+        }
+    }
+
+    private void think() throws InterruptedException {
+        if (config.thinkTimeMs() > 0) {
+            Thread.sleep(config.thinkTimeMs());
+        }
+    }
+
+    private static String pick(List<BasicCard> cards) {
+        return cards.get(ThreadLocalRandom.current().nextInt(cards.size())).getCardName();
+    }
+
+    private static JsonNode read(byte[] json) throws IOException {
+        return MAPPER.readTree(json);
+    }
+}
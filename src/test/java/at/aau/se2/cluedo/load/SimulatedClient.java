@@ -0,0 +1,124 @@
+package at.aau.se2.cluedo.load;
+
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * One player with its own STOMP connection. Messages of every subscribed destination are queued
+ * as raw bytes until the simulation picks them up.
+ */
+class SimulatedClient {
+
+    private final String name;
+    private final String color;
+    private final UUID playerId = UUID.randomUUID();
+    private final Map<String, BlockingQueue<byte[]>> inbox = new ConcurrentHashMap<>();
+    private final List<String> cards = new ArrayList<>();
+    private final AtomicLong receivedMessages;
+    private final AtomicLong receivedBytes;
+    private StompSession session;
+
+    SimulatedClient(String name, String color, AtomicLong receivedMessages, AtomicLong receivedBytes) {
+        this.name = name;
+        this.color = color;
+        this.receivedMessages = receivedMessages;
+        this.receivedBytes = receivedBytes;
+    }
+
+    void connect(WebSocketStompClient stompClient, String url, long timeoutMs) throws Exception {
+        session = stompClient.connectAsync(url, new StompSessionHandlerAdapter() {
+        }).get(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    void disconnect() {
+        if (session != null && session.isConnected()) {
+            session.disconnect();
+        }
+    }
+
+    StompSession.Subscription subscribe(String destination) {
+        BlockingQueue<byte[]> queue = inbox.computeIfAbsent(destination, d -> new LinkedBlockingQueue<>());
+        return subscribe(destination, queue::add);
+    }
+
+    StompSession.Subscription subscribe(String destination, Consumer<byte[]> listener) {
+        return session.subscribe(destination, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return byte[].class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                byte[] bytes = (byte[]) payload;
+                receivedMessages.incrementAndGet();
+                receivedBytes.addAndGet(bytes.length);
+                listener.accept(bytes);
+            }
+        });
+    }
+
+    void send(String destination, Object payload) {
+        session.send(destination, payload);
+    }
+
+    void clear(String destination) {
+        BlockingQueue<byte[]> queue = inbox.get(destination);
+        if (queue != null) {
+            queue.clear();
+        }
+    }
+
+    /**
+     * @param destination a subscribed destination
+     * @param timeoutMs
+     * @return the oldest message not taken yet
+     * @throws TimeoutException if nothing arrives in time
+     */
+    byte[] await(String destination, long timeoutMs) throws TimeoutException, InterruptedException {
+        byte[] message = inbox.get(destination).poll(timeoutMs, TimeUnit.MILLISECONDS);
+        if (message == null) {
+            throw new TimeoutException(name + " got no message on " + destination);
+        }
+        return message;
+    }
+
+    byte[] poll(String destination) {
+        return inbox.get(destination).poll();
+    }
+
+    /**
+     * @return the player as clients send it in lobby and movement requests
+     */
+    Map<String, Object> player() {
+        return Map.of("name", name, "character", name, "playerID", playerId.toString(), "color", color);
+    }
+
+    String getName() {
+        return name;
+    }
+
+    UUID getPlayerId() {
+        return playerId;
+    }
+
+    List<String> getCards() {
+        return cards;
+    }
+}
@@ -0,0 +1,89 @@
+package at.aau.se2.cluedo.models;
+
+import at.aau.se2.cluedo.models.gameboard.BoardDistances;
+import at.aau.se2.cluedo.models.gameboard.BoardTopology;
+import at.aau.se2.cluedo.models.gameboard.PathValidator;
+import at.aau.se2.cluedo.models.gameboard.Reachability;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardDistancesTest {
+
+    private static final int CELLS = BoardTopology.WIDTH * BoardTopology.HEIGHT;
+
+    private final BoardTopology topology = BoardTopology.getInstance();
+    private final BoardDistances distances = BoardDistances.getInstance();
+
+    @Test
+    void testSingleInstance() {
+        assertSame(distances, BoardDistances.getInstance());
+    }
+
+    @Test
+    void testCellDistances() {
+        int start = topology.index(7, 24);
+        assertEquals(0, distances.distance(start, start));
+        assertEquals(1, distances.distance(start, topology.index(7, 23)));
+        assertEquals(4, distances.distance(start, topology.index(7, 20)));
+        assertEquals(BoardDistances.UNREACHABLE, distances.distance(start, topology.index(0, 0)));
+    }
+
+    @Test
+    void testMatchesReachability() {
+        long[] noPlayers = PathValidator.newOccupancy();
+        int[] starts = {topology.index(7, 24), topology.index(16, 12), topology.index(3, 3)};
+        for (int start : starts) {
+            Reachability reachability = Reachability.compute(start, Byte.MAX_VALUE, noPlayers);
+            for (int cell = 0; cell < CELLS; cell++) {
+                if (cell == start) continue;
+                int expected = reachability.isReachable(cell) ? reachability.getDistance(cell) : BoardDistances.UNREACHABLE;
+                assertEquals(expected, distances.distance(start, cell), "cell " + cell);
+            }
+        }
+    }
+
+    @Test
+    void testDistanceToRoom() {
+        int kitchen = topology.getRoomId("Kitchen");
+        int study = topology.getRoomId("Study");
+
+        assertEquals(0, distances.distanceToRoom(topology.index(2, 3), kitchen));
+        // the Kitchen's secret passage leads into the Study in one step
+        assertEquals(1, distances.distanceToRoom(topology.index(5, 2), study));
+        // through the door at 4,6
+        assertEquals(1, distances.distanceToRoom(topology.index(4, 7), kitchen));
+        assertEquals(BoardDistances.UNREACHABLE, distances.distanceToRoom(topology.index(12, 12), kitchen));
+    }
+
+    @Test
+    void testNextStepTowardLeadsIntoRoom() {
+        for (int room = 0; room < topology.getRoomCount(); room++) {
+            for (int cell = 0; cell < CELLS; cell++) {
+                int distance = distances.distanceToRoom(cell, room);
+                if (distance <= 0) {
+                    assertEquals(BoardTopology.NO_CELL, distances.nextStepToward(cell, room));
+                    continue;
+                }
+
+                int current = cell;
+                for (int steps = distance; steps > 0; steps--) {
+                    assertNotNull(distances.nextMoveToward(current, room));
+                    current = distances.nextStepToward(current, room);
+                    assertEquals(steps - 1, distances.distanceToRoom(current, room));
+                }
+                assertEquals(room, topology.getRoomId(current));
+            }
+        }
+    }
+
+    @Test
+    void testDistancesFitIntoTable() {
+        for (int from = 0; from < CELLS; from++) {
+            for (int to = 0; to < CELLS; to++) {
+                assertTrue(distances.distance(from, to) < 255);
+            }
+        }
+        assertTrue(distances.getFootprintBytes() > (long) CELLS * CELLS);
+    }
+}
@@ -0,0 +1,116 @@
+package at.aau.se2.cluedo.models;
+
+import at.aau.se2.cluedo.models.gameboard.BoardTopology;
+import at.aau.se2.cluedo.models.gameboard.CellType;
+import at.aau.se2.cluedo.models.gameboard.GameBoard;
+import at.aau.se2.cluedo.models.gameboard.GameBoardCell;
+import at.aau.se2.cluedo.models.gameboard.Room;
+import at.aau.se2.cluedo.models.gameobjects.Player;
+import at.aau.se2.cluedo.models.gameobjects.PlayerColor;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardTopologyTest {
+
+    private final BoardTopology topology = BoardTopology.getInstance();
+
+    @Test
+    void testSingleInstance() {
+        assertSame(topology, BoardTopology.getInstance());
+    }
+
+    @Test
+    void testLayout() {
+        assertEquals(CellType.WALL, topology.getCellType(0, 0));
+        assertEquals(CellType.HALLWAY, topology.getCellType(8, 8));
+        assertEquals(CellType.ROOM, topology.getCellType(2, 3));
+        assertEquals(CellType.DOOR, topology.getCellType(4, 6));
+        assertEquals(CellType.SECRET_PASSAGE, topology.getCellType(5, 1));
+        assertEquals("Kitchen", topology.getRoomName(topology.getRoomId(2, 3)));
+        assertEquals(BoardTopology.NO_ROOM, topology.getRoomId(8, 8));
+        assertEquals(9, topology.getRoomCount());
+    }
+
+    @Test
+    void testSecretPassages() {
+        int kitchen = topology.getRoomId("Kitchen");
+        int study = topology.getRoomId("Study");
+
+        assertEquals(study, topology.getSecretPassageTarget(kitchen));
+        assertEquals(kitchen, topology.getSecretPassageTarget(study));
+        assertEquals(BoardTopology.NO_ROOM, topology.getSecretPassageTarget(topology.getRoomId("Hall")));
+
+        int exit = topology.getPassageExit(study);
+        assertNotEquals(BoardTopology.NO_CELL, exit);
+        assertTrue(topology.isAccessible(exit));
+    }
+
+    @Test
+    void testRoomCellsBelongToRoom() {
+        for (int roomId = 0; roomId < topology.getRoomCount(); roomId++) {
+            assertTrue(topology.getRoomCellCount(roomId) > 0);
+            for (int n = 0; n < topology.getRoomCellCount(roomId); n++) {
+                int cell = topology.getRoomCell(roomId, n);
+                assertEquals(CellType.ROOM, topology.getCellType(cell));
+                assertEquals(roomId, topology.getRoomId(cell));
+            }
+        }
+    }
+
+    @Test
+    void testGamesShareLayoutButNotOccupancy() {
+        GameBoard first = new GameBoard();
+        GameBoard second = new GameBoard();
+        Player player = new Player("TestPlayer", "Miss Scarlet", 7, 24, PlayerColor.RED);
+
+        assertTrue(first.movePlayer(player, 1, 1, true));
+
+        assertTrue(first.getRooms().get("Kitchen").getPlayersInRoom().contains(player));
+        assertTrue(second.getRooms().get("Kitchen").getPlayersInRoom().isEmpty());
+        assertNotSame(first.getRooms().get("Kitchen"), second.getRooms().get("Kitchen"));
+    }
+
+    @Test
+    void testGridMatchesCells() {
+        GameBoard board = new GameBoard();
+        GameBoardCell[][] grid = board.getGrid();
+
+        assertSame(grid, board.getGrid());
+        for (int x = 0; x < GameBoard.WIDTH; x++) {
+            for (int y = 0; y < GameBoard.HEIGHT; y++) {
+                GameBoardCell cell = board.getCell(x, y);
+                assertSame(grid[x][y], cell);
+                assertEquals(topology.getCellType(x, y), cell.getCellType());
+                Room room = board.getRoomAt(x, y);
+                assertSame(room, cell.getRoom());
+            }
+        }
+    }
+
+    @Test
+    void testPackedCellsDecode() {
+        for (int index = 0; index < GameBoard.WIDTH * GameBoard.HEIGHT; index++) {
+            CellType type = topology.getCellType(index);
+            assertEquals(type.ordinal(), topology.getType(index));
+            assertEquals(type != CellType.WALL, topology.isAccessible(index));
+            int roomId = topology.getRoomId(index);
+            assertTrue(roomId >= BoardTopology.NO_ROOM && roomId < topology.getRoomCount());
+        }
+        assertEquals(topology.getRoomCount() - 1, topology.getRoomId("Study"));
+        assertEquals(topology.getRoomId("Study"), topology.getRoomId(24, 24));
+    }
+
+    @Test
+    void testIsStepValid() {
+        // hallway to hallway
+        assertTrue(topology.isStepValid(topology.index(7, 24), topology.index(7, 23)));
+        // hallway to wall
+        assertFalse(topology.isStepValid(topology.index(1, 8), topology.index(0, 8)));
+        // hallway to room without a door
+        assertFalse(topology.isStepValid(topology.index(7, 19), topology.index(6, 19)));
+        // hallway to door and door to room
+        assertTrue(topology.isStepValid(topology.index(4, 7), topology.index(4, 6)));
+        assertTrue(topology.isStepValid(topology.index(4, 6), topology.index(4, 5)));
+    }
+}
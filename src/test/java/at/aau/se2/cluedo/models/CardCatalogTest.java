@@ -0,0 +1,87 @@
+package at.aau.se2.cluedo.models;
+
+import at.aau.se2.cluedo.models.cards.BasicCard;
+import at.aau.se2.cluedo.models.cards.CardCatalog;
+import at.aau.se2.cluedo.models.cards.CardType;
+import at.aau.se2.cluedo.models.gamemanager.GameManager;
+import at.aau.se2.cluedo.models.gameobjects.Player;
+import at.aau.se2.cluedo.models.gameobjects.PlayerColor;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardCatalogTest {
+
+    @Test
+    void testIdsAreStableAndUnique() {
+        Set<UUID> uuids = new HashSet<>();
+        for (int id = 0; id < CardCatalog.CARD_COUNT; id++) {
+            BasicCard card = CardCatalog.get(id);
+            assertEquals(id, card.getId());
+            assertEquals(1 << id, card.getMask());
+            assertTrue(uuids.add(card.getCardID()));
+        }
+        assertEquals(9, CardCatalog.rooms().size());
+        assertEquals(6, CardCatalog.weapons().size());
+        assertEquals(6, CardCatalog.characters().size());
+    }
+
+    @Test
+    void testCardsAreShared() {
+        List<BasicCard> first = BasicCard.getRooms();
+        List<BasicCard> second = BasicCard.getRooms();
+
+        assertNotSame(first, second);
+        for (int i = 0; i < first.size(); i++) {
+            assertSame(first.get(i), second.get(i));
+        }
+        assertSame(CardCatalog.byName("Rope"), BasicCard.getWeapons().get(1));
+    }
+
+    @Test
+    void testLookups() {
+        BasicCard rope = CardCatalog.byName("Rope");
+
+        assertEquals(CardType.WEAPON, rope.getType());
+        assertEquals(rope.getMask(), CardCatalog.maskOf("Rope"));
+        assertEquals(0, CardCatalog.maskOf("Knife"));
+        assertNull(CardCatalog.byName(null));
+        assertNull(CardCatalog.first(0));
+        assertSame(rope, CardCatalog.first(rope.getMask() | CardCatalog.maskOf("Professor Plum")));
+    }
+
+    @Test
+    void testPlayerHandMask() {
+        Player player = new Player("P", "P", 0, 0, PlayerColor.RED);
+        BasicCard rope = CardCatalog.byName("Rope");
+
+        player.addCard(rope);
+
+        assertEquals(rope.getMask(), player.getCardMask());
+        assertTrue(player.hasCard(rope));
+        assertFalse(player.hasCard(CardCatalog.byName("Wrench")));
+    }
+
+    @Test
+    void testSuggestionUsesHandMasks() {
+        GameManager gameManager = new GameManager(3);
+        Player suggesting = gameManager.getPlayers().get(0);
+        suggesting.move(2, 3);
+
+        // any dealt weapon the suggesting player doesn't hold is in another hand
+        BasicCard weapon = gameManager.getCards().stream()
+                .filter(card -> card.getType() == CardType.WEAPON && !suggesting.hasCard(card))
+                .findFirst()
+                .orElseThrow();
+        String suspect = gameManager.getSecretFile().character().getCardName();
+
+        assertTrue(gameManager.makeSuggestion(suggesting, suspect, weapon.getCardName()));
+        assertSame(CardCatalog.byName(suspect), gameManager.getSecretFile().character());
+        assertNull(gameManager.getCardByName(suspect));
+    }
+}
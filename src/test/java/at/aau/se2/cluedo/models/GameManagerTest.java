@@ -495,6 +495,23 @@ public class GameManagerTest {
         assertEquals(gameManager.getPlayers().get(0).getName(), players.get(0).getName());
     }
 
+    @Test
+    void testGetPlayerById() {
+        for (Player player : gameManager.getPlayers()) {
+            assertSame(player, gameManager.getPlayer(player.getPlayerID()));
+            assertSame(player, gameManager.getPlayer(player.getName()));
+        }
+        assertNull(gameManager.getPlayer(UUID.randomUUID()));
+        assertNull(gameManager.getPlayer("Nobody"));
+    }
 
+    @Test
+    void testLookupsAfterEliminations() {
+        List<Player> players = gameManager.getPlayers();
+        players.get(1).setActive(false);
 
+        assertSame(players.get(2), gameManager.getNextPlayer(players.get(0).getName()));
+        assertSame(players.get(1), gameManager.getPlayer(players.get(1).getPlayerID()));
+        assertNull(gameManager.getNextPlayer("Nobody"));
+    }
 }
@@ -0,0 +1,93 @@
+package at.aau.se2.cluedo.models;
+
+import at.aau.se2.cluedo.models.cards.BasicCard;
+import at.aau.se2.cluedo.models.gamemanager.GameManager;
+import at.aau.se2.cluedo.models.gameobjects.Player;
+import at.aau.se2.cluedo.models.gameobjects.PlayerColor;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameRandomTest {
+
+    private static List<Player> lobbyPlayers() {
+        return new ArrayList<>(List.of(
+                new Player("Alice", "Red", 0, 0, PlayerColor.RED),
+                new Player("Bob", "Blue", 0, 0, PlayerColor.BLUE),
+                new Player("Carol", "Green", 0, 0, PlayerColor.GREEN)));
+    }
+
+    private static List<String> hand(Player player) {
+        return player.getCards().stream().map(BasicCard::getCardName).toList();
+    }
+
+    @Test
+    void testSameSeedDealsSameGame() {
+        GameManager first = new GameManager("lobby", lobbyPlayers(), new GameRandom(42));
+        GameManager second = new GameManager("lobby", lobbyPlayers(), new GameRandom(42));
+
+        assertTrue(first.getSecretFile().room().cardEquals(second.getSecretFile().room()));
+        assertTrue(first.getSecretFile().weapon().cardEquals(second.getSecretFile().weapon()));
+        assertTrue(first.getSecretFile().character().cardEquals(second.getSecretFile().character()));
+        for (int i = 0; i < first.getPlayers().size(); i++) {
+            assertEquals(hand(first.getPlayers().get(i)), hand(second.getPlayers().get(i)));
+        }
+        for (int i = 0; i < 20; i++) {
+            assertEquals(first.rollDice(), second.rollDice());
+        }
+    }
+
+    @Test
+    void testRestoreContinuesStream() {
+        GameRandom random = new GameRandom(7);
+        for (int i = 0; i < 13; i++) {
+            random.rollDie();
+        }
+
+        GameRandom restored = GameRandom.restore(random.getSeed(), random.getDraws());
+
+        assertEquals(random.getDraws(), restored.getDraws());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(random.nextInt(1000), restored.nextInt(1000));
+        }
+    }
+
+    @Test
+    void testRollDieCoversAllFaces() {
+        GameRandom random = new GameRandom(1);
+        int[] faces = new int[7];
+        for (int i = 0; i < 6000; i++) {
+            faces[random.rollDie()]++;
+        }
+
+        assertEquals(0, faces[0]);
+        for (int face = 1; face <= 6; face++) {
+            assertTrue(faces[face] > 800, "face " + face + " rolled " + faces[face] + " times");
+        }
+    }
+
+    @Test
+    void testShuffleIsPermutation() {
+        List<Integer> values = new ArrayList<>(IntStream.range(0, 50).boxed().toList());
+
+        new GameRandom(3).shuffle(values);
+
+        assertEquals(50, new HashSet<>(values).size());
+        assertNotEquals(IntStream.range(0, 50).boxed().toList(), values);
+    }
+
+    @Test
+    void testSplitStreamsDiffer() {
+        GameRandom parent = new GameRandom(5);
+        GameRandom first = parent.split();
+        GameRandom second = parent.split();
+
+        assertNotEquals(first.getSeed(), second.getSeed());
+        assertThrows(IllegalArgumentException.class, () -> first.nextInt(0));
+    }
+}
@@ -6,6 +6,11 @@ import at.aau.se2.cluedo.models.lobby.Lobby;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 
@@ -100,4 +105,56 @@ class LobbyTest {
         assertTrue(lobby.getParticipantNames().contains(hostPlayer.getName()));
         assertTrue(lobby.getParticipantNames().contains(joinPlayer.getName()));
     }
+
+    @Test
+    void getPlayer_ShouldFindPlayersByNameAndId() {
+        Lobby lobby = new Lobby(TEST_LOBBY_ID, hostPlayer);
+        lobby.addPlayer(joinPlayer);
+
+        // a name built at runtime is not the same String instance
+        assertSame(joinPlayer, lobby.getPlayer(new String("testPlayer")));
+        assertSame(joinPlayer, lobby.getPlayer(joinPlayer.getPlayerID()));
+        assertSame(hostPlayer, lobby.getHost());
+        assertNull(lobby.getPlayer("nonExisting"));
+        assertNull(lobby.getPlayer(UUID.randomUUID()));
+    }
+
+    @Test
+    void indexes_ShouldStayInSyncUnderChurn() {
+        Lobby lobby = new Lobby(TEST_LOBBY_ID, hostPlayer);
+        Random random = new Random(7);
+        List<Player> pool = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            pool.add(new Player("player" + i, "Character", 0, 0, PlayerColor.GREEN));
+        }
+
+        for (int round = 0; round < 1000; round++) {
+            Player player = pool.get(random.nextInt(pool.size()));
+            if (random.nextBoolean()) {
+                lobby.addPlayer(player);
+            } else {
+                lobby.removePlayer(player);
+            }
+
+            for (Player p : pool) {
+                boolean inList = lobby.getPlayers().contains(p);
+                assertEquals(inList, lobby.hasPlayer(p));
+                assertEquals(inList ? p : null, lobby.getPlayer(p.getName()));
+                assertEquals(inList ? p : null, lobby.getPlayer(p.getPlayerID()));
+            }
+        }
+        assertSame(hostPlayer, lobby.getPlayer(hostPlayer.getName()));
+    }
+
+    @Test
+    void setPlayers_ShouldRebuildIndexes() {
+        Lobby lobby = new Lobby(TEST_LOBBY_ID, hostPlayer);
+        lobby.setPlayers(List.of(joinPlayer));
+
+        assertNull(lobby.getPlayer(hostPlayer.getName()));
+        assertNull(lobby.getHost());
+        assertSame(joinPlayer, lobby.getPlayer(joinPlayer.getPlayerID()));
+        assertTrue(lobby.addPlayer(hostPlayer));
+        assertEquals(2, lobby.getPlayers().size());
+    }
 }
@@ -0,0 +1,193 @@
+package at.aau.se2.cluedo.models;
+
+import at.aau.se2.cluedo.models.gameboard.BoardTopology;
+import at.aau.se2.cluedo.models.gameboard.GameBoard;
+import at.aau.se2.cluedo.models.gameboard.PathResult;
+import at.aau.se2.cluedo.models.gameboard.PathResult.Reason;
+import at.aau.se2.cluedo.models.gameboard.PathValidator;
+import at.aau.se2.cluedo.models.gameboard.Reachability;
+import at.aau.se2.cluedo.models.gamemanager.GameManager;
+import at.aau.se2.cluedo.models.gameobjects.Player;
+import at.aau.se2.cluedo.models.gameobjects.PlayerColor;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PathValidatorTest {
+
+    private static final String[] MOVES = {"W", "A", "S", "D", "w", "d", "X", "?"};
+
+    private final BoardTopology topology = BoardTopology.getInstance();
+    private final long[] noPlayers = PathValidator.newOccupancy();
+
+    private PathResult validate(int x, int y, int maxSteps, long[] occupied, String... moves) {
+        byte[] encoded = new byte[moves.length];
+        int length = PathValidator.encode(List.of(moves), encoded);
+        return PathResult.of(PathValidator.validate(topology.index(x, y), encoded, length, maxSteps, occupied));
+    }
+
+    @Test
+    void testEncode() {
+        assertEquals(PathValidator.NORTH, PathValidator.encode("W"));
+        assertEquals(PathValidator.WEST, PathValidator.encode("a"));
+        assertEquals(PathValidator.SOUTH, PathValidator.encode("S"));
+        assertEquals(PathValidator.EAST, PathValidator.encode("d"));
+        assertEquals(PathValidator.STOP, PathValidator.encode("x"));
+        assertEquals(PathValidator.INVALID, PathValidator.encode("north"));
+    }
+
+    @Test
+    void testCompletedPath() {
+        PathResult result = validate(7, 24, 3, noPlayers, "W", "W", "W");
+
+        assertEquals(new PathResult(7, 21, 3, Reason.COMPLETED), result);
+        assertTrue(result.isCompleted());
+    }
+
+    @Test
+    void testRejectedPaths() {
+        assertEquals(Reason.EMPTY, validate(7, 24, 3, noPlayers).reason());
+        assertEquals(new PathResult(7, 24, 0, Reason.TOO_MANY_STEPS), validate(7, 24, 1, noPlayers, "W", "W"));
+        assertEquals(new PathResult(7, 23, 1, Reason.STOPPED), validate(7, 24, 3, noPlayers, "W", "X", "W"));
+        assertEquals(new PathResult(7, 23, 1, Reason.INVALID_MOVE), validate(7, 24, 3, noPlayers, "W", "north"));
+        assertEquals(new PathResult(7, 24, 0, Reason.BLOCKED_BY_BOARD), validate(7, 24, 3, noPlayers, "S"));
+    }
+
+    @Test
+    void testBlockedByPlayer() {
+        long[] occupied = PathValidator.newOccupancy();
+        PathValidator.occupy(occupied, topology.index(7, 22));
+
+        assertTrue(PathValidator.isOccupied(occupied, topology.index(7, 22)));
+        assertFalse(PathValidator.isOccupied(occupied, topology.index(7, 21)));
+        assertEquals(new PathResult(7, 23, 1, Reason.BLOCKED_BY_PLAYER), validate(7, 24, 3, occupied, "W", "W", "W"));
+    }
+
+    @Test
+    void testBlockedByPlayerBehindDoor() {
+        // the Kitchen door at 4,6 lands on 4,5
+        long[] occupied = PathValidator.newOccupancy();
+        PathValidator.occupy(occupied, topology.index(4, 5));
+
+        assertEquals(new PathResult(4, 7, 0, Reason.BLOCKED_BY_PLAYER), validate(4, 7, 1, occupied, "W"));
+        assertFalse(Reachability.compute(topology.index(4, 7), 1, occupied).isReachable(topology.index(4, 5)));
+    }
+
+    @Test
+    void testOffBoardPlayerIsRejected() {
+        GameManager gameManager = new GameManager(3);
+        Player player = gameManager.getPlayers().get(0);
+        gameManager.setDiceRollS(2);
+        player.move(-1, -1);
+
+        long result = gameManager.performMovement(player, new byte[]{PathValidator.NORTH}, 1);
+
+        assertEquals(Reason.OFF_BOARD, PathValidator.reason(result));
+        assertEquals(0, PathValidator.steps(result));
+        assertEquals(-1, player.getX());
+    }
+
+    @Test
+    void testDoorAndSecretPassage() {
+        // through the Kitchen door at 4,6 straight into the room
+        assertEquals(new PathResult(4, 5, 1, Reason.COMPLETED), validate(4, 7, 1, noPlayers, "W"));
+
+        int exit = topology.getPassageExit(topology.getRoomId("Study"));
+        PathResult passage = validate(5, 2, 1, noPlayers, "W");
+        assertEquals(topology.x(exit), passage.x());
+        assertEquals(topology.y(exit), passage.y());
+    }
+
+    @Test
+    void testMatchesStepByStepReplay() {
+        Random random = new Random(42);
+        for (int run = 0; run < 2000; run++) {
+            int start;
+            do {
+                start = random.nextInt(GameBoard.WIDTH * GameBoard.HEIGHT);
+            } while (!topology.isAccessible(start));
+
+            List<String> moves = new ArrayList<>();
+            int count = 1 + random.nextInt(6);
+            for (int i = 0; i < count; i++) {
+                moves.add(MOVES[random.nextInt(MOVES.length)]);
+            }
+
+            Player player = new Player("P", "P", 0, 0, PlayerColor.RED);
+            player.move(topology.x(start), topology.y(start));
+            int[] expected = replay(new GameBoard(), player, moves);
+
+            byte[] encoded = new byte[moves.size()];
+            PathValidator.encode(moves, encoded);
+            PathResult result = PathResult.of(PathValidator.validate(start, encoded, moves.size(), 6, noPlayers));
+
+            assertEquals(expected[0], result.x(), "x for " + moves + " from " + start);
+            assertEquals(expected[1], result.y(), "y for " + moves + " from " + start);
+            assertEquals(expected[2], result.steps(), "steps for " + moves + " from " + start);
+        }
+    }
+
+    // the recursive step-by-step replay GameManager used before
+    private static int[] replay(GameBoard board, Player player, List<String> moves) {
+        int steps = 0;
+        for (String move : moves) {
+            int x = player.getX();
+            int y = player.getY();
+            switch (move.toUpperCase()) {
+                case "W" -> y--;
+                case "S" -> y++;
+                case "A" -> x--;
+                case "D" -> x++;
+                default -> {
+                    return new int[]{player.getX(), player.getY(), steps};
+                }
+            }
+            if (!board.movePlayer(player, x, y, false)) {
+                break;
+            }
+            steps++;
+        }
+        return new int[]{player.getX(), player.getY(), steps};
+    }
+
+    @Test
+    void testGameManagerAppliesResult() {
+        GameManager gameManager = new GameManager(3);
+        Player player = gameManager.getPlayers().get(0);
+        gameManager.setDiceRollS(2);
+        player.move(4, 7);
+
+        assertEquals(1, gameManager.performMovement(player, List.of("W")));
+
+        assertEquals(4, player.getX());
+        assertEquals(5, player.getY());
+        assertTrue(gameManager.getGameBoard().getRooms().get("Kitchen").getPlayersInRoom().contains(player));
+
+        assertEquals(2, gameManager.performMovement(player, List.of("S", "S")));
+        assertEquals(8, player.getY());
+        assertFalse(gameManager.getGameBoard().getRooms().get("Kitchen").getPlayersInRoom().contains(player));
+    }
+
+    @Test
+    void testValidateDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        byte[] moves = {PathValidator.NORTH, PathValidator.NORTH, PathValidator.WEST, PathValidator.WEST, PathValidator.EAST, PathValidator.STOP};
+        int start = topology.index(7, 20);
+        long checksum = 0;
+
+        long before = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        for (int i = 0; i < 100_000; i++) {
+            checksum += PathValidator.validate(start, moves, moves.length, 6, noPlayers);
+        }
+        long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+
+        assertNotEquals(0, checksum);
+        // a single allocation per call would already be megabytes
+        assertTrue(allocated < 100_000, "allocated " + allocated + " bytes");
+    }
+}
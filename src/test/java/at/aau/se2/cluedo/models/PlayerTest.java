@@ -4,8 +4,10 @@ import at.aau.se2.cluedo.models.cards.BasicCard;
 import at.aau.se2.cluedo.models.cards.CardType;
 import at.aau.se2.cluedo.models.gameobjects.Player;
 import at.aau.se2.cluedo.models.gameobjects.PlayerColor;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 
 import java.util.UUID;
 
@@ -93,4 +95,17 @@ class PlayerTest {
         assertFalse(player.hasWon());
     }
 
+    @Test
+    void testReadFromClientJson() throws Exception {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        String json = "{\"name\":\"TestPlayer\",\"character\":\"Red\",\"playerID\":\"550e8400-e29b-41d4-a716-446655440000\","
+                + "\"x\":7,\"y\":24,\"color\":\"RED\"}";
+
+        Player read = mapper.readValue(json, Player.class);
+
+        assertEquals("TestPlayer", read.getName());
+        assertEquals(UUID.fromString("550e8400-e29b-41d4-a716-446655440000"), read.getPlayerID());
+        assertEquals(PlayerColor.RED, read.getColor());
+        assertEquals(24, read.getY());
+    }
 }
@@ -0,0 +1,159 @@
+package at.aau.se2.cluedo.models;
+
+import at.aau.se2.cluedo.models.gameboard.BoardTopology;
+import at.aau.se2.cluedo.models.gameboard.PathValidator;
+import at.aau.se2.cluedo.models.gameboard.Reachability;
+import at.aau.se2.cluedo.models.gamemanager.GameManager;
+import at.aau.se2.cluedo.models.gameobjects.Player;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReachabilityTest {
+
+    private final BoardTopology topology = BoardTopology.getInstance();
+    private final long[] noPlayers = PathValidator.newOccupancy();
+
+    private GameManager gameManager;
+    private Player player;
+
+    @BeforeEach
+    void setUp() {
+        gameManager = new GameManager(3);
+        player = gameManager.getPlayers().get(0);
+    }
+
+    @Test
+    void testSingleStepFromStart() {
+        Reachability reachability = Reachability.compute(topology.index(7, 24), 1, noPlayers);
+
+        // one step up the hallway, or through the Lounge door at 6,24 into the room
+        assertEquals(2, reachability.getTargets().length);
+        assertTrue(reachability.isReachable(topology.index(7, 23)));
+        assertTrue(reachability.isReachable(topology.index(6, 23)));
+        assertFalse(reachability.isReachable(topology.index(7, 24)));
+    }
+
+    @Test
+    void testDistancesGrowWithDice() {
+        int start = topology.index(7, 20);
+        int previous = 0;
+        for (int dice = 1; dice <= 12; dice++) {
+            int[] targets = Reachability.compute(start, dice, noPlayers).getTargets();
+            assertTrue(targets.length >= previous);
+            previous = targets.length;
+            for (int target : targets) {
+                assertTrue(topology.isAccessible(target));
+            }
+        }
+    }
+
+    @Test
+    void testWallsAreNeverReachable() {
+        Reachability reachability = Reachability.compute(topology.index(8, 8), 12, noPlayers);
+        assertFalse(reachability.isReachable(topology.index(12, 12)));
+        assertFalse(reachability.isReachable(topology.index(0, 8)));
+    }
+
+    @Test
+    void testOccupiedCellsBlock() {
+        long[] blocked = PathValidator.newOccupancy();
+        PathValidator.occupy(blocked, topology.index(7, 23));
+        PathValidator.occupy(blocked, topology.index(6, 23));
+
+        Reachability reachability = Reachability.compute(topology.index(7, 24), 6, blocked);
+
+        assertEquals(0, reachability.getTargets().length);
+    }
+
+    @Test
+    void testSecretPassage() {
+        int study = topology.getRoomId("Study");
+        int exit = topology.getPassageExit(study);
+
+        // one step from inside the Kitchen onto its passage leads to the Study
+        Reachability reachability = Reachability.compute(topology.index(5, 2), 1, noPlayers);
+
+        assertTrue(reachability.isReachable(exit));
+        assertEquals(1, reachability.getDistance(exit));
+    }
+
+    @Test
+    void testPathMatchesStepByStepMovement() {
+        int[][] starts = {{7, 24}, {7, 20}, {16, 12}, {3, 3}, {5, 2}};
+        for (int[] start : starts) {
+            for (int dice = 1; dice <= 6; dice++) {
+                int startCell = topology.index(start[0], start[1]);
+                Reachability reachability = Reachability.compute(startCell, dice, occupiedByOthers());
+
+                for (int target : reachability.getTargets()) {
+                    player.move(start[0], start[1]);
+                    gameManager.setDiceRollS(dice);
+                    List<String> path = reachability.getPathTo(target);
+
+                    assertEquals(reachability.getDistance(target), path.size());
+                    gameManager.performMovement(player, path);
+                    assertEquals(topology.x(target), player.getX(), "x from " + start[0] + "," + start[1] + " with " + path);
+                    assertEquals(topology.y(target), player.getY(), "y from " + start[0] + "," + start[1] + " with " + path);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testMoveTo() {
+        player.move(7, 20);
+        gameManager.setDiceRollS(3);
+
+        assertTrue(gameManager.moveTo(player, 7, 17));
+        assertEquals(7, player.getX());
+        assertEquals(17, player.getY());
+    }
+
+    @Test
+    void testMoveToUnreachable() {
+        player.move(7, 20);
+        gameManager.setDiceRollS(2);
+
+        assertFalse(gameManager.moveTo(player, 7, 17));
+        assertFalse(gameManager.moveTo(player, 0, 0));
+        assertFalse(gameManager.moveTo(player, -1, 30));
+        assertEquals(7, player.getX());
+        assertEquals(20, player.getY());
+    }
+
+    @Test
+    void testMoveToOccupiedCell() {
+        Player other = gameManager.getPlayers().get(1);
+        other.move(7, 19);
+        player.move(7, 20);
+        gameManager.setDiceRollS(1);
+
+        assertFalse(gameManager.moveTo(player, 7, 19));
+        assertFalse(gameManager.getReachableCells(player).isReachable(topology.index(7, 19)));
+    }
+
+    @Test
+    void testOffBoardPlayerReachesNothing() {
+        player.move(-1, -1);
+        gameManager.setDiceRollS(6);
+
+        Reachability reachability = gameManager.getReachableCells(player);
+
+        assertEquals(0, reachability.getTargets().length);
+        assertTrue(reachability.getPathTo(topology.index(7, 23)).isEmpty());
+    }
+
+    private long[] occupiedByOthers() {
+        long[] blocked = PathValidator.newOccupancy();
+        for (Player p : gameManager.getPlayers()) {
+            if (p != player) {
+                PathValidator.occupy(blocked, topology.index(p.getX(), p.getY()));
+            }
+        }
+        return blocked;
+    }
+}
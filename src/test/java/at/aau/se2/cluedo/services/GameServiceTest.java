@@ -2,6 +2,7 @@ package at.aau.se2.cluedo.services;
 
 import at.aau.se2.cluedo.dto.SuggestionRequest;
 import at.aau.se2.cluedo.dto.AccusationRequest;
+import at.aau.se2.cluedo.dto.GameDataResponse;
 import at.aau.se2.cluedo.models.cards.BasicCard;
 import at.aau.se2.cluedo.models.cards.CardType;
 import at.aau.se2.cluedo.models.gamemanager.GameManager;
@@ -9,13 +10,14 @@ import at.aau.se2.cluedo.models.gameobjects.Player;
 import at.aau.se2.cluedo.models.gameobjects.PlayerColor;
 import at.aau.se2.cluedo.models.gameobjects.SecretFile;
 import at.aau.se2.cluedo.models.lobby.Lobby;
+import at.aau.se2.cluedo.services.journal.GameJournal;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.ObjectProvider;
 
 
 import java.util.ArrayList;
@@ -30,7 +32,12 @@ class GameServiceTest {
     @Mock
     private LobbyService lobbyService;
 
-    @InjectMocks
+    @Mock
+    private ObjectProvider<TurnService> turnServiceProvider;
+
+    @Mock
+    private TurnService turnService;
+
     private GameService gameService;
 
     private Player player1;
@@ -42,6 +49,7 @@ class GameServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        gameService = new GameService(lobbyService, new GameJournal(), new RandomService(), turnServiceProvider);
 
         player1 = new Player("Player1", "Player1", 0, 0, PlayerColor.RED);
         player2 = new Player("Player2", "Player2", 0, 0, PlayerColor.BLUE);
@@ -50,6 +58,7 @@ class GameServiceTest {
         testLobby = new Lobby(TEST_LOBBY_ID, player1);
         testLobby.addPlayer(player2);
         testLobby.addPlayer(player3);
+        when(turnServiceProvider.getIfAvailable()).thenReturn(turnService);
     }
 
     @Test
@@ -344,6 +353,7 @@ class GameServiceTest {
         List<String> movement = new ArrayList<>(List.of("W", "A"));
 
         simpleGameService.getActiveGames().put("test-lobby", manager);
+        when(manager.getPlayer(player.getPlayerID())).thenReturn(player);
         doAnswer(invocation -> {
             // Verify movement list is cleared
             movement.clear();
@@ -356,6 +366,20 @@ class GameServiceTest {
         verify(manager).performMovement(player, movement);
     }
 
+    @Test
+    void testPerformMovementOfStrangerIsRejected() {
+        when(lobbyService.getLobby(TEST_LOBBY_ID)).thenReturn(testLobby);
+        GameManager game = gameService.startGameFromLobby(TEST_LOBBY_ID);
+        Player stranger = new Player("Stranger", "Stranger", 7, 24, PlayerColor.WHITE);
+        List<String> movement = new ArrayList<>(List.of("W"));
+
+        gameService.performMovement(stranger, movement, TEST_LOBBY_ID);
+
+        assertEquals(24, stranger.getY());
+        assertNull(game.getPlayer("Stranger"));
+        assertFalse(movement.isEmpty());
+    }
+
     @Test
     void getGame_WithExistingLobbyId_ShouldReturnCorrectGameManager() {
         GameManager gm = new GameManager(List.of(player1, player2, player3));
@@ -383,5 +407,67 @@ class GameServiceTest {
         assertTrue(result.contains("Wrong!") || result.contains("Victor"), "Message should acknowledge accusation");
     }
 
-}
+    @Test
+    void testGetReachableTargets() {
+        when(lobbyService.getLobby(TEST_LOBBY_ID)).thenReturn(testLobby);
+        GameManager game = gameService.startGameFromLobby(TEST_LOBBY_ID);
+        Player scarlet = game.getPlayer("Player1");
+        game.setDiceRollS(1);
+
+        List<int[]> targets = gameService.getReachableTargets(TEST_LOBBY_ID, "Player1");
+
+        assertEquals(7, scarlet.getX());
+        assertEquals(24, scarlet.getY());
+        assertEquals(2, targets.size());
+        assertTrue(targets.stream().anyMatch(t -> t[0] == 7 && t[1] == 23));
+        assertTrue(gameService.getReachableTargets(TEST_LOBBY_ID, "Unknown").isEmpty());
+        assertTrue(gameService.getReachableTargets("no-game", "Player1").isEmpty());
+    }
 
+    @Test
+    void testMoveTo() {
+        when(lobbyService.getLobby(TEST_LOBBY_ID)).thenReturn(testLobby);
+        GameManager game = gameService.startGameFromLobby(TEST_LOBBY_ID);
+        game.setDiceRollS(3);
+        when(turnService.getTurnState(TEST_LOBBY_ID)).thenReturn(TurnService.TurnState.PLAYERS_TURN_MOVE);
+
+        assertFalse(gameService.moveTo(TEST_LOBBY_ID, "Player1", 0, 0));
+        assertFalse(gameService.moveTo(TEST_LOBBY_ID, "Unknown", 7, 20));
+        assertTrue(gameService.moveTo(TEST_LOBBY_ID, "Player1", 7, 21));
+        assertEquals(21, game.getPlayer("Player1").getY());
+        assertEquals(0, game.getDiceRollS());
+    }
+
+    @Test
+    void testMoveToNeedsTheTurnAndAnUnusedRoll() {
+        when(lobbyService.getLobby(TEST_LOBBY_ID)).thenReturn(testLobby);
+        GameManager game = gameService.startGameFromLobby(TEST_LOBBY_ID);
+        game.setDiceRollS(3);
+        String other = game.getPlayers().get(1).getName();
+
+        when(turnService.getTurnState(TEST_LOBBY_ID)).thenReturn(TurnService.TurnState.PLAYERS_TURN_ROLL_DICE);
+        assertFalse(gameService.moveTo(TEST_LOBBY_ID, "Player1", 7, 23));
+
+        when(turnService.getTurnState(TEST_LOBBY_ID)).thenReturn(TurnService.TurnState.PLAYERS_TURN_MOVE);
+        assertFalse(gameService.moveTo(TEST_LOBBY_ID, other, game.getPlayer(other).getX(), game.getPlayer(other).getY() + 1));
+        assertTrue(gameService.moveTo(TEST_LOBBY_ID, "Player1", 7, 23));
+        // the roll is used up
+        assertFalse(gameService.moveTo(TEST_LOBBY_ID, "Player1", 7, 22));
+        assertEquals(23, game.getPlayer("Player1").getY());
+    }
+
+    @Test
+    void testGetGameData() {
+        when(lobbyService.getLobby(TEST_LOBBY_ID)).thenReturn(testLobby);
+        GameManager game = gameService.startGameFromLobby(TEST_LOBBY_ID);
+        game.nextStateVersion();
+
+        GameDataResponse data = gameService.getGameData(TEST_LOBBY_ID);
+
+        assertEquals(TEST_LOBBY_ID, data.getLobbyId());
+        assertEquals(3, data.getPlayers().size());
+        assertSame(game.getCurrentPlayer(), data.getPlayingPlayer());
+        assertEquals(game.getStateVersion(), data.getVersion());
+        assertNull(gameService.getGameData("no-game"));
+    }
+}
@@ -0,0 +1,183 @@
+package at.aau.se2.cluedo.services;
+
+import at.aau.se2.cluedo.dto.LobbyDirectoryDelta;
+import at.aau.se2.cluedo.dto.LobbyPageResponse;
+import at.aau.se2.cluedo.dto.LobbyQueryRequest;
+import at.aau.se2.cluedo.dto.LobbySummary;
+import at.aau.se2.cluedo.models.gameobjects.Player;
+import at.aau.se2.cluedo.models.gameobjects.PlayerColor;
+import at.aau.se2.cluedo.models.lobby.Lobby;
+import at.aau.se2.cluedo.services.LobbyDirectory.LobbyState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class LobbyDirectoryTest {
+
+    private SimpMessagingTemplate messagingTemplate;
+    private LobbyDirectory directory;
+
+    @BeforeEach
+    void setUp() {
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        directory = new LobbyDirectory(messagingTemplate);
+    }
+
+    private static Lobby lobby(String id, int players) {
+        Lobby lobby = new Lobby(id, new Player(id + "-host", "Host", 0, 0, PlayerColor.RED));
+        for (int i = 1; i < players; i++) {
+            lobby.addPlayer(new Player(id + "-" + i, "Player", 0, 0, PlayerColor.values()[i]));
+        }
+        return lobby;
+    }
+
+    private static List<String> ids(LobbyPageResponse page) {
+        return page.getLobbies().stream().map(LobbySummary::getId).toList();
+    }
+
+    @Test
+    void testFiltersByFreeSeatsAndState() {
+        directory.update(lobby("a", 5), LobbyState.OPEN);
+        directory.update(lobby("b", 2), LobbyState.OPEN);
+        directory.update(lobby("c", 4), LobbyState.OPEN);
+        directory.update(lobby("d", 6), LobbyState.OPEN);
+        directory.update(lobby("e", 4), LobbyState.IN_GAME);
+
+        LobbyPageResponse almostFull = directory.query(new LobbyQueryRequest(1, 2, true, null, 10));
+        LobbyPageResponse all = directory.query(new LobbyQueryRequest());
+
+        assertEquals(List.of("a", "c"), ids(almostFull));
+        assertTrue(almostFull.getLobbies().stream().allMatch(LobbySummary::isJoinable));
+        assertEquals(List.of("a", "b", "c", "d", "e"), ids(all));
+        assertNull(all.getNextCursor());
+    }
+
+    @Test
+    void testPagesFollowCreationOrder() {
+        List<String> created = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            created.add("lobby-" + i);
+            directory.update(lobby("lobby-" + i, 1 + i % 6), LobbyState.OPEN);
+        }
+
+        List<String> paged = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            LobbyPageResponse page = directory.query(new LobbyQueryRequest(0, 0, false, cursor, 10));
+            paged.addAll(ids(page));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(created, paged);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void testFullPageOfOneBucketHasCursorOnlyIfMoreFollow() {
+        for (int i = 0; i < 3; i++) {
+            directory.update(lobby("lobby-" + i, 2), LobbyState.OPEN);
+        }
+
+        LobbyPageResponse exact = directory.query(new LobbyQueryRequest(0, 0, false, null, 3));
+        directory.update(lobby("lobby-3", 2), LobbyState.OPEN);
+        LobbyPageResponse first = directory.query(new LobbyQueryRequest(0, 0, false, null, 3));
+        LobbyPageResponse second = directory.query(new LobbyQueryRequest(0, 0, false, first.getNextCursor(), 3));
+
+        assertEquals(List.of("lobby-0", "lobby-1", "lobby-2"), ids(exact));
+        assertNull(exact.getNextCursor());
+        assertEquals(List.of("lobby-0", "lobby-1", "lobby-2"), ids(first));
+        assertEquals(List.of("lobby-3"), ids(second));
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void testUpdatesMoveLobbyBetweenBuckets() {
+        Lobby lobby = lobby("a", 3);
+        directory.update(lobby, LobbyState.OPEN);
+        lobby.addPlayer(new Player("late", "Player", 0, 0, PlayerColor.PURPLE));
+        directory.update(lobby);
+
+        assertEquals(List.of("a"), ids(directory.query(new LobbyQueryRequest(2, 2, true, null, 10))));
+        assertTrue(directory.query(new LobbyQueryRequest(3, 3, true, null, 10)).getLobbies().isEmpty());
+
+        directory.update(lobby, LobbyState.IN_GAME);
+        assertTrue(directory.query(new LobbyQueryRequest(0, 0, true, null, 10)).getLobbies().isEmpty());
+        assertEquals(1, directory.size());
+    }
+
+    @Test
+    void testPublishesDeltasOnlyForChanges() {
+        Lobby lobby = lobby("a", 1);
+        directory.update(lobby, LobbyState.OPEN);
+        directory.update(lobby);
+        directory.remove("a");
+        directory.remove("a");
+
+        ArgumentCaptor<LobbyDirectoryDelta> deltas = ArgumentCaptor.forClass(LobbyDirectoryDelta.class);
+        verify(messagingTemplate, times(2)).convertAndSend(eq(LobbyDirectory.DELTA_TOPIC), deltas.capture());
+        assertEquals("UPDATED", deltas.getAllValues().get(0).getType());
+        assertEquals(5, deltas.getAllValues().get(0).getLobby().getFreeSeats());
+        assertEquals("REMOVED", deltas.getAllValues().get(1).getType());
+        assertTrue(deltas.getAllValues().get(1).getVersion() > deltas.getAllValues().get(0).getVersion());
+        assertEquals(0, directory.size());
+    }
+
+    @Test
+    void testConcurrentChangesArePublishedInVersionOrder() throws Exception {
+        List<Long> published = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> published.add(invocation.<LobbyDirectoryDelta>getArgument(1).getVersion()))
+                .when(messagingTemplate).convertAndSend(eq(LobbyDirectory.DELTA_TOPIC), any(Object.class));
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                String id = "lobby-" + t;
+                writers.add(pool.submit(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        directory.update(lobby(id, i % LobbyDirectory.MAX_SEATS + 1), LobbyState.OPEN);
+                        directory.remove(id);
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1600, published.size());
+        for (int i = 0; i < published.size(); i++) {
+            assertEquals(i + 1, published.get(i));
+        }
+    }
+
+    @Test
+    void testPageSizeIsCapped() {
+        for (int i = 0; i < LobbyDirectory.MAX_PAGE_SIZE + 5; i++) {
+            directory.update(lobby("lobby-" + i, 1), LobbyState.OPEN);
+        }
+
+        LobbyPageResponse page = directory.query(new LobbyQueryRequest(0, 0, false, "not-a-cursor", 10_000));
+
+        assertEquals(LobbyDirectory.MAX_PAGE_SIZE, page.getLobbies().size());
+        assertNotNull(page.getNextCursor());
+    }
+}
@@ -0,0 +1,230 @@
+package at.aau.se2.cluedo.services;
+
+import at.aau.se2.cluedo.models.gamemanager.GameManager;
+import at.aau.se2.cluedo.models.gameobjects.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LobbyDispatcherTest {
+
+    private static final int SUBMITTERS = 16;
+    private static final int COMMANDS_PER_SUBMITTER = 2_000;
+
+    private LobbyDispatcher dispatcher;
+    private ExecutorService submitters;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new LobbyDispatcher(4);
+        submitters = Executors.newFixedThreadPool(SUBMITTERS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        submitters.shutdownNow();
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void testCommandsOfOneLobbyAreSerialAndOrderedPerSubmitter() throws Exception {
+        int total = SUBMITTERS * COMMANDS_PER_SUBMITTER;
+        int[] counter = new int[1];
+        int[] lastSeen = new int[SUBMITTERS];
+        AtomicBoolean running = new AtomicBoolean(false);
+        AtomicInteger overlaps = new AtomicInteger();
+        AtomicInteger reordered = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(total);
+
+        for (int s = 0; s < SUBMITTERS; s++) {
+            int submitter = s;
+            lastSeen[submitter] = -1;
+            submitters.execute(() -> {
+                for (int i = 0; i < COMMANDS_PER_SUBMITTER; i++) {
+                    int sequence = i;
+                    dispatcher.execute("lobby", () -> {
+                        if (!running.compareAndSet(false, true)) {
+                            overlaps.incrementAndGet();
+                        }
+                        // plain, unsynchronized state: only correct if the mailbox is the single writer
+                        counter[0]++;
+                        if (lastSeen[submitter] != sequence - 1) {
+                            reordered.incrementAndGet();
+                        }
+                        lastSeen[submitter] = sequence;
+                        running.set(false);
+                        done.countDown();
+                    });
+                }
+            });
+        }
+
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        assertEquals(total, dispatcher.call("lobby", () -> counter[0]));
+        assertEquals(0, overlaps.get());
+        assertEquals(0, reordered.get());
+        assertEquals(0, dispatcher.getQueuedCommandCount());
+    }
+
+    @Test
+    void testVirtualThreadWorkersKeepLobbyOrder() throws Exception {
+        dispatcher.shutdown();
+        // before Java 21 this falls back to the worker pool
+        dispatcher = new LobbyDispatcher(0, true);
+
+        testCommandsOfOneLobbyAreSerialAndOrderedPerSubmitter();
+    }
+
+    @Test
+    void testConcurrentTurnAdvancesKeepGameConsistent() throws Exception {
+        GameManager gameManager = new GameManager(6);
+        int turns = SUBMITTERS * 500;
+        CountDownLatch done = new CountDownLatch(turns);
+
+        for (int s = 0; s < SUBMITTERS; s++) {
+            submitters.execute(() -> {
+                for (int i = 0; i < turns / SUBMITTERS; i++) {
+                    dispatcher.execute("game", () -> {
+                        gameManager.nextTurn();
+                        done.countDown();
+                    });
+                }
+            });
+        }
+
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        int currentIndex = dispatcher.call("game", gameManager::getCurrentPlayerIndex);
+        assertEquals(turns % 6, currentIndex);
+
+        List<Player> current = new ArrayList<>();
+        for (Player player : gameManager.getPlayers()) {
+            if (player.isCurrentPlayer()) {
+                current.add(player);
+            }
+        }
+        assertEquals(1, current.size());
+    }
+
+    @Test
+    void testDifferentLobbiesRunInParallel() throws Exception {
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        CountDownLatch done = new CountDownLatch(2);
+        AtomicInteger passed = new AtomicInteger();
+
+        for (String lobbyId : List.of("lobby-a", "lobby-b")) {
+            dispatcher.execute(lobbyId, () -> {
+                try {
+                    barrier.await(5, TimeUnit.SECONDS);
+                    passed.incrementAndGet();
+                } catch (Exception e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(2, passed.get());
+        assertEquals(2, dispatcher.getMailboxCount());
+    }
+
+    @Test
+    void testCallIsReentrantOnOwnMailbox() {
+        String result = dispatcher.call("lobby", () -> {
+            assertTrue(dispatcher.isDispatching("lobby"));
+            return dispatcher.call("lobby", () -> "nested");
+        });
+
+        assertEquals("nested", result);
+        assertFalse(dispatcher.isDispatching("lobby"));
+    }
+
+    @Test
+    void testCallRethrowsCommandException() {
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                () -> dispatcher.run("lobby", () -> {
+                    throw new IllegalStateException("boom");
+                }));
+
+        assertEquals("boom", thrown.getMessage());
+        assertEquals("still alive", dispatcher.call("lobby", () -> "still alive"));
+    }
+
+    @Test
+    void testRemoveMailbox() {
+        dispatcher.run("lobby", () -> { });
+        assertEquals(1, dispatcher.getMailboxCount());
+
+        dispatcher.removeMailbox("lobby");
+
+        assertEquals(0, dispatcher.getMailboxCount());
+    }
+
+    @Test
+    void testRemovedMailboxDropsQueuedCommands() throws Exception {
+        CountDownLatch removing = new CountDownLatch(1);
+        CountDownLatch queued = new CountDownLatch(1);
+        AtomicBoolean ranLate = new AtomicBoolean();
+        dispatcher.execute("lobby", () -> {
+            removing.countDown();
+            try {
+                queued.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            dispatcher.removeMailbox("lobby");
+        });
+        assertTrue(removing.await(5, TimeUnit.SECONDS));
+        dispatcher.execute("lobby", () -> ranLate.set(true));
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> result = caller.submit(() -> dispatcher.call("lobby", () -> "late"));
+            while (!result.isDone() && dispatcher.getQueuedCommandCount() < 2) {
+                Thread.sleep(5);
+            }
+            queued.countDown();
+
+            ExecutionException thrown = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, thrown.getCause());
+        } finally {
+            caller.shutdownNow();
+        }
+        assertFalse(ranLate.get());
+
+        // the next command gets a new mailbox
+        assertEquals("new", dispatcher.call("lobby", () -> "new"));
+        assertEquals(1, dispatcher.getMailboxCount());
+    }
+
+    @Test
+    void testCommandListenerRunsAfterEachCommandOnTheMailbox() {
+        List<String> calls = new CopyOnWriteArrayList<>();
+        dispatcher.addCommandListener(lobbyId -> {
+            assertTrue(dispatcher.isDispatching(lobbyId));
+            calls.add(lobbyId + ":" + dispatcher.getCurrentLobby());
+        });
+
+        dispatcher.run("lobby", () -> calls.add("command"));
+        dispatcher.run("lobby", () -> { });
+
+        // the second run returns before its listener, the first listener ran before it started
+        assertEquals(List.of("command", "lobby:lobby"), calls.subList(0, 2));
+        assertNull(dispatcher.getCurrentLobby());
+    }
+}
@@ -0,0 +1,177 @@
+package at.aau.se2.cluedo.services;
+
+import at.aau.se2.cluedo.models.cards.BasicCard;
+import at.aau.se2.cluedo.models.gamemanager.GameManager;
+import at.aau.se2.cluedo.models.gameobjects.Player;
+import at.aau.se2.cluedo.models.gameobjects.PlayerColor;
+import at.aau.se2.cluedo.models.gameobjects.SecretFile;
+import at.aau.se2.cluedo.services.events.GameEventPublisher;
+import at.aau.se2.cluedo.services.events.LobbyEventLog;
+import at.aau.se2.cluedo.services.journal.GameJournal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class LobbyLifecycleManagerTest {
+
+    private LobbyService lobbyService;
+    private GameService gameService;
+    private TurnService turnService;
+    private LobbyDispatcher lobbyDispatcher;
+    private SimpleMeterRegistry meterRegistry;
+    private LobbyEventLog eventLog;
+
+    @BeforeEach
+    void setUp() {
+        lobbyService = new LobbyService(new LobbyRegistry());
+        gameService = new GameService(lobbyService);
+        lobbyDispatcher = new LobbyDispatcher(2);
+        turnService = new TurnService(gameService, new GameEventPublisher(mock(SimpMessagingTemplate.class)), lobbyDispatcher,
+                new GameJournal());
+        meterRegistry = new SimpleMeterRegistry();
+        eventLog = new LobbyEventLog();
+    }
+
+    @AfterEach
+    void tearDown() {
+        lobbyDispatcher.shutdown();
+    }
+
+    private LobbyLifecycleManager manager(long idleTtlMs, long graceMs) {
+        return new LobbyLifecycleManager(lobbyService, gameService, turnService, lobbyDispatcher, new GameJournal(),
+                eventLog, meterRegistry, idleTtlMs, graceMs, 10);
+    }
+
+    private double evicted(String reason) {
+        return meterRegistry.get("cluedo.lifecycle.evicted").tag("reason", reason).counter().count();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+
+    private String createLobby(int players) {
+        String lobbyId = lobbyService.createLobby(new Player("Alice", "Red", 0, 0, PlayerColor.RED));
+        turnService.initializeLobbyState(lobbyId);
+        for (int i = 1; i < players; i++) {
+            lobbyService.joinLobby(lobbyId, new Player("Player" + i, "Player", 0, 0, PlayerColor.values()[i]));
+        }
+        return lobbyId;
+    }
+
+    private void accuseWrong(String lobbyId) {
+        GameManager game = gameService.getGame(lobbyId);
+        SecretFile solution = game.getSecretFile();
+        String wrongWeapon = BasicCard.getWeapons().stream()
+                .filter(weapon -> !weapon.cardEquals(solution.weapon()))
+                .findFirst().orElseThrow().getCardName();
+        turnService.processAccusation(lobbyId, game.getCurrentPlayer().getName(),
+                solution.character().getCardName(), wrongWeapon, solution.room().getCardName());
+    }
+
+    @Test
+    void testEvictsIdleLobby() throws InterruptedException {
+        String lobbyId = createLobby(2);
+        LobbyLifecycleManager manager = manager(0, 0);
+
+        manager.sweep();
+        await(() -> evicted(LobbyLifecycleManager.IDLE_LOBBY) == 1);
+
+        assertNull(lobbyService.getLobby(lobbyId));
+        assertEquals(0, turnService.getLobbyCount());
+        assertEquals(0, lobbyDispatcher.getMailboxCount());
+    }
+
+    @Test
+    void testKeepsActiveLobbiesAndRunningGames() throws InterruptedException {
+        String idle = createLobby(2);
+        String playing = createLobby(3);
+        gameService.startGameFromLobby(playing);
+        turnService.initializeTurnState(playing);
+        LobbyLifecycleManager manager = manager(TimeUnit.HOURS.toMillis(1), 0);
+
+        lobbyDispatcher.run(idle, () -> { });
+        manager.sweep();
+        lobbyDispatcher.run(idle, () -> { });
+        lobbyDispatcher.run(playing, () -> { });
+
+        assertNotNull(lobbyService.getLobby(idle));
+        assertNotNull(gameService.getGame(playing));
+        assertEquals(0, evicted(LobbyLifecycleManager.IDLE_LOBBY));
+        assertEquals(0, evicted(LobbyLifecycleManager.FINISHED_GAME));
+    }
+
+    @Test
+    void testArchivesFinishedGameAfterGracePeriod() throws InterruptedException {
+        String lobbyId = createLobby(3);
+        gameService.startGameFromLobby(lobbyId);
+        turnService.initializeTurnState(lobbyId);
+        accuseWrong(lobbyId);
+        accuseWrong(lobbyId);
+        LobbyLifecycleManager manager = manager(TimeUnit.HOURS.toMillis(1), 0);
+
+        manager.sweep();
+        await(() -> evicted(LobbyLifecycleManager.FINISHED_GAME) == 1);
+
+        assertNull(gameService.getGame(lobbyId));
+        assertNull(lobbyService.getLobby(lobbyId));
+        assertEquals(0, turnService.getLobbyCount());
+        assertEquals(1, manager.getArchivedGames().size());
+        assertEquals(lobbyId, manager.getArchivedGames().get(0).lobbyId());
+        assertEquals(3, manager.getArchivedGames().get(0).players().size());
+    }
+
+    @Test
+    void testFinishedGameWaitsForGracePeriod() throws InterruptedException {
+        String lobbyId = createLobby(3);
+        gameService.startGameFromLobby(lobbyId);
+        turnService.initializeTurnState(lobbyId);
+        accuseWrong(lobbyId);
+        accuseWrong(lobbyId);
+        LobbyLifecycleManager manager = manager(TimeUnit.HOURS.toMillis(1), TimeUnit.HOURS.toMillis(1));
+
+        manager.sweep();
+        lobbyDispatcher.run(lobbyId, () -> { });
+
+        assertNotNull(gameService.getGame(lobbyId));
+        assertEquals(0, manager.getArchivedGameCount());
+    }
+
+    @Test
+    void testRemovesIdleMailboxesOfUnknownIds() {
+        lobbyDispatcher.run("reply-id", () -> { });
+        LobbyLifecycleManager manager = manager(0, 0);
+
+        manager.sweep();
+
+        assertEquals(0, lobbyDispatcher.getMailboxCount());
+        assertEquals(1, evicted(LobbyLifecycleManager.IDLE_MAILBOX));
+        assertTrue(meterRegistry.get("cluedo.lifecycle.heap.used").gauge().value() > 0);
+    }
+
+    @Test
+    void testRemovesEventLogs() throws Exception {
+        String lobbyId = createLobby(2);
+        eventLog.append(lobbyId, MessageBuilder.withPayload(new byte[1]).build());
+        eventLog.append("reply-id", MessageBuilder.withPayload(new byte[1]).build());
+        LobbyLifecycleManager manager = manager(0, 0);
+
+        manager.sweep();
+        await(() -> evicted(LobbyLifecycleManager.IDLE_LOBBY) == 1);
+
+        assertEquals(0, eventLog.getLobbyCount());
+    }
+}
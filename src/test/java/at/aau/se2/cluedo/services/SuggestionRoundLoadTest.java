@@ -0,0 +1,136 @@
+package at.aau.se2.cluedo.services;
+
+import at.aau.se2.cluedo.dto.SuggestionRequest;
+import at.aau.se2.cluedo.models.gamemanager.GameManager;
+import at.aau.se2.cluedo.models.gameobjects.Player;
+import at.aau.se2.cluedo.services.events.GameEventPublisher;
+import at.aau.se2.cluedo.services.journal.GameJournal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs hundreds of suggestion rounds at once on a small pool that stands in for the
+ * clientInboundChannel executor. With the old blocking implementation every round would pin
+ * one of the four threads until all players answered.
+ */
+class SuggestionRoundLoadTest {
+
+    private static final int LOBBIES = 400;
+    private static final int INBOUND_THREADS = 4;
+
+    private ExecutorService inboundPool;
+    private TurnService turnService;
+    private GameService gameService;
+    private RespondingTemplate messagingTemplate;
+    private CountDownLatch finishedRounds;
+    private LobbyDispatcher lobbyDispatcher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        inboundPool = Executors.newFixedThreadPool(INBOUND_THREADS);
+        lobbyDispatcher = new LobbyDispatcher(INBOUND_THREADS);
+        finishedRounds = new CountDownLatch(LOBBIES);
+        messagingTemplate = new RespondingTemplate();
+        gameService = new GameService(new LobbyService(new LobbyRegistry()));
+        turnService = new TurnService(gameService, new GameEventPublisher(messagingTemplate), lobbyDispatcher,
+                new GameJournal());
+        turnService.setSuggestionResponseTimeoutMs(50);
+
+        for (int i = 0; i < LOBBIES; i++) {
+            gameService.getActiveGames().put("lobby-" + i, new GameManager(6));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        inboundPool.shutdownNow();
+        lobbyDispatcher.shutdown();
+        turnService.shutdownSuggestionTimeouts();
+    }
+
+    @Test
+    void hundredsOfConcurrentSuggestionRoundsComplete() throws Exception {
+        List<Future<Boolean>> submitted = new ArrayList<>();
+        long start = System.nanoTime();
+
+        for (int i = 0; i < LOBBIES; i++) {
+            String lobbyId = "lobby-" + i;
+            Player suggester = gameService.getGame(lobbyId).getCurrentPlayer();
+            SuggestionRequest request = new SuggestionRequest(suggester.getName(), suggester.getPlayerID().toString(),
+                    "Colonel Mustard", "Rope", "Kitchen");
+            submitted.add(inboundPool.submit(() -> turnService.processSuggestion(lobbyId, request)));
+        }
+
+        for (Future<Boolean> future : submitted) {
+            assertTrue(future.get(5, TimeUnit.SECONDS));
+        }
+        long acceptedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(finishedRounds.await(30, TimeUnit.SECONDS), "all suggestion rounds should finish");
+        assertEquals(0, turnService.getPendingSuggestionCount());
+
+        for (int i = 0; i < LOBBIES; i++) {
+            String lobbyId = "lobby-" + i;
+            assertFalse(turnService.hasActiveSuggestion(lobbyId));
+            assertEquals(1, gameService.getGame(lobbyId).getCurrentPlayerIndex());
+            assertEquals(TurnService.TurnState.PLAYERS_TURN_ROLL_DICE, turnService.getTurnState(lobbyId));
+        }
+        assertTrue(acceptedMillis < 5000, "accepting " + LOBBIES + " suggestions took " + acceptedMillis + "ms");
+    }
+
+    /**
+     * Answers suggestion requests on the inbound pool: every fourth lobby never answers (timeouts),
+     * the others pass twice and then show a card.
+     */
+    private class RespondingTemplate extends SimpMessagingTemplate {
+        private final Map<String, AtomicInteger> answers = new ConcurrentHashMap<>();
+
+        RespondingTemplate() {
+            super(new MessageChannel() {
+                @Override
+                public boolean send(Message<?> message) {
+                    return true;
+                }
+
+                @Override
+                public boolean send(Message<?> message, long timeout) {
+                    return true;
+                }
+            });
+        }
+
+        @Override
+        public void convertAndSend(String destination, Object payload) {
+            if (destination.startsWith("/topic/currentTurn/")) {
+                finishedRounds.countDown();
+            } else if (destination.startsWith("/topic/processSuggestion/")) {
+                String[] parts = destination.split("/");
+                String lobbyId = parts[3];
+                String playerId = parts[4];
+                if (Integer.parseInt(lobbyId.substring("lobby-".length())) % 4 == 0) {
+                    return;
+                }
+                int answer = answers.computeIfAbsent(lobbyId, k -> new AtomicInteger()).incrementAndGet();
+                String card = answer < 3 ? "" : "Rope";
+                inboundPool.execute(() -> turnService.receiveSuggestionResponse(playerId, card));
+            }
+        }
+    }
+}
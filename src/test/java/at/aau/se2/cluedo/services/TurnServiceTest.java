@@ -1,5 +1,6 @@
 package at.aau.se2.cluedo.services;
 
+import at.aau.se2.cluedo.dto.SuggestionRequest;
 import at.aau.se2.cluedo.models.cards.BasicCard;
 import at.aau.se2.cluedo.models.cards.CardType;
 import at.aau.se2.cluedo.models.gameboard.GameBoard;
@@ -10,11 +11,15 @@ import at.aau.se2.cluedo.models.gamemanager.GameState;
 import at.aau.se2.cluedo.models.gameobjects.Player;
 import at.aau.se2.cluedo.models.gameobjects.SecretFile;
 import at.aau.se2.cluedo.services.TurnService.TurnState;
+import at.aau.se2.cluedo.services.events.GameEventPublisher;
+import at.aau.se2.cluedo.services.journal.GameJournal;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 
+import java.util.UUID;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -44,19 +49,8 @@ class TurnServiceTest {
     void setUp() {
         gameService = mock(GameService.class);
         messagingTemplate = mock(SimpMessagingTemplate.class);
-        turnService = new TurnService();
-
-        try {
-            java.lang.reflect.Field gameServiceField = TurnService.class.getDeclaredField("gameService");
-            gameServiceField.setAccessible(true);
-            gameServiceField.set(turnService, gameService);
-
-            java.lang.reflect.Field messagingTemplateField = TurnService.class.getDeclaredField("messagingTemplate");
-            messagingTemplateField.setAccessible(true);
-            messagingTemplateField.set(turnService, messagingTemplate);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        turnService = new TurnService(gameService, new GameEventPublisher(messagingTemplate), new LobbyDispatcher(),
+                new GameJournal());
 
         testPlayer = mock(Player.class);
         testPlayer2 = mock(Player.class);
@@ -329,4 +323,90 @@ class TurnServiceTest {
         assertFalse(result);
     }
 
+    @Test
+    void testProcessSuggestion_ReturnsImmediatelyAndAsksNextPlayer() {
+        UUID secondId = UUID.randomUUID();
+        when(gameService.getGame(TEST_LOBBY_ID)).thenReturn(mockGameManager);
+        when(testPlayer2.getPlayerID()).thenReturn(secondId);
+        when(mockGameManager.getNextPlayer(TEST_PLAYER_NAME)).thenReturn(testPlayer2);
+
+        boolean result = turnService.processSuggestion(TEST_LOBBY_ID, suggestion());
+
+        assertTrue(result);
+        assertTrue(turnService.hasActiveSuggestion(TEST_LOBBY_ID));
+        assertEquals(1, turnService.getPendingSuggestionCount());
+        verify(messagingTemplate).convertAndSend(eq("/topic/processSuggestion/" + TEST_LOBBY_ID + "/" + secondId), any(Object.class));
+    }
+
+    @Test
+    void testReceiveSuggestionResponse_WithCardFinishesRound() {
+        UUID secondId = UUID.randomUUID();
+        when(gameService.getGame(TEST_LOBBY_ID)).thenReturn(mockGameManager);
+        when(testPlayer2.getPlayerID()).thenReturn(secondId);
+        when(mockGameManager.getNextPlayer(TEST_PLAYER_NAME)).thenReturn(testPlayer2);
+        when(mockGameManager.checkGameEnd()).thenReturn(false);
+        turnService.processSuggestion(TEST_LOBBY_ID, suggestion());
+
+        turnService.receiveSuggestionResponse(secondId.toString(), "Rope");
+
+        assertFalse(turnService.hasActiveSuggestion(TEST_LOBBY_ID));
+        assertEquals(0, turnService.getPendingSuggestionCount());
+        verify(messagingTemplate).convertAndSend(eq("/topic/resultSuggestion/" + TEST_LOBBY_ID + "/player-1"), any(Object.class));
+        verify(mockGameManager).nextTurn();
+    }
+
+    @Test
+    void testReceiveSuggestionResponse_BlankAnswerWrapsAroundAndEndsTurn() {
+        UUID secondId = UUID.randomUUID();
+        when(gameService.getGame(TEST_LOBBY_ID)).thenReturn(mockGameManager);
+        when(testPlayer2.getPlayerID()).thenReturn(secondId);
+        when(mockGameManager.getNextPlayer(TEST_PLAYER_NAME)).thenReturn(testPlayer2);
+        when(mockGameManager.getNextPlayer(TEST_PLAYER_NAME_2)).thenReturn(testPlayer);
+        when(mockGameManager.checkGameEnd()).thenReturn(false);
+        turnService.processSuggestion(TEST_LOBBY_ID, suggestion());
+
+        turnService.receiveSuggestionResponse(secondId.toString(), "");
+
+        assertFalse(turnService.hasActiveSuggestion(TEST_LOBBY_ID));
+        verify(messagingTemplate, never()).convertAndSend(startsWith("/topic/resultSuggestion/"), any(Object.class));
+        verify(mockGameManager).nextTurn();
+    }
+
+    @Test
+    void testSuggestionTimeoutPassesToNextPlayer() {
+        UUID secondId = UUID.randomUUID();
+        when(gameService.getGame(TEST_LOBBY_ID)).thenReturn(mockGameManager);
+        when(testPlayer2.getPlayerID()).thenReturn(secondId);
+        when(mockGameManager.getNextPlayer(TEST_PLAYER_NAME)).thenReturn(testPlayer2);
+        when(mockGameManager.getNextPlayer(TEST_PLAYER_NAME_2)).thenReturn(testPlayer);
+        when(mockGameManager.checkGameEnd()).thenReturn(false);
+        turnService.setSuggestionResponseTimeoutMs(20);
+
+        turnService.processSuggestion(TEST_LOBBY_ID, suggestion());
+
+        verify(mockGameManager, timeout(2000)).nextTurn();
+        assertFalse(turnService.hasActiveSuggestion(TEST_LOBBY_ID));
+        assertEquals(0, turnService.getPendingSuggestionCount());
+    }
+
+    @Test
+    void testProcessSuggestion_RejectsSecondRoundInSameLobby() {
+        when(gameService.getGame(TEST_LOBBY_ID)).thenReturn(mockGameManager);
+        when(testPlayer2.getPlayerID()).thenReturn(UUID.randomUUID());
+        when(mockGameManager.getNextPlayer(TEST_PLAYER_NAME)).thenReturn(testPlayer2);
+
+        assertTrue(turnService.processSuggestion(TEST_LOBBY_ID, suggestion()));
+        assertFalse(turnService.processSuggestion(TEST_LOBBY_ID, suggestion()));
+    }
+
+    @Test
+    void testReceiveSuggestionResponse_UnknownPlayerIsIgnored() {
+        assertDoesNotThrow(() -> turnService.receiveSuggestionResponse(UUID.randomUUID().toString(), "Rope"));
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    private SuggestionRequest suggestion() {
+        return new SuggestionRequest(TEST_PLAYER_NAME, "player-1", "Colonel Mustard", "Rope", "Kitchen");
+    }
+
 }
@@ -0,0 +1,96 @@
+package at.aau.se2.cluedo.services.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashRingTest {
+
+    private static final int KEYS = 30_000;
+
+    private static List<String> keys() {
+        List<String> keys = new ArrayList<>(KEYS);
+        for (int i = 0; i < KEYS; i++) {
+            keys.add(UUID.nameUUIDFromBytes(("lobby" + i).getBytes()).toString());
+        }
+        return keys;
+    }
+
+    private static Map<String, String> owners(HashRing ring, List<String> keys) {
+        Map<String, String> owners = new HashMap<>();
+        keys.forEach(key -> owners.put(key, ring.ownerOf(key)));
+        return owners;
+    }
+
+    @Test
+    void testEmptyRingOwnsNothing() {
+        HashRing ring = new HashRing(16);
+        assertNull(ring.ownerOf("lobby"));
+        assertEquals("a", ring.withNode("a").ownerOf("lobby"));
+        assertThrows(IllegalArgumentException.class, () -> new HashRing(0));
+    }
+
+    @Test
+    void testSpreadsKeysEvenly() {
+        HashRing ring = new HashRing(128).withNode("a").withNode("b").withNode("c");
+        Map<String, Integer> counts = new HashMap<>();
+        owners(ring, keys()).values().forEach(owner -> counts.merge(owner, 1, Integer::sum));
+
+        assertEquals(3, counts.size());
+        for (int count : counts.values()) {
+            assertTrue(Math.abs(count - KEYS / 3) < KEYS / 3 * 0.2, "unbalanced: " + counts);
+        }
+    }
+
+    @Test
+    void testAddingNodeOnlyMovesKeysToIt() {
+        List<String> keys = keys();
+        HashRing ring = new HashRing(128).withNode("a").withNode("b").withNode("c");
+        Map<String, String> before = owners(ring, keys);
+        Map<String, String> after = owners(ring.withNode("d"), keys);
+
+        int moved = 0;
+        for (String key : keys) {
+            if (!before.get(key).equals(after.get(key))) {
+                assertEquals("d", after.get(key));
+                moved++;
+            }
+        }
+        assertTrue(Math.abs(moved - KEYS / 4) < KEYS / 4 * 0.2, "moved " + moved);
+    }
+
+    @Test
+    void testRemovingNodeOnlyMovesItsKeys() {
+        List<String> keys = keys();
+        HashRing ring = new HashRing(128).withNode("a").withNode("b").withNode("c");
+        Map<String, String> before = owners(ring, keys);
+        HashRing smaller = ring.withoutNode("b");
+        Map<String, String> after = owners(smaller, keys);
+
+        for (String key : keys) {
+            if (!before.get(key).equals("b")) {
+                assertEquals(before.get(key), after.get(key));
+            } else {
+                assertNotEquals("b", after.get(key));
+            }
+        }
+        assertFalse(smaller.contains("b"));
+        assertTrue(ring.contains("b"));
+    }
+
+    @Test
+    void testOwnersDoNotDependOnOrder() {
+        List<String> keys = keys();
+        HashRing abc = new HashRing(64).withNode("a").withNode("b").withNode("c");
+        HashRing cba = new HashRing(64).withNode("c").withNode("b").withNode("a");
+        assertEquals(owners(abc, keys), owners(cba, keys));
+        assertSame(abc, abc.withNode("a"));
+        assertSame(abc, abc.withoutNode("x"));
+    }
+}
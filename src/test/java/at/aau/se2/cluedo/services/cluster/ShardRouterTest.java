@@ -0,0 +1,120 @@
+package at.aau.se2.cluedo.services.cluster;
+
+import at.aau.se2.cluedo.config.ClusterProperties;
+import at.aau.se2.cluedo.config.MessagingProperties;
+import at.aau.se2.cluedo.models.gameobjects.Player;
+import at.aau.se2.cluedo.models.gameobjects.PlayerColor;
+import at.aau.se2.cluedo.services.GameService;
+import at.aau.se2.cluedo.services.LobbyDirectory;
+import at.aau.se2.cluedo.services.LobbyDispatcher;
+import at.aau.se2.cluedo.services.LobbyRegistry;
+import at.aau.se2.cluedo.services.TurnService;
+import at.aau.se2.cluedo.services.journal.GameJournal;
+import at.aau.se2.cluedo.services.journal.GameSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ShardRouterTest {
+
+    private ShardRouter router;
+
+    @AfterEach
+    void tearDown() {
+        if (router != null) {
+            router.close();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ShardRouter router(String secret) {
+        ClusterProperties properties = new ClusterProperties();
+        properties.setEnabled(true);
+        properties.setNodeId("a");
+        properties.setSecret(secret);
+        properties.setNodes(List.of(new ClusterProperties.Node("a", "ws://localhost:1/ws"),
+                // doesn't answer, a connect only ends with the timeout
+                new ClusterProperties.Node("b", "ws://10.255.255.1:8321/ws")));
+        return new ShardRouter(properties, new MessagingProperties(), mock(ObjectProvider.class),
+                mock(ObjectProvider.class), mock(ObjectProvider.class));
+    }
+
+    private String lobbyIdOwnedBy(String node) {
+        for (int i = 0; ; i++) {
+            String lobbyId = "lobby-" + i;
+            if (node.equals(router.ownerOf(lobbyId))) {
+                return lobbyId;
+            }
+        }
+    }
+
+    @Test
+    void testRefusesToStartWithoutSecret() {
+        assertThrows(IllegalStateException.class, () -> router(""));
+        assertThrows(IllegalStateException.class, () -> router(null));
+    }
+
+    @Test
+    void testOnlyAcceptsLinksWithTheSecret() {
+        router = router("secret");
+
+        assertFalse(router.linkConnected("s1", "b", null));
+        assertFalse(router.linkConnected("s2", "b", "secreT"));
+        assertFalse(router.linkConnected("s3", "b", "secret2"));
+        assertTrue(router.linkConnected("s4", "b", "secret"));
+        assertFalse(router.isLinkSession("s1"));
+        assertTrue(router.isLinkSession("s4"));
+    }
+
+    @Test
+    void testUnreachableNodeBlocksNoCaller() {
+        router = router("secret");
+        String topic = "/topic/gameDelta/" + lobbyIdOwnedBy("b");
+
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+            router.subscribed("s1", "sub-1", topic);
+            router.forward("b", "/app/rollDice/x", null, new byte[0]);
+            router.unsubscribed("s1", "sub-1");
+            router.subscribed("s1", "sub-2", topic);
+            router.disconnected("s1");
+        });
+        assertFalse(router.isConnected("b"));
+    }
+
+    @Test
+    void testHandoffOnlyTakesOwnedLobbiesItDoesNotHold() {
+        router = router("secret");
+        LobbyRegistry lobbyRegistry = new LobbyRegistry();
+        LobbyDispatcher dispatcher = new LobbyDispatcher(1);
+        LobbyHandoffService handoffService = new LobbyHandoffService(router, lobbyRegistry, mock(LobbyDirectory.class),
+                mock(GameService.class), mock(TurnService.class), mock(GameJournal.class), dispatcher,
+                new ObjectMapper());
+        try {
+            Player intruder = new Player("Intruder", "Intruder", 0, 0, PlayerColor.RED);
+            String foreign = lobbyIdOwnedBy("b");
+            handoffService.take(new LobbyHandoff(foreign, intruder.getPlayerID(),
+                    List.of(GameSnapshot.PlayerState.of(intruder)), null, null));
+            assertEquals(0, lobbyRegistry.getLobbyCount());
+
+            Player host = new Player("Host", "Host", 0, 0, PlayerColor.BLUE);
+            String owned = lobbyIdOwnedBy("a");
+            handoffService.take(new LobbyHandoff(owned, host.getPlayerID(),
+                    List.of(GameSnapshot.PlayerState.of(host)), null, null));
+            handoffService.take(new LobbyHandoff(owned, UUID.randomUUID(),
+                    List.of(GameSnapshot.PlayerState.of(intruder)), null, null));
+
+            assertEquals(1, lobbyRegistry.getLobbyCount());
+            assertEquals(host.getPlayerID(), lobbyRegistry.getLobby(owned).getHostId());
+        } finally {
+            dispatcher.shutdown();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package at.aau.se2.cluedo.services.cluster;
+
+import at.aau.se2.cluedo.CluedoApplication;
+import at.aau.se2.cluedo.config.StompTestSupport.Frame;
+import at.aau.se2.cluedo.services.LobbyRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+
+import static at.aau.se2.cluedo.config.StompTestSupport.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two nodes on localhost, each with its own simple broker; the links between the nodes stand in
+ * for a shared broker.
+ */
+class ShardingIntegrationTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ConfigurableApplicationContext nodeA;
+    private ConfigurableApplicationContext nodeB;
+    private WebSocketStompClient stompClient;
+    private String urlA;
+    private String urlB;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        int portA = freePort();
+        int portB = freePort();
+        urlA = "ws://localhost:" + portA + "/ws";
+        urlB = "ws://localhost:" + portB + "/ws";
+        nodeA = start("a", portA);
+        nodeB = start("b", portB);
+
+        stompClient = stompClient();
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeB.close();
+        nodeA.close();
+    }
+
+    private ConfigurableApplicationContext start(String nodeId, int port) {
+        return SpringApplication.run(CluedoApplication.class,
+                "--server.port=" + port,
+                "--cluedo.cluster.enabled=true",
+                "--cluedo.cluster.node-id=" + nodeId,
+                "--cluedo.cluster.secret=test",
+                "--cluedo.cluster.nodes[0].id=a",
+                "--cluedo.cluster.nodes[0].url=" + urlA,
+                "--cluedo.cluster.nodes[1].id=b",
+                "--cluedo.cluster.nodes[1].url=" + urlB);
+    }
+
+    private int playerCount(Frame lobbyResponse) throws IOException {
+        JsonNode lobby = objectMapper.readTree(lobbyResponse.payload());
+        return lobby.get("players").size();
+    }
+
+    @Test
+    void testLobbiesAreServedAndHandedOverAcrossNodes() throws Exception {
+        ShardRouter routerA = nodeA.getBean(ShardRouter.class);
+        ShardRouter routerB = nodeB.getBean(ShardRouter.class);
+        LobbyRegistry lobbiesA = nodeA.getBean(LobbyRegistry.class);
+        LobbyRegistry lobbiesB = nodeB.getBean(LobbyRegistry.class);
+
+        StompSession host = connect(stompClient, urlA);
+        BlockingQueue<Frame> created = subscribe(host, "/topic/lobbyCreated");
+        host.send("/app/createLobby", player("Host", "RED"));
+        String lobbyId = await(created).text();
+
+        assertEquals("a", routerA.ownerOf(lobbyId));
+        assertEquals("a", routerB.ownerOf(lobbyId));
+        assertNotNull(lobbiesA.getLobby(lobbyId));
+
+        // joined through node b, handled on node a and seen by the clients of both
+        BlockingQueue<Frame> hostUpdates = subscribe(host, "/topic/lobby/" + lobbyId);
+        StompSession guest = connect(stompClient, urlB);
+        BlockingQueue<Frame> guestUpdates = subscribe(guest, "/topic/lobby/" + lobbyId);
+        guest.send("/app/joinLobby/" + lobbyId, player("Guest", "BLUE"));
+
+        assertEquals(2, playerCount(await(guestUpdates)));
+        assertEquals(2, playerCount(await(hostUpdates)));
+        assertEquals(2, lobbiesA.getLobby(lobbyId).getPlayers().size());
+        assertNull(lobbiesB.getLobby(lobbyId));
+
+        // node a leaves, its lobby moves to node b
+        routerB.removeNode("a");
+        routerA.removeNode("a");
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        // node a keeps the lobby until node b answered that it took it
+        while ((lobbiesB.getLobbyCount() == 0 || lobbiesA.getLobbyCount() > 0) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertNotNull(lobbiesB.getLobby(lobbyId));
+        assertEquals(2, lobbiesB.getLobby(lobbyId).getPlayers().size());
+        assertNull(lobbiesA.getLobby(lobbyId));
+
+        guest.send("/app/joinLobby/" + lobbyId, player("Late", "GREEN"));
+        assertEquals(3, playerCount(await(guestUpdates)));
+        assertEquals(3, playerCount(await(hostUpdates)));
+        assertEquals(3, lobbiesB.getLobby(lobbyId).getPlayers().size());
+
+        host.disconnect();
+        guest.disconnect();
+    }
+}
@@ -0,0 +1,83 @@
+package at.aau.se2.cluedo.services.events;
+
+import at.aau.se2.cluedo.services.TurnService.TurnState;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class GameEventPublisherTest {
+
+    private SimpMessagingTemplate messagingTemplate;
+    private MeterRegistry registry;
+    private GameEventPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        registry = new SimpleMeterRegistry();
+        publisher = new GameEventPublisher(messagingTemplate, registry);
+    }
+
+    private static Set<String> fields(Object event) {
+        JsonNode json = new ObjectMapper().valueToTree(event);
+        Set<String> fields = new TreeSet<>();
+        json.fieldNames().forEachRemaining(fields::add);
+        return fields;
+    }
+
+    @Test
+    void testPublishesToLobbyTopic() {
+        GameEvent.DiceRolled event = new GameEvent.DiceRolled("Scarlet", 7, TurnState.PLAYERS_TURN_MOVE);
+
+        publisher.publish("lobby-1", event);
+        publisher.publishTo("lobby-1", "player-2", GameEvent.SuggestionRequested.INSTANCE);
+
+        verify(messagingTemplate).convertAndSend("/topic/diceRolled/lobby-1", (Object) event);
+        verify(messagingTemplate).convertAndSend("/topic/processSuggestion/lobby-1/player-2",
+                (Object) GameEvent.SuggestionRequested.INSTANCE);
+        assertEquals(1, registry.counter("cluedo.events.published", "type", "DiceRolled").count());
+        assertEquals(1, registry.counter("cluedo.events.published", "type", "SuggestionRequested").count());
+        assertEquals(0, registry.counter("cluedo.events.published", "type", "CurrentTurn").count());
+    }
+
+    @Test
+    void testCountsEveryType() {
+        List<String> types = new ArrayList<>();
+        registry.find("cluedo.events.published").counters().forEach(counter -> types.add(counter.getId().getTag("type")));
+
+        assertEquals(GameEvent.class.getPermittedSubclasses().length, types.size());
+        assertTrue(types.contains("CheatingReported"));
+    }
+
+    @Test
+    void testJsonKeepsFieldsOfMessages() {
+        assertEquals(Set.of("player", "diceValue", "turnState"),
+                fields(new GameEvent.DiceRolled("Scarlet", 7, TurnState.PLAYERS_TURN_MOVE)));
+        assertEquals(Set.of("currentPlayer", "turnState", "playerIndex"),
+                fields(new GameEvent.CurrentTurn("Scarlet", TurnState.PLAYERS_TURN_ROLL_DICE, 0)));
+        assertEquals(Set.of("turnState", "lobbyId"), fields(new GameEvent.StateChanged(TurnState.WAITING_FOR_START, "l")));
+        assertEquals(Set.of("success", "player", "playerId", "suspect", "weapon", "room", "message", "lobbyId"),
+                fields(new GameEvent.SuggestionMade(true, "Scarlet", "id", "Mrs. White", "Rope", "Hall", "m", "l")));
+        assertEquals(Set.of("processSuggestion"), fields(GameEvent.SuggestionRequested.INSTANCE));
+        assertEquals(Set.of("player", "x", "y"), fields(new GameEvent.PlayerReset("Scarlet", 1, 2)));
+
+        JsonNode cheating = new ObjectMapper().valueToTree(new GameEvent.CheatingReported("Plum", "Scarlet", false,
+                GameEvent.CheatingReported.Reason.NOT_IN_ROOM));
+        assertEquals("CHEATING_REPORT", cheating.get("type").asText());
+        assertEquals("NOT_IN_ROOM", cheating.get("reason").asText());
+        assertEquals(Set.of("type", "suspect", "accuser", "valid", "reason"), fields(cheating));
+    }
+}
@@ -0,0 +1,104 @@
+package at.aau.se2.cluedo.services.events;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LobbyEventLogTest {
+
+    private static Message<byte[]> broadcast(String destination, int size) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[size], accessor.getMessageHeaders());
+    }
+
+    private static List<Long> seqs(LobbyEventLog.Replay replay) {
+        return replay.entries().stream().map(LobbyEventLog.Entry::seq).toList();
+    }
+
+    @Test
+    void testNumbersBroadcastsPerLobby() {
+        LobbyEventLog log = new LobbyEventLog();
+
+        assertEquals(1, log.append("l1", broadcast("/topic/currentTurn/l1", 10)));
+        assertEquals(2, log.append("l1", broadcast("/topic/diceRolled/l1", 10)));
+        assertEquals(1, log.append("l2", broadcast("/topic/currentTurn/l2", 10)));
+
+        assertEquals(2, log.getLastSeq("l1"));
+        assertEquals(0, log.getLastSeq("unknown"));
+        assertEquals(2, log.getLobbyCount());
+    }
+
+    @Test
+    void testReplaysWhatCameAfterForOneDestination() {
+        LobbyEventLog log = new LobbyEventLog();
+        for (int i = 0; i < 3; i++) {
+            log.append("l1", broadcast("/topic/currentTurn/l1", 10));
+            log.append("l1", broadcast("/topic/diceRolled/l1", 10));
+        }
+
+        LobbyEventLog.Replay replay = log.since("l1", 2, "/topic/currentTurn/l1");
+
+        assertTrue(replay.complete());
+        assertEquals(6, replay.lastSeq());
+        assertEquals(List.of(3L, 5L), seqs(replay));
+        assertEquals(List.of(3L, 4L, 5L, 6L), seqs(log.since("l1", 2, null)));
+        assertEquals(List.of(), seqs(log.since("l1", 6, null)));
+    }
+
+    @Test
+    void testReplayIsIncompleteOnceBroadcastsWereDropped() {
+        LobbyEventLog log = new LobbyEventLog(3, Long.MAX_VALUE);
+        for (int i = 0; i < 5; i++) {
+            log.append("l1", broadcast("/topic/currentTurn/l1", 10));
+        }
+
+        // 3, 4 and 5 are kept
+        assertTrue(log.since("l1", 2, null).complete());
+        LobbyEventLog.Replay tooOld = log.since("l1", 1, null);
+        assertFalse(tooOld.complete());
+        assertEquals(5, tooOld.lastSeq());
+        assertTrue(tooOld.entries().isEmpty());
+    }
+
+    @Test
+    void testDropsOldestOverMaxBytes() {
+        LobbyEventLog log = new LobbyEventLog(100, 250);
+        for (int i = 0; i < 4; i++) {
+            log.append("l1", broadcast("/topic/gameData/l1", 100));
+        }
+
+        assertEquals(List.of(3L, 4L), seqs(log.since("l1", 2, null)));
+        assertFalse(log.since("l1", 1, null).complete());
+        // a single broadcast over the limit is still kept
+        log.append("l2", broadcast("/topic/gameData/l2", 1000));
+        assertEquals(List.of(1L), seqs(log.since("l2", 0, null)));
+    }
+
+    @Test
+    void testUnknownNumbersAreIncomplete() {
+        LobbyEventLog log = new LobbyEventLog();
+        log.append("l1", broadcast("/topic/currentTurn/l1", 10));
+
+        // e.g. numbers from before a restart
+        assertFalse(log.since("l1", 7, null).complete());
+        assertFalse(log.since("unknown", 3, null).complete());
+        assertTrue(log.since("unknown", 0, null).complete());
+    }
+
+    @Test
+    void testRemoveIdle() {
+        LobbyEventLog log = new LobbyEventLog();
+        log.append("l1", broadcast("/topic/currentTurn/l1", 10));
+
+        assertFalse(log.removeIdle("l1", System.nanoTime() - 60_000_000_000L));
+        assertTrue(log.removeIdle("l1", System.nanoTime()));
+        assertEquals(List.of(), log.getLobbyIds());
+    }
+}
@@ -0,0 +1,225 @@
+package at.aau.se2.cluedo.services.journal;
+
+import at.aau.se2.cluedo.models.cards.BasicCard;
+import at.aau.se2.cluedo.models.gamemanager.GameManager;
+import at.aau.se2.cluedo.models.gameobjects.Player;
+import at.aau.se2.cluedo.models.gameobjects.PlayerColor;
+import at.aau.se2.cluedo.models.gameobjects.SecretFile;
+import at.aau.se2.cluedo.services.GameService;
+import at.aau.se2.cluedo.services.LobbyDispatcher;
+import at.aau.se2.cluedo.services.LobbyRegistry;
+import at.aau.se2.cluedo.services.LobbyService;
+import at.aau.se2.cluedo.services.RandomService;
+import at.aau.se2.cluedo.services.TurnService;
+import at.aau.se2.cluedo.services.TurnService.TurnState;
+import at.aau.se2.cluedo.services.events.GameEventPublisher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GameJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private GameJournal journal;
+    private GameService gameService;
+    private TurnService turnService;
+    private LobbyService lobbyService;
+
+    @AfterEach
+    void tearDown() {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void setUp(int snapshotEvery) {
+        journal = new GameJournal(true, directory, snapshotEvery, true);
+        lobbyService = new LobbyService(new LobbyRegistry());
+        ObjectProvider<TurnService> turnServiceProvider = mock(ObjectProvider.class);
+        when(turnServiceProvider.getIfAvailable()).thenAnswer(invocation -> turnService);
+        gameService = new GameService(lobbyService, journal, new RandomService(), turnServiceProvider);
+        turnService = new TurnService(gameService, new GameEventPublisher(mock(SimpMessagingTemplate.class)),
+                new LobbyDispatcher(), journal);
+    }
+
+    private String startGame() {
+        String lobbyId = lobbyService.createLobby(new Player("Alice", "Red", 0, 0, PlayerColor.RED));
+        lobbyService.joinLobby(lobbyId, new Player("Bob", "Blue", 0, 0, PlayerColor.BLUE));
+        lobbyService.joinLobby(lobbyId, new Player("Carol", "Green", 0, 0, PlayerColor.GREEN));
+        gameService.startGameFromLobby(lobbyId);
+        turnService.initializeTurnState(lobbyId);
+        return lobbyId;
+    }
+
+    /**
+     * Rolls, moves and ends the turn of the current player
+     */
+    private void playTurn(String lobbyId) {
+        GameManager game = gameService.getGame(lobbyId);
+        Player player = game.getCurrentPlayer();
+        assertTrue(turnService.processDiceRoll(lobbyId, player.getName(), 6));
+        int[] target = gameService.getReachableTargets(lobbyId, player.getName()).get(0);
+        assertTrue(gameService.moveTo(lobbyId, player.getName(), target[0], target[1]));
+        turnService.endTurn(lobbyId);
+    }
+
+    private void accuseWrong(String lobbyId) {
+        GameManager game = gameService.getGame(lobbyId);
+        SecretFile solution = game.getSecretFile();
+        String wrongWeapon = BasicCard.getWeapons().stream()
+                .filter(weapon -> !weapon.cardEquals(solution.weapon()))
+                .findFirst().orElseThrow().getCardName();
+        assertTrue(turnService.processAccusation(lobbyId, game.getCurrentPlayer().getName(),
+                solution.character().getCardName(), wrongWeapon, solution.room().getCardName()));
+    }
+
+    private GameJournal.RecoveredGame recoverAfterRestart() {
+        journal.close();
+        journal = new GameJournal(true, directory, 1000, true);
+        List<GameJournal.RecoveredGame> recovered = journal.recover();
+        assertEquals(1, recovered.size());
+        return recovered.get(0);
+    }
+
+    private void assertSameGame(GameManager expected, GameManager actual) {
+        assertEquals(expected.getLobbyId(), actual.getLobbyId());
+        assertEquals(expected.getCurrentPlayerIndex(), actual.getCurrentPlayerIndex());
+        assertEquals(expected.getDiceRollS(), actual.getDiceRollS());
+        assertEquals(expected.getRandom().getSeed(), actual.getRandom().getSeed());
+        assertEquals(expected.getRandom().getDraws(), actual.getRandom().getDraws());
+        assertTrue(expected.getSecretFile().weapon().cardEquals(actual.getSecretFile().weapon()));
+        assertEquals(expected.getPlayers().size(), actual.getPlayers().size());
+        for (int i = 0; i < expected.getPlayers().size(); i++) {
+            Player live = expected.getPlayers().get(i);
+            Player restored = actual.getPlayers().get(i);
+            assertEquals(live.getName(), restored.getName());
+            assertEquals(live.getPlayerID(), restored.getPlayerID());
+            assertEquals(live.getX(), restored.getX());
+            assertEquals(live.getY(), restored.getY());
+            assertEquals(live.isActive(), restored.isActive());
+            assertEquals(live.isCurrentPlayer(), restored.isCurrentPlayer());
+            assertEquals(live.getCards().size(), restored.getCards().size());
+        }
+    }
+
+    @Test
+    void testRecoveredGameMatchesLiveGame() throws Exception {
+        setUp(1000);
+        String lobbyId = startGame();
+        playTurn(lobbyId);
+        playTurn(lobbyId);
+        accuseWrong(lobbyId);
+        GameManager game = gameService.getGame(lobbyId);
+        turnService.processDiceRoll(lobbyId, game.getCurrentPlayer().getName(), game.rollDice() + game.rollDice());
+
+        GameJournal.RecoveredGame recovered = recoverAfterRestart();
+
+        assertSameGame(gameService.getGame(lobbyId), recovered.game());
+        assertEquals(turnService.getTurnState(lobbyId), recovered.turnState());
+        assertEquals(TurnState.PLAYERS_TURN_MOVE, recovered.turnState());
+    }
+
+    @Test
+    void testTornLastLineIsIgnored() throws Exception {
+        setUp(1000);
+        String lobbyId = startGame();
+        playTurn(lobbyId);
+        journal.close();
+        Files.writeString(directory.resolve(lobbyId + ".journal"), "{\"seq\":999,\"entry\":{\"type\":\"mov",
+                StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        GameJournal.RecoveredGame recovered = recoverAfterRestart();
+
+        assertSameGame(gameService.getGame(lobbyId), recovered.game());
+        assertEquals(TurnState.PLAYERS_TURN_ROLL_DICE, recovered.turnState());
+    }
+
+    @Test
+    void testDivergedGameIsSkipped() throws Exception {
+        setUp(1000);
+        String broken = startGame();
+        String healthy = startGame();
+        playTurn(broken);
+        playTurn(healthy);
+        journal.close();
+        // the turn went elsewhere than the replay says
+        Files.writeString(directory.resolve(broken + ".journal"),
+                "{\"seq\":999,\"entry\":{\"type\":\"turnChanged\",\"currentPlayerIndex\":7}}\n",
+                StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        GameJournal.RecoveredGame recovered = recoverAfterRestart();
+
+        assertEquals(healthy, recovered.game().getLobbyId());
+        assertFalse(Files.exists(directory.resolve(broken + ".snapshot")));
+        assertTrue(Files.exists(directory.resolve(broken + ".snapshot.broken")));
+        assertTrue(Files.exists(directory.resolve(broken + ".journal.broken")));
+    }
+
+    @Test
+    void testSnapshotCompactsJournal() throws Exception {
+        setUp(1);
+        String lobbyId = startGame();
+        playTurn(lobbyId);
+        playTurn(lobbyId);
+
+        GameJournal.RecoveredGame recovered = recoverAfterRestart();
+
+        assertEquals(0, Files.size(directory.resolve(lobbyId + ".journal")));
+        assertTrue(recovered.seq() > 0);
+        assertSameGame(gameService.getGame(lobbyId), recovered.game());
+    }
+
+    @Test
+    void testFinishedGameIsRemoved() throws Exception {
+        setUp(1000);
+        String lobbyId = startGame();
+        // the last player left wins
+        accuseWrong(lobbyId);
+        accuseWrong(lobbyId);
+        assertEquals(TurnState.PLAYER_HAS_WON, turnService.getTurnState(lobbyId));
+        journal.close();
+
+        assertFalse(Files.exists(directory.resolve(lobbyId + ".snapshot")));
+        assertFalse(Files.exists(directory.resolve(lobbyId + ".journal")));
+    }
+
+    @Test
+    void testCloseDeletesNoFiles() throws IOException {
+        journal = new GameJournal(true, directory, 1000, true);
+        // what an end of the lobby "" would delete
+        Files.writeString(directory.resolve(".journal"), "kept");
+        Files.writeString(directory.resolve(".snapshot"), "kept");
+
+        journal.close();
+
+        assertTrue(Files.exists(directory.resolve(".journal")));
+        assertTrue(Files.exists(directory.resolve(".snapshot")));
+    }
+
+    @Test
+    void testDisabledJournalWritesNothing() throws IOException {
+        GameJournal disabled = new GameJournal(false, directory, 1, true);
+        disabled.append("lobby", new JournalEntry.DiceRolled("Alice", 3, 0));
+
+        assertTrue(disabled.recover().isEmpty());
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+}